@@ -0,0 +1,49 @@
+package com.ecommerce.benchmark.jmh;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** {@code getBaseName()} on active names and on names carrying the soft-delete suffix. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseNameBenchmarks {
+  @Param({"false", "true"})
+  boolean deleted;
+
+  private Product product;
+  private Category category;
+
+  @Setup
+  public void setUp() {
+    String suffix = deleted ? "_deleted_2025-01-31T10:15:30.123456Z" : "";
+    product = Fixtures.product(1, "Wireless noise-cancelling headphones" + suffix);
+    category = new Category("Audio & headphones" + suffix);
+  }
+
+  @Benchmark
+  public String productBaseName() {
+    return product.getBaseName();
+  }
+
+  @Benchmark
+  public String categoryBaseName() {
+    return category.getBaseName();
+  }
+}
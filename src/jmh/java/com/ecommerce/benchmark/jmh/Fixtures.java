@@ -0,0 +1,32 @@
+package com.ecommerce.benchmark.jmh;
+
+import com.ecommerce.entity.Product;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+
+final class Fixtures {
+  private Fixtures() {
+  }
+
+  static Product product(long id, String name) {
+    Product product = new Product();
+    Field idField = ReflectionUtils.findField(Product.class, "id");
+    ReflectionUtils.makeAccessible(idField);
+    ReflectionUtils.setField(idField, product, id);
+    product.setName(name);
+    product.setDescription("Description of " + name);
+    product.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(id % 100)));
+    product.setStockQuantity(1_000);
+    return product;
+  }
+
+  /** A plain proxy rather than a mock, so the benchmark does not measure the mocking library. */
+  @SuppressWarnings("unchecked")
+  static <T> T stub(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+  }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with one from an earlier commit, benchmark by benchmark and
+ * parameter set. A score that is more than {@link #TOLERANCE} worse, and outside both error
+ * margins, counts as a regression and makes the run fail. Without a baseline it only reports
+ * where the results were written.
+ */
+public final class JmhResultComparison {
+  private static final double TOLERANCE = 0.10;
+
+  private JmhResultComparison() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args[1].isBlank()) {
+      System.out.println("JMH results written to " + args[0]
+          + "; pass -Djmh.baseline=<file> to compare them with an earlier run.");
+      return;
+    }
+    Map<String, Score> current = read(new File(args[0]));
+    Map<String, Score> baseline = read(new File(args[1]));
+
+    int regressions = 0;
+    System.out.printf("%-90s %14s %14s %8s%n", "benchmark", "baseline", "current", "change");
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score now = entry.getValue();
+      Score before = baseline.get(entry.getKey());
+      if (before == null) {
+        System.out.printf("%-90s %14s %14.3f %8s%n", entry.getKey(), "-", now.value(), "new");
+        continue;
+      }
+      double change = (now.value() - before.value()) / before.value();
+      double worse = now.higherIsBetter() ? -change : change;
+      boolean regression = worse > TOLERANCE
+          && Math.abs(now.value() - before.value()) > now.error() + before.error();
+      if (regression) {
+        regressions++;
+      }
+      System.out.printf("%-90s %14.3f %14.3f %+7.1f%%%s%n", entry.getKey(), before.value(),
+          now.value(), change * 100, regression ? "  REGRESSION" : "");
+    }
+    if (regressions > 0) {
+      System.out.println(regressions + " benchmark(s) regressed by more than "
+          + Math.round(TOLERANCE * 100) + "% against " + args[1]);
+      System.exit(1);
+    }
+  }
+
+  private static Map<String, Score> read(File file) throws IOException {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (JsonNode result : new ObjectMapper().readTree(file)) {
+      Map<String, String> params = new TreeMap<>();
+      result.path("params").properties()
+          .forEach(param -> params.put(param.getKey(), param.getValue().asText()));
+      JsonNode metric = result.get("primaryMetric");
+      String key = result.get("benchmark").asText() + (params.isEmpty() ? "" : " " + params);
+      double error = metric.path("scoreError").asDouble(0);
+      scores.put(key, new Score(metric.get("score").asDouble(),
+          Double.isNaN(error) ? 0 : error, result.get("mode").asText().equals("thrpt")));
+    }
+    return scores;
+  }
+
+  private record Score(double value, double error, boolean higherIsBetter) {
+  }
+}
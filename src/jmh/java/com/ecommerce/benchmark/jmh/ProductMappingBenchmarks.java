@@ -0,0 +1,51 @@
+package com.ecommerce.benchmark.jmh;
+
+import com.ecommerce.dto.ProductViewDto;
+import com.ecommerce.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@link ProductViewDto#fromEntity} for one product and for a catalog page of them. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmarks {
+  @Param({"12", "100"})
+  int pageSize;
+
+  private List<Product> page;
+
+  @Setup
+  public void setUp() {
+    page = new ArrayList<>();
+    for (int i = 0; i < pageSize; i++) {
+      page.add(Fixtures.product(i, "Product " + i));
+    }
+  }
+
+  @Benchmark
+  public ProductViewDto fromEntity() {
+    return ProductViewDto.fromEntity(page.getFirst(), 2);
+  }
+
+  @Benchmark
+  public List<ProductViewDto> fromEntityPage() {
+    return page.stream().map(product -> ProductViewDto.fromEntity(product, 0)).toList();
+  }
+}
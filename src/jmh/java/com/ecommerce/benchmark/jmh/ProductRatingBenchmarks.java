@@ -0,0 +1,56 @@
+package com.ecommerce.benchmark.jmh;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Review;
+import com.ecommerce.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Product#recalculateRating()} walks every review on each add or remove, so its cost
+ * grows with the product's review count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductRatingBenchmarks {
+  @Param({"10", "1000", "100000"})
+  int reviewCount;
+
+  private Product product;
+
+  @Setup
+  public void setUp() {
+    product = Fixtures.product(1, "Rated product");
+    for (int i = 0; i < reviewCount; i++) {
+      User user = new User();
+      user.setUsername("user" + i);
+      Review review = new Review();
+      review.setUser(user);
+      review.setProduct(product);
+      review.setRating(1 + i % 5);
+      product.getReviews().add(review);
+    }
+  }
+
+  @Benchmark
+  public BigDecimal recalculateRating() {
+    product.recalculateRating();
+    return product.getAverageRating();
+  }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.benchmark.jmh;
+
+import com.ecommerce.cache.StockAdmissionGate;
+import com.ecommerce.cart.ShoppingCart;
+import com.ecommerce.dto.CartViewDto;
+import com.ecommerce.dto.ProductViewDto;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CartServiceImpl;
+import com.ecommerce.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The anonymous cart view: products are looked up in one batch, then every session item is
+ * mapped and totalled. The repository answers from memory, so this is the service's own work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionCartViewBenchmarks {
+  @Param({"1", "10", "50"})
+  int items;
+
+  private CartServiceImpl cartService;
+
+  @Setup
+  public void setUp() {
+    List<Product> products = new ArrayList<>();
+    ShoppingCart sessionCart = new ShoppingCart();
+    for (int i = 0; i < items; i++) {
+      Product product = Fixtures.product(i, "Product " + i);
+      products.add(product);
+      sessionCart.addItem(ProductViewDto.fromEntity(product, 0), 1 + i % 3);
+    }
+    ProductRepository productRepository = Fixtures.stub(ProductRepository.class,
+        (_, method, _) -> {
+          if (method.getName().equals("findAllById")) {
+            return products;
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+    UserService anonymous = Fixtures.stub(UserService.class, (_, _, _) -> null);
+    cartService = new CartServiceImpl(productRepository,
+        Fixtures.stub(CartRepository.class, (_, method, _) -> {
+          throw new UnsupportedOperationException(method.getName());
+        }),
+        sessionCart, anonymous, new ReentrantLock(), new StockAdmissionGate(16, 100, 32));
+  }
+
+  @Benchmark
+  public CartViewDto getSessionCartView() {
+    return cartService.getCartForCurrentUser();
+  }
+}
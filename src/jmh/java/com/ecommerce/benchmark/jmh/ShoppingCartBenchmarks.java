@@ -0,0 +1,75 @@
+package com.ecommerce.benchmark.jmh;
+
+import com.ecommerce.cart.ShoppingCart;
+import com.ecommerce.dto.ProductViewDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The session cart is one synchronized map per session, so concurrent tabs or double-clicks
+ * contend on it. {@code contended} runs three adding threads against one reading the total.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShoppingCartBenchmarks {
+  @Param({"5", "50"})
+  int distinctProducts;
+
+  private ShoppingCart cart;
+  private ProductViewDto[] products;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    cart = new ShoppingCart();
+    products = new ProductViewDto[distinctProducts];
+    for (int i = 0; i < distinctProducts; i++) {
+      products[i] = new ProductViewDto((long) i, "Product " + i, "Description", 1_000,
+          new BigDecimal("19.99").add(BigDecimal.valueOf(i)), BigDecimal.ZERO, 0, 0);
+      cart.addItem(products[i], 1);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Cursor {
+    int next;
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(3)
+  public void addItem(Cursor cursor) {
+    cart.addItem(products[cursor.next++ % products.length], 1);
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(1)
+  public BigDecimal getTotalAmount() {
+    return cart.getTotalAmount();
+  }
+
+  @Benchmark
+  @Group("uncontended")
+  public BigDecimal getTotalAmountAlone() {
+    return cart.getTotalAmount();
+  }
+}
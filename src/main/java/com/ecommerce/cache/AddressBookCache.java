@@ -0,0 +1,45 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.dto.AddressViewDto;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Address book per user id. A user has at most five addresses, so an entry stays tiny; it is
+ * dropped after a save or delete commits. Other instances only see the change once their entry
+ * expires, so the TTL is kept short.
+ */
+@Component
+public class AddressBookCache {
+  static final int MAX_ENTRIES = 10_000;
+  static final Duration TTL = Duration.ofMinutes(1);
+
+  private final BoundedTtlCache<Long, List<AddressViewDto>> entries =
+      new BoundedTtlCache<>(MAX_ENTRIES, TTL);
+
+  /**
+   * Returns the cached address book, or loads and caches it. The loaded rows are only stored if
+   * the entry was not invalidated while they were read, so a load that raced a save cannot put
+   * the old rows back.
+   */
+  public List<AddressViewDto> getOrLoad(Long userId, Supplier<List<AddressViewDto>> loader) {
+    BoundedTtlCache.Lookup<Long, List<AddressViewDto>> lookup = entries.lookup(userId);
+    if (lookup.value() != null) {
+      return lookup.value();
+    }
+    List<AddressViewDto> addresses = List.copyOf(loader.get());
+    entries.put(lookup, addresses);
+    return addresses;
+  }
+
+  public void invalidate(Long userId) {
+    entries.invalidate(userId);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+}
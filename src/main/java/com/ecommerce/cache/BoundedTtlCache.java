@@ -0,0 +1,159 @@
+package com.ecommerce.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded map whose entries expire a fixed time after they were written; the storage behind the
+ * in-process caches in this package. Reads take no lock and change nothing but an expired
+ * entry. Once the map grows past its bound, one writer drops the expired entries and then the
+ * oldest ones until a tenth of the room is free again.
+ *
+ * <p>{@link #lookup} and {@link #put(Lookup, Object)} fill the cache after a miss without
+ * racing {@link #invalidate}: the put is dropped if the entry was written or invalidated since
+ * the lookup, so a value loaded before a change cannot be stored after it. {@link #invalidate}
+ * leaves a marker for that purpose, which expires like any entry.
+ */
+public class BoundedTtlCache<K, V> {
+  private final Map<K, Slot<V>> slots = new ConcurrentHashMap<>();
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final ReentrantLock trimLock = new ReentrantLock();
+
+  public BoundedTtlCache(int maxEntries, Duration ttl) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("A cache must hold at least one entry");
+    }
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+  }
+
+  /** The live value for {@code key}, or {@code null}. */
+  public V get(K key) {
+    Slot<V> slot = slots.get(key);
+    if (slot == null) {
+      return null;
+    }
+    if (slot.isExpired(System.nanoTime())) {
+      slots.remove(key, slot);
+      return null;
+    }
+    return slot.value;
+  }
+
+  /** Reads {@code key} and remembers which entry was seen, for {@link #put(Lookup, Object)}. */
+  public Lookup<K, V> lookup(K key) {
+    Slot<V> slot = slots.get(key);
+    V value = slot == null || slot.isExpired(System.nanoTime()) ? null : slot.value;
+    return new Lookup<>(key, slot, value);
+  }
+
+  public void put(K key, V value) {
+    slots.put(key, newSlot(Objects.requireNonNull(value)));
+    trimIfFull();
+  }
+
+  /**
+   * Stores {@code value} unless the entry for the looked-up key was written or invalidated in
+   * the meantime.
+   *
+   * @return whether the value was stored
+   */
+  public boolean put(Lookup<K, V> lookup, V value) {
+    Slot<V> slot = newSlot(Objects.requireNonNull(value));
+    boolean stored = lookup.slot == null
+        ? slots.putIfAbsent(lookup.key, slot) == null
+        : slots.replace(lookup.key, lookup.slot, slot);
+    if (stored) {
+      trimIfFull();
+    }
+    return stored;
+  }
+
+  public void invalidate(K key) {
+    slots.put(key, newSlot(null));
+    trimIfFull();
+  }
+
+  /** Drops every entry. Lookups made before the call may still fill their key afterwards. */
+  public void clear() {
+    slots.clear();
+  }
+
+  /** Live values; walks the map, so it is meant for gauges and tests. */
+  public int size() {
+    long now = System.nanoTime();
+    int size = 0;
+    for (Slot<V> slot : slots.values()) {
+      if (slot.value != null && !slot.isExpired(now)) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  private Slot<V> newSlot(V value) {
+    return new Slot<>(value, System.nanoTime() + ttlNanos);
+  }
+
+  private void trimIfFull() {
+    if (slots.size() <= maxEntries || !trimLock.tryLock()) {
+      return;
+    }
+    try {
+      long now = System.nanoTime();
+      slots.entrySet().removeIf(entry -> entry.getValue().isExpired(now));
+      int excess = slots.size() - maxEntries * 9 / 10;
+      if (excess <= 0) {
+        return;
+      }
+      // Every entry lives for the same TTL, so the earliest expiry is the oldest write.
+      List<Map.Entry<K, Slot<V>>> oldest = new ArrayList<>(slots.entrySet());
+      oldest.sort(Comparator.comparingLong(entry -> entry.getValue().expiresAt - now));
+      for (Map.Entry<K, Slot<V>> entry : oldest.subList(0, Math.min(excess, oldest.size()))) {
+        slots.remove(entry.getKey(), entry.getValue());
+      }
+    } finally {
+      trimLock.unlock();
+    }
+  }
+
+  /** What {@link #lookup} saw: the live value, if any, and the entry a later put checks. */
+  public static final class Lookup<K, V> {
+    private final K key;
+    private final Slot<V> slot;
+    private final V value;
+
+    private Lookup(K key, Slot<V> slot, V value) {
+      this.key = key;
+      this.slot = slot;
+      this.value = value;
+    }
+
+    /** The live value, or {@code null} on a miss. */
+    public V value() {
+      return value;
+    }
+  }
+
+  /** Compared by identity, so a put only replaces the exact entry its lookup saw. */
+  private static final class Slot<V> {
+    private final V value;
+    private final long expiresAt;
+
+    private Slot(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired(long now) {
+      return now - expiresAt >= 0;
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.dto.CurrentUser;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class CurrentUserCache {
+  static final int MAX_ENTRIES = 10_000;
+  static final Duration TTL = Duration.ofSeconds(60);
+
+  private final BoundedTtlCache<String, CurrentUser> entries =
+      new BoundedTtlCache<>(MAX_ENTRIES, TTL);
+
+  public Optional<CurrentUser> find(String username) {
+    return Optional.ofNullable(entries.get(username));
+  }
+
+  public void put(CurrentUser currentUser) {
+    entries.put(currentUser.username(), currentUser);
+  }
+
+  public void invalidate(String username) {
+    entries.invalidate(username);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+}
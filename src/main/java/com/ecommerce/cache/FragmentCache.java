@@ -0,0 +1,72 @@
+package com.ecommerce.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Rendered HTML of template fragments, one entry per (fragment, id) holding the version it was
+ * rendered at. The version is read from the database together with the data the fragment shows,
+ * so a lookup with any other version misses and a re-render replaces the entry in place. Entries
+ * also expire after {@code ecommerce.web.fragment-cache.ttl}, as a backstop for writes that do
+ * not move the version.
+ */
+@Component
+public class FragmentCache {
+  static final int MAX_ENTRIES = 10_000;
+
+  private final BoundedTtlCache<Key, Entry> entries;
+
+  public FragmentCache(@Value("${ecommerce.web.fragment-cache.ttl:10m}") Duration ttl) {
+    this.entries = new BoundedTtlCache<>(MAX_ENTRIES, ttl);
+  }
+
+  /** Returns a token for {@link #put}, or the cached HTML when there is a live entry. */
+  public Lookup find(String fragment, Object id, Object version) {
+    BoundedTtlCache.Lookup<Key, Entry> lookup = entries.lookup(new Key(fragment, id));
+    Entry entry = lookup.value();
+    String html = entry != null && entry.version().equals(version) ? entry.html() : null;
+    return new Lookup(lookup, version, html);
+  }
+
+  /**
+   * Stores what was rendered after {@code lookup} missed. The put is dropped when another render
+   * replaced the entry in the meantime, so a slow render of older data cannot overwrite it.
+   */
+  public void put(Lookup lookup, String html) {
+    entries.put(lookup.lookup, new Entry(lookup.version, html));
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /** The outcome of {@link #find}: the cached HTML on a hit, and what {@link #put} checks. */
+  public static final class Lookup {
+    private final BoundedTtlCache.Lookup<Key, Entry> lookup;
+    private final Object version;
+    private final String html;
+
+    private Lookup(BoundedTtlCache.Lookup<Key, Entry> lookup, Object version, String html) {
+      this.lookup = lookup;
+      this.version = Objects.requireNonNull(version);
+      this.html = html;
+    }
+
+    public String html() {
+      return html;
+    }
+  }
+
+  private record Key(String fragment, Object id) {
+  }
+
+  private record Entry(Object version, String html) {
+  }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.engine.TemplateManager;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.processor.element.AbstractAttributeModelProcessor;
+import org.thymeleaf.processor.element.IElementModelStructureHandler;
+import org.thymeleaf.standard.StandardDialect;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Set;
+
+/**
+ * Adds {@code ec:cache-product="${product.id}" ec:cache-version="${version}"}: the element is
+ * rendered once per product version and served from {@link FragmentCache} afterwards. The
+ * version must come from the same read as the data the element shows, such as the product's
+ * {@code updated_at}, so cached markup always matches its key. The cached markup must depend on
+ * the product alone; anything per request or per user, such as the CSRF field or the return URL,
+ * has to stay outside the element. Without a cache, as in web slice tests, or without a version,
+ * the attributes are dropped and the element renders normally.
+ */
+@Component
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+  public static final String PREFIX = "ec";
+  static final String PRODUCT_FRAGMENT = "product";
+  private static final String VERSION_ATTRIBUTE = "cache-version";
+
+  private final FragmentCache fragmentCache;
+  private final boolean enabled;
+
+  public FragmentCacheDialect(ObjectProvider<FragmentCache> fragmentCacheProvider,
+      @Value("${ecommerce.web.fragment-cache.enabled:true}") boolean enabled) {
+    super("Fragment cache", PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+    this.fragmentCache = fragmentCacheProvider.getIfAvailable();
+    this.enabled = enabled && fragmentCache != null;
+  }
+
+  @Override
+  public Set<IProcessor> getProcessors(String dialectPrefix) {
+    return Set.of(new CacheProductProcessor(dialectPrefix));
+  }
+
+  private class CacheProductProcessor extends AbstractAttributeModelProcessor {
+
+    CacheProductProcessor(String dialectPrefix) {
+      // Ahead of every standard processor, so the element reaches it unprocessed.
+      super(TemplateMode.HTML, dialectPrefix, null, false, "cache-product", true, 0, true);
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IModel model, AttributeName attributeName,
+        String attributeValue, IElementModelStructureHandler structureHandler) {
+      IProcessableElementTag tag = (IProcessableElementTag) model.get(0);
+      String versionExpression = tag.getAttributeValue(getDialectPrefix(), VERSION_ATTRIBUTE);
+      model.replace(0, context.getModelFactory()
+          .removeAttribute(tag, getDialectPrefix(), VERSION_ATTRIBUTE));
+      if (!enabled || versionExpression == null) {
+        return;
+      }
+      Object productId = evaluate(context, attributeValue);
+      Object version = evaluate(context, versionExpression);
+      if (!(productId instanceof Long id) || version == null) {
+        return;
+      }
+      FragmentCache.Lookup lookup = fragmentCache.find(PRODUCT_FRAGMENT, id, version);
+      String html = lookup.html();
+      if (html == null) {
+        html = render(context, model, attributeName);
+        fragmentCache.put(lookup, html);
+      }
+      model.reset();
+      model.add(context.getModelFactory().createText(html));
+    }
+
+    private Object evaluate(ITemplateContext context, String expression) {
+      return StandardExpressions.getExpressionParser(context.getConfiguration())
+          .parseExpression(context, expression)
+          .execute(context);
+    }
+
+    /**
+     * Processes the element in the current context, so local variables such as the
+     * {@code th:each} iterator are in scope, and returns the output instead of writing it.
+     */
+    private String render(ITemplateContext context, IModel model, AttributeName attributeName) {
+      IModel element = model.cloneModel();
+      element.replace(0, context.getModelFactory()
+          .removeAttribute((IProcessableElementTag) element.get(0), attributeName));
+      StringWriter markup = new StringWriter();
+      try {
+        element.write(markup);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      TemplateManager templateManager = context.getConfiguration().getTemplateManager();
+      TemplateModel template = templateManager.parseString(context.getTemplateData(),
+          markup.toString(), 0, 0, TemplateMode.HTML, true);
+      StringWriter output = new StringWriter();
+      templateManager.process(template, context, output);
+      return output.toString();
+    }
+  }
+}
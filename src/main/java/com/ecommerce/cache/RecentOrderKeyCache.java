@@ -0,0 +1,26 @@
+package com.ecommerce.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class RecentOrderKeyCache {
+  static final int MAX_ENTRIES = 10_000;
+  static final Duration TTL = Duration.ofMinutes(30);
+
+  private final BoundedTtlCache<String, Long> entries = new BoundedTtlCache<>(MAX_ENTRIES, TTL);
+
+  public Optional<Long> findOrderId(String idempotencyKey) {
+    return Optional.ofNullable(entries.get(idempotencyKey));
+  }
+
+  public void put(String idempotencyKey, Long orderId) {
+    entries.put(idempotencyKey, orderId);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+}
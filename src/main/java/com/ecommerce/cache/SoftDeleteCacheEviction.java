@@ -0,0 +1,48 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import org.hibernate.Cache;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Keeps the second-level cache in line with {@code @SQLRestriction("is_deleted = false")}. The
+ * restriction is part of every SQL load, but a cache hit skips SQL, so a product soft-deleted
+ * through an entity update would still be found by id. Once such an update commits, the product
+ * is evicted and the next lookup goes to the database, where the restriction hides it.
+ * <p>
+ * Cached {@code Product.categories} collections hold category ids, and the SQL that filled them
+ * left out deleted categories. After any category update, which is a rare admin action, the
+ * whole collection region is dropped, so deleting or restoring a category shows up in every
+ * product's categories.
+ */
+public class SoftDeleteCacheEviction implements PostCommitUpdateEventListener {
+  static final String PRODUCT_CATEGORIES = Product.class.getName() + ".categories";
+
+  private final Cache cache;
+
+  public SoftDeleteCacheEviction(Cache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    if (event.getEntity() instanceof Product product && product.isDeleted()) {
+      cache.evictEntityData(Product.class, event.getId());
+    } else if (event.getEntity() instanceof Category) {
+      cache.evictCollectionData(PRODUCT_CATEGORIES);
+    }
+  }
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    Class<?> entityClass = persister.getMappedClass();
+    return entityClass == Product.class || entityClass == Category.class;
+  }
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.exception.CheckoutBusyException;
+import com.ecommerce.exception.InsufficientStockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory admission control in front of checkout. Keeps an approximate count of the units
+ * left per product, loaded from the database and reloaded after {@link #TTL}, so requests for
+ * sold-out products are turned away without touching the database. The database stock check
+ * in checkout stays authoritative; this only filters out requests that cannot succeed.
+ * Admission runs before the order transaction opens, so queued requests hold no connection, and
+ * at most half of the connection pool can be checking out one product.
+ */
+@Component
+public class StockAdmissionGate {
+  static final Duration TTL = Duration.ofSeconds(30);
+
+  private final ConcurrentMap<Long, Counter> counters = new ConcurrentHashMap<>();
+  private final int maxConcurrentCheckouts;
+  private final long queueTimeoutMillis;
+
+  public StockAdmissionGate(
+      @Value("${ecommerce.flash-sale.max-concurrent-checkouts-per-product:4}")
+      int maxConcurrentCheckouts,
+      @Value("${ecommerce.flash-sale.queue-timeout-ms:2000}")
+      long queueTimeoutMillis,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+      int connectionPoolSize) {
+    this.maxConcurrentCheckouts =
+        Math.min(maxConcurrentCheckouts, Math.max(1, connectionPoolSize / 2));
+    this.queueTimeoutMillis = queueTimeoutMillis;
+  }
+
+  public int getMaxConcurrentCheckouts() {
+    return maxConcurrentCheckouts;
+  }
+
+  public boolean isSoldOut(Long productId) {
+    Counter counter = counters.get(productId);
+    return counter != null && counter.isFresh() && counter.remaining.get() <= 0;
+  }
+
+  public Admission admit(Map<Long, Integer> quantities, Function<Long, Integer> stockLoader) {
+    Admission admission = new Admission();
+    try {
+      for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+        Long productId = entry.getKey();
+        int quantity = entry.getValue();
+        Counter counter = counters.computeIfAbsent(productId,
+            _ -> new Counter(maxConcurrentCheckouts));
+        if (!counter.refreshIfStale(productId, stockLoader)) {
+          counters.remove(productId, counter);
+          continue;
+        }
+        if (!counter.tryReserve(quantity)) {
+          throw new InsufficientStockException("Not enough stock for product with ID " +
+              productId + ".");
+        }
+        admission.reservations.add(new Reservation(counter, quantity));
+        if (!counter.permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+          throw new CheckoutBusyException("Too many checkouts in progress for product with ID " +
+              productId + ". Please try again.");
+        }
+        admission.permits.add(counter);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      admission.cancel();
+      throw new CheckoutBusyException("Checkout was interrupted. Please try again.");
+    } catch (RuntimeException e) {
+      admission.cancel();
+      throw e;
+    }
+    return admission;
+  }
+
+  public void invalidate(Long productId) {
+    Counter counter = counters.get(productId);
+    if (counter != null) {
+      counter.loadedAt = 0;
+    }
+  }
+
+  public int size() {
+    return counters.size();
+  }
+
+  public static final class Admission {
+    private final List<Reservation> reservations = new ArrayList<>();
+    private final List<Counter> permits = new ArrayList<>();
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    /**
+     * Called once the order has been committed; the reserved units are now reflected in the
+     * database, so they stop counting as in-flight.
+     */
+    public void complete() {
+      if (finished.compareAndSet(false, true)) {
+        reservations.forEach(r -> r.counter().inFlight.addAndGet(-r.quantity()));
+        permits.forEach(counter -> counter.permits.release());
+      }
+    }
+
+    /**
+     * Called when the order was not placed; the reserved units go back to the counter.
+     */
+    public void cancel() {
+      if (finished.compareAndSet(false, true)) {
+        reservations.forEach(r -> r.counter().release(r.quantity()));
+        permits.forEach(counter -> counter.permits.release());
+      }
+    }
+  }
+
+  private record Reservation(Counter counter, int quantity) {
+  }
+
+  private static final class Counter {
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Semaphore permits;
+    // Not synchronized: a virtual thread blocked on the stock query must not pin its carrier.
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile long loadedAt;
+
+    private Counter(int maxConcurrentCheckouts) {
+      this.permits = new Semaphore(maxConcurrentCheckouts, true);
+    }
+
+    private boolean isFresh() {
+      return loadedAt != 0 && System.nanoTime() - loadedAt < TTL.toNanos();
+    }
+
+    private boolean refreshIfStale(Long productId, Function<Long, Integer> stockLoader) {
+      if (isFresh()) {
+        return true;
+      }
+      refreshLock.lock();
+      try {
+        if (isFresh()) {
+          return true;
+        }
+        Integer stock = stockLoader.apply(productId);
+        if (stock == null) {
+          return false;
+        }
+        // Stock read from the database does not include orders still in flight.
+        remaining.set(stock - inFlight.get());
+        loadedAt = System.nanoTime();
+        return true;
+      } finally {
+        refreshLock.unlock();
+      }
+    }
+
+    private boolean tryReserve(int quantity) {
+      int current;
+      do {
+        current = remaining.get();
+        if (current < quantity) {
+          return false;
+        }
+      } while (!remaining.compareAndSet(current, current - quantity));
+      inFlight.addAndGet(quantity);
+      return true;
+    }
+
+    private void release(int quantity) {
+      remaining.addAndGet(quantity);
+      inFlight.addAndGet(-quantity);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, expiring {@link UserCache} used by form login and remember-me. Entries are copied
+ * on the way in and out because the authentication manager erases credentials on the
+ * {@link UserDetails} it returns. A hit still costs a read of the stored hash, since the cache
+ * is per instance and a password may be changed through another one.
+ */
+@Component
+public class UserDetailsCache implements UserCache {
+  static final int MAX_ENTRIES = 10_000;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final BoundedTtlCache<String, UserDetails> entries;
+  private final MeterRegistry meterRegistry;
+
+  public UserDetailsCache(
+      @Value("${ecommerce.security.user-cache-ttl-seconds:300}") long ttlSeconds,
+      MeterRegistry meterRegistry) {
+    this.entries = new BoundedTtlCache<>(MAX_ENTRIES, Duration.ofSeconds(ttlSeconds));
+    this.meterRegistry = meterRegistry;
+  }
+
+  /** The gauges hold on to this cache, so they are registered once it is fully built. */
+  @PostConstruct
+  public void registerMeters() {
+    FunctionCounter.builder("ecommerce.user.cache.requests", hits, AtomicLong::get)
+        .tag("result", "hit")
+        .register(meterRegistry);
+    FunctionCounter.builder("ecommerce.user.cache.requests", misses, AtomicLong::get)
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("ecommerce.user.cache.hit.ratio", this, UserDetailsCache::hitRatio)
+        .register(meterRegistry);
+    Gauge.builder("ecommerce.user.cache.size", this, UserDetailsCache::size)
+        .register(meterRegistry);
+  }
+
+  @Override
+  public UserDetails getUserFromCache(String username) {
+    UserDetails user = entries.get(username);
+    if (user == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return User.withUserDetails(user).build();
+  }
+
+  @Override
+  public void putUserInCache(UserDetails user) {
+    entries.put(user.getUsername(), User.withUserDetails(user).build());
+  }
+
+  @Override
+  public void removeUserFromCache(String username) {
+    entries.invalidate(username);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public double hitRatio() {
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+    return total == 0 ? 0.0 : (double) hitCount / total;
+  }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.dto.UserInfoDto;
+import com.ecommerce.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Profile details shown in the user-info modal, per username. The form binds to the returned
+ * object, so it is a copy of what is cached. {@code UserInfoController} drops the entry after an
+ * update; other instances pick the change up once it expires.
+ */
+@Component
+public class UserInfoCache {
+  static final int MAX_ENTRIES = 10_000;
+
+  private final UserService userService;
+  private final BoundedTtlCache<String, UserInfoDto> entries;
+
+  public UserInfoCache(UserService userService,
+      @Value("${ecommerce.web.user-info-cache-ttl-seconds:30}") long ttlSeconds) {
+    this.userService = userService;
+    this.entries = new BoundedTtlCache<>(MAX_ENTRIES, Duration.ofSeconds(ttlSeconds));
+  }
+
+  /** Returns the current user's details, loading the user only on a miss. */
+  public UserInfoDto getCurrentUserInfo() {
+    String username = SecurityContextHolder.getContext().getAuthentication().getName();
+    BoundedTtlCache.Lookup<String, UserInfoDto> lookup = entries.lookup(username);
+    UserInfoDto userInfo = lookup.value();
+    if (userInfo == null) {
+      userInfo = UserInfoDto.fromEntity(userService.getCurrentUser());
+      entries.put(lookup, copyOf(userInfo));
+    }
+    return copyOf(userInfo);
+  }
+
+  public void invalidate(String username) {
+    entries.invalidate(username);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private static UserInfoDto copyOf(UserInfoDto userInfo) {
+    return new UserInfoDto(userInfo.getFirstName(), userInfo.getLastName(),
+        userInfo.getPhoneNumber(), userInfo.getEmail());
+  }
+}
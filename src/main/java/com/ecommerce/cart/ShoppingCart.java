@@ -1,5 +1,6 @@
 package com.ecommerce.cart;
 
+import com.ecommerce.config.SessionChangeTracking;
 import com.ecommerce.dto.ProductViewDto;
 import com.ecommerce.exception.InsufficientStockException;
 import org.springframework.stereotype.Component;
@@ -14,8 +15,9 @@ import java.util.Map;
 
 @Component
 @SessionScope
-public class ShoppingCart implements Serializable {
+public class ShoppingCart implements Serializable, SessionChangeTracking {
   private final Map<Long, CartSessionItem> items = new HashMap<>();
+  private transient boolean modified;
 
   public synchronized void addItem(ProductViewDto product, int quantity) {
     if (product.stockQuantity() < quantity) {
@@ -29,6 +31,7 @@ public class ShoppingCart implements Serializable {
     } else {
       items.put(product.id(), new CartSessionItem(product, quantity));
     }
+    modified = true;
   }
 
   public synchronized void updateItemQuantity(Long productId, int quantity) {
@@ -40,11 +43,14 @@ public class ShoppingCart implements Serializable {
       }
       ProductViewDto product = item.product();
       items.put(productId, new CartSessionItem(product, quantity));
+      modified = true;
     }
   }
 
   public synchronized void removeItem(Long productId) {
-    items.remove(productId);
+    if (items.remove(productId) != null) {
+      modified = true;
+    }
   }
 
   public synchronized Collection<CartSessionItem> getItems() {
@@ -52,7 +58,10 @@ public class ShoppingCart implements Serializable {
   }
 
   public synchronized void clear() {
-    items.clear();
+    if (!items.isEmpty()) {
+      items.clear();
+      modified = true;
+    }
   }
 
   public synchronized BigDecimal getTotalAmount() {
@@ -60,4 +69,14 @@ public class ShoppingCart implements Serializable {
         .map(item -> item.product().price().multiply(new BigDecimal(item.quantity())))
         .reduce(BigDecimal.ZERO, BigDecimal::add);
   }
+
+  @Override
+  public synchronized boolean isModified() {
+    return modified;
+  }
+
+  @Override
+  public synchronized void clearModified() {
+    modified = false;
+  }
 }
@@ -1,10 +1,17 @@
 package com.ecommerce.config;
 
+import com.ecommerce.security.BCryptStrengthCalibrator;
+import com.ecommerce.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -17,8 +24,60 @@ public class AppConfig {
   }
 
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  public PasswordEncoder passwordEncoder(
+      ThreadPoolTaskExecutor passwordHashingExecutor,
+      @Value("${ecommerce.security.password-hash-target-ms:250}") long targetMillis,
+      @Value("${ecommerce.security.password-hash-strength:0}") int fixedStrength,
+      @Value("${ecommerce.security.password-hashing-queue-timeout-ms:2000}") long queueTimeoutMillis) {
+    // Instances that calibrate to different strengths would rehash each other's hashes, so a
+    // cluster of unlike hosts should pin one.
+    int strength = fixedStrength > 0
+        ? fixedStrength
+        : BCryptStrengthCalibrator.calibrate(targetMillis);
+    DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+        Map.of("bcrypt", BCryptStrengthCalibrator.encoderFor(strength)));
+    // Hashes stored before the {bcrypt} prefix was introduced are plain BCrypt.
+    encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+    return new BoundedPasswordEncoder(encoder, passwordHashingExecutor, queueTimeoutMillis);
+  }
+
+  @Bean
+  public ThreadPoolTaskExecutor passwordHashingExecutor(
+      @Value("${ecommerce.security.password-hashing-threads:0}") int threads,
+      @Value("${ecommerce.security.password-hashing-queue-capacity:200}") int queueCapacity) {
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(poolSize);
+    executor.setMaxPoolSize(poolSize);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("password-hash-");
+    return executor;
+  }
+
+  /**
+   * Two workers either way, so SMTP sees the same number of connections; in virtual-thread
+   * mode they are virtual and do not hold a carrier while waiting on the mail server.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor mailTaskExecutor(
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(2);
+    executor.setMaxPoolSize(2);
+    executor.setQueueCapacity(1_000);
+    executor.setThreadNamePrefix("mail-");
+    if (virtualThreads) {
+      executor.setThreadFactory(new VirtualThreadTaskExecutor("mail-").getVirtualThreadFactory());
+    }
+    return executor;
   }
-}
 
+  /**
+   * Writes stock stream events. A send blocks for as long as the client is slow to read, so
+   * every drain gets its own virtual thread rather than a slot in a small platform pool.
+   */
+  @Bean
+  public VirtualThreadTaskExecutor streamTaskExecutor() {
+    return new VirtualThreadTaskExecutor("stock-stream-");
+  }
+}
@@ -0,0 +1,102 @@
+package com.ecommerce.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lets at most {@code maxConcurrent} callers hold a connection at a time. With virtual threads
+ * there is no request pool in front of the database any more, so thousands of requests can end
+ * up waiting inside the connection pool at once; here they queue in FIFO order on a semaphore
+ * sized to the pool instead, and give up with a {@link SQLTransientConnectionException} after
+ * {@code acquireTimeout}. The permit is released when the connection is closed.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+  private final Semaphore permits;
+  private final int maxConcurrent;
+  private final Duration acquireTimeout;
+
+  public ConcurrencyLimitedDataSource(DataSource targetDataSource, int maxConcurrent,
+      Duration acquireTimeout) {
+    super(targetDataSource);
+    this.permits = new Semaphore(maxConcurrent, true);
+    this.maxConcurrent = maxConcurrent;
+    this.acquireTimeout = acquireTimeout;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return guard(obtainTargetDataSource().getConnection());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    try {
+      return guard(obtainTargetDataSource().getConnection(username, password));
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  public int getAvailablePermits() {
+    return permits.availablePermits();
+  }
+
+  public int getWaitingThreads() {
+    return permits.getQueueLength();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException("No JDBC permit available after "
+            + acquireTimeout.toMillis() + " ms (" + maxConcurrent + " in use).");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a JDBC permit.", e);
+    }
+  }
+
+  private Connection guard(Connection target) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[]{Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          case "toString" -> "Guarded " + target;
+          default -> {
+            try {
+              yield method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+              throw e.getTargetException();
+            } finally {
+              if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                permits.release();
+              }
+            }
+          }
+        });
+  }
+}
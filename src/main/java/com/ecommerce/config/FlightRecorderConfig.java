@@ -0,0 +1,37 @@
+package com.ecommerce.config;
+
+import com.ecommerce.metrics.ContinuousRecording;
+import jdk.jfr.FlightRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * The continuous Flight Recorder recording behind {@code /actuator/jfr}. Off by default; turn it
+ * on with {@code ecommerce.jfr.enabled=true} and, where {@code /tmp} is memory-backed, point
+ * {@code ecommerce.jfr.repository} at a disk and keep {@code max-size} well below the memory
+ * limit. The {@code profile} settings give more detail at a few percent more overhead.
+ */
+@Configuration
+public class FlightRecorderConfig {
+
+  @Bean(initMethod = "start", destroyMethod = "close")
+  @ConditionalOnProperty(name = "ecommerce.jfr.enabled", havingValue = "true")
+  public ContinuousRecording continuousRecording(
+      @Value("${ecommerce.jfr.settings:default}") String settings,
+      @Value("${ecommerce.jfr.max-age:30m}") Duration maxAge,
+      @Value("${ecommerce.jfr.max-size:64MB}") DataSize maxSize,
+      @Value("${ecommerce.jfr.repository:}") String repository) {
+    if (!FlightRecorder.isAvailable()) {
+      throw new IllegalStateException(
+          "Flight Recorder is not available in this JVM; set ecommerce.jfr.enabled=false.");
+    }
+    return new ContinuousRecording(settings, maxAge, maxSize.toBytes(),
+        repository.isBlank() ? null : Path.of(repository));
+  }
+}
@@ -21,6 +21,8 @@ public class OpenApiConfig {
             "/products/**",
             "/cart/**",
             "/api/cart/**",
+            "/api/products/**",
+            "/api/auth/**",
             "/orders/**",
             "/addresses/**",
             "/user-info/**",
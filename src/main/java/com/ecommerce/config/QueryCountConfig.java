@@ -0,0 +1,60 @@
+package com.ecommerce.config;
+
+import com.ecommerce.metrics.QueryCountFilter;
+import com.ecommerce.metrics.QueryCountingDataSource;
+import com.ecommerce.metrics.QueryStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Statement counting per request and per transaction ({@code /actuator/queries}). On by default;
+ * {@code ecommerce.jdbc.query-count.enabled=false} leaves the data source unwrapped. Tests can
+ * import this configuration to check query budgets with {@code QueryBudgetExtension}.
+ */
+@Configuration
+public class QueryCountConfig {
+
+  @Bean
+  public QueryStatistics queryStatistics(
+      @Value("${ecommerce.jdbc.query-count.request-threshold:25}") int requestThreshold) {
+    return new QueryStatistics(requestThreshold);
+  }
+
+  @Bean
+  public static BeanPostProcessor queryCountingDataSourcePostProcessor(
+      Environment environment, ObjectProvider<QueryStatistics> statisticsProvider) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof QueryCountingDataSource
+            || !enabled(environment)) {
+          return bean;
+        }
+        return new QueryCountingDataSource(dataSource, statisticsProvider.getObject());
+      }
+    };
+  }
+
+  /** Outermost filter, so session and security queries are part of the request count. */
+  @Bean
+  public FilterRegistrationBean<QueryCountFilter> queryCountFilterRegistration(
+      QueryStatistics queryStatistics, Environment environment) {
+    FilterRegistrationBean<QueryCountFilter> registration =
+        new FilterRegistrationBean<>(new QueryCountFilter(queryStatistics));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    registration.setEnabled(enabled(environment));
+    return registration;
+  }
+
+  private static boolean enabled(Environment environment) {
+    return environment.getProperty("ecommerce.jdbc.query-count.enabled", Boolean.class, true);
+  }
+}
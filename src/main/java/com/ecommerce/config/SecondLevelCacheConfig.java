@@ -0,0 +1,71 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cache.SoftDeleteCacheEviction;
+import jakarta.persistence.EntityManagerFactory;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.CacheSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for {@code Role}, {@code Category} and {@code Product}, held in
+ * an in-process Ehcache behind JCache with the regions and their sizes from {@code ehcache.xml}.
+ * Each application context gets its own cache manager: the JCache provider would otherwise
+ * share one per configuration file across the JVM, and contexts would see each other's rows.
+ * On by default; {@code ecommerce.jpa.second-level-cache.enabled=false} turns it off. Tests can
+ * import this configuration to run repositories with the cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ecommerce.jpa.second-level-cache.enabled", havingValue = "true",
+    matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager(
+      @Value("${ecommerce.jpa.second-level-cache.config:classpath:ehcache.xml}") Resource config)
+      throws IOException {
+    EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+        EhcacheCachingProvider.class.getName(), getClass().getClassLoader());
+    return provider.getCacheManager(
+        URI.create("urn:ecommerce:second-level-cache:" + UUID.randomUUID()),
+        new XmlConfiguration(config.getURL(), getClass().getClassLoader()));
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+      CacheManager secondLevelCacheManager) {
+    return properties -> {
+      properties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(CacheSettings.CACHE_REGION_FACTORY, "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY,
+          MissingCacheStrategy.FAIL.getExternalRepresentation());
+    };
+  }
+
+  @Bean
+  public SoftDeleteCacheEviction softDeleteCacheEviction(EntityManagerFactory entityManagerFactory) {
+    SessionFactoryImplementor sessionFactory =
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    SoftDeleteCacheEviction eviction = new SoftDeleteCacheEviction(sessionFactory.getCache());
+    sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+        .appendListeners(EventType.POST_COMMIT_UPDATE, eviction);
+    return eviction;
+  }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.config;
+
+/**
+ * A mutable session attribute that records its own changes, so putting the same instance back
+ * at the end of a request can be skipped without comparing serialized copies. The flag should be
+ * {@code transient}: an attribute loaded from the session store starts out unmodified.
+ */
+public interface SessionChangeTracking {
+
+  boolean isModified();
+
+  /** Called once the attribute has been handed to the session store. */
+  void clearModified();
+}
@@ -0,0 +1,42 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+
+import java.time.Duration;
+
+@Configuration
+public class SessionConfig {
+
+  /**
+   * Boot backs off its whole JDBC session setup, schema initialization included, as soon as
+   * another {@code SessionRepository} bean exists, so the repository it creates is wrapped
+   * rather than replaced. Expired rows are purged by {@code ExpiredSessionCleanupJob}.
+   */
+  @Bean
+  public static BeanPostProcessor writeMinimizingSessionRepositoryPostProcessor(
+      Environment environment, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+    return new BeanPostProcessor() {
+      @Override
+      @SuppressWarnings({"unchecked", "rawtypes"})
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof JdbcIndexedSessionRepository repository)) {
+          return bean;
+        }
+        Duration throttle = environment.getProperty(
+            "ecommerce.session.last-access-throttle", Duration.class, Duration.ofMinutes(1));
+        return new WriteMinimizingSessionRepository(
+            (FindByIndexNameSessionRepository<Session>) (FindByIndexNameSessionRepository) repository,
+            throttle, meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+      }
+    };
+  }
+}
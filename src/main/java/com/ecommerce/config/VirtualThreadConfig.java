@@ -0,0 +1,71 @@
+package com.ecommerce.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode is Boot's {@code spring.threads.virtual.enabled}: it moves Tomcat's request
+ * executor and the scheduler behind {@code @Scheduled} jobs to virtual threads, and
+ * {@code AppConfig} does the same for the mail executor. BCrypt stays on its platform pool,
+ * since hashing is CPU work that virtual threads would not make any cheaper.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+  /**
+   * Wraps the Hikari pool in a {@link ConcurrencyLimitedDataSource} with one permit per pooled
+   * connection. On by default whenever virtual threads are; the pool is still what Boot's
+   * Hikari metrics and health checks see through {@code unwrap}.
+   */
+  @Bean
+  public static BeanPostProcessor jdbcConcurrencyGuardPostProcessor(
+      Environment environment, ObjectProvider<MeterRegistry> meterRegistryProvider) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || !guardEnabled(environment)) {
+          return bean;
+        }
+        HikariDataSource pool = DataSourceUnwrapper.unwrap(
+            dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        if (pool == null) {
+          return bean;
+        }
+        Duration acquireTimeout = environment.getProperty(
+            "ecommerce.jdbc.concurrency-guard.acquire-timeout", Duration.class,
+            Duration.ofMillis(pool.getConnectionTimeout()));
+        ConcurrencyLimitedDataSource guarded = new ConcurrencyLimitedDataSource(
+            dataSource, pool.getMaximumPoolSize(), acquireTimeout);
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("ecommerce.jdbc.guard.permits.available", guarded,
+                ConcurrencyLimitedDataSource::getAvailablePermits)
+            .tag("pool", beanName)
+            .register(meterRegistry);
+        Gauge.builder("ecommerce.jdbc.guard.waiting", guarded,
+                ConcurrencyLimitedDataSource::getWaitingThreads)
+            .tag("pool", beanName)
+            .register(meterRegistry);
+        return guarded;
+      }
+    };
+  }
+
+  private static boolean guardEnabled(Environment environment) {
+    boolean virtualThreads = environment.getProperty(
+        "spring.threads.virtual.enabled", Boolean.class, false);
+    return environment.getProperty(
+        "ecommerce.jdbc.concurrency-guard.enabled", Boolean.class, virtualThreads);
+  }
+}
@@ -0,0 +1,236 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Wraps the JDBC session repository so that a request only writes what it actually changed.
+ * <p>
+ * {@code ServletRequestAttributes} puts every mutable session attribute it handed out back into
+ * the session at the end of the request, so a {@code @SessionScope} bean such as the guest
+ * shopping cart would be re-serialized and rewritten on every page view. Attributes that
+ * implement {@link SessionChangeTracking} say whether they were modified, and a put of the same,
+ * unmodified instance is dropped. Other mutable attributes are written whenever they are put,
+ * as Spring Session would, so reading them costs nothing.
+ * Last-access updates are throttled: the session row is only touched once the stored value is
+ * older than {@code lastAccessThrottle}, which can expire a session at most that much early.
+ */
+public class WriteMinimizingSessionRepository
+    implements FindByIndexNameSessionRepository<WriteMinimizingSessionRepository.TrackedSession> {
+
+  private final FindByIndexNameSessionRepository<Session> delegate;
+  private final Duration lastAccessThrottle;
+  private final Counter createdWrites;
+  private final Counter touchedWrites;
+  private final Counter attributeWrites;
+  private final Counter throttledSkips;
+  private final Counter unchangedSkips;
+  private final DistributionSummary writesPerRequest;
+
+  public WriteMinimizingSessionRepository(FindByIndexNameSessionRepository<Session> delegate,
+      Duration lastAccessThrottle, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.lastAccessThrottle = lastAccessThrottle;
+    this.createdWrites = writeCounter(meterRegistry, "created");
+    this.touchedWrites = writeCounter(meterRegistry, "touched");
+    this.attributeWrites = writeCounter(meterRegistry, "attribute");
+    this.throttledSkips = skipCounter(meterRegistry, "throttled");
+    this.unchangedSkips = skipCounter(meterRegistry, "unchanged");
+    this.writesPerRequest = DistributionSummary.builder("ecommerce.session.writes.per.request")
+        .description("Session rows written when a request commits its session")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public TrackedSession createSession() {
+    return new TrackedSession(delegate.createSession(), true);
+  }
+
+  @Override
+  public void save(TrackedSession session) {
+    delegate.save(session.delegate);
+    writesPerRequest.record(session.flushWriteCount());
+  }
+
+  @Override
+  @Nullable
+  public TrackedSession findById(String id) {
+    Session session = delegate.findById(id);
+    return session != null ? new TrackedSession(session, false) : null;
+  }
+
+  @Override
+  public void deleteById(String id) {
+    delegate.deleteById(id);
+  }
+
+  @Override
+  public Map<String, TrackedSession> findByIndexNameAndIndexValue(String indexName,
+      String indexValue) {
+    Map<String, TrackedSession> sessions = new LinkedHashMap<>();
+    delegate.findByIndexNameAndIndexValue(indexName, indexValue)
+        .forEach((id, session) -> sessions.put(id, new TrackedSession(session, false)));
+    return sessions;
+  }
+
+  private static Counter writeCounter(MeterRegistry meterRegistry, String kind) {
+    return Counter.builder("ecommerce.session.writes")
+        .tag("kind", kind)
+        .register(meterRegistry);
+  }
+
+  private static Counter skipCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("ecommerce.session.writes.skipped")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Same rule {@code ServletRequestAttributes} uses for attributes it never writes back.
+   */
+  private static boolean isImmutable(Object value) {
+    return value instanceof String || value instanceof Character || value instanceof Boolean
+        || value instanceof Number;
+  }
+
+  /**
+   * Per-request view of a stored session. A new instance is created for every lookup, so the
+   * write counts below never outlive the request that loaded the session.
+   */
+  public final class TrackedSession implements Session {
+    private final Session delegate;
+    private boolean isNew;
+    private boolean rowChanged;
+    private int attributesWritten;
+
+    private TrackedSession(Session delegate, boolean isNew) {
+      this.delegate = delegate;
+      this.isNew = isNew;
+    }
+
+    @Override
+    public String getId() {
+      return delegate.getId();
+    }
+
+    @Override
+    public String changeSessionId() {
+      rowChanged = true;
+      return delegate.changeSessionId();
+    }
+
+    @Override
+    @Nullable
+    public <T> T getAttribute(String attributeName) {
+      return delegate.getAttribute(attributeName);
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+      return delegate.getAttributeNames();
+    }
+
+    @Override
+    public void setAttribute(String attributeName, @Nullable Object attributeValue) {
+      if (attributeValue == null) {
+        removeAttribute(attributeName);
+        return;
+      }
+      if (isUnchanged(attributeName, attributeValue)) {
+        unchangedSkips.increment();
+        return;
+      }
+      attributesWritten++;
+      delegate.setAttribute(attributeName, attributeValue);
+      if (attributeValue instanceof SessionChangeTracking tracked) {
+        tracked.clearModified();
+      }
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+      if (delegate.getAttribute(attributeName) == null) {
+        return;
+      }
+      attributesWritten++;
+      delegate.removeAttribute(attributeName);
+    }
+
+    @Override
+    public Instant getCreationTime() {
+      return delegate.getCreationTime();
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+      Instant stored = delegate.getLastAccessedTime();
+      if (!isNew && lastAccessedTime.isBefore(stored.plus(lastAccessThrottle))) {
+        throttledSkips.increment();
+        return;
+      }
+      rowChanged = true;
+      delegate.setLastAccessedTime(lastAccessedTime);
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+      return delegate.getLastAccessedTime();
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+      if (!interval.equals(delegate.getMaxInactiveInterval())) {
+        rowChanged = true;
+        delegate.setMaxInactiveInterval(interval);
+      }
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+      return delegate.getMaxInactiveInterval();
+    }
+
+    @Override
+    public boolean isExpired() {
+      return delegate.isExpired();
+    }
+
+    private boolean isUnchanged(String attributeName, Object value) {
+      Object current = delegate.getAttribute(attributeName);
+      if (current == null) {
+        return false;
+      }
+      if (isImmutable(value)) {
+        return value.equals(current);
+      }
+      return value == current && value instanceof SessionChangeTracking tracked
+          && !tracked.isModified();
+    }
+
+    private int flushWriteCount() {
+      int writes = attributesWritten;
+      if (isNew) {
+        createdWrites.increment();
+        writes++;
+      } else if (rowChanged) {
+        touchedWrites.increment();
+        writes++;
+      }
+      attributeWrites.increment(attributesWritten);
+      isNew = false;
+      rowChanged = false;
+      attributesWritten = 0;
+      return writes;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.controller.api;
+
+import com.ecommerce.dto.ApiTokenDto;
+import com.ecommerce.dto.LoginDto;
+import com.ecommerce.exception.PasswordHashingBusyException;
+import com.ecommerce.security.ApiTokenService;
+import com.ecommerce.security.RateLimitFilter;
+import com.ecommerce.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@Tag(name = "Auth API", description = "Token issuance for stateless REST API access.")
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ecommerce.security.api-token.enabled", havingValue = "true")
+public class AuthApiController {
+
+  private final AuthenticationManager authenticationManager;
+  private final ApiTokenService apiTokenService;
+  private final UserService userService;
+  private final RateLimitFilter rateLimitFilter;
+
+  @Operation(
+      summary = "Issue API token",
+      description = "Exchanges username and password for a signed token to send as " +
+          "'Authorization: Bearer <token>' on /api/** requests.")
+  @ApiResponses(
+      value = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "Token issued.",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(implementation = ApiTokenDto.class))),
+          @ApiResponse(
+              responseCode = "429",
+              description = "Too many attempts for this username, retry later."),
+          @ApiResponse(
+              responseCode = "503",
+              description = "Password hashing is saturated, retry later."),
+          @ApiResponse(
+              responseCode = "401",
+              description = "Invalid username or password.",
+              content = @Content(
+                  mediaType = "application/json",
+                  schema = @Schema(example = "{\"error\": \"Invalid username or password.\"}")))
+      })
+  @PostMapping("/token")
+  public ResponseEntity<?> issueToken(
+      @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          description = "User credentials.", required = true)
+      @Valid @RequestBody LoginDto loginDto) {
+    if (!rateLimitFilter.tryIdentity("api-token", loginDto.username())) {
+      return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+          .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimitFilter.getWindowSeconds()))
+          .body(Map.of("error", "Too many attempts, please try again later."));
+    }
+    Authentication authentication;
+    try {
+      authentication = authenticationManager.authenticate(UsernamePasswordAuthenticationToken
+          .unauthenticated(loginDto.username(), loginDto.password()));
+    } catch (PasswordHashingBusyException e) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .body(Map.of("error", e.getMessage()));
+    } catch (AuthenticationException e) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+          .body(Map.of("error", "Invalid username or password."));
+    }
+
+    String token = apiTokenService.issue(userService.getUserSnapshot(authentication.getName()));
+    return ResponseEntity.ok(
+        new ApiTokenDto(token, "Bearer", apiTokenService.getExpirationSeconds()));
+  }
+}
@@ -0,0 +1,229 @@
+package com.ecommerce.controller.api;
+
+import com.ecommerce.dto.ProductSummaryDto;
+import com.ecommerce.dto.ReviewDto;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.ProductUpdateStreamService;
+import com.ecommerce.service.ReviewService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON view of the public catalog. Search and review pages are read as flat projections, with no
+ * entity loaded on the way, and the transaction is over before the first byte is written, so a
+ * slow client never holds a database connection. The page is then written token by token through
+ * a {@link JsonGenerator} rather than built as one document. Search shares its filters with
+ * {@code /products/list}, so both return the same products.
+ */
+@Tag(name = "Catalog API", description = "Read-only product catalog as JSON.")
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@Validated
+public class ProductApiController {
+
+  private final ProductService productService;
+  private final ReviewService reviewService;
+  private final ProductUpdateStreamService productUpdateStreamService;
+  private final ObjectMapper objectMapper;
+
+  @Operation(
+      summary = "Search products",
+      description = "Returns one page of products matching the same filters as the catalog page.")
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Page of matching products.",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(example = "{\"content\": [{\"id\": 1, \"name\": \"Laptop\", " +
+                  "\"description\": \"...\", \"price\": 999.99, \"stockQuantity\": 5, " +
+                  "\"averageRating\": 4.50, \"reviewCount\": 2}], \"page\": 0, \"size\": 12, " +
+                  "\"totalElements\": 1, \"totalPages\": 1}"))),
+      @ApiResponse(responseCode = "400", description = "Invalid search parameters.")
+  })
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  public void searchProducts(
+      @Parameter(description = "Search by product name.")
+      @RequestParam(required = false) String name,
+
+      @Parameter(description = "Filter by category IDs.")
+      @RequestParam(required = false) List<Long> categoryIds,
+
+      @Parameter(description = "Minimum price filter.")
+      @RequestParam(required = false)
+      @DecimalMin(value = "0.00", message = "Min price must be greater than 0") Double minPrice,
+
+      @Parameter(description = "Maximum price filter.")
+      @RequestParam(required = false)
+      @DecimalMax(value = "999999.99", message = "Max price must be less than 1'000'000") Double maxPrice,
+
+      @Parameter(description = "Show only available items.")
+      @RequestParam(required = false) Boolean onlyAvailable,
+
+      @Parameter(description = "Page number (0-based).")
+      @RequestParam(defaultValue = "0")
+      @Min(value = 0, message = "Page number must be greater than or equal to 0") int page,
+
+      @Parameter(description = "Items per page.")
+      @RequestParam(defaultValue = "12")
+      @Min(value = 1, message = "Page size must be greater than 0")
+      @Max(value = 100, message = "Page size must be less than or equal to 100") int size,
+
+      HttpServletResponse response) throws IOException {
+    Pageable pageable = PageRequest.of(page, size);
+    Page<ProductSummaryDto> products = productService.searchProductSummaries(
+        name, categoryIds, minPrice, maxPrice, onlyAvailable, pageable);
+    JsonGenerator json = startPage(response);
+    for (ProductSummaryDto product : products) {
+      write(json, product);
+    }
+    endPage(json, pageable, products.getTotalElements());
+  }
+
+  @Operation(summary = "Get product", description = "Returns a single active product.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Product found."),
+      @ApiResponse(responseCode = "404", description = "Product not found.")
+  })
+  @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<ProductSummaryDto> getProduct(
+      @Parameter(description = "ID of the product.", required = true, example = "101")
+      @PathVariable Long id) {
+    return productService.findSummaryById(id)
+        .map(ResponseEntity::ok)
+        .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found."));
+  }
+
+  @Operation(summary = "Get product reviews", description = "Returns one page of reviews, newest first.")
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "200",
+          description = "Page of reviews.",
+          content = @Content(
+              mediaType = "application/json",
+              schema = @Schema(example = "{\"content\": [{\"authorUsername\": \"user\", " +
+                  "\"rating\": 5, \"comment\": \"Great\", \"createdAt\": \"2025-01-01T10:00:00Z\"}], " +
+                  "\"page\": 0, \"size\": 5, \"totalElements\": 1, \"totalPages\": 1}"))),
+      @ApiResponse(responseCode = "404", description = "Product not found.")
+  })
+  @GetMapping(value = "/{id}/reviews", produces = MediaType.APPLICATION_JSON_VALUE)
+  public void getReviews(
+      @Parameter(description = "ID of the product.", required = true, example = "101")
+      @PathVariable Long id,
+
+      @Parameter(description = "Page number (0-based).")
+      @RequestParam(defaultValue = "0")
+      @Min(value = 0, message = "Page number must be greater than or equal to 0") int page,
+
+      @Parameter(description = "Items per page.")
+      @RequestParam(defaultValue = "5")
+      @Min(value = 1, message = "Page size must be greater than 0")
+      @Max(value = 100, message = "Page size must be less than or equal to 100") int size,
+
+      HttpServletResponse response) throws IOException {
+    Pageable pageable = PageRequest.of(page, size);
+    Page<ReviewDto> reviews = reviewService.getReviewsForProduct(id, pageable);
+    JsonGenerator json = startPage(response);
+    for (ReviewDto review : reviews) {
+      write(json, review);
+    }
+    endPage(json, pageable, reviews.getTotalElements());
+  }
+
+  @Operation(
+      summary = "Stream stock and price changes",
+      description = "Server-sent events for the given products: one `stock` event per product " +
+          "with its current values on connect, then one per change, coalesced per tick.")
+  @ApiResponse(
+      responseCode = "200",
+      description = "Event stream opened.",
+      content = @Content(
+          mediaType = "text/event-stream",
+          schema = @Schema(example = "event:stock\ndata:{\"id\": 1, \"price\": 999.99, " +
+              "\"stockQuantity\": 4, \"active\": true}")))
+  @GetMapping(value = "/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamUpdates(
+      @Parameter(description = "IDs of the products to follow.", required = true)
+      @RequestParam("ids")
+      @Size(min = 1, max = 100, message = "Between 1 and 100 product IDs can be followed")
+      List<Long> ids) {
+    return productUpdateStreamService.subscribe(ids);
+  }
+
+  @ExceptionHandler(ResourceNotFoundException.class)
+  public ResponseEntity<Map<String, String>> handleNotFound(ResourceNotFoundException e) {
+    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+  }
+
+  @ExceptionHandler(ConstraintViolationException.class)
+  public ResponseEntity<Map<String, String>> handleConstraintViolation(
+      ConstraintViolationException e) {
+    return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+  }
+
+  private JsonGenerator startPage(HttpServletResponse response) throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    JsonGenerator json = objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+    json.writeStartObject();
+    json.writeArrayFieldStart("content");
+    return json;
+  }
+
+  private void write(JsonGenerator json, Object row) {
+    try {
+      json.writeObject(row);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Closes the document. Only reached on success: a failure halfway through leaves the body
+   * truncated instead of letting the generator close it into valid-looking JSON.
+   */
+  private void endPage(JsonGenerator json, Pageable pageable, long totalElements)
+      throws IOException {
+    json.writeEndArray();
+    json.writeNumberField("page", pageable.getPageNumber());
+    json.writeNumberField("size", pageable.getPageSize());
+    json.writeNumberField("totalElements", totalElements);
+    json.writeNumberField("totalPages",
+        (totalElements + pageable.getPageSize() - 1) / pageable.getPageSize());
+    json.writeEndObject();
+    json.close();
+  }
+}
@@ -1,9 +1,9 @@
 package com.ecommerce.controller.web;
 
+import com.ecommerce.cache.UserInfoCache;
 import com.ecommerce.dto.AddressDto;
 import com.ecommerce.dto.ChangePasswordDto;
 import com.ecommerce.dto.PasswordResetDto;
-import com.ecommerce.dto.UserInfoDto;
 import com.ecommerce.entity.User;
 import com.ecommerce.exception.UserNotAuthenticatedException;
 import com.ecommerce.service.UserService;
@@ -33,6 +33,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class AccountController {
   private final UserService userService;
+  private final UserInfoCache userInfoCache;
 
   @Operation(
       summary = "Show change password form",
@@ -193,10 +194,10 @@ public class AccountController {
       return "redirect:/reset-password?token=" + passwordResetDto.getToken();
     }
     try {
-      User user = userService.findByPasswordResetToken(passwordResetDto.getToken())
+      User user = userService.resetPasswordWithToken(
+              passwordResetDto.getToken(), passwordResetDto.getPassword())
           .orElseThrow(() -> new IllegalArgumentException(
               "Invalid or expired password reset token. Please request a new one."));
-      userService.changeUserPassword(user, passwordResetDto.getPassword());
       log.info("Password successfully reset for user: {}", user.getUsername());
       redirectAttributes.addFlashAttribute(
           "message", "You have successfully changed your password.");
@@ -214,9 +215,8 @@ public class AccountController {
   @ApiResponse(responseCode = "200", description = "Dashboard displayed.")
   @GetMapping("/my-account")
   public String showMyAccount(Model model) {
-    User currentUser = userService.getCurrentUser();
     if (!model.containsAttribute("userInfo")) {
-      model.addAttribute("userInfo", UserInfoDto.fromEntity(currentUser));
+      model.addAttribute("userInfo", userInfoCache.getCurrentUserInfo());
     }
     if (!model.containsAttribute("address")) {
       model.addAttribute("address", new AddressDto());
@@ -0,0 +1,59 @@
+package com.ecommerce.controller.web;
+
+import com.ecommerce.service.SalesAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+
+@Tag(name = "Admin Sales Analytics", description = "Sales dashboards backed by rollup tables.")
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/analytics")
+@Validated
+public class AdminAnalyticsController {
+  private static final int TOP_SELLERS_LIMIT = 10;
+
+  private final SalesAnalyticsService salesAnalyticsService;
+
+  @ModelAttribute("adminSection")
+  public String adminSection() {
+    return "analytics";
+  }
+
+  @Operation(
+      summary = "Show sales dashboard",
+      description = "Displays revenue, top sellers and order status counts from the rollups.")
+  @ApiResponse(responseCode = "200", description = "Dashboard displayed successfully.")
+  @GetMapping
+  public String showDashboard(
+      @Parameter(description = "Number of days to report on, including today.")
+      @RequestParam(defaultValue = "30")
+      @Min(value = 1, message = "Days must be greater than 0")
+      @Max(value = 366, message = "Days must be less than or equal to 366") int days,
+
+      Model model) {
+    LocalDate today = LocalDate.now();
+    LocalDate from = today.minusDays(days - 1L);
+
+    model.addAttribute("days", days);
+    model.addAttribute("today", salesAnalyticsService.getRevenueForDay(today));
+    model.addAttribute("dailyRevenue", salesAnalyticsService.getDailyRevenue(from, today));
+    model.addAttribute("topSellers",
+        salesAnalyticsService.getTopSellers(from, today, TOP_SELLERS_LIMIT));
+    model.addAttribute("statusCounts", salesAnalyticsService.getOrderStatusCounts());
+    return "admin/analytics";
+  }
+}
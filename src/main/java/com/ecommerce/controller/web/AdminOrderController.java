@@ -0,0 +1,111 @@
+package com.ecommerce.controller.web;
+
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.InvalidOrderStatusTransitionException;
+import com.ecommerce.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+@Slf4j
+@Tag(name = "Admin Order Management", description = "Operations for browsing and updating orders.")
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/orders")
+@Validated
+public class AdminOrderController {
+  private final OrderService orderService;
+
+  @ModelAttribute("adminSection")
+  public String adminSection() {
+    return "orders";
+  }
+
+  @Operation(
+      summary = "List orders",
+      description = "Displays orders newest first, filtered by status and date, one keyset " +
+          "page at a time.")
+  @ApiResponse(responseCode = "200", description = "List displayed successfully.")
+  @GetMapping("/list")
+  public String listOrders(
+      @Parameter(description = "Only show orders with this status.")
+      @RequestParam(required = false) Order.Status status,
+
+      @Parameter(description = "Only show orders placed on or after this day.")
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+      LocalDate from,
+
+      @Parameter(description = "Order date of the last row on the previous page.")
+      @RequestParam(required = false) Instant beforeDate,
+
+      @Parameter(description = "Order ID of the last row on the previous page.")
+      @RequestParam(required = false) Long beforeId,
+
+      @Parameter(description = "Number of orders per page.")
+      @RequestParam(defaultValue = "50")
+      @Min(value = 1, message = "Page size must be greater than 0")
+      @Max(value = 200, message = "Page size must be less than or equal to 200") int size,
+
+      Model model) {
+    Instant fromInstant = from == null
+        ? null
+        : from.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    model.addAttribute("page",
+        orderService.findOrdersForAdmin(status, fromInstant, beforeDate, beforeId, size));
+    model.addAttribute("status", status);
+    model.addAttribute("from", from);
+    model.addAttribute("size", size);
+    model.addAttribute("allStatuses", Order.Status.values());
+    return "admin/orders-list";
+  }
+
+  @Operation(
+      summary = "Bulk update order status",
+      description = "Moves the given orders to the next status (PENDING to SHIPPED or SHIPPED " +
+          "to DELIVERED) with a single UPDATE. Orders not in the preceding status are skipped. " +
+          "Customers are notified by email asynchronously.")
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "302",
+          description = "Redirects to order list. <br>" +
+              "• **Success:** Number of updated orders is reported. <br>" +
+              "• **Failure:** Invalid target status or too many orders.")
+  })
+  @PostMapping("/status")
+  public String bulkUpdateStatus(
+      @Parameter(description = "IDs of the orders to update.")
+      @RequestParam(name = "orderIds", required = false) List<Long> orderIds,
+
+      @Parameter(description = "Target status.")
+      @RequestParam Order.Status status,
+
+      RedirectAttributes redirectAttributes) {
+    try {
+      int updated = orderService.bulkUpdateStatus(orderIds == null ? List.of() : orderIds, status);
+      log.info("Admin moved {} orders to status {}.", updated, status);
+      redirectAttributes.addFlashAttribute("successMessage",
+          updated + " order(s) marked as " + status + ".");
+    } catch (InvalidOrderStatusTransitionException e) {
+      log.warn("Rejected bulk order status update to {}: {}", status, e.getMessage());
+      redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+    }
+    return "redirect:/admin/orders/list";
+  }
+}
@@ -209,4 +209,32 @@ public class AdminProductController {
     String referer = request.getHeader("Referer");
     return "redirect:" + (referer != null ? referer : "/admin/products/list");
   }
+
+  @Operation(
+      summary = "Rebalance product stock shards",
+      description = "Spreads the remaining stock of a sharded product evenly over its shards.")
+  @ApiResponses(value = {
+      @ApiResponse(
+          responseCode = "302",
+          description = "Redirects to the product edit form. <br>" +
+              "• **Success:** Stock shards rebalanced. <br>" +
+              "• **Failure:** Product not found.")
+  })
+  @PostMapping("/rebalance-stock/{id}")
+  public String rebalanceStock(
+      @Parameter(description = "ID of the product whose stock shards should be rebalanced.")
+      @PathVariable Long id,
+
+      RedirectAttributes redirectAttributes) {
+    try {
+      productService.rebalanceStock(id);
+      log.info("Admin rebalanced stock shards of product with id: {}", id);
+      redirectAttributes.addFlashAttribute("successMessage", "Stock shards rebalanced.");
+    } catch (ResourceNotFoundException e) {
+      log.warn("Attempted to rebalance stock of a non-existent product with id: {}", id, e);
+      redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+      return "redirect:/admin/products/list";
+    }
+    return "redirect:/admin/products/edit/" + id;
+  }
 }
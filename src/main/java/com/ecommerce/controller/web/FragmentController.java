@@ -1,7 +1,7 @@
 package com.ecommerce.controller.web;
 
 import com.ecommerce.dto.AddressDto;
-import com.ecommerce.entity.Address;
+import com.ecommerce.dto.AddressViewDto;
 import com.ecommerce.service.AddressService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -42,7 +42,7 @@ public class FragmentController {
   @GetMapping("/addresses")
   public String getAddressesFragment(Model model) {
     try {
-      List<Address> addresses = addressService.getAddressesForCurrentUser();
+      List<AddressViewDto> addresses = addressService.getAddressesForCurrentUser();
       model.addAttribute("addresses", addresses);
       if (!model.containsAttribute("address")) {
         model.addAttribute("address", new AddressDto());
@@ -5,6 +5,7 @@ import com.ecommerce.dto.ShippingDetailsDto;
 import com.ecommerce.entity.User;
 import com.ecommerce.service.AddressService;
 import com.ecommerce.service.CartService;
+import com.ecommerce.service.CheckoutService;
 import com.ecommerce.service.OrderService;
 import com.ecommerce.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,6 +15,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -27,6 +29,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Tag(name = "Order Checkout", description = "Order placement and history pages.")
@@ -38,6 +41,7 @@ public class OrderUIController {
   private final AddressService addressService;
   private final CartService cartService;
   private final OrderService orderService;
+  private final CheckoutService checkoutService;
 
   private void setUserInfo(Model model) {
     if (!model.containsAttribute("shippingDetails")) {
@@ -53,6 +57,13 @@ public class OrderUIController {
     }
   }
 
+  private static void assignIdempotencyKey(ShippingDetailsDto shippingDetailsDto) {
+    if (shippingDetailsDto.getIdempotencyKey() == null ||
+        shippingDetailsDto.getIdempotencyKey().isBlank()) {
+      shippingDetailsDto.setIdempotencyKey(UUID.randomUUID().toString());
+    }
+  }
+
   @Operation(
       summary = "Order confirmation page",
       description = "Displays the success page after placing an order.")
@@ -91,6 +102,9 @@ public class OrderUIController {
       model.addAttribute("shippingDetails", new ShippingDetailsDto());
       model.addAttribute("addresses", Collections.emptyList());
     }
+    if (model.getAttribute("shippingDetails") instanceof ShippingDetailsDto shippingDetailsDto) {
+      assignIdempotencyKey(shippingDetailsDto);
+    }
     return "public/shipping-details";
   }
 
@@ -102,6 +116,8 @@ public class OrderUIController {
           responseCode = "302",
           description = "Redirects based on outcome. <br>" +
               "• **Success:** Order placed, redirects to confirmation page. <br>" +
+              "• **Duplicate:** Order with the same idempotency key already exists, " +
+              "redirects to confirmation page. <br>" +
               "• **Failure:** Validation errors, redirects back to shipping details form.")
   })
   @PostMapping("/place-order")
@@ -116,7 +132,17 @@ public class OrderUIController {
           BindingResult.MODEL_KEY_PREFIX + "shippingDetails", bindingResult);
       return "redirect:/orders/shipping-details";
     }
-    orderService.placeOrder(shippingDetailsDto);
+    try {
+      checkoutService.placeOrder(shippingDetailsDto);
+    } catch (DataIntegrityViolationException e) {
+      if (orderService.findOrderIdByIdempotencyKey(shippingDetailsDto.getIdempotencyKey())
+          .isEmpty()) {
+        throw e;
+      }
+      log.warn("Concurrent duplicate order submission detected. Redirecting to confirmation " +
+          "page.");
+      return "redirect:/orders/confirmation";
+    }
     log.info("Order placed successfully. Redirecting to confirmation page.");
     return "redirect:/orders/confirmation";
   }
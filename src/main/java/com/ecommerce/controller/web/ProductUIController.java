@@ -2,6 +2,7 @@ package com.ecommerce.controller.web;
 
 import com.ecommerce.cart.CartSessionItem;
 import com.ecommerce.cart.ShoppingCart;
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.dto.ProductViewDto;
 import com.ecommerce.dto.ReviewDto;
 import com.ecommerce.dto.ReviewSubmissionDto;
@@ -17,6 +18,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
@@ -27,15 +30,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -84,16 +96,26 @@ public class ProductUIController {
       @Min(value = 1, message = "Page size must be greater than 0")
       @Max(value = 100, message = "Page size must be less than or equal to 100") int size,
 
-      Model model, HttpServletRequest request) {
+      Model model, HttpServletRequest request, HttpServletResponse response,
+      WebRequest webRequest) {
     log.info("Searching for products with parameters - name: {}, categoryIds: {}, minPrice: {}, " +
             "maxPrice: {}, onlyAvailable: {}, page: {}, size: {}",
         name, categoryIds != null ?
             categoryIds.stream().map(String::valueOf).collect(Collectors.joining(",")) : "null",
         minPrice, maxPrice, onlyAvailable, page, size);
 
+    // Aggregates over the rows themselves, so a change made through any instance changes the tag.
+    CatalogVersion productVersion = productService.findSearchVersion(
+        name, categoryIds, minPrice, maxPrice, onlyAvailable);
+    CatalogVersion categoryVersion = categoryService.findVersion();
+    if (isNotModified(productVersion + "|" + categoryVersion, request, response, webRequest)) {
+      return null;
+    }
+
     Pageable pageable = PageRequest.of(page, size);
     Page<Product> productPage = productService.searchProducts(
         name, categoryIds, minPrice, maxPrice, onlyAvailable, pageable);
+    List<Category> categories = categoryService.findAllSortedByName();
 
     Map<Long, Integer> productQuantitiesInCart = shoppingCart.getItems().stream()
         .collect(Collectors.toMap(item -> item.product().id(), CartSessionItem::quantity, Integer::sum));
@@ -102,9 +124,11 @@ public class ProductUIController {
         ProductViewDto.fromEntity(product, productQuantitiesInCart.getOrDefault(product.getId(), 0))
     );
 
-    List<Category> categories = categoryService.findAllSortedByName();
+    Map<Long, Instant> productVersions = new HashMap<>();
+    productPage.forEach(product -> productVersions.put(product.getId(), product.getUpdatedAt()));
 
     model.addAttribute("productPage", productDtoPage);
+    model.addAttribute("productVersions", productVersions);
     model.addAttribute("categories", categories);
     model.addAttribute("minPrice", minPrice);
     model.addAttribute("maxPrice", maxPrice);
@@ -138,11 +162,16 @@ public class ProductUIController {
       
       @PageableDefault(size = 5) Pageable pageable,
       HttpServletRequest request,
+      HttpServletResponse response,
+      WebRequest webRequest,
       RedirectAttributes redirectAttributes) {
     log.info("Requesting product detail page for product ID: {}", id);
     try {
-      Product product = productService.findById(id)
+      Product product = productService.findCurrentById(id)
           .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found."));
+      if (isNotModified(id + "@" + product.getUpdatedAt(), request, response, webRequest)) {
+        return null;
+      }
 
       int inCartQuantity = shoppingCart.getItems().stream()
           .filter(item -> item.product().id().equals(id))
@@ -170,4 +199,28 @@ public class ProductUIController {
 
     return "public/product-detail";
   }
+
+  /**
+   * Answers {@code If-None-Match} from the page's database version, before the rest of the page
+   * is loaded and rendered. The tag also covers what the page shows per visitor: the user, the
+   * session whose CSRF token is in the forms, and the cart quantities. Pages carrying flash
+   * messages get no tag.
+   */
+  private boolean isNotModified(String version, HttpServletRequest request,
+      HttpServletResponse response, WebRequest webRequest) {
+    if (!CollectionUtils.isEmpty(RequestContextUtils.getInputFlashMap(request))) {
+      return false;
+    }
+    String cart = shoppingCart.getItems().stream()
+        .map(item -> item.product().id() + ":" + item.quantity())
+        .sorted()
+        .collect(Collectors.joining(","));
+    HttpSession session = request.getSession(false);
+    String viewer = version + "|" + request.getRemoteUser() + "|"
+        + (session != null ? session.getId() : "") + "|" + cart;
+    response.setHeader(HttpHeaders.CACHE_CONTROL,
+        CacheControl.noCache().cachePrivate().getHeaderValue());
+    return webRequest.checkNotModified(
+        DigestUtils.md5DigestAsHex(viewer.getBytes(StandardCharsets.UTF_8)));
+  }
 }
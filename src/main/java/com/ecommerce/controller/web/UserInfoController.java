@@ -1,5 +1,6 @@
 package com.ecommerce.controller.web;
 
+import com.ecommerce.cache.UserInfoCache;
 import com.ecommerce.dto.UserInfoDto;
 import com.ecommerce.entity.User;
 import com.ecommerce.service.UserService;
@@ -24,6 +25,7 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @RequiredArgsConstructor
 public class UserInfoController {
   private final UserService userService;
+  private final UserInfoCache userInfoCache;
 
   @Operation(
       summary = "Update user info",
@@ -50,6 +52,7 @@ public class UserInfoController {
 
     User currentUser = userService.getCurrentUser();
     userService.updateCurrentUserInfo(userInfoDto);
+    userInfoCache.invalidate(currentUser.getUsername());
     log.info("User info updated successfully for user: {}", currentUser.getUsername());
     redirectAttributes.addFlashAttribute("userInfoSuccess",
         "Your information has been updated successfully!");
@@ -0,0 +1,7 @@
+package com.ecommerce.dto;
+
+import java.io.Serializable;
+
+public record AddressViewDto(Long id, String name, String country, String city,
+                             String addressLine, String postalCode) implements Serializable {
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record AdminOrderPageDto(
+    List<AdminOrderRowDto> orders,
+    Instant nextBeforeDate,
+    Long nextBeforeId
+) {
+
+  public boolean hasNext() {
+    return nextBeforeId != null;
+  }
+}
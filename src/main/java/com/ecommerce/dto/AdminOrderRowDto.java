@@ -0,0 +1,17 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record AdminOrderRowDto(
+    Long orderId,
+    Instant orderDate,
+    Order.Status status,
+    BigDecimal totalAmount,
+    String firstName,
+    String lastName,
+    String email
+) {
+}
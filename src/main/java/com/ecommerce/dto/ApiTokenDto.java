@@ -0,0 +1,4 @@
+package com.ecommerce.dto;
+
+public record ApiTokenDto(String token, String tokenType, long expiresIn) {
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.dto;
+
+import java.time.Instant;
+
+/**
+ * How many rows match and the latest {@code updated_at} among them. Any insert, edit or soft
+ * delete of a matching row changes one of the two, so it stands in for the rows themselves.
+ */
+public record CatalogVersion(long count, Instant lastUpdatedAt) {
+}
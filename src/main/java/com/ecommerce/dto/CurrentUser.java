@@ -0,0 +1,11 @@
+package com.ecommerce.dto;
+
+import java.util.Set;
+
+public record CurrentUser(Long id, String username, Set<String> roles) {
+  public static final String REQUEST_ATTRIBUTE = CurrentUser.class.getName();
+
+  public boolean hasRole(String role) {
+    return roles.contains(role);
+  }
+}
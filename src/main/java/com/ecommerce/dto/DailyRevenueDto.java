@@ -0,0 +1,7 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyRevenueDto(LocalDate salesDate, long orderCount, BigDecimal revenue) {
+}
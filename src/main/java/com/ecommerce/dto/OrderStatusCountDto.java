@@ -0,0 +1,6 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entity.Order;
+
+public record OrderStatusCountDto(Order.Status status, long orderCount) {
+}
@@ -0,0 +1,4 @@
+package com.ecommerce.dto;
+
+public record OrderStatusNotification(Long orderId, String email, String firstName) {
+}
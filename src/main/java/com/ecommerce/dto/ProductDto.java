@@ -32,6 +32,13 @@ public class ProductDto {
   @Max(value = 999999, message = "Stock quantity must be less than 1'000'000")
   private int stockQuantity;
 
+  @Min(value = 0, message = "Stock shard count cannot be negative")
+  @Max(value = 64, message = "Stock shard count cannot exceed 64")
+  private int stockShardCount;
+
+  /** The stock shown when the form was loaded; edits to sharded stock apply as a delta to it. */
+  private Integer loadedStockQuantity;
+
   private List<Long> categories = new ArrayList<>();
 
   public static ProductDto fromEntity(Product product) {
@@ -41,6 +48,8 @@ public class ProductDto {
     dto.setDescription(product.getDescription());
     dto.setPrice(product.getPrice());
     dto.setStockQuantity(product.getStockQuantity());
+    dto.setLoadedStockQuantity(product.getStockQuantity());
+    dto.setStockShardCount(product.getStockShardCount());
     dto.setCategories(product.getCategories().stream()
         .map(Category::getId)
         .collect(Collectors.toList()));
@@ -0,0 +1,13 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public interface ProductSalesView {
+  Long getProductId();
+
+  String getProductName();
+
+  long getUnits();
+
+  BigDecimal getRevenue();
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Live stock and price of a product as pushed to catalog pages. {@code active} is false once the
+ * product has been deleted, in which case it can no longer be added to a cart.
+ */
+public record ProductStockUpdate(Long id, BigDecimal price, int stockQuantity, boolean active) {
+  public static ProductStockUpdate removed(Long id) {
+    return new ProductStockUpdate(id, null, 0, false);
+  }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public record ProductSummaryDto(Long id, String name, String description, BigDecimal price,
+                                Integer stockQuantity, BigDecimal averageRating,
+                                Integer reviewCount) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public interface SalesTotalsView {
+  long getOrderCount();
+
+  BigDecimal getRevenue();
+}
@@ -52,4 +52,7 @@ public class ShippingDetailsDto implements Serializable {
   @NotBlank(message = "Postal code is required")
   @Pattern(regexp = "^[a-zA-Z0-9\\s-]{3,20}$", message = "Please enter a valid postal code.")
   private String postalCode;
+
+  @Size(max = 64, message = "Idempotency key cannot be longer than 64 characters")
+  private String idempotencyKey;
 }
@@ -0,0 +1,6 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+public record TopSellerDto(Long productId, String productName, long units, BigDecimal revenue) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.dto;
+
+public interface UserRoleView {
+  Long getId();
+
+  String getUsername();
+
+  String getRole();
+}
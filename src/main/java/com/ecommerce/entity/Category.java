@@ -6,9 +6,13 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -19,6 +23,8 @@ import java.util.List;
 @SQLDelete(sql = "UPDATE categories SET is_deleted = true WHERE id = ?")
 @SQLRestriction("is_deleted = false")
 @EqualsAndHashCode(of = "name")
+// Read-mostly: READ_ONLY would reject the renames that soft delete and restore do.
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Category {
   @ManyToMany(mappedBy = "categories", fetch = FetchType.LAZY)
   private final List<Product> products = new ArrayList<>();
@@ -36,6 +42,11 @@ public class Category {
   @Column(nullable = false)
   private boolean isDeleted = false;
 
+  /** Set on every write, including soft delete and restore; the catalog ETag is keyed on it. */
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
   public Category(String name) {
     this.name = name;
   }
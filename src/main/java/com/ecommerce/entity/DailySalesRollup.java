@@ -0,0 +1,33 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "daily_sales_rollups")
+public class DailySalesRollup {
+  @Id
+  @Column(name = "sales_date")
+  private LocalDate salesDate;
+
+  @Setter
+  @Column(nullable = false)
+  private long orderCount;
+
+  @Setter
+  @Column(nullable = false, precision = 14, scale = 2)
+  private BigDecimal revenue = BigDecimal.ZERO;
+
+  public DailySalesRollup(LocalDate salesDate, long orderCount, BigDecimal revenue) {
+    this.salesDate = salesDate;
+    this.orderCount = orderCount;
+    this.revenue = revenue;
+  }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -16,7 +17,11 @@ import java.util.List;
 @Entity
 @NoArgsConstructor
 @Getter
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "uk_orders_idempotency_key", columnList = "idempotency_key", unique = true),
+    @Index(name = "idx_orders_order_date", columnList = "order_date"),
+    @Index(name = "idx_orders_status_order_date", columnList = "status, order_date")
+})
 public class Order {
   @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
   @NotEmpty(message = "Order must contain at least one item.")
@@ -54,6 +59,11 @@ public class Order {
   @Column(nullable = false, precision = 10, scale = 2)
   private BigDecimal totalAmount;
 
+  @Setter
+  @Size(max = 64, message = "Idempotency key cannot be longer than 64 characters.")
+  @Column(length = 64, updatable = false)
+  private String idempotencyKey;
+
   public void addOrderItems(List<OrderItem> items) {
     for (OrderItem item : items) {
       orderItems.add(item);
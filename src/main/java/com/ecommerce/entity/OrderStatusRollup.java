@@ -0,0 +1,26 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "order_status_rollups")
+public class OrderStatusRollup {
+  @Id
+  @Enumerated(EnumType.STRING)
+  @Column(length = 20)
+  private Order.Status status;
+
+  @Setter
+  @Column(nullable = false)
+  private long orderCount;
+
+  public OrderStatusRollup(Order.Status status, long orderCount) {
+    this.status = status;
+    this.orderCount = orderCount;
+  }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "password_reset_tokens", indexes = {
+    @Index(name = "uk_password_reset_tokens_token_hash", columnList = "token_hash", unique = true),
+    @Index(name = "idx_password_reset_tokens_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_password_reset_tokens_user_id", columnList = "user_id")
+})
+public class PasswordResetToken {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  /**
+   * Hex SHA-256 of the emailed token; the token itself is never stored.
+   */
+  @Column(name = "token_hash", nullable = false, length = 64)
+  private String tokenHash;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(name = "user_id", nullable = false)
+  private User user;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  public PasswordResetToken(String tokenHash, User user, Instant expiresAt) {
+    this.tokenHash = tokenHash;
+    this.user = user;
+    this.expiresAt = expiresAt;
+  }
+}
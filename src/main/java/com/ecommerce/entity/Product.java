@@ -3,11 +3,15 @@ package com.ecommerce.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -16,13 +20,15 @@ import java.util.Set;
 @Entity
 @NoArgsConstructor
 @ToString
-@EqualsAndHashCode(exclude = {"categories", "reviews", "id", "isDeleted"})
+@EqualsAndHashCode(exclude = {"categories", "reviews", "id", "isDeleted", "updatedAt"})
 @Getter
 @SQLDelete(sql = "UPDATE products SET is_deleted = true WHERE id=?")
 @SQLRestriction("is_deleted = false")
 @Table(name = "products")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Product {
   @ManyToMany(fetch = FetchType.LAZY)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
   @JoinTable(
       name = "categories_products",
       joinColumns = @JoinColumn(name = "product_id"),
@@ -58,6 +64,11 @@ public class Product {
   @Column(nullable = false)
   private int stockQuantity;
 
+  @Setter
+  @PositiveOrZero(message = "Stock shard count cannot be negative.")
+  @Column(nullable = false)
+  private int stockShardCount = 0;
+
   @Setter
   @PositiveOrZero(message = "Average rating cannot be negative.")
   @Column(precision = 3, scale = 2)
@@ -72,6 +83,19 @@ public class Product {
   @Column(nullable = false)
   private boolean isDeleted = false;
 
+  /**
+   * Set on every write of the row, including the native stock snapshot sync. Page validators
+   * and cached product cards are keyed on it, so they follow the database rather than whichever
+   * instance made the change.
+   */
+  @UpdateTimestamp
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  public boolean isStockSharded() {
+    return stockShardCount > 0;
+  }
+
   public void addCategory(Category category) {
     this.categories.add(category);
   }
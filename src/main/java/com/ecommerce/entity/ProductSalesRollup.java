@@ -0,0 +1,49 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "product_sales_rollups",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_product_sales_rollups_date_product",
+        columnNames = {"sales_date", "product_id"}))
+public class ProductSalesRollup {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "sales_date", nullable = false)
+  private LocalDate salesDate;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Setter
+  @Column(nullable = false)
+  private String productName;
+
+  @Setter
+  @Column(nullable = false)
+  private long units;
+
+  @Setter
+  @Column(nullable = false, precision = 14, scale = 2)
+  private BigDecimal revenue = BigDecimal.ZERO;
+
+  public ProductSalesRollup(LocalDate salesDate, Long productId, String productName, long units,
+                            BigDecimal revenue) {
+    this.salesDate = salesDate;
+    this.productId = productId;
+    this.productName = productName;
+    this.units = units;
+    this.revenue = revenue;
+  }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@NoArgsConstructor
+@Getter
+@Table(name = "product_stock_shards",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_product_stock_shards_product_shard",
+        columnNames = {"product_id", "shard_index"}))
+public class ProductStockShard {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "product_id", nullable = false)
+  private Long productId;
+
+  @Column(name = "shard_index", nullable = false)
+  private int shardIndex;
+
+  @Setter
+  @PositiveOrZero(message = "Shard quantity cannot be negative.")
+  @Column(nullable = false)
+  private int quantity;
+
+  public ProductStockShard(Long productId, int shardIndex, int quantity) {
+    this.productId = productId;
+    this.shardIndex = shardIndex;
+    this.quantity = quantity;
+  }
+}
@@ -5,11 +5,14 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @NoArgsConstructor
 @Getter
 @Table(name = "roles")
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 public class Role {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
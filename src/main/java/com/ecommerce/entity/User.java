@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -79,13 +80,13 @@ public class User {
   @Column(nullable = false)
   private boolean enabled;
 
+  /**
+   * When the user last chose a new password. Unlike the hash it is not touched by cost
+   * upgrades on login, so API tokens carry it and are rejected once it moves.
+   */
   @Setter
-  @Column
-  private String passwordResetToken;
-
-  @Setter
-  @Column
-  private Instant passwordResetTokenExpiry;
+  @Column(name = "password_changed_at", nullable = false)
+  private Instant passwordChangedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
 
   public void addRole(Role role) {
     roles.add(role);
@@ -0,0 +1,19 @@
+package com.ecommerce.event;
+
+import com.ecommerce.security.ApiTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ecommerce.security.api-token.enabled", havingValue = "true")
+public class ApiTokenRevocationListener {
+  private final ApiTokenService apiTokenService;
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onPasswordChanged(PasswordChangedEvent event) {
+    apiTokenService.revokeIssuedBefore(event.username(), event.changedAt());
+  }
+}
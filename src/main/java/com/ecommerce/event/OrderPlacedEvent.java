@@ -0,0 +1,21 @@
+package com.ecommerce.event;
+
+import com.ecommerce.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public record OrderPlacedEvent(Long orderId, Instant orderDate, BigDecimal totalAmount,
+                               List<Line> lines) {
+  public static OrderPlacedEvent fromEntity(Order order) {
+    List<Line> lines = order.getOrderItems().stream()
+        .map(item -> new Line(item.getProduct().getId(), item.getProductName(),
+            item.getQuantity(), item.getPrice()))
+        .toList();
+    return new OrderPlacedEvent(order.getId(), order.getOrderDate(), order.getTotalAmount(), lines);
+  }
+
+  public record Line(Long productId, String productName, int quantity, BigDecimal price) {
+  }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.event;
+
+import com.ecommerce.dto.OrderStatusNotification;
+import com.ecommerce.entity.Order;
+
+import java.util.List;
+
+public record OrderStatusChangedEvent(Order.Status from, Order.Status to, long orderCount,
+                                      List<OrderStatusNotification> notifications) {
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.event;
+
+import com.ecommerce.dto.OrderStatusNotification;
+import com.ecommerce.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderStatusEmailListener {
+  private final EmailService emailService;
+
+  @Async("mailTaskExecutor")
+  @TransactionalEventListener
+  public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+    for (OrderStatusNotification notification : event.notifications()) {
+      try {
+        emailService.sendOrderStatusEmail(notification, event.to());
+      } catch (RuntimeException e) {
+        log.warn("Failed to send status email for order {}.", notification.orderId(), e);
+      }
+    }
+  }
+}
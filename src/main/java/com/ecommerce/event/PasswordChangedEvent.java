@@ -0,0 +1,10 @@
+package com.ecommerce.event;
+
+import java.time.Instant;
+
+/**
+ * Published when a user's password changes; {@code changedAt} is the value stored in
+ * {@code users.password_changed_at}.
+ */
+public record PasswordChangedEvent(String username, Instant changedAt) {
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.event;
+
+import java.util.List;
+
+/**
+ * Published whenever a product's price, stock or availability may have changed, alongside
+ * {@link OrderPlacedEvent} for checkouts.
+ */
+public record ProductChangedEvent(List<Long> productIds) {
+  public ProductChangedEvent {
+    productIds = List.copyOf(productIds);
+  }
+
+  public static ProductChangedEvent of(Long productId) {
+    return new ProductChangedEvent(List.of(productId));
+  }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.event;
+
+import com.ecommerce.service.ProductUpdateStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProductUpdateStreamListener {
+  private final ProductUpdateStreamService productUpdateStreamService;
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onProductChanged(ProductChangedEvent event) {
+    productUpdateStreamService.publish(event.productIds());
+  }
+
+  @TransactionalEventListener
+  public void onOrderPlaced(OrderPlacedEvent event) {
+    productUpdateStreamService.publish(event.lines().stream()
+        .map(OrderPlacedEvent.Line::productId)
+        .toList());
+  }
+}
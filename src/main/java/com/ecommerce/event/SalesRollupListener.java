@@ -0,0 +1,40 @@
+package com.ecommerce.event;
+
+import com.ecommerce.service.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRollupListener {
+  private final SalesAnalyticsService salesAnalyticsService;
+
+  @TransactionalEventListener
+  public void onOrderPlaced(OrderPlacedEvent event) {
+    try {
+      try {
+        salesAnalyticsService.recordOrderPlaced(event);
+      } catch (DataIntegrityViolationException e) {
+        // A concurrent checkout created the rollup rows first, so the retry takes the update path.
+        salesAnalyticsService.recordOrderPlaced(event);
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to update sales rollups for order {}. The nightly compaction will " +
+          "repair them.", event.orderId(), e);
+    }
+  }
+
+  @TransactionalEventListener
+  public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+    try {
+      salesAnalyticsService.recordStatusChange(event.from(), event.to(), event.orderCount());
+    } catch (RuntimeException e) {
+      log.error("Failed to update order status rollups for {} -> {}. The nightly compaction " +
+          "will repair them.", event.from(), event.to(), e);
+    }
+  }
+}
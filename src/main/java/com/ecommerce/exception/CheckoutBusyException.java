@@ -0,0 +1,11 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Checkout is busy.")
+public class CheckoutBusyException extends RuntimeException {
+  public CheckoutBusyException(String message) {
+    super(message);
+  }
+}
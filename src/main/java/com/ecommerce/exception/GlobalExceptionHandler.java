@@ -28,6 +28,32 @@ public class GlobalExceptionHandler {
         return modelAndView;
     }
 
+    @ExceptionHandler(CheckoutBusyException.class)
+    public ModelAndView handleCheckoutBusyException(HttpServletRequest request,
+                                                    CheckoutBusyException ex) {
+        log.warn("Checkout rejected for request: {}. Details: {}",
+            request.getRequestURI(), ex.getMessage());
+        ModelAndView modelAndView = new ModelAndView();
+        modelAndView.addObject("errorMessage", ex.getMessage());
+        modelAndView.addObject("statusCode", "503");
+        modelAndView.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        modelAndView.setViewName("public/error");
+        return modelAndView;
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ModelAndView handlePasswordHashingBusyException(HttpServletRequest request,
+                                                           PasswordHashingBusyException ex) {
+        log.warn("Password hashing rejected for request: {}. Details: {}",
+            request.getRequestURI(), ex.getMessage());
+        ModelAndView modelAndView = new ModelAndView();
+        modelAndView.addObject("errorMessage", ex.getMessage());
+        modelAndView.addObject("statusCode", "503");
+        modelAndView.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        modelAndView.setViewName("public/error");
+        return modelAndView;
+    }
+
     @ExceptionHandler(EmptyCartOrderException.class)
     public ModelAndView handleEmptyCartOrderException(HttpServletRequest request,
                                                       EmptyCartOrderException ex) {
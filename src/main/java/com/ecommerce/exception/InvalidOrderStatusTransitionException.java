@@ -0,0 +1,11 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid order status transition.")
+public class InvalidOrderStatusTransitionException extends RuntimeException {
+  public InvalidOrderStatusTransitionException(String message) {
+    super(message);
+  }
+}
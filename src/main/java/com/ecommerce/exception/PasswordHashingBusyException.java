@@ -0,0 +1,12 @@
+package com.ecommerce.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Password hashing is busy.")
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+  public PasswordHashingBusyException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.job;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Replaces spring-session's own cleanup, which removes every expired session in one DELETE and
+ * holds its locks for as long as that takes. Rows are removed in chunks of {@code chunkSize},
+ * each chunk committed on its own; attribute rows follow through the ON DELETE CASCADE key.
+ */
+@Slf4j
+@Component
+public class ExpiredSessionCleanupJob {
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+  private final String selectExpiredQuery;
+  private final String deleteQueryPrefix;
+  private final int chunkSize;
+  private final int maxChunksPerRun;
+
+  public ExpiredSessionCleanupJob(JdbcTemplate jdbcTemplate,
+      @Value("${spring.session.jdbc.table-name:SPRING_SESSION}") String tableName,
+      @Value("${ecommerce.session.cleanup-chunk-size:500}") int chunkSize,
+      @Value("${ecommerce.session.cleanup-max-chunks:200}") int maxChunksPerRun,
+      ObjectProvider<Clock> clockProvider) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.clock = clockProvider.getIfAvailable(Clock::systemUTC);
+    this.selectExpiredQuery = "SELECT PRIMARY_ID FROM " + tableName
+        + " WHERE EXPIRY_TIME < ? ORDER BY EXPIRY_TIME LIMIT ?";
+    this.deleteQueryPrefix = "DELETE FROM " + tableName + " WHERE PRIMARY_ID IN (";
+    this.chunkSize = chunkSize;
+    this.maxChunksPerRun = maxChunksPerRun;
+  }
+
+  @Scheduled(cron = "${ecommerce.session.cleanup-cron:0 */10 * * * *}")
+  public void cleanup() {
+    int deleted = purgeExpiredSessions();
+    if (deleted > 0) {
+      log.info("Removed {} expired sessions.", deleted);
+    }
+  }
+
+  /**
+   * Deletes sessions that expired before now. A run stops after {@code maxChunksPerRun} chunks
+   * so a large backlog is worked off over several runs instead of in one long burst.
+   *
+   * @return the number of sessions deleted
+   */
+  public int purgeExpiredSessions() {
+    long now = clock.millis();
+    int deleted = 0;
+    for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+      List<String> ids = jdbcTemplate.queryForList(selectExpiredQuery, String.class, now, chunkSize);
+      if (ids.isEmpty()) {
+        break;
+      }
+      String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+      deleted += jdbcTemplate.update(deleteQueryPrefix + placeholders + ")", ids.toArray());
+      if (ids.size() < chunkSize) {
+        break;
+      }
+    }
+    return deleted;
+  }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.job;
+
+import com.ecommerce.service.UserService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PasswordResetTokenPurgeJob {
+  private final UserService userService;
+
+  @Value("${ecommerce.security.reset-token-purge-chunk-size:500}")
+  private int chunkSize;
+
+  @Value("${ecommerce.security.reset-token-purge-max-chunks:100}")
+  private int maxChunks;
+
+  @Scheduled(cron = "${ecommerce.security.reset-token-purge-cron:0 15 * * * *}")
+  public void purge() {
+    int purged = 0;
+    for (int chunk = 0; chunk < maxChunks; chunk++) {
+      int deleted = userService.purgeExpiredPasswordResetTokens(chunkSize);
+      purged += deleted;
+      if (deleted < chunkSize) {
+        break;
+      }
+    }
+    if (purged > 0) {
+      log.info("Purged {} expired password reset tokens.", purged);
+    }
+  }
+}
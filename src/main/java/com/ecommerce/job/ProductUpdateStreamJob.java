@@ -0,0 +1,23 @@
+package com.ecommerce.job;
+
+import com.ecommerce.service.ProductUpdateStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductUpdateStreamJob {
+  private final ProductUpdateStreamService productUpdateStreamService;
+
+  @Scheduled(fixedDelayString = "${ecommerce.web.stock-stream.tick-ms:500}")
+  public void flush() {
+    productUpdateStreamService.flush();
+  }
+
+  /** Keeps idle streams open through proxies and notices clients that left without closing. */
+  @Scheduled(fixedDelayString = "${ecommerce.web.stock-stream.heartbeat-ms:20000}")
+  public void sendHeartbeats() {
+    productUpdateStreamService.sendHeartbeats();
+  }
+}
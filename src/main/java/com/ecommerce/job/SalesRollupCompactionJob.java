@@ -0,0 +1,33 @@
+package com.ecommerce.job;
+
+import com.ecommerce.service.SalesAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRollupCompactionJob {
+  private final SalesAnalyticsService salesAnalyticsService;
+
+  @Value("${ecommerce.analytics.product-rollup-retention-days:400}")
+  private int productRollupRetentionDays;
+
+  @Scheduled(cron = "${ecommerce.analytics.compaction-cron:0 30 2 * * *}")
+  public void compact() {
+    LocalDate today = LocalDate.now();
+    LocalDate yesterday = today.minusDays(1);
+
+    salesAnalyticsService.rebuildDay(yesterday);
+    salesAnalyticsService.rebuildStatusCounts();
+    int purged = salesAnalyticsService.purgeProductRollupsBefore(
+        today.minusDays(productRollupRetentionDays));
+    log.info("Sales rollup compaction finished. Rebuilt {}, purged {} product rollup rows.",
+        yesterday, purged);
+  }
+}
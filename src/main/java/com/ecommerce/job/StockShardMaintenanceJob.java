@@ -0,0 +1,23 @@
+package com.ecommerce.job;
+
+import com.ecommerce.service.StockShardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockShardMaintenanceJob {
+  private final StockShardService stockShardService;
+
+  @Scheduled(fixedDelayString = "${ecommerce.inventory.shard-maintenance-interval-ms:5000}")
+  public void maintain() {
+    int rebalanced = stockShardService.rebalanceDepletedShards();
+    stockShardService.syncProductStockSnapshots();
+    if (rebalanced > 0) {
+      log.debug("Rebalanced stock shards for {} products.", rebalanced);
+    }
+  }
+}
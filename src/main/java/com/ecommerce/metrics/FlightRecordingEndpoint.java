@@ -0,0 +1,47 @@
+package com.ecommerce.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * {@code /actuator/jfr?minutes=N}: the last N minutes (default 10) of the continuous Flight
+ * Recorder recording as a {@code .jfr} file for JDK Mission Control or {@code jfr print}. The
+ * data is streamed to the client and released once the response is written. Answers 404 when
+ * {@code ecommerce.jfr.enabled} is off.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@RequiredArgsConstructor
+public class FlightRecordingEndpoint {
+  static final int DEFAULT_MINUTES = 10;
+
+  private final ObjectProvider<ContinuousRecording> recordingProvider;
+
+  @ReadOperation(produces = "application/octet-stream")
+  public WebEndpointResponse<Resource> snapshot(@Nullable Integer minutes) throws IOException {
+    ContinuousRecording recording = recordingProvider.getIfAvailable();
+    if (recording == null || !recording.isRunning()) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+    int age = minutes == null ? DEFAULT_MINUTES : minutes;
+    if (age < 1) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+    InputStream data = recording.snapshot(Duration.ofMinutes(age));
+    if (data == null) {
+      return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+    return new WebEndpointResponse<>(new InputStreamResource(data));
+  }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times the annotated bean method as {@code ecommerce.<value>}, tagged with {@code outcome} and
+ * {@code exception}, with p50/p95/p99 kept for {@code /actuator/hotpaths}. Every key in
+ * {@link #extraTags()} starts out as {@code none} and is filled in from inside the call with
+ * {@link HotPaths#tag(String, String)}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HotPath {
+  String value();
+
+  String[] extraTags() default {};
+}
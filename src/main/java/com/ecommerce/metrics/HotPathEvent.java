@@ -0,0 +1,35 @@
+package com.ecommerce.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one {@link HotPath} call, committed by {@link HotPathMetricsAspect}
+ * next to the timer. The JFR duration covers the same span as the timer, so a slow checkout in
+ * the recording lines up with the GC pauses, lock waits and socket reads around it.
+ */
+@Name("com.ecommerce.HotPath")
+@Label("Hot Path")
+@Category("E-commerce")
+@Description("A timed service call such as checkout, product search or a cart change")
+@StackTrace(false)
+class HotPathEvent extends Event {
+  static final int NO_LINES = -1;
+
+  @Label("Operation")
+  String operation;
+
+  @Label("Outcome")
+  String outcome;
+
+  @Label("Exception")
+  String exception;
+
+  @Label("Lines")
+  @Description("Order lines, cart lines or search results; -1 when the call does not set them")
+  int lines;
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records {@link HotPath} methods as timers and as {@link HotPathEvent}s for Flight Recorder.
+ * Runs outside the transaction advice, so commit time is part of the measurement. Percentiles
+ * come from Micrometer's HdrHistogram-backed ring buffer and cover roughly the last two minutes.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class HotPathMetricsAspect {
+  static final String PREFIX = "ecommerce.";
+
+  private final MeterRegistry meterRegistry;
+  private final Set<String> timerNames = ConcurrentHashMap.newKeySet();
+
+  @Around("@annotation(com.ecommerce.metrics.HotPath)")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    Method method = AopUtils.getMostSpecificMethod(
+        ((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget().getClass());
+    HotPath hotPath = method.getAnnotation(HotPath.class);
+    HotPaths.Frame frame = HotPaths.open(hotPath.extraTags());
+    HotPathEvent event = new HotPathEvent();
+    event.begin();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    Throwable failure = null;
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      HotPaths.close();
+      String name = PREFIX + hotPath.value();
+      String outcome = failure == null ? "success" : "error";
+      String exception = failure == null ? HotPaths.UNSET : failure.getClass().getSimpleName();
+      Timer.Builder timer = Timer.builder(name)
+          .tag("outcome", outcome)
+          .tag("exception", exception)
+          .publishPercentiles(0.5, 0.95, 0.99);
+      frame.tags.forEach(timer::tag);
+      sample.stop(timer.register(meterRegistry));
+      timerNames.add(name);
+      commit(event, hotPath.value(), outcome, exception, frame.lines);
+    }
+  }
+
+  /** Cheap when no recording has the event enabled: {@code shouldCommit} is then false. */
+  private static void commit(HotPathEvent event, String operation, String outcome,
+                             String exception, int lines) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.outcome = outcome;
+      event.exception = exception;
+      event.lines = lines;
+      event.commit();
+    }
+  }
+
+  /** Names of the timers recorded so far. */
+  public Set<String> getTimerNames() {
+    return Set.copyOf(timerNames);
+  }
+}
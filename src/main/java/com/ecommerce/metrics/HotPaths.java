@@ -0,0 +1,61 @@
+package com.ecommerce.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tags and line counts of the {@link HotPath} calls running on the current thread, innermost
+ * last. Outside of a timed call, and in unit tests that call services directly, {@link #tag} and
+ * {@link #lines} do nothing.
+ */
+public final class HotPaths {
+  static final String UNSET = "none";
+
+  private static final ThreadLocal<Deque<Frame>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+  private HotPaths() {
+  }
+
+  /** Sets a tag declared in {@link HotPath#extraTags()} of the innermost timed call. */
+  public static void tag(String key, String value) {
+    Frame frame = FRAMES.get().peekLast();
+    if (frame != null && frame.tags.containsKey(key)) {
+      frame.tags.put(key, value);
+    }
+  }
+
+  /**
+   * Sets the number of lines the innermost timed call worked on: order lines, cart lines or
+   * search results. It goes on the call's {@link HotPathEvent}, not on the timer.
+   */
+  public static void lines(int lines) {
+    Frame frame = FRAMES.get().peekLast();
+    if (frame != null) {
+      frame.lines = lines;
+    }
+  }
+
+  static Frame open(String[] keys) {
+    Frame frame = new Frame();
+    for (String key : keys) {
+      frame.tags.put(key, UNSET);
+    }
+    FRAMES.get().addLast(frame);
+    return frame;
+  }
+
+  static void close() {
+    Deque<Frame> frames = FRAMES.get();
+    frames.pollLast();
+    if (frames.isEmpty()) {
+      FRAMES.remove();
+    }
+  }
+
+  static final class Frame {
+    final Map<String, String> tags = new LinkedHashMap<>();
+    int lines = HotPathEvent.NO_LINES;
+  }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code /actuator/hotpaths}: one row per {@link HotPath} timer and tag combination, ordered by
+ * total time spent, next to the connection pool and executor gauges that Boot binds for Hikari
+ * ({@code hikaricp.connections.*}) and for every {@code ThreadPoolTaskExecutor} bean
+ * ({@code executor.*}).
+ */
+@Component
+@Endpoint(id = "hotpaths")
+@RequiredArgsConstructor
+public class HotPathsEndpoint {
+  private static final Map<String, String> POOL_GAUGES = Map.of(
+      "hikaricp.connections.active", "pool",
+      "hikaricp.connections.idle", "pool",
+      "hikaricp.connections.pending", "pool",
+      "hikaricp.connections.max", "pool",
+      "executor.active", "name",
+      "executor.queued", "name",
+      "executor.pool.size", "name",
+      "executor.pool.max", "name");
+
+  private final MeterRegistry meterRegistry;
+  private final HotPathMetricsAspect hotPathMetricsAspect;
+
+  @ReadOperation
+  public HotPathsReport hotPaths() {
+    List<Operation> operations = new ArrayList<>();
+    for (String name : hotPathMetricsAspect.getTimerNames()) {
+      for (Timer timer : meterRegistry.find(name).timers()) {
+        operations.add(Operation.of(timer));
+      }
+    }
+    operations.sort(Comparator.comparingDouble(Operation::totalMs).reversed());
+    return new HotPathsReport(operations, pools());
+  }
+
+  private Map<String, Map<String, Double>> pools() {
+    Map<String, Map<String, Double>> pools = new TreeMap<>();
+    POOL_GAUGES.forEach((gaugeName, poolTag) -> {
+      for (Gauge gauge : meterRegistry.find(gaugeName).gauges()) {
+        String pool = gaugeName.substring(0, gaugeName.indexOf('.')) + ":" + gauge.getId().getTag(poolTag);
+        String value = gaugeName.substring(gaugeName.indexOf('.') + 1);
+        pools.computeIfAbsent(pool, _ -> new TreeMap<>()).put(value, gauge.value());
+      }
+    });
+    return pools;
+  }
+
+  public record HotPathsReport(List<Operation> operations, Map<String, Map<String, Double>> pools) {
+  }
+
+  public record Operation(String name, Map<String, String> tags, long count, double totalMs,
+                          double meanMs, double maxMs, double p50Ms, double p95Ms, double p99Ms) {
+    static Operation of(Timer timer) {
+      HistogramSnapshot snapshot = timer.takeSnapshot();
+      Map<String, String> tags = new LinkedHashMap<>();
+      for (Tag tag : timer.getId().getTags()) {
+        tags.put(tag.getKey(), tag.getValue());
+      }
+      return new Operation(
+          timer.getId().getName().substring(HotPathMetricsAspect.PREFIX.length()), tags,
+          snapshot.count(), snapshot.total(TimeUnit.MILLISECONDS),
+          snapshot.mean(TimeUnit.MILLISECONDS), snapshot.max(TimeUnit.MILLISECONDS),
+          percentile(snapshot, 0.5), percentile(snapshot, 0.95), percentile(snapshot, 0.99));
+    }
+
+    private static double percentile(HistogramSnapshot snapshot, double percentile) {
+      for (ValueAtPercentile value : snapshot.percentileValues()) {
+        if (value.percentile() == percentile) {
+          return value.value(TimeUnit.MILLISECONDS);
+        }
+      }
+      return Double.NaN;
+    }
+  }
+}
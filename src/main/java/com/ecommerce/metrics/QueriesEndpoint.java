@@ -0,0 +1,22 @@
+package com.ecommerce.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/queries}: the most executed query shapes, statements per transaction, and the
+ * latest requests over {@code ecommerce.jdbc.query-count.request-threshold}.
+ */
+@Component
+@Endpoint(id = "queries")
+@RequiredArgsConstructor
+public class QueriesEndpoint {
+  private final QueryStatistics queryStatistics;
+
+  @ReadOperation
+  public QueryStatistics.Report queries() {
+    return queryStatistics.report();
+  }
+}
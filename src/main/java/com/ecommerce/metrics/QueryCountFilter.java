@@ -0,0 +1,30 @@
+package com.ecommerce.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/** Counts the statements each request runs on its own thread and hands them to {@link QueryStatistics}. */
+public class QueryCountFilter extends OncePerRequestFilter {
+  private final QueryStatistics statistics;
+
+  public QueryCountFilter(QueryStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    QueryCounter.Scope scope = QueryCounter.open();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      scope.close();
+      statistics.recordRequest(request.getMethod() + " " + request.getRequestURI(), scope);
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Counts JDBC statements run through {@link QueryCountingDataSource} on the current thread.
+ * Every open {@link Scope} sees every statement, so a transaction scope nests inside a request
+ * scope and both get the count. Statements are grouped by shape: the SQL with literals and
+ * {@code IN} lists collapsed, so that {@code WHERE id = 1} and {@code WHERE id = 2} count as
+ * one repeated query.
+ */
+public final class QueryCounter {
+  private static final int MAX_CACHED_SHAPES = 2_000;
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private static final ThreadLocal<List<Scope>> SCOPES = ThreadLocal.withInitial(ArrayList::new);
+  private static final Map<String, String> SHAPES = new ConcurrentHashMap<>();
+
+  private QueryCounter() {
+  }
+
+  /** Starts counting statements on this thread until the returned scope is closed. */
+  public static Scope open() {
+    Scope scope = new Scope();
+    SCOPES.get().add(scope);
+    return scope;
+  }
+
+  static void record(String shape) {
+    for (Scope scope : SCOPES.get()) {
+      scope.record(shape);
+    }
+  }
+
+  static String shapeOf(String sql) {
+    String shape = SHAPES.get(sql);
+    if (shape != null) {
+      return shape;
+    }
+    shape = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+    shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+    shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+    shape = IN_LIST.matcher(shape).replaceAll("in (...)");
+    if (SHAPES.size() < MAX_CACHED_SHAPES) {
+      SHAPES.put(sql, shape);
+    }
+    return shape;
+  }
+
+  public static final class Scope implements AutoCloseable {
+    private final Map<String, Integer> shapes = new LinkedHashMap<>();
+    private int count;
+
+    private Scope() {
+    }
+
+    private void record(String shape) {
+      count++;
+      shapes.merge(shape, 1, Integer::sum);
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    /** Statement counts by shape, in order of first execution. */
+    public Map<String, Integer> getShapes() {
+      return Collections.unmodifiableMap(shapes);
+    }
+
+    /** The shape run most often in this scope; more than once usually means an N+1. */
+    public Optional<Map.Entry<String, Integer>> getMostRepeated() {
+      return shapes.entrySet().stream().max(Map.Entry.comparingByValue());
+    }
+
+    @Override
+    public void close() {
+      List<Scope> scopes = SCOPES.get();
+      scopes.remove(this);
+      if (scopes.isEmpty()) {
+        SCOPES.remove();
+      }
+    }
+  }
+}
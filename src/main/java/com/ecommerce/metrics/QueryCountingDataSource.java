@@ -0,0 +1,131 @@
+package com.ecommerce.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Reports every statement executed through its connections to {@link QueryCounter} and
+ * {@link QueryStatistics}. Prepared statements are counted per execution, not per prepare, and
+ * a batch counts once. The first statement inside a Spring-managed transaction also opens a
+ * counter scope that is closed and reported when the transaction completes.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+  private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+  private static final Set<String> EXECUTE_METHODS = Set.of(
+      "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch",
+      "executeLargeBatch");
+
+  private final Object transactionKey = new Object();
+  private final QueryStatistics statistics;
+
+  public QueryCountingDataSource(DataSource targetDataSource, QueryStatistics statistics) {
+    super(targetDataSource);
+    this.statistics = statistics;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return countingConnection(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return countingConnection(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection countingConnection(Connection target) {
+    return (Connection) proxy(Connection.class, target, (method, args, result) -> {
+      if (result instanceof Statement statement) {
+        String sql = PREPARE_METHODS.contains(method.getName()) ? (String) args[0] : null;
+        return countingStatement(statement, sql);
+      }
+      return result;
+    });
+  }
+
+  private Statement countingStatement(Statement target, String preparedSql) {
+    Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+        : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    StringBuilder batchSql = new StringBuilder();
+    return (Statement) proxy(type, target, (method, args, result) -> result, (method, args) -> {
+      String name = method.getName();
+      if (name.equals("addBatch") && args != null && batchSql.isEmpty()) {
+        batchSql.append((String) args[0]);
+      } else if (EXECUTE_METHODS.contains(name)) {
+        String sql = preparedSql != null ? preparedSql
+            : args != null && args[0] instanceof String text ? text
+            : batchSql.toString();
+        count(sql);
+        batchSql.setLength(0);
+      }
+    });
+  }
+
+  private void count(String sql) {
+    String shape = QueryCounter.shapeOf(sql);
+    statistics.recordStatement(shape);
+    openTransactionScope();
+    QueryCounter.record(shape);
+  }
+
+  private void openTransactionScope() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()
+        || TransactionSynchronizationManager.hasResource(transactionKey)) {
+      return;
+    }
+    String name = TransactionSynchronizationManager.getCurrentTransactionName();
+    QueryCounter.Scope scope = QueryCounter.open();
+    TransactionSynchronizationManager.bindResource(transactionKey, scope);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(transactionKey);
+        scope.close();
+        statistics.recordTransaction(name != null ? name : "unnamed", scope);
+      }
+    });
+  }
+
+  private static Object proxy(Class<?> type, Object target, AfterCall afterCall) {
+    return proxy(type, target, afterCall, (_, _) -> {
+    });
+  }
+
+  private static Object proxy(Class<?> type, Object target, AfterCall afterCall,
+      BeforeCall beforeCall) {
+    return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "equals" -> proxy == args[0];
+          case "hashCode" -> System.identityHashCode(proxy);
+          case "toString" -> "Counting " + target;
+          default -> {
+            beforeCall.accept(method, args);
+            try {
+              yield afterCall.apply(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+              throw e.getTargetException();
+            }
+          }
+        });
+  }
+
+  private interface BeforeCall {
+    void accept(Method method, Object[] args);
+  }
+
+  private interface AfterCall {
+    Object apply(Method method, Object[] args, Object result);
+  }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide statement counts: executions per query shape, statements per transaction name,
+ * and the most recent requests that ran more than {@code requestThreshold} statements. Shapes
+ * and transaction names are capped, so SQL with unbounded variation cannot grow the maps; what
+ * does not fit is counted under {@link #OTHER}.
+ */
+@Slf4j
+public class QueryStatistics {
+  static final String OTHER = "(other)";
+  private static final int MAX_SHAPES = 500;
+  private static final int MAX_TRANSACTIONS = 200;
+  private static final int MAX_FLAGGED_REQUESTS = 50;
+  private static final int TOP = 20;
+
+  private final int requestThreshold;
+  private final Map<String, LongAdder> statementsByShape = new ConcurrentHashMap<>();
+  private final Map<String, TransactionTotals> transactions = new ConcurrentHashMap<>();
+  private final Deque<FlaggedRequest> flaggedRequests = new ArrayDeque<>();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder requestStatements = new LongAdder();
+  private final LongAdder flaggedRequestCount = new LongAdder();
+
+  public QueryStatistics(int requestThreshold) {
+    this.requestThreshold = requestThreshold;
+  }
+
+  void recordStatement(String shape) {
+    bounded(statementsByShape, shape, MAX_SHAPES, LongAdder::new).increment();
+  }
+
+  void recordTransaction(String name, QueryCounter.Scope scope) {
+    bounded(transactions, name, MAX_TRANSACTIONS, TransactionTotals::new).add(scope.getCount());
+  }
+
+  /** Adds a finished request; requests over the threshold are logged and kept for the report. */
+  public void recordRequest(String request, QueryCounter.Scope scope) {
+    requests.increment();
+    requestStatements.add(scope.getCount());
+    if (scope.getCount() <= requestThreshold) {
+      return;
+    }
+    flaggedRequestCount.increment();
+    Map.Entry<String, Integer> repeated = scope.getMostRepeated().orElseThrow();
+    FlaggedRequest flagged = new FlaggedRequest(Instant.now(), request, scope.getCount(),
+        repeated.getKey(), repeated.getValue());
+    log.warn("{} ran {} SQL statements (threshold {}); most repeated {}x: {}",
+        request, scope.getCount(), requestThreshold, repeated.getValue(), repeated.getKey());
+    synchronized (flaggedRequests) {
+      if (flaggedRequests.size() == MAX_FLAGGED_REQUESTS) {
+        flaggedRequests.removeFirst();
+      }
+      flaggedRequests.addLast(flagged);
+    }
+  }
+
+  public Report report() {
+    List<ShapeCount> shapes = statementsByShape.entrySet().stream()
+        .map(entry -> new ShapeCount(entry.getKey(), entry.getValue().sum()))
+        .sorted(Comparator.comparingLong(ShapeCount::executions).reversed())
+        .limit(TOP)
+        .toList();
+    List<TransactionCount> transactionCounts = transactions.entrySet().stream()
+        .map(entry -> entry.getValue().toCount(entry.getKey()))
+        .sorted(Comparator.comparingDouble(TransactionCount::meanStatements).reversed())
+        .limit(TOP)
+        .toList();
+    List<FlaggedRequest> flagged;
+    synchronized (flaggedRequests) {
+      flagged = new ArrayList<>(flaggedRequests).reversed();
+    }
+    long requestCount = requests.sum();
+    return new Report(requestThreshold, requestCount,
+        requestCount == 0 ? 0 : (double) requestStatements.sum() / requestCount,
+        flaggedRequestCount.sum(), flagged, shapes, transactionCounts);
+  }
+
+  private static <V> V bounded(Map<String, V> map, String key, int max,
+      Supplier<V> factory) {
+    V value = map.get(key);
+    if (value != null) {
+      return value;
+    }
+    return map.computeIfAbsent(map.size() < max ? key : OTHER, _ -> factory.get());
+  }
+
+  private static final class TransactionTotals {
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final AtomicInteger maxStatements = new AtomicInteger();
+
+    void add(int count) {
+      transactions.increment();
+      statements.add(count);
+      maxStatements.accumulateAndGet(count, Math::max);
+    }
+
+    TransactionCount toCount(String name) {
+      long total = transactions.sum();
+      return new TransactionCount(name, total,
+          total == 0 ? 0 : (double) statements.sum() / total, maxStatements.get());
+    }
+  }
+
+  public record Report(int requestThreshold, long requests, double meanStatementsPerRequest,
+                       long flaggedRequests, List<FlaggedRequest> recentFlaggedRequests,
+                       List<ShapeCount> topShapes, List<TransactionCount> transactions) {
+  }
+
+  public record FlaggedRequest(Instant at, String request, int statements, String mostRepeatedShape,
+                               int mostRepeatedCount) {
+  }
+
+  public record ShapeCount(String shape, long executions) {
+  }
+
+  public record TransactionCount(String name, long transactions, double meanStatements,
+                                 int maxStatements) {
+  }
+}
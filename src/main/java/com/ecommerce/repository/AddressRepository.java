@@ -1,11 +1,31 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.AddressViewDto;
 import com.ecommerce.entity.Address;
-import com.ecommerce.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface AddressRepository extends JpaRepository<Address, Long> {
-    List<Address> findByUser(User user);
+    @Query("""
+        SELECT new com.ecommerce.dto.AddressViewDto(
+          a.id, a.name, a.country, a.city, a.addressLine, a.postalCode)
+        FROM Address a
+        WHERE a.user.id = :userId
+        ORDER BY a.id
+        """)
+    List<AddressViewDto> findViewsByUserId(@Param("userId") Long userId);
+
+    long countByUserId(Long userId);
+
+    @Query("""
+        SELECT COUNT(a) > 0
+        FROM Address a
+        WHERE a.user.id = :userId AND a.name = :name
+          AND (:excludedId IS NULL OR a.id <> :excludedId)
+        """)
+    boolean existsByUserIdAndName(@Param("userId") Long userId, @Param("name") String name,
+        @Param("excludedId") Long excludedId);
 }
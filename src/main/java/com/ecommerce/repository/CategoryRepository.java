@@ -1,5 +1,6 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +11,9 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
   List<Category> findAllByOrderByNameAsc();
 
+  @Query("SELECT new com.ecommerce.dto.CatalogVersion(COUNT(c), MAX(c.updatedAt)) FROM Category c")
+  CatalogVersion findVersion();
+
   Optional<Category> findByNameIgnoreCase(String name);
 
   @Query(value = """
@@ -22,6 +26,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
   @Query(value = "SELECT * FROM categories WHERE id = :id", nativeQuery = true)
   Optional<Category> findByIdWithDeleted(Long id);
 
+  @Query(value = """
+      SELECT COUNT(*) FROM categories_products cp
+      JOIN products p ON p.id = cp.product_id
+      WHERE cp.category_id = :id AND p.is_deleted = false
+      """, nativeQuery = true)
+  long countActiveProducts(Long id);
+
   @Query(value = """
       SELECT * FROM categories c
       WHERE lower(c.name) LIKE lower(concat('%', :keyword, '%'))
@@ -0,0 +1,32 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.DailyRevenueDto;
+import com.ecommerce.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, LocalDate> {
+  @Modifying
+  @Query("""
+      UPDATE DailySalesRollup r
+      SET r.orderCount = r.orderCount + :orderCount, r.revenue = r.revenue + :revenue
+      WHERE r.salesDate = :salesDate
+      """)
+  int increment(@Param("salesDate") LocalDate salesDate, @Param("orderCount") long orderCount,
+                @Param("revenue") BigDecimal revenue);
+
+  @Query("""
+      SELECT new com.ecommerce.dto.DailyRevenueDto(r.salesDate, r.orderCount, r.revenue)
+      FROM DailySalesRollup r
+      WHERE r.salesDate BETWEEN :from AND :to
+      ORDER BY r.salesDate DESC
+      """)
+  List<DailyRevenueDto> findDailyRevenue(@Param("from") LocalDate from,
+                                         @Param("to") LocalDate to);
+}
@@ -1,23 +1,33 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.AdminOrderRowDto;
 import com.ecommerce.dto.OrderHistoryDto;
 import com.ecommerce.dto.OrderHistoryItemDto;
+import com.ecommerce.dto.OrderStatusNotification;
+import com.ecommerce.dto.ProductSalesView;
+import com.ecommerce.dto.SalesTotalsView;
 import com.ecommerce.entity.Order;
-import com.ecommerce.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
   @Query("""
       SELECT new com.ecommerce.dto.OrderHistoryDto(o.id, o.orderDate, o.status, o.totalAmount)
       FROM Order o
-      WHERE o.user = :user
+      WHERE o.user.id = :userId
       ORDER BY o.orderDate DESC
       """)
-  List<OrderHistoryDto> findOrderHistoryByUser(@Param("user") User user);
+  List<OrderHistoryDto> findOrderHistoryByUserId(@Param("userId") Long userId);
 
   @Query("""
       SELECT new com.ecommerce.dto.OrderHistoryItemDto(oi.product.id, oi.order.id, oi.productName, oi.productDescription, oi.quantity, oi.price)
@@ -25,4 +35,68 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
       WHERE oi.order.id IN :orderIds
       """)
   List<OrderHistoryItemDto> findOrderHistoryItemsByOrderIds(@Param("orderIds") List<Long> orderIds);
+
+  @Query("SELECT o.id FROM Order o WHERE o.idempotencyKey = :idempotencyKey")
+  Optional<Long> findIdByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+  @Query("""
+      SELECT COUNT(o) AS orderCount, COALESCE(SUM(o.totalAmount), 0) AS revenue
+      FROM Order o
+      WHERE o.orderDate >= :from AND o.orderDate < :to
+      """)
+  SalesTotalsView sumSalesBetween(@Param("from") Instant from, @Param("to") Instant to);
+
+  @Query("""
+      SELECT oi.product.id AS productId, MAX(oi.productName) AS productName,
+        SUM(oi.quantity) AS units, SUM(oi.price * oi.quantity) AS revenue
+      FROM OrderItem oi
+      WHERE oi.order.orderDate >= :from AND oi.order.orderDate < :to AND oi.product.id IS NOT NULL
+      GROUP BY oi.product.id
+      """)
+  List<ProductSalesView> sumProductSalesBetween(@Param("from") Instant from,
+                                                @Param("to") Instant to);
+
+  @Query("""
+      SELECT new com.ecommerce.dto.AdminOrderRowDto(o.id, o.orderDate, o.status, o.totalAmount,
+        sd.firstName, sd.lastName, sd.email)
+      FROM Order o JOIN o.shippingDetails sd
+      WHERE o.orderDate >= :from
+        AND (o.orderDate < :beforeDate OR (o.orderDate = :beforeDate AND o.id < :beforeId))
+      ORDER BY o.orderDate DESC, o.id DESC
+      """)
+  List<AdminOrderRowDto> findAdminPage(@Param("from") Instant from,
+                                       @Param("beforeDate") Instant beforeDate,
+                                       @Param("beforeId") Long beforeId,
+                                       Limit limit);
+
+  @Query("""
+      SELECT new com.ecommerce.dto.AdminOrderRowDto(o.id, o.orderDate, o.status, o.totalAmount,
+        sd.firstName, sd.lastName, sd.email)
+      FROM Order o JOIN o.shippingDetails sd
+      WHERE o.status = :status AND o.orderDate >= :from
+        AND (o.orderDate < :beforeDate OR (o.orderDate = :beforeDate AND o.id < :beforeId))
+      ORDER BY o.orderDate DESC, o.id DESC
+      """)
+  List<AdminOrderRowDto> findAdminPageByStatus(@Param("status") Order.Status status,
+                                               @Param("from") Instant from,
+                                               @Param("beforeDate") Instant beforeDate,
+                                               @Param("beforeId") Long beforeId,
+                                               Limit limit);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("""
+      SELECT new com.ecommerce.dto.OrderStatusNotification(o.id, sd.email, sd.firstName)
+      FROM Order o JOIN o.shippingDetails sd
+      WHERE o.id IN :orderIds AND o.status = :status
+      """)
+  List<OrderStatusNotification> findStatusNotificationsForUpdate(
+      @Param("orderIds") Collection<Long> orderIds, @Param("status") Order.Status status);
+
+  @Modifying
+  @Query("""
+      UPDATE Order o SET o.status = :to
+      WHERE o.id IN :orderIds AND o.status = :from
+      """)
+  int updateStatus(@Param("orderIds") Collection<Long> orderIds, @Param("from") Order.Status from,
+                   @Param("to") Order.Status to);
 }
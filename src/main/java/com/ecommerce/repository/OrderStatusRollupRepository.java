@@ -0,0 +1,47 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.OrderStatusCountDto;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderStatusRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OrderStatusRollupRepository extends JpaRepository<OrderStatusRollup, Order.Status> {
+  @Modifying
+  @Query("""
+      UPDATE OrderStatusRollup r
+      SET r.orderCount = r.orderCount + :delta
+      WHERE r.status = :status
+      """)
+  int increment(@Param("status") Order.Status status, @Param("delta") long delta);
+
+  /** Sets every existing row to the live count; a status without orders goes to zero. */
+  @Modifying
+  @Query("""
+      UPDATE OrderStatusRollup r
+      SET r.orderCount = (SELECT COUNT(o) FROM Order o WHERE o.status = r.status)
+      """)
+  int recountExisting();
+
+  /** Adds a row for each status that has orders but no rollup row yet. */
+  @Modifying
+  @Query("""
+      INSERT INTO OrderStatusRollup (status, orderCount)
+      SELECT o.status, COUNT(o)
+      FROM Order o
+      WHERE NOT EXISTS (SELECT 1 FROM OrderStatusRollup r WHERE r.status = o.status)
+      GROUP BY o.status
+      """)
+  int insertMissing();
+
+  @Query("""
+      SELECT new com.ecommerce.dto.OrderStatusCountDto(r.status, r.orderCount)
+      FROM OrderStatusRollup r
+      ORDER BY r.status
+      """)
+  List<OrderStatusCountDto> findStatusCounts();
+}
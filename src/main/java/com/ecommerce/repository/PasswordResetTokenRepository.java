@@ -0,0 +1,36 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.PasswordResetToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
+  boolean existsByTokenHashAndExpiresAtAfter(String tokenHash, Instant now);
+
+  @Query("""
+      SELECT t FROM PasswordResetToken t
+      JOIN FETCH t.user
+      WHERE t.tokenHash = :tokenHash AND t.expiresAt > :now
+      """)
+  Optional<PasswordResetToken> findValidByTokenHash(@Param("tokenHash") String tokenHash,
+                                                    @Param("now") Instant now);
+
+  @Modifying
+  @Query("DELETE FROM PasswordResetToken t WHERE t.user.id = :userId")
+  int deleteByUserId(@Param("userId") Long userId);
+
+  @Query("SELECT t.id FROM PasswordResetToken t WHERE t.expiresAt <= :now ORDER BY t.expiresAt")
+  List<Long> findExpiredIds(@Param("now") Instant now, Pageable pageable);
+
+  @Modifying
+  @Query("DELETE FROM PasswordResetToken t WHERE t.id IN :ids")
+  int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,16 +1,65 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.dto.ProductAdminView;
+import com.ecommerce.dto.ProductStockUpdate;
+import com.ecommerce.dto.ProductSummaryDto;
 import com.ecommerce.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+    ProductSummaryRepository {
+  @Query("""
+      SELECT new com.ecommerce.dto.ProductSummaryDto(
+        p.id, p.name, p.description, p.price, p.stockQuantity, p.averageRating, p.reviewCount)
+      FROM Product p
+      WHERE p.id = :id
+      """)
+  Optional<ProductSummaryDto> findSummaryById(Long id);
+
+  /** A scalar read, so it reflects the database even when the entity is served from cache. */
+  @Query("SELECT p.updatedAt FROM Product p WHERE p.id = :id")
+  Optional<Instant> findUpdatedAtById(Long id);
+
+  /**
+   * Live stock as a scalar: the shard sum for sharded products, the column otherwise. Unlike
+   * {@code findById} it is never answered from the second-level cache.
+   */
+  @Query("""
+      SELECT CASE WHEN p.stockShardCount > 0
+          THEN (SELECT CAST(COALESCE(SUM(s.quantity), 0) AS Integer)
+                FROM ProductStockShard s WHERE s.productId = p.id)
+          ELSE p.stockQuantity
+        END
+      FROM Product p
+      WHERE p.id = :id
+      """)
+  Optional<Integer> findAvailableStockById(Long id);
+
+  @Query("""
+      SELECT new com.ecommerce.dto.ProductStockUpdate(
+        p.id, p.price,
+        CASE WHEN p.stockShardCount > 0
+          THEN (SELECT CAST(COALESCE(SUM(s.quantity), 0) AS Integer)
+                FROM ProductStockShard s WHERE s.productId = p.id)
+          ELSE p.stockQuantity
+        END,
+        true)
+      FROM Product p
+      WHERE p.id IN :ids
+      """)
+  List<ProductStockUpdate> findStockUpdatesByIds(Collection<Long> ids);
+
   @Query(value = """
       SELECT p.id, p.name, p.description, p.price, p.stock_quantity AS stockQuantity,
         GROUP_CONCAT(c.name ORDER BY c.name SEPARATOR ', ') AS categoriesString, 
@@ -43,7 +92,9 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
   List<ProductAdminView> searchForAdminView(String keyword, List<Long> categoryIds,
                                             int categoryCount, String status, boolean isDeleted);
 
+  /** The hint limits second-level cache invalidation to the regions backed by the products table. */
   @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "products"))
   @Query(value = "UPDATE products SET is_deleted = false WHERE id = :id", nativeQuery = true)
   void restoreById(Long id);
 
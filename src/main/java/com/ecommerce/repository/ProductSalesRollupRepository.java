@@ -0,0 +1,45 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.TopSellerDto;
+import com.ecommerce.entity.ProductSalesRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProductSalesRollupRepository extends JpaRepository<ProductSalesRollup, Long> {
+  @Modifying
+  @Query("""
+      UPDATE ProductSalesRollup r
+      SET r.units = r.units + :units, r.revenue = r.revenue + :revenue,
+        r.productName = :productName
+      WHERE r.salesDate = :salesDate AND r.productId = :productId
+      """)
+  int increment(@Param("salesDate") LocalDate salesDate, @Param("productId") Long productId,
+                @Param("productName") String productName, @Param("units") long units,
+                @Param("revenue") BigDecimal revenue);
+
+  @Query("""
+      SELECT new com.ecommerce.dto.TopSellerDto(
+        r.productId, MAX(r.productName), SUM(r.units), SUM(r.revenue))
+      FROM ProductSalesRollup r
+      WHERE r.salesDate BETWEEN :from AND :to
+      GROUP BY r.productId
+      ORDER BY SUM(r.units) DESC, SUM(r.revenue) DESC
+      """)
+  List<TopSellerDto> findTopSellers(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                    Pageable pageable);
+
+  @Modifying
+  @Query("DELETE FROM ProductSalesRollup r WHERE r.salesDate = :salesDate")
+  int deleteBySalesDate(@Param("salesDate") LocalDate salesDate);
+
+  @Modifying
+  @Query("DELETE FROM ProductSalesRollup r WHERE r.salesDate < :salesDate")
+  int deleteOlderThan(@Param("salesDate") LocalDate salesDate);
+}
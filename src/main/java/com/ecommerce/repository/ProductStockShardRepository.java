@@ -0,0 +1,84 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+  @Query("""
+      SELECT s.shardIndex FROM ProductStockShard s
+      WHERE s.productId = :productId AND s.quantity >= :quantity
+      """)
+  List<Integer> findShardIndexesWithQuantity(@Param("productId") Long productId,
+                                             @Param("quantity") int quantity);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("""
+      SELECT s FROM ProductStockShard s
+      WHERE s.productId = :productId
+      ORDER BY s.shardIndex ASC
+      """)
+  List<ProductStockShard> findByProductIdWithLock(@Param("productId") Long productId);
+
+  @Modifying
+  @Query("""
+      UPDATE ProductStockShard s
+      SET s.quantity = s.quantity - :quantity
+      WHERE s.productId = :productId AND s.shardIndex = :shardIndex AND s.quantity >= :quantity
+      """)
+  int tryDecrement(@Param("productId") Long productId, @Param("shardIndex") int shardIndex,
+                   @Param("quantity") int quantity);
+
+  @Query("""
+      SELECT COALESCE(SUM(s.quantity), 0) FROM ProductStockShard s
+      WHERE s.productId = :productId
+      """)
+  int sumQuantityByProductId(@Param("productId") Long productId);
+
+  @Query("""
+      SELECT s.productId FROM ProductStockShard s
+      GROUP BY s.productId
+      HAVING MIN(s.quantity) = 0 AND SUM(s.quantity) >= COUNT(s)
+      """)
+  List<Long> findProductIdsWithDepletedShards();
+
+  @Modifying
+  @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId")
+  int deleteByProductId(@Param("productId") Long productId);
+
+  @Query(value = """
+      SELECT p.id FROM products p
+      WHERE p.stock_shard_count > 0
+        AND p.stock_quantity <> (
+          SELECT COALESCE(SUM(s.quantity), 0) FROM product_stock_shards s WHERE s.product_id = p.id)
+      """, nativeQuery = true)
+  List<Long> findProductIdsWithStaleStockSnapshot();
+
+  /**
+   * Declares only the shards table as its query space: naming {@code products} would drop the
+   * whole Product cache region every few seconds, so callers evict the updated ids instead.
+   */
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_stock_shards"))
+  @Query(value = """
+      UPDATE products p
+      SET stock_quantity = (
+        SELECT COALESCE(SUM(s.quantity), 0) FROM product_stock_shards s WHERE s.product_id = p.id),
+        updated_at = CURRENT_TIMESTAMP(6)
+      WHERE p.id IN (:productIds)
+        AND p.stock_shard_count > 0
+        AND p.stock_quantity <> (
+          SELECT COALESCE(SUM(s.quantity), 0) FROM product_stock_shards s WHERE s.product_id = p.id)
+      """, nativeQuery = true)
+  int syncProductStockSnapshots(@Param("productIds") Collection<Long> productIds);
+}
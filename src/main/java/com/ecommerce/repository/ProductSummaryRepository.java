@@ -0,0 +1,20 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.CatalogVersion;
+import com.ecommerce.dto.ProductSummaryDto;
+import com.ecommerce.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Runs a product {@link Specification} as a constructor query, so search results come back as
+ * flat rows instead of managed entities.
+ */
+public interface ProductSummaryRepository {
+  List<ProductSummaryDto> findSummaries(Specification<Product> specification, Pageable pageable);
+
+  /** Count and latest {@code updated_at} of the matching products, in one aggregate row. */
+  CatalogVersion findVersion(Specification<Product> specification);
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.CatalogVersion;
+import com.ecommerce.dto.ProductSummaryDto;
+import com.ecommerce.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+class ProductSummaryRepositoryImpl implements ProductSummaryRepository {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<ProductSummaryDto> findSummaries(Specification<Product> specification,
+                                              Pageable pageable) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductSummaryDto> query = cb.createQuery(ProductSummaryDto.class);
+    Root<Product> root = query.from(Product.class);
+    query.select(cb.construct(ProductSummaryDto.class,
+        root.get("id"), root.get("name"), root.get("description"), root.get("price"),
+        root.get("stockQuantity"), root.get("averageRating"), root.get("reviewCount")));
+
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    if (pageable.getSort().isSorted()) {
+      query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+    }
+
+    TypedQuery<ProductSummaryDto> typedQuery = entityManager.createQuery(query);
+    if (pageable.isPaged()) {
+      typedQuery.setFirstResult((int) pageable.getOffset());
+      typedQuery.setMaxResults(pageable.getPageSize());
+    }
+    return typedQuery.getResultList();
+  }
+
+  @Override
+  public CatalogVersion findVersion(Specification<Product> specification) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<CatalogVersion> query = cb.createQuery(CatalogVersion.class);
+    Root<Product> root = query.from(Product.class);
+    query.select(cb.construct(CatalogVersion.class,
+        cb.countDistinct(root), cb.greatest(root.<Instant>get("updatedAt"))));
+
+    Predicate predicate = specification.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    return entityManager.createQuery(query).getSingleResult();
+  }
+}
@@ -1,14 +1,25 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.ReviewDto;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.Review;
 import com.ecommerce.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
   Page<Review> findByProductOrderByCreatedAtDesc(Product product, Pageable pageable);
 
+  @Query(value = """
+      SELECT new com.ecommerce.dto.ReviewDto(u.username, r.rating, r.comment, r.createdAt)
+      FROM Review r JOIN r.user u
+      WHERE r.product.id = :productId
+      ORDER BY r.createdAt DESC
+      """,
+      countQuery = "SELECT COUNT(r) FROM Review r WHERE r.product.id = :productId")
+  Page<ReviewDto> findViewsByProductId(Long productId, Pageable pageable);
+
   boolean existsByUserAndProduct(User user, Product product);
 }
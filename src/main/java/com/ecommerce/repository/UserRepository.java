@@ -1,8 +1,13 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.UserRoleView;
 import com.ecommerce.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,5 +19,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   boolean existsByEmail(String email);
 
-  Optional<User> findByPasswordResetToken(String token);
+  @Query("""
+      SELECT u.id AS id, u.username AS username, r.name AS role
+      FROM User u LEFT JOIN u.roles r
+      WHERE u.username = :username
+      """)
+  List<UserRoleView> findRoleViewsByUsername(@Param("username") String username);
+
+  /**
+   * The stored hash alone, read on every cached login so that a password changed through any
+   * instance takes effect at once.
+   */
+  @Query("SELECT u.password FROM User u WHERE u.username = :username")
+  Optional<String> findPasswordByUsername(@Param("username") String username);
+
+  @Query("SELECT u.passwordChangedAt FROM User u WHERE u.username = :username")
+  Optional<Instant> findPasswordChangedAtByUsername(@Param("username") String username);
 }
@@ -0,0 +1,70 @@
+package com.ecommerce.security;
+
+import com.ecommerce.dto.CurrentUser;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates {@code Authorization: Bearer} requests from an {@link ApiTokenService} token.
+ * The verified snapshot is also stored as the request's {@link CurrentUser} so services do
+ * not look the user up again.
+ */
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+  static final String BEARER_PREFIX = "Bearer ";
+
+  private final ApiTokenService apiTokenService;
+  private final SecurityContextHolderStrategy securityContextHolderStrategy =
+      SecurityContextHolder.getContextHolderStrategy();
+
+  public ApiTokenAuthenticationFilter(ApiTokenService apiTokenService) {
+    this.apiTokenService = apiTokenService;
+  }
+
+  public static boolean hasBearerToken(HttpServletRequest request) {
+    String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+    return header != null
+        && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    if (!hasBearerToken(request)) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    String token = request.getHeader(HttpHeaders.AUTHORIZATION)
+        .substring(BEARER_PREFIX.length())
+        .trim();
+    Optional<CurrentUser> currentUser = apiTokenService.verify(token);
+    if (currentUser.isEmpty()) {
+      response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+      response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token.");
+      return;
+    }
+
+    CurrentUser user = currentUser.get();
+    UsernamePasswordAuthenticationToken authentication = UsernamePasswordAuthenticationToken
+        .authenticated(user.username(), null, user.roles().stream()
+            .map(SimpleGrantedAuthority::new)
+            .toList());
+    SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+    context.setAuthentication(authentication);
+    securityContextHolderStrategy.setContext(context);
+    request.setAttribute(CurrentUser.REQUEST_ATTRIBUTE, user);
+    filterChain.doFilter(request, response);
+  }
+}
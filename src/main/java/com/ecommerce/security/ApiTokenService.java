@@ -0,0 +1,162 @@
+package com.ecommerce.security;
+
+import com.ecommerce.dto.CurrentUser;
+import com.ecommerce.repository.UserRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies compact HMAC-SHA256 tokens for the REST API. A token is
+ * {@code base64url(payload).base64url(signature)} where the payload carries the user id,
+ * expiry, the time of the user's last password change, roles and username. Verifying one needs
+ * no session and no database read: a password change records its time in a small in-memory
+ * map, and tokens whose signed time is older are rejected. Entries are dropped once every token
+ * they could revoke has expired. The map is per instance, so the secret must be shared and at
+ * least 32 bytes; startup fails otherwise.
+ */
+@Component
+@ConditionalOnProperty(name = "ecommerce.security.api-token.enabled", havingValue = "true")
+public class ApiTokenService {
+  private static final int MIN_SECRET_BYTES = 32;
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final String VERSION = "v2";
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final UserRepository userRepository;
+  private final SecretKeySpec key;
+  private final long expirationMillis;
+  private final Clock clock;
+  private final ThreadLocal<Mac> macs;
+  private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+
+  public ApiTokenService(
+      @Value("${ecommerce.security.api-token.secret:}") String secret,
+      @Value("${jwt.expiration.ms:86400000}") long expirationMillis,
+      UserRepository userRepository,
+      ObjectProvider<Clock> clockProvider) {
+    this.userRepository = userRepository;
+    byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+    if (secret.isBlank() || keyBytes.length < MIN_SECRET_BYTES) {
+      throw new IllegalStateException("ecommerce.security.api-token.secret must be set to at least "
+          + MIN_SECRET_BYTES + " bytes when ecommerce.security.api-token.enabled=true");
+    }
+    this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    this.expirationMillis = expirationMillis;
+    this.clock = clockProvider.getIfAvailable(Clock::systemUTC);
+    this.macs = ThreadLocal.withInitial(this::newMac);
+  }
+
+  public String issue(CurrentUser user) {
+    long expiresAt = clock.millis() + expirationMillis;
+    String payload = String.join("|", VERSION, String.valueOf(user.id()),
+        String.valueOf(expiresAt), String.valueOf(passwordChangedAt(user.username())),
+        String.join(",", user.roles()), user.username());
+    byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+    return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+  }
+
+  public Optional<CurrentUser> verify(String token) {
+    int separator = token.indexOf('.');
+    if (separator <= 0 || separator == token.length() - 1) {
+      return Optional.empty();
+    }
+
+    byte[] payloadBytes;
+    byte[] signature;
+    try {
+      payloadBytes = DECODER.decode(token.substring(0, separator));
+      signature = DECODER.decode(token.substring(separator + 1));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+    if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+      return Optional.empty();
+    }
+
+    String[] parts = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 6);
+    if (parts.length != 6 || !VERSION.equals(parts[0])) {
+      return Optional.empty();
+    }
+    try {
+      if (Long.parseLong(parts[2]) < clock.millis()
+          || isRevoked(parts[5], Long.parseLong(parts[3]))) {
+        return Optional.empty();
+      }
+      Set<String> roles = parts[4].isEmpty() ? Set.of()
+          : Arrays.stream(parts[4].split(",")).collect(Collectors.toUnmodifiableSet());
+      return Optional.of(new CurrentUser(Long.parseLong(parts[1]), parts[5], roles));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** Rejects this user's tokens that were issued before {@code changedAt}. */
+  public void revokeIssuedBefore(String username, Instant changedAt) {
+    long now = clock.millis();
+    revocations.merge(username, new Revocation(toMicros(changedAt), now + expirationMillis),
+        (previous, next) -> new Revocation(
+            Math.max(previous.passwordChangedAt(), next.passwordChangedAt()),
+            next.keepUntilMillis()));
+    revocations.values().removeIf(revocation -> revocation.keepUntilMillis() < now);
+  }
+
+  private boolean isRevoked(String username, long passwordChangedAt) {
+    Revocation revocation = revocations.get(username);
+    return revocation != null && passwordChangedAt < revocation.passwordChangedAt();
+  }
+
+  public long getExpirationSeconds() {
+    return expirationMillis / 1000;
+  }
+
+  /** Read once per issued token, not per request; -1 once the user is gone. */
+  private long passwordChangedAt(String username) {
+    return userRepository.findPasswordChangedAtByUsername(username)
+        .map(ApiTokenService::toMicros)
+        .orElse(-1L);
+  }
+
+  /** The column's precision. */
+  private static long toMicros(Instant instant) {
+    return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+  }
+
+  /** Kept until every token issued before it was recorded has expired. */
+  private record Revocation(long passwordChangedAt, long keepUntilMillis) {
+  }
+
+  private byte[] sign(byte[] payload) {
+    Mac mac = macs.get();
+    mac.reset();
+    return mac.doFinal(payload);
+  }
+
+  private Mac newMac() {
+    try {
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(key);
+      return mac;
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks the highest BCrypt strength whose hash time on this host stays within a target.
+ * Each extra round doubles the work, so one timed hash at the minimum strength is enough to
+ * estimate the others. The strength can move both ways between startups, so the encoder from
+ * {@link #encoderFor} upgrades any hash whose cost differs from it, not only weaker ones.
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+  public static final int MIN_STRENGTH = 10;
+  public static final int MAX_STRENGTH = 16;
+  private static final int SAMPLES = 3;
+  private static final Pattern COST = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+
+  private BCryptStrengthCalibrator() {
+  }
+
+  public static int calibrate(long targetMillis) {
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+    encoder.encode("warm-up-password");
+
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < SAMPLES; i++) {
+      long start = System.nanoTime();
+      encoder.encode("calibration-password");
+      best = Math.min(best, System.nanoTime() - start);
+    }
+
+    int strength = strengthFor(best / 1_000_000.0, targetMillis);
+    log.info("BCrypt strength {} selected ({} ms at strength {}, target {} ms)",
+        strength, String.format("%.1f", best / 1_000_000.0), MIN_STRENGTH, targetMillis);
+    return strength;
+  }
+
+  /**
+   * A BCrypt encoder whose {@code upgradeEncoding} is true for any stored cost other than
+   * {@code strength}, so lowering the strength also rehashes on the next login.
+   */
+  public static BCryptPasswordEncoder encoderFor(int strength) {
+    return new BCryptPasswordEncoder(strength) {
+      @Override
+      public boolean upgradeEncoding(String encodedPassword) {
+        Matcher matcher = encodedPassword == null ? null : COST.matcher(encodedPassword);
+        if (matcher == null || !matcher.find()) {
+          return super.upgradeEncoding(encodedPassword);
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+      }
+    };
+  }
+
+  public static int strengthFor(double minStrengthMillis, long targetMillis) {
+    int strength = MIN_STRENGTH;
+    double millis = minStrengthMillis;
+    while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+      millis *= 2;
+      strength++;
+    }
+    return strength;
+  }
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.security;
+
+import com.ecommerce.exception.PasswordHashingBusyException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs encode and matches on a dedicated, bounded executor so a burst of logins cannot take
+ * every request thread. A hash that is still queued after the timeout is dropped and the
+ * caller gets a {@link PasswordHashingBusyException}; one that has already started is
+ * waited for.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+  private final PasswordEncoder delegate;
+  private final AsyncTaskExecutor executor;
+  private final long queueTimeoutMillis;
+
+  public BoundedPasswordEncoder(PasswordEncoder delegate, AsyncTaskExecutor executor,
+                                long queueTimeoutMillis) {
+    this.delegate = delegate;
+    this.executor = executor;
+    this.queueTimeoutMillis = queueTimeoutMillis;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return run(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return run(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T run(Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(task);
+    } catch (TaskRejectedException e) {
+      throw new PasswordHashingBusyException("Too many password requests, please try again.");
+    }
+
+    try {
+      try {
+        return future.get(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        if (future.cancel(false)) {
+          throw new PasswordHashingBusyException("Too many password requests, please try again.");
+        }
+        return future.get();
+      }
+    } catch (CancellationException e) {
+      throw new PasswordHashingBusyException("Too many password requests, please try again.");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new PasswordHashingBusyException("Interrupted while waiting for password hashing.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
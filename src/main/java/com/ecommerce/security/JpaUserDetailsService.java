@@ -5,7 +5,9 @@ import com.ecommerce.entity.User;
 import com.ecommerce.repository.UserRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -15,24 +17,57 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
-public class JpaUserDetailsService implements UserDetailsService {
+public class JpaUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
   private final UserRepository userRepository;
+  private final UserCache userCache;
 
-  public JpaUserDetailsService(UserRepository userRepository) {
+  public JpaUserDetailsService(UserRepository userRepository, UserCache userCache) {
     this.userRepository = userRepository;
+    this.userCache = userCache;
   }
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    UserDetails cached = userCache.getUserFromCache(username);
+    if (cached != null) {
+      if (userRepository.findPasswordByUsername(username)
+          .filter(cached.getPassword()::equals).isPresent()) {
+        return cached;
+      }
+      userCache.removeUserFromCache(username);
+    }
+
     User user = userRepository
         .findByUsername(username)
         .orElseThrow(() -> new UsernameNotFoundException(
             "User not found with username: " + username));
 
+    UserDetails userDetails = toUserDetails(user);
+    userCache.putUserInCache(userDetails);
+    return userDetails;
+  }
+
+  @Override
+  public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+    User user = userRepository
+        .findByUsername(userDetails.getUsername())
+        .orElseThrow(() -> new UsernameNotFoundException(
+            "User not found with username: " + userDetails.getUsername()));
+    user.setPassword(newPassword);
+    userRepository.save(user);
+    userCache.removeUserFromCache(user.getUsername());
+    return toUserDetails(user);
+  }
+
+  private UserDetails toUserDetails(User user) {
     return new org.springframework.security.core.userdetails.User(
         user.getUsername(),
         user.getPassword(),
+        user.isEnabled(),
+        true,
+        true,
+        true,
         mapRolesToAuthorities(user.getRoles()));
   }
  
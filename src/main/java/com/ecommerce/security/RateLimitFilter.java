@@ -0,0 +1,144 @@
+package com.ecommerce.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throttles the open endpoints that cost a BCrypt hash or an email: login, registration and
+ * the forgot-password form. Each POST is counted against the client IP and against the
+ * submitted username or email, and rejected with 429 once either goes over its limit. The API
+ * token request carries its username in a JSON body, so its controller counts the identity
+ * through {@link #tryIdentity}.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+  private static final Map<String, String> ENDPOINTS = Map.of(
+      "/login", "login",
+      "/processRegistration", "registration",
+      "/forgot-password", "forgot-password",
+      "/api/auth/token", "api-token");
+
+  private final boolean enabled;
+  private final int ipLimit;
+  private final int identityLimit;
+  private final long windowSeconds;
+  private final SlidingWindowSketch sketch;
+  private final MeterRegistry meterRegistry;
+  private final Clock clock;
+
+  public RateLimitFilter(
+      @Value("${ecommerce.security.rate-limit.enabled:true}") boolean enabled,
+      @Value("${ecommerce.security.rate-limit.ip-limit:30}") int ipLimit,
+      @Value("${ecommerce.security.rate-limit.identity-limit:10}") int identityLimit,
+      @Value("${ecommerce.security.rate-limit.window-seconds:60}") long windowSeconds,
+      @Value("${ecommerce.security.rate-limit.sketch-depth:4}") int sketchDepth,
+      @Value("${ecommerce.security.rate-limit.sketch-width:8192}") int sketchWidth,
+      ObjectProvider<MeterRegistry> meterRegistryProvider,
+      ObjectProvider<Clock> clockProvider) {
+    this.enabled = enabled;
+    this.ipLimit = ipLimit;
+    this.identityLimit = identityLimit;
+    this.windowSeconds = windowSeconds;
+    this.sketch = new SlidingWindowSketch(sketchDepth, sketchWidth, windowSeconds * 1000);
+    this.meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+    this.clock = clockProvider.getIfAvailable(Clock::systemUTC);
+
+    Gauge.builder("ecommerce.ratelimit.limit", () -> ipLimit)
+        .tag("key", "ip")
+        .register(meterRegistry);
+    Gauge.builder("ecommerce.ratelimit.limit", () -> identityLimit)
+        .tag("key", "identity")
+        .register(meterRegistry);
+    Gauge.builder("ecommerce.ratelimit.window.seconds", () -> windowSeconds)
+        .register(meterRegistry);
+    Gauge.builder("ecommerce.ratelimit.sketch.bytes", sketch, SlidingWindowSketch::memoryFootprintBytes)
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || !"POST".equals(request.getMethod()) || !ENDPOINTS.containsKey(path(request));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+    String endpoint = ENDPOINTS.get(path(request));
+    long now = clock.millis();
+
+    boolean ipAllowed = sketch.incrementAndEstimate("ip:" + request.getRemoteAddr(), now) <= ipLimit;
+    String identity = identity(request);
+    boolean identityAllowed = identity == null
+        || sketch.incrementAndEstimate("id:" + identity, now) <= identityLimit;
+
+    if (ipAllowed && identityAllowed) {
+      count(endpoint, "allowed");
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    count(endpoint, ipAllowed ? "rejected-identity" : "rejected-ip");
+    log.warn("Rate limit exceeded on {} for {}", endpoint, request.getRemoteAddr());
+    response.setHeader("Retry-After", String.valueOf(windowSeconds));
+    response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(),
+        "Too many attempts, please try again later.");
+  }
+
+  /**
+   * Counts an attempt for an identity that is not a form parameter and returns whether it is
+   * still within the identity limit.
+   */
+  public boolean tryIdentity(String endpoint, String identity) {
+    if (!enabled || identity == null || identity.isBlank()) {
+      return true;
+    }
+    boolean allowed = sketch.incrementAndEstimate(
+        "id:" + identity.trim().toLowerCase(Locale.ROOT), clock.millis()) <= identityLimit;
+    if (!allowed) {
+      count(endpoint, "rejected-identity");
+    }
+    return allowed;
+  }
+
+  public long getWindowSeconds() {
+    return windowSeconds;
+  }
+
+  private String path(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  private String identity(HttpServletRequest request) {
+    String identity = request.getParameter("username");
+    if (identity == null || identity.isBlank()) {
+      identity = request.getParameter("email");
+    }
+    return identity == null || identity.isBlank() ? null : identity.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private void count(String endpoint, String result) {
+    Counter.builder("ecommerce.ratelimit.requests")
+        .tag("endpoint", endpoint)
+        .tag("result", result)
+        .register(meterRegistry)
+        .increment();
+  }
+}
@@ -1,16 +1,35 @@
 package com.ecommerce.security;
 
+import com.ecommerce.exception.PasswordHashingBusyException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.DelegatingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+
+import java.util.LinkedHashMap;
 
 @Configuration
 @EnableWebSecurity
@@ -19,18 +38,52 @@ public class SecurityConfig {
   private final CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler;
   private final AccessDeniedHandler customAccessDeniedHandler;
   private final UserDetailsService userDetailsService;
+  private final RateLimitFilter rateLimitFilter;
 
   @Value("${ecommerce.security.remember-me-key}")
   private String rememberMeKey;
 
+  @Value("${ecommerce.security.api-token.enabled:false}")
+  private boolean apiTokenEnabled;
+
+  @Bean
+  @Order(1)
+  @ConditionalOnProperty(name = "ecommerce.security.api-token.enabled", havingValue = "true")
+  public SecurityFilterChain apiTokenFilterChain(HttpSecurity http, ApiTokenService apiTokenService)
+      throws Exception {
+    http
+        .securityMatcher(new AndRequestMatcher(
+            PathPatternRequestMatcher.withDefaults().matcher("/api/**"),
+            ApiTokenAuthenticationFilter::hasBearerToken))
+        .authorizeHttpRequests(configurer ->
+            configurer
+                .requestMatchers("/api/auth/**", "/api/products/**")
+                .permitAll()
+
+                .anyRequest()
+                .authenticated()
+        )
+        .sessionManagement(session ->
+            session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .csrf(AbstractHttpConfigurer::disable)
+        .requestCache(AbstractHttpConfigurer::disable)
+        .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService),
+            AnonymousAuthenticationFilter.class)
+        .exceptionHandling(exceptions ->
+            exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+        );
+
+    return http.build();
+  }
+
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     http
         .authorizeHttpRequests(configurer ->
             configurer
                 .requestMatchers(
-                    "/api/auth/**", "/api/cart/**", "/cart/**", "/", "/products/list",
-                    "/products/**", "/login", "/logout", "/register", "/error",
+                    "/api/auth/**", "/api/cart/**", "/api/products/**", "/cart/**", "/",
+                    "/products/list", "/products/**", "/login", "/logout", "/register", "/error",
                     "/processRegistration", "/forgot-password", "/reset-password",
                     "/access-denied", "/favicon.ico", "/orders/shipping-details",
                     "/orders/place-order", "/orders/confirmation")
@@ -42,6 +95,9 @@ public class SecurityConfig {
                 .requestMatchers("/v3/api-docs/admin")
                 .hasRole("ADMIN")
 
+                .requestMatchers("/actuator/hotpaths", "/actuator/queries", "/actuator/jfr")
+                .hasRole("ADMIN")
+
                 .requestMatchers("/v3/api-docs/**")
                 .permitAll()
 
@@ -56,7 +112,7 @@ public class SecurityConfig {
                 .loginPage("/login")
                 .loginProcessingUrl("/login")
                 .successHandler(customAuthenticationSuccessHandler)
-                .failureUrl("/login?error=true")
+                .failureHandler(authenticationFailureHandler())
                 .permitAll()
         )
         .rememberMe(remember -> remember
@@ -72,6 +128,14 @@ public class SecurityConfig {
                 .deleteCookies("JSESSIONID", "remember-me")
                 .permitAll()
         );
+    http
+        .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+        .csrf(csrf -> {
+          // The token endpoint takes credentials, not a session; it only exists when enabled.
+          if (apiTokenEnabled) {
+            csrf.ignoringRequestMatchers("/api/auth/**");
+          }
+        });
     http
         .exceptionHandling(exceptions ->
             exceptions.accessDeniedHandler(customAccessDeniedHandler)
@@ -80,6 +144,22 @@ public class SecurityConfig {
     return http.build();
   }
 
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
+  private AuthenticationFailureHandler authenticationFailureHandler() {
+    LinkedHashMap<Class<? extends AuthenticationException>, AuthenticationFailureHandler> handlers =
+        new LinkedHashMap<>();
+    handlers.put(PasswordHashingBusyException.class, (request, response, exception) ->
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, exception.getMessage()));
+    return new DelegatingAuthenticationFailureHandler(handlers,
+        new SimpleUrlAuthenticationFailureHandler("/login?error=true"));
+  }
+
   @Bean
   public AuthenticationManager authenticationManager(
       AuthenticationConfiguration config) throws Exception {
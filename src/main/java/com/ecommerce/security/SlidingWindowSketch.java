@@ -0,0 +1,112 @@
+package com.ecommerce.security;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate per-key request counts over a sliding window, in fixed memory. Counting takes no
+ * lock; only the first request of a new window does, to clear that window's counters before
+ * anyone can see it. Counts live in two count-min sketches, one for the current fixed window and one for the
+ * previous one; the sliding estimate weights the previous window by how much of it still
+ * overlaps. Collisions only ever over-count, so a key is never let through early. Each row
+ * picks its counter by multiply-shift of a 64-bit key hash with its own odd constant, so keys
+ * that collide in one row (or share a {@code String.hashCode()}) are unlikely to collide in all.
+ */
+public class SlidingWindowSketch {
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final int depth;
+  private final int mask;
+  private final int shift;
+  private final long[] rowMultipliers;
+  private final long windowMillis;
+  private final AtomicIntegerArray[] windows;
+  private final AtomicLong currentWindow = new AtomicLong(Long.MIN_VALUE);
+  private final Object rotationLock = new Object();
+
+  public SlidingWindowSketch(int depth, int width, long windowMillis) {
+    if (depth < 1 || width < 1 || Integer.bitCount(width) != 1) {
+      throw new IllegalArgumentException("Sketch depth must be positive and width a power of two");
+    }
+    this.depth = depth;
+    this.mask = width - 1;
+    this.shift = Long.SIZE - Integer.numberOfTrailingZeros(width);
+    this.rowMultipliers = new long[depth];
+    long seed = FNV_OFFSET;
+    for (int row = 0; row < depth; row++) {
+      seed += 0x9e3779b97f4a7c15L;
+      rowMultipliers[row] = mix(seed) | 1;
+    }
+    this.windowMillis = windowMillis;
+    this.windows = new AtomicIntegerArray[]{
+        new AtomicIntegerArray(depth * width), new AtomicIntegerArray(depth * width)};
+  }
+
+  public double incrementAndEstimate(String key, long nowMillis) {
+    long window = advance(nowMillis / windowMillis);
+    AtomicIntegerArray current = windows[(int) (window & 1)];
+    AtomicIntegerArray previous = windows[(int) ((window + 1) & 1)];
+
+    long hash = hash(key);
+    int currentCount = Integer.MAX_VALUE;
+    int previousCount = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      int index = row * (mask + 1) + ((int) ((hash * rowMultipliers[row]) >>> shift) & mask);
+      currentCount = Math.min(currentCount, current.incrementAndGet(index));
+      previousCount = Math.min(previousCount, previous.get(index));
+    }
+
+    double elapsed = Math.floorMod(nowMillis, windowMillis) / (double) windowMillis;
+    return currentCount + previousCount * (1.0 - elapsed);
+  }
+
+  public int memoryFootprintBytes() {
+    return windows.length * windows[0].length() * Integer.BYTES;
+  }
+
+  /**
+   * Moves to {@code window} if it is newer. The counters are cleared before the new window is
+   * published, so every increment that sees it lands in a cleared sketch; a request still
+   * counting against the old window can at worst leave a stray hit behind, which only
+   * over-counts.
+   */
+  private long advance(long window) {
+    long seen = currentWindow.get();
+    if (window <= seen) {
+      return seen;
+    }
+    synchronized (rotationLock) {
+      seen = currentWindow.get();
+      if (window > seen) {
+        if (window - seen > 1) {
+          clear(windows[(int) ((window + 1) & 1)]);
+        }
+        clear(windows[(int) (window & 1)]);
+        currentWindow.set(window);
+        return window;
+      }
+      return seen;
+    }
+  }
+
+  private static void clear(AtomicIntegerArray counters) {
+    for (int i = 0; i < counters.length(); i++) {
+      counters.set(i, 0);
+    }
+  }
+
+  private static long hash(String key) {
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long hash) {
+    hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+    return hash ^ (hash >>> 31);
+  }
+}
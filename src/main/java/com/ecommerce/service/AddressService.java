@@ -1,12 +1,12 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.AddressDto;
-import com.ecommerce.entity.Address;
+import com.ecommerce.dto.AddressViewDto;
 
 import java.util.List;
 
 public interface AddressService {
-    List<Address> getAddressesForCurrentUser();
+    List<AddressViewDto> getAddressesForCurrentUser();
 
     void deleteAddress(Long addressId);
 
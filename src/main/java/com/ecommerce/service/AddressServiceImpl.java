@@ -1,8 +1,10 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.AddressBookCache;
 import com.ecommerce.dto.AddressDto;
+import com.ecommerce.dto.AddressViewDto;
+import com.ecommerce.dto.CurrentUser;
 import com.ecommerce.entity.Address;
-import com.ecommerce.entity.User;
 import com.ecommerce.exception.AccessDeniedException;
 import com.ecommerce.exception.AddressLimitExceededException;
 import com.ecommerce.exception.ResourceNotFoundException;
@@ -10,32 +12,41 @@ import com.ecommerce.repository.AddressRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class AddressServiceImpl implements AddressService {
+  static final int MAX_ADDRESSES_PER_USER = 5;
+
   private final AddressRepository addressRepository;
   private final UserService userService;
+  private final AddressBookCache addressBookCache;
 
-  private void OwnerCheck(Address address, User currentUser) {
-    if (!address.getUser().getId().equals(currentUser.getId())) {
+  private void OwnerCheck(Address address, CurrentUser currentUser) {
+    if (!address.getUser().getId().equals(currentUser.id())) {
       throw new AccessDeniedException("You are not authorized to edit this address.");
     }
   }
 
+  /**
+   * Not transactional on purpose: the query then runs in its own transaction, which starts after
+   * the cache lookup. A surrounding one could have taken its snapshot before a concurrent save
+   * committed and store those rows after the save's invalidation.
+   */
   @Override
-  @Transactional(readOnly = true)
-  public List<Address> getAddressesForCurrentUser() {
-    User currentUser = userService.getCurrentUser();
-    return addressRepository.findByUser(currentUser);
+  public List<AddressViewDto> getAddressesForCurrentUser() {
+    Long userId = userService.getCurrentUserSnapshot().id();
+    return addressBookCache.getOrLoad(userId, () -> addressRepository.findViewsByUserId(userId));
   }
 
   @Override
   @Transactional
   public void saveAddress(AddressDto addressDto) {
-    User currentUser = userService.getCurrentUser();
+    CurrentUser currentUser = userService.getCurrentUserSnapshot();
     Address address;
 
     if (addressDto.getId() != null) {
@@ -44,12 +55,13 @@ public class AddressServiceImpl implements AddressService {
               " not found."));
       OwnerCheck(address, currentUser);
     } else {
-      if (currentUser.getAddresses().size() >= 5) {
-        throw new AddressLimitExceededException("User " + currentUser.getUsername() + " with ID "
-            + currentUser.getId() + " cannot have more than 5 addresses.");
+      if (addressRepository.countByUserId(currentUser.id()) >= MAX_ADDRESSES_PER_USER) {
+        throw new AddressLimitExceededException("User " + currentUser.username() + " with ID "
+            + currentUser.id() + " cannot have more than " + MAX_ADDRESSES_PER_USER
+            + " addresses.");
       }
       address = new Address();
-      currentUser.addAddress(address);
+      address.setUser(userService.getReferenceById(currentUser.id()));
     }
 
     address.setName(addressDto.getName());
@@ -58,23 +70,46 @@ public class AddressServiceImpl implements AddressService {
     address.setPostalCode(addressDto.getPostalCode());
     address.setCountry(addressDto.getCountry());
     addressRepository.save(address);
+    invalidateAfterCommit(currentUser.id());
   }
 
   @Override
   @Transactional
   public void deleteAddress(Long addressId) {
-    User currentUser = userService.getCurrentUser();
+    CurrentUser currentUser = userService.getCurrentUserSnapshot();
     Address address = addressRepository.findById(addressId)
         .orElseThrow(() -> new ResourceNotFoundException(
             "Address with ID " + addressId + " not found."));
     OwnerCheck(address, currentUser);
-    currentUser.removeAddress(address);
+    addressRepository.delete(address);
+    invalidateAfterCommit(currentUser.id());
   }
 
+  /**
+   * The duplicate-name check guards a write, so it asks the database rather than the cached
+   * address book, which may lag behind a save made on another instance.
+   */
   @Override
+  @Transactional(readOnly = true)
   public boolean isNameTakenByUser(String name, Long id) {
-    return userService.getCurrentUser().getAddresses()
-        .stream().filter(a -> !a.getId().equals(id))
-        .anyMatch(a -> a.getName().equals(name));
+    return addressRepository.existsByUserIdAndName(
+        userService.getCurrentUserSnapshot().id(), name, id);
+  }
+
+  /**
+   * Dropping the entry before the commit would let a concurrent read cache the old rows again
+   * until the TTL runs out.
+   */
+  private void invalidateAfterCommit(Long userId) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          addressBookCache.invalidate(userId);
+        }
+      });
+    } else {
+      addressBookCache.invalidate(userId);
+    }
   }
 }
@@ -1,16 +1,19 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.StockAdmissionGate;
 import com.ecommerce.cart.CartSessionItem;
 import com.ecommerce.cart.ShoppingCart;
 import com.ecommerce.dto.CartItemViewDto;
 import com.ecommerce.dto.CartViewDto;
+import com.ecommerce.dto.CurrentUser;
 import com.ecommerce.dto.ProductViewDto;
 import com.ecommerce.entity.Cart;
 import com.ecommerce.entity.CartItem;
 import com.ecommerce.entity.Product;
-import com.ecommerce.entity.User;
 import com.ecommerce.exception.InsufficientStockException;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.metrics.HotPath;
+import com.ecommerce.metrics.HotPaths;
 import com.ecommerce.repository.CartRepository;
 import com.ecommerce.repository.ProductRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -32,11 +35,13 @@ public class CartServiceImpl implements CartService {
   private final ShoppingCart sessionCart;
   private final UserService userService;
   private final Lock cartLock;
+  private final StockAdmissionGate stockAdmissionGate;
 
   @Override
   @Transactional(readOnly = true)
+  @HotPath("cart.view")
   public CartViewDto getCartForCurrentUser() {
-    User user = getCurrentUserOrNull();
+    CurrentUser user = getCurrentUserOrNull();
 
     if (user != null) {
       return getDbCartView(user);
@@ -47,8 +52,12 @@ public class CartServiceImpl implements CartService {
 
   @Override
   @Transactional
+  @HotPath("cart.add")
   public void addProductToCart(Long productId, int quantity) {
-    User user = getCurrentUserOrNull();
+    if (stockAdmissionGate.isSoldOut(productId)) {
+      throw new InsufficientStockException("Product with ID " + productId + " is sold out.");
+    }
+    CurrentUser user = getCurrentUserOrNull();
 
     if (user != null) {
       addProductToDbCart(user, productId, quantity);
@@ -60,6 +69,7 @@ public class CartServiceImpl implements CartService {
 
         ProductViewDto productDto = ProductViewDto.fromEntity(product, quantity);
         sessionCart.addItem(productDto, quantity);
+        HotPaths.lines(sessionCart.getItems().size());
       } finally {
         cartLock.unlock();
       }
@@ -68,8 +78,9 @@ public class CartServiceImpl implements CartService {
 
   @Override
   @Transactional
+  @HotPath("cart.update")
   public void updateProductQuantity(Long productId, int quantity) {
-    User user = getCurrentUserOrNull();
+    CurrentUser user = getCurrentUserOrNull();
 
     if (user != null) {
       updateDbCartQuantity(user, productId, quantity);
@@ -78,6 +89,7 @@ public class CartServiceImpl implements CartService {
       try {
         if (quantity <= 0) {
           sessionCart.removeItem(productId);
+          HotPaths.lines(sessionCart.getItems().size());
           return;
         }
         Product product = getProductOrThrow(productId);
@@ -86,6 +98,7 @@ public class CartServiceImpl implements CartService {
               ". Available: " + product.getStockQuantity());
         }
         sessionCart.updateItemQuantity(productId, quantity);
+        HotPaths.lines(sessionCart.getItems().size());
       } finally {
         cartLock.unlock();
       }
@@ -94,27 +107,30 @@ public class CartServiceImpl implements CartService {
 
   @Override
   @Transactional
+  @HotPath("cart.remove")
   public void removeItem(Long productId) {
-    User user = getCurrentUserOrNull();
+    CurrentUser user = getCurrentUserOrNull();
     if (user != null) {
-      Cart cart = cartRepository.findByUserWithLock(user).orElse(null);
+      Cart cart = cartRepository.findByUserIdWithLock(user.id()).orElse(null);
       if (cart != null) {
         cart.getItems().removeIf(item -> item.getProduct().getId().equals(productId));
         cartRepository.save(cart);
+        HotPaths.lines(cart.getItems().size());
       }
     } else {
       cartLock.lock();
       try {
         sessionCart.removeItem(productId);
+        HotPaths.lines(sessionCart.getItems().size());
       } finally {
         cartLock.unlock();
       }
     }
   }
 
-  private void addProductToDbCart(User user, Long productId, int quantity) {
+  private void addProductToDbCart(CurrentUser user, Long productId, int quantity) {
     Product product = getProductOrThrow(productId);
-    Cart cart = cartRepository.findByUserWithLock(user)
+    Cart cart = cartRepository.findByUserIdWithLock(user.id())
         .orElseGet(() -> createCartForUser(user));
     Optional<CartItem> existingItem = cart.getItems().stream()
         .filter(item -> item.getProduct().getId().equals(productId))
@@ -136,9 +152,10 @@ public class CartServiceImpl implements CartService {
       cart.getItems().add(newItem);
     }
     cartRepository.save(cart);
+    HotPaths.lines(cart.getItems().size());
   }
 
-  private void updateDbCartQuantity(User user, Long productId, int quantity) {
+  private void updateDbCartQuantity(CurrentUser user, Long productId, int quantity) {
     if (quantity <= 0) {
       removeItem(productId);
       return;
@@ -149,7 +166,7 @@ public class CartServiceImpl implements CartService {
           ". Available: " + product.getStockQuantity());
     }
 
-    Cart cart = cartRepository.findByUserWithLock(user)
+    Cart cart = cartRepository.findByUserIdWithLock(user.id())
         .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
 
     CartItem item = cart.getItems().stream()
@@ -159,6 +176,7 @@ public class CartServiceImpl implements CartService {
 
     item.setQuantity(quantity);
     cartRepository.save(cart);
+    HotPaths.lines(cart.getItems().size());
   }
 
   private void validateStockForSession(Product product, int quantity) {
@@ -173,8 +191,8 @@ public class CartServiceImpl implements CartService {
     }
   }
 
-  private CartViewDto getDbCartView(User user) {
-    Cart cart = cartRepository.findByUser(user).orElse(new Cart());
+  private CartViewDto getDbCartView(CurrentUser user) {
+    Cart cart = cartRepository.findByUserId(user.id()).orElse(new Cart());
     if (cart.getItems().isEmpty()) {
       return new CartViewDto(Collections.emptyList(), BigDecimal.ZERO);
     }
@@ -199,15 +217,15 @@ public class CartServiceImpl implements CartService {
     return new CartViewDto(detailedItems, totalAmount);
   }
 
-  private Cart createCartForUser(User user) {
+  private Cart createCartForUser(CurrentUser user) {
     Cart cart = new Cart();
-    cart.setUser(user);
+    cart.setUser(userService.getReferenceById(user.id()));
     return cartRepository.save(cart);
   }
 
-  private User getCurrentUserOrNull() {
+  private CurrentUser getCurrentUserOrNull() {
     try {
-      return userService.getCurrentUser();
+      return userService.getCurrentUserSnapshot();
     } catch (Exception e) {
       return null;
     }
@@ -1,5 +1,6 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.dto.CategoryDto;
 import com.ecommerce.entity.Category;
 
@@ -9,6 +10,9 @@ import java.util.Optional;
 public interface CategoryService {
   List<Category> findAllSortedByName();
 
+  /** Count and latest {@code updated_at} of the active categories. */
+  CatalogVersion findVersion();
+
   List<Category> searchByNameForAdmin(String keyword, String status);
 
   Optional<Category> findById(Long id);
@@ -1,5 +1,6 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.dto.CategoryDto;
 import com.ecommerce.entity.Category;
 import com.ecommerce.exception.CategoryInUseException;
@@ -31,6 +32,11 @@ public class CategoryServiceImpl implements CategoryService {
     return categoryRepository.findAllByOrderByNameAsc();
   }
 
+  @Override
+  public CatalogVersion findVersion() {
+    return categoryRepository.findVersion();
+  }
+
   @Override
   public List<Category> searchByNameForAdmin(String keyword, String status) {
     boolean isDeleted = !"active".equals(status);
@@ -72,7 +78,7 @@ public class CategoryServiceImpl implements CategoryService {
     Category category = categoryRepository.findByIdWithDeleted(id)
         .orElseThrow(() -> new ResourceNotFoundException("Category with ID " + id + " not found."));
 
-    if (!category.getProducts().isEmpty()) {
+    if (categoryRepository.countActiveProducts(id) > 0) {
       throw new CategoryInUseException(
           "Cannot delete category '" + category.getBaseName() + "' because it is assigned to one or more products.");
     }
@@ -0,0 +1,11 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ShippingDetailsDto;
+
+public interface CheckoutService {
+  /**
+   * Places an order from the current cart once the stock admission gate lets it through.
+   * Must not be called inside a transaction.
+   */
+  Long placeOrder(ShippingDetailsDto shippingDetailsDto);
+}
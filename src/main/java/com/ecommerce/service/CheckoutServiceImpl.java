@@ -0,0 +1,53 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.StockAdmissionGate;
+import com.ecommerce.dto.CartViewDto;
+import com.ecommerce.dto.ShippingDetailsDto;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Admission runs here rather than in {@link OrderService#placeOrder}, so that a checkout queued
+ * behind other buyers of the same product waits without holding a pooled connection. Only
+ * admitted requests open the order transaction; the admission ends when it has committed or
+ * failed.
+ */
+@Service
+@RequiredArgsConstructor
+public class CheckoutServiceImpl implements CheckoutService {
+  private final OrderService orderService;
+  private final CartService cartService;
+  private final ProductRepository productRepository;
+  private final StockAdmissionGate stockAdmissionGate;
+
+  @Override
+  public Long placeOrder(ShippingDetailsDto shippingDetailsDto) {
+    Optional<Long> existingOrderId =
+        orderService.findOrderIdByIdempotencyKey(shippingDetailsDto.getIdempotencyKey());
+    if (existingOrderId.isPresent()) {
+      return existingOrderId.get();
+    }
+
+    CartViewDto cartView = cartService.getCartForCurrentUser();
+    Map<Long, Integer> requestedQuantities = cartView.items().stream()
+        .collect(Collectors.toMap(item -> item.product().id(),
+            item -> item.product().inCartQuantity(), Integer::sum));
+    // Read from the row, not the cached entity, so stock sold or restocked through another
+    // instance is seen as soon as it commits.
+    StockAdmissionGate.Admission admission = stockAdmissionGate.admit(requestedQuantities,
+        productId -> productRepository.findAvailableStockById(productId).orElse(null));
+    try {
+      Long orderId = orderService.placeOrder(shippingDetailsDto, cartView);
+      admission.complete();
+      return orderId;
+    } catch (RuntimeException e) {
+      admission.cancel();
+      throw e;
+    }
+  }
+}
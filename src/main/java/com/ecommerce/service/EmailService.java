@@ -1,5 +1,6 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.OrderStatusNotification;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.User;
 
@@ -7,4 +8,6 @@ public interface EmailService {
   void sendOrderConfirmationEmail(Order order);
 
   void sendPasswordResetEmail(User user, String token);
+
+  void sendOrderStatusEmail(OrderStatusNotification notification, Order.Status status);
 }
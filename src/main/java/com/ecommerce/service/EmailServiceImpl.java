@@ -1,7 +1,9 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.OrderStatusNotification;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.User;
+import com.ecommerce.metrics.HotPath;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
@@ -17,6 +19,7 @@ public class EmailServiceImpl implements EmailService {
   private String appBaseUrl;
 
   @Override
+  @HotPath("email.order-confirmation")
   public void sendOrderConfirmationEmail(Order order) {
     SimpleMailMessage message = new SimpleMailMessage();
     message.setFrom("no-reply@ecommerce.com");
@@ -47,6 +50,7 @@ public class EmailServiceImpl implements EmailService {
   }
 
   @Override
+  @HotPath("email.password-reset")
   public void sendPasswordResetEmail(User user, String token) {
     String url = UriComponentsBuilder.fromUriString(appBaseUrl)
         .path("/reset-password")
@@ -61,4 +65,29 @@ public class EmailServiceImpl implements EmailService {
 
     mailSender.send(message);
   }
+
+  @Override
+  @HotPath("email.order-status")
+  public void sendOrderStatusEmail(OrderStatusNotification notification, Order.Status status) {
+    SimpleMailMessage message = new SimpleMailMessage();
+    message.setFrom("no-reply@ecommerce.com");
+    message.setTo(notification.email());
+    message.setSubject("E-commerce Order Status Update");
+
+    String emailBody = String.format(
+        """
+            Dear %s,
+            
+            The status of your order #%d has changed to %s.
+            
+            Thank you for shopping with us!
+            The E-commerce Team""",
+        notification.firstName(),
+        notification.orderId(),
+        status
+    );
+
+    message.setText(emailBody);
+    mailSender.send(message);
+  }
 }
@@ -1,16 +1,31 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.AdminOrderPageDto;
+import com.ecommerce.dto.CartViewDto;
 import com.ecommerce.dto.OrderHistoryDto;
 import com.ecommerce.dto.ShippingDetailsDto;
 import com.ecommerce.entity.Order;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface OrderService {
   Optional<Order> findById(Long id);
 
-  void placeOrder(ShippingDetailsDto shippingDetailsDto);
+  /**
+   * Places an order for {@code cartView}, the current user's cart as the caller loaded it, and
+   * removes the ordered items from the cart.
+   */
+  Long placeOrder(ShippingDetailsDto shippingDetailsDto, CartViewDto cartView);
+
+  Optional<Long> findOrderIdByIdempotencyKey(String idempotencyKey);
 
   List<OrderHistoryDto> getOrderHistoryForCurrentUser();
+
+  AdminOrderPageDto findOrdersForAdmin(Order.Status status, Instant from, Instant beforeDate,
+                                       Long beforeId, int pageSize);
+
+  int bulkUpdateStatus(Collection<Long> orderIds, Order.Status targetStatus);
 }
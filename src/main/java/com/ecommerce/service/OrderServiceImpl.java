@@ -1,16 +1,26 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.RecentOrderKeyCache;
 import com.ecommerce.dto.*;
 import com.ecommerce.entity.*;
+import com.ecommerce.event.OrderPlacedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
 import com.ecommerce.exception.EmptyCartOrderException;
 import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidOrderStatusTransitionException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.UserNotAuthenticatedException;
+import com.ecommerce.metrics.HotPath;
+import com.ecommerce.metrics.HotPaths;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.*;
@@ -20,11 +30,20 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
+  public static final int MAX_BULK_UPDATE_SIZE = 10_000;
+  private static final Instant FIRST_PAGE_CURSOR = Instant.parse("9999-12-31T00:00:00Z");
+  private static final Map<Order.Status, Order.Status> PREVIOUS_STATUS = Map.of(
+      Order.Status.SHIPPED, Order.Status.PENDING,
+      Order.Status.DELIVERED, Order.Status.SHIPPED);
+
   private final OrderRepository orderRepository;
   private final ProductRepository productRepository;
   private final CartService cartService;
   private final UserService userService;
   private final EmailService emailService;
+  private final RecentOrderKeyCache recentOrderKeyCache;
+  private final ApplicationEventPublisher eventPublisher;
+  private final StockShardService stockShardService;
 
   private static ShippingDetails getShippingDetails(ShippingDetailsDto shippingDetailsDto) {
     ShippingDetails shippingDetails = new ShippingDetails();
@@ -39,23 +58,58 @@ public class OrderServiceImpl implements OrderService {
     return shippingDetails;
   }
 
+  /** Coarse buckets keep the {@code lines} tag of the order timer to a handful of series. */
+  private static String lineBucket(int lines) {
+    if (lines <= 1) {
+      return "1";
+    }
+    if (lines <= 5) {
+      return "2-5";
+    }
+    return lines <= 20 ? "6-20" : "21+";
+  }
+
   @Override
   public Optional<Order> findById(Long id) {
     return orderRepository.findById(id);
   }
 
+  @Override
+  public Optional<Long> findOrderIdByIdempotencyKey(String idempotencyKey) {
+    if (idempotencyKey == null || idempotencyKey.isBlank()) {
+      return Optional.empty();
+    }
+    Optional<Long> cachedOrderId = recentOrderKeyCache.findOrderId(idempotencyKey);
+    if (cachedOrderId.isPresent()) {
+      return cachedOrderId;
+    }
+    Optional<Long> orderId = orderRepository.findIdByIdempotencyKey(idempotencyKey);
+    orderId.ifPresent(id -> recentOrderKeyCache.put(idempotencyKey, id));
+    return orderId;
+  }
+
   @Override
   @Transactional
-  public void placeOrder(ShippingDetailsDto shippingDetailsDto) {
-    CartViewDto cartView = cartService.getCartForCurrentUser();
+  @HotPath(value = "order.place", extraTags = "lines")
+  public Long placeOrder(ShippingDetailsDto shippingDetailsDto, CartViewDto cartView) {
+    String idempotencyKey = shippingDetailsDto.getIdempotencyKey();
+    Optional<Long> existingOrderId = findOrderIdByIdempotencyKey(idempotencyKey);
+    if (existingOrderId.isPresent()) {
+      return existingOrderId.get();
+    }
 
     if (cartView.items().isEmpty()) {
       throw new EmptyCartOrderException("Cannot create order from an empty cart.");
     }
+    HotPaths.tag("lines", lineBucket(cartView.items().size()));
+    HotPaths.lines(cartView.items().size());
 
     Order order = new Order();
     try {
-      order.setUser(userService.getCurrentUser());
+      CurrentUser currentUser = userService.getCurrentUserSnapshot();
+      if (currentUser != null) {
+        order.setUser(userService.getReferenceById(currentUser.id()));
+      }
     } catch (UserNotAuthenticatedException _) {
     }
 
@@ -64,6 +118,9 @@ public class OrderServiceImpl implements OrderService {
     order.setOrderDate(Instant.now());
     order.setStatus(Order.Status.PENDING);
     order.setShippingDetails(shippingDetails);
+    if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+      order.setIdempotencyKey(idempotencyKey);
+    }
     List<Long> productIds = cartView.items().stream()
         .map(item -> item.product().id())
         .toList();
@@ -82,15 +139,23 @@ public class OrderServiceImpl implements OrderService {
         throw new ResourceNotFoundException("Product with ID " + cartItem.product().id() +
             " not found.");
       }
-      if (product.getStockQuantity() < quantity) {
-        throw new InsufficientStockException("Not enough stock for product: " + product.getName() +
-            ".Available: " + product.getStockQuantity() + ".");
+      if (product.isStockSharded()) {
+        if (!stockShardService.tryDecrement(productId, quantity)) {
+          throw new InsufficientStockException("Not enough stock for product: " +
+              product.getName() + ".Available: " +
+              stockShardService.getAvailableStock(productId) + ".");
+        }
+      } else {
+        if (product.getStockQuantity() < quantity) {
+          throw new InsufficientStockException("Not enough stock for product: " +
+              product.getName() + ".Available: " + product.getStockQuantity() + ".");
+        }
+        product.setStockQuantity(product.getStockQuantity() - quantity);
+        productsToUpdate.add(product);
       }
 
       OrderItem orderItem = new OrderItem(order, product, quantity);
       orderItems.add(orderItem);
-      product.setStockQuantity(product.getStockQuantity() - quantity);
-      productsToUpdate.add(product);
     }
 
     order.addOrderItems(orderItems);
@@ -102,16 +167,36 @@ public class OrderServiceImpl implements OrderService {
       cartService.removeItem(id);
     }
     emailService.sendOrderConfirmationEmail(order);
+    eventPublisher.publishEvent(OrderPlacedEvent.fromEntity(order));
+    rememberIdempotencyKey(order);
+    return order.getId();
+  }
+
+  private void rememberIdempotencyKey(Order order) {
+    String idempotencyKey = order.getIdempotencyKey();
+    if (idempotencyKey == null) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          recentOrderKeyCache.put(idempotencyKey, order.getId());
+        }
+      });
+    } else {
+      recentOrderKeyCache.put(idempotencyKey, order.getId());
+    }
   }
 
   @Override
   @Transactional(readOnly = true)
   public List<OrderHistoryDto> getOrderHistoryForCurrentUser() {
-    User currentUser = userService.getCurrentUser();
+    CurrentUser currentUser = userService.getCurrentUserSnapshot();
     if (currentUser == null) {
       return Collections.emptyList();
     }
-    List<OrderHistoryDto> orders = orderRepository.findOrderHistoryByUser(currentUser);
+    List<OrderHistoryDto> orders = orderRepository.findOrderHistoryByUserId(currentUser.id());
     if (orders.isEmpty()) {
       return Collections.emptyList();
     }
@@ -126,4 +211,53 @@ public class OrderServiceImpl implements OrderService {
         itemsByOrderId.getOrDefault(order.orderId(), Collections.emptyList())
     )).collect(Collectors.toList());
   }
+
+  @Override
+  @Transactional(readOnly = true)
+  public AdminOrderPageDto findOrdersForAdmin(Order.Status status, Instant from,
+                                              Instant beforeDate, Long beforeId, int pageSize) {
+    Instant fromDate = from == null ? Instant.EPOCH : from;
+    Instant cursorDate = beforeDate == null ? FIRST_PAGE_CURSOR : beforeDate;
+    Long cursorId = beforeId == null ? Long.MAX_VALUE : beforeId;
+    // One extra row tells whether there is a next page without a count query.
+    Limit limit = Limit.of(pageSize + 1);
+
+    List<AdminOrderRowDto> rows = status == null
+        ? orderRepository.findAdminPage(fromDate, cursorDate, cursorId, limit)
+        : orderRepository.findAdminPageByStatus(status, fromDate, cursorDate, cursorId, limit);
+    if (rows.size() <= pageSize) {
+      return new AdminOrderPageDto(rows, null, null);
+    }
+    List<AdminOrderRowDto> page = rows.subList(0, pageSize);
+    AdminOrderRowDto last = page.getLast();
+    return new AdminOrderPageDto(List.copyOf(page), last.orderDate(), last.orderId());
+  }
+
+  @Override
+  @Transactional
+  public int bulkUpdateStatus(Collection<Long> orderIds, Order.Status targetStatus) {
+    Order.Status fromStatus = PREVIOUS_STATUS.get(targetStatus);
+    if (fromStatus == null) {
+      throw new InvalidOrderStatusTransitionException(
+          "Orders cannot be moved to status " + targetStatus + ".");
+    }
+    if (orderIds.size() > MAX_BULK_UPDATE_SIZE) {
+      throw new InvalidOrderStatusTransitionException(
+          "Cannot update more than " + MAX_BULK_UPDATE_SIZE + " orders at once.");
+    }
+    if (orderIds.isEmpty()) {
+      return 0;
+    }
+
+    List<OrderStatusNotification> notifications =
+        orderRepository.findStatusNotificationsForUpdate(orderIds, fromStatus);
+    if (notifications.isEmpty()) {
+      return 0;
+    }
+    List<Long> lockedIds = notifications.stream().map(OrderStatusNotification::orderId).toList();
+    int updated = orderRepository.updateStatus(lockedIds, fromStatus, targetStatus);
+    eventPublisher.publishEvent(
+        new OrderStatusChangedEvent(fromStatus, targetStatus, updated, notifications));
+    return updated;
+  }
 }
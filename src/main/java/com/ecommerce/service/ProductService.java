@@ -1,7 +1,9 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.dto.ProductAdminView;
 import com.ecommerce.dto.ProductDto;
+import com.ecommerce.dto.ProductSummaryDto;
 import com.ecommerce.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,12 +18,37 @@ public interface ProductService {
 
   Optional<Product> findById(Long id);
 
+  /**
+   * Like {@link #findById}, but checks the cached entity against the row's {@code updated_at}
+   * and reloads it when another instance has changed the product since it was cached.
+   */
+  Optional<Product> findCurrentById(Long id);
+
   Page<Product> searchProducts(String name, List<Long> categoryIds,
                                Double minPrice, Double maxPrice, Boolean onlyAvailable, Pageable pageable);
 
+  /**
+   * Same filters as {@link #searchProducts}, reduced to a count and the latest
+   * {@code updated_at}; cheap enough to answer a conditional GET before loading the page.
+   */
+  CatalogVersion findSearchVersion(String name, List<Long> categoryIds, Double minPrice,
+                                   Double maxPrice, Boolean onlyAvailable);
+
+  /**
+   * Same filters as {@link #searchProducts}, read as flat rows. The page is loaded and counted
+   * before the transaction ends, so callers write the response without holding a connection.
+   */
+  Page<ProductSummaryDto> searchProductSummaries(String name, List<Long> categoryIds,
+                                                 Double minPrice, Double maxPrice,
+                                                 Boolean onlyAvailable, Pageable pageable);
+
+  Optional<ProductSummaryDto> findSummaryById(Long id);
+
   List<ProductAdminView> findAllForAdminList();
 
   List<ProductAdminView> searchForAdminList(String keyword, List<Long> categoryIds, String status);
 
   void restoreById(Long id);
+
+  void rebalanceStock(Long id);
 }
@@ -1,22 +1,32 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.StockAdmissionGate;
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.dto.ProductAdminView;
 import com.ecommerce.dto.ProductDto;
+import com.ecommerce.dto.ProductSummaryDto;
 import com.ecommerce.entity.Product;
+import com.ecommerce.event.ProductChangedEvent;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.RestoringActiveResourceException;
+import com.ecommerce.metrics.HotPath;
+import com.ecommerce.metrics.HotPaths;
 import com.ecommerce.repository.CategoryRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.ProductSpecification;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -24,6 +34,10 @@ import java.util.Optional;
 public class ProductServiceImpl implements ProductService {
   private final ProductRepository productRepository;
   private final CategoryRepository categoryRepository;
+  private final StockShardService stockShardService;
+  private final StockAdmissionGate stockAdmissionGate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final EntityManager entityManager;
 
   @Override
   @Transactional
@@ -40,7 +54,14 @@ public class ProductServiceImpl implements ProductService {
     product.setName(productDto.getName());
     product.setDescription(productDto.getDescription());
     product.setPrice(productDto.getPrice());
-    product.setStockQuantity(productDto.getStockQuantity());
+    boolean wasSharded = product.isStockSharded();
+    int previousShardCount = product.getStockShardCount();
+    int stockDelta = productDto.getStockQuantity() - Objects.requireNonNullElse(
+        productDto.getLoadedStockQuantity(), product.getStockQuantity());
+    if (!wasSharded) {
+      product.setStockQuantity(productDto.getStockQuantity());
+    }
+    product.setStockShardCount(productDto.getStockShardCount());
 
     product.clearCategories();
     if (productDto.getCategories() != null) {
@@ -48,6 +69,33 @@ public class ProductServiceImpl implements ProductService {
     }
 
     productRepository.save(product);
+    if (wasSharded) {
+      // Sales since the form was loaded live only in the shards, so the form's stock is applied
+      // as a change to the live total rather than overwriting it.
+      if (stockDelta != 0 || previousShardCount != product.getStockShardCount()) {
+        product.setStockQuantity(stockShardService.adjust(product.getId(),
+            product.getStockShardCount(), stockDelta));
+      }
+    } else if (product.isStockSharded()) {
+      stockShardService.configure(product.getId(), product.getStockShardCount(),
+          product.getStockQuantity());
+    }
+    stockAdmissionGate.invalidate(product.getId());
+    if (productDto.getId() != null) {
+      // A new product cannot have stream subscribers yet.
+      eventPublisher.publishEvent(ProductChangedEvent.of(productDto.getId()));
+    }
+  }
+
+  @Override
+  @Transactional
+  public void rebalanceStock(Long id) {
+    Product product = productRepository.findById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + id + " not found."));
+    if (!product.isStockSharded()) {
+      return;
+    }
+    stockShardService.rebalance(id);
   }
 
   @Override
@@ -60,6 +108,7 @@ public class ProductServiceImpl implements ProductService {
     product.setName(originalName + "_deleted_" + Instant.now().toString());
     product.setDeleted(true);
     productRepository.save(product);
+    eventPublisher.publishEvent(ProductChangedEvent.of(id));
   }
 
   @Override
@@ -67,6 +116,16 @@ public class ProductServiceImpl implements ProductService {
     return productRepository.findById(id);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<Product> findCurrentById(Long id) {
+    Optional<Instant> updatedAt = productRepository.findUpdatedAtById(id);
+    Optional<Product> product = productRepository.findById(id);
+    product.filter(cached -> !Objects.equals(cached.getUpdatedAt(), updatedAt.orElse(null)))
+        .ifPresent(entityManager::refresh);
+    return product;
+  }
+
   @Override
   public List<ProductAdminView> findAllForAdminList() {
     return productRepository.findAllForAdminView();
@@ -98,12 +157,48 @@ public class ProductServiceImpl implements ProductService {
     productToRestore.setName(originalName);
     productToRestore.setDeleted(false);
     productRepository.save(productToRestore);
+    eventPublisher.publishEvent(ProductChangedEvent.of(id));
   }
 
   @Override
+  @HotPath("product.search")
   public Page<Product> searchProducts(
       String name, List<Long> categoryIds, Double minPrice, Double maxPrice, Boolean onlyAvailable,
       Pageable pageable) {
+    Page<Product> page = productRepository.findAll(
+        searchSpecification(name, categoryIds, minPrice, maxPrice, onlyAvailable), pageable);
+    HotPaths.lines(page.getNumberOfElements());
+    return page;
+  }
+
+  @Override
+  public CatalogVersion findSearchVersion(String name, List<Long> categoryIds, Double minPrice,
+                                          Double maxPrice, Boolean onlyAvailable) {
+    return productRepository.findVersion(
+        searchSpecification(name, categoryIds, minPrice, maxPrice, onlyAvailable));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  @HotPath("product.search.summaries")
+  public Page<ProductSummaryDto> searchProductSummaries(
+      String name, List<Long> categoryIds, Double minPrice, Double maxPrice, Boolean onlyAvailable,
+      Pageable pageable) {
+    Specification<Product> specification =
+        searchSpecification(name, categoryIds, minPrice, maxPrice, onlyAvailable);
+    List<ProductSummaryDto> rows = productRepository.findSummaries(specification, pageable);
+    HotPaths.lines(rows.size());
+    return PageableExecutionUtils.getPage(rows, pageable,
+        () -> productRepository.count(specification));
+  }
+
+  @Override
+  public Optional<ProductSummaryDto> findSummaryById(Long id) {
+    return productRepository.findSummaryById(id);
+  }
+
+  private static Specification<Product> searchSpecification(
+      String name, List<Long> categoryIds, Double minPrice, Double maxPrice, Boolean onlyAvailable) {
     Specification<Product> specification = Specification.unrestricted();
 
     if (name != null && !name.isBlank()) {
@@ -124,7 +219,6 @@ public class ProductServiceImpl implements ProductService {
     if (onlyAvailable != null && onlyAvailable) {
       specification = specification.and(ProductSpecification.isAvailable());
     }
-
-    return productRepository.findAll(specification, pageable);
+    return specification;
   }
 }
@@ -0,0 +1,22 @@
+package com.ecommerce.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+public interface ProductUpdateStreamService {
+  /**
+   * Opens a stream of {@code stock} events for the given products, starting with their current
+   * values.
+   */
+  SseEmitter subscribe(Collection<Long> productIds);
+
+  /** Marks products as changed; they are sent with the next {@link #flush()}. */
+  void publish(Collection<Long> productIds);
+
+  void flush();
+
+  void sendHeartbeats();
+
+  int getSubscriberCount();
+}
@@ -0,0 +1,214 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductStockUpdate;
+import com.ecommerce.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans product changes out to SSE subscribers. Publishing only marks a product id as changed, so
+ * any number of changes to a product between two ticks costs one read and one event per
+ * subscriber. An open emitter is a suspended async request and holds no thread; sends run on
+ * {@code streamTaskExecutor}, at most one at a time per subscriber, and values that arrive
+ * while a subscriber is still being written to replace its pending ones instead of queueing.
+ * A send blocks while the client's socket buffer is full, so the executor runs each drain on
+ * its own virtual thread and one slow client cannot hold up the others.
+ */
+@Slf4j
+@Service
+public class ProductUpdateStreamServiceImpl implements ProductUpdateStreamService {
+  private final ProductRepository productRepository;
+  private final Executor streamTaskExecutor;
+  private final long timeoutMillis;
+
+  private final Set<Long> changedProductIds = ConcurrentHashMap.newKeySet();
+  private final ConcurrentMap<Long, Set<Subscriber>> subscribersByProduct = new ConcurrentHashMap<>();
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  public ProductUpdateStreamServiceImpl(ProductRepository productRepository,
+      @Qualifier("streamTaskExecutor") Executor streamTaskExecutor,
+      @Value("${ecommerce.web.stock-stream.timeout-ms:1800000}") long timeoutMillis) {
+    this.productRepository = productRepository;
+    this.streamTaskExecutor = streamTaskExecutor;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  @Override
+  public SseEmitter subscribe(Collection<Long> productIds) {
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    Subscriber subscriber = new Subscriber(emitter, Set.copyOf(productIds));
+    emitter.onCompletion(() -> unregister(subscriber));
+    emitter.onTimeout(emitter::complete);
+    emitter.onError(_ -> unregister(subscriber));
+
+    // Registered before the first read, so a change racing with it is sent again, not lost.
+    register(subscriber);
+    loadUpdates(subscriber.productIds).values().forEach(subscriber::offer);
+    return emitter;
+  }
+
+  @Override
+  public void publish(Collection<Long> productIds) {
+    for (Long productId : productIds) {
+      if (subscribersByProduct.containsKey(productId)) {
+        changedProductIds.add(productId);
+      }
+    }
+  }
+
+  @Override
+  public void flush() {
+    List<Long> productIds = new ArrayList<>();
+    for (Iterator<Long> iterator = changedProductIds.iterator(); iterator.hasNext(); ) {
+      productIds.add(iterator.next());
+      iterator.remove();
+    }
+    if (productIds.isEmpty()) {
+      return;
+    }
+
+    Map<Long, ProductStockUpdate> updates;
+    try {
+      updates = loadUpdates(productIds);
+    } catch (RuntimeException e) {
+      changedProductIds.addAll(productIds);
+      log.warn("Failed to load {} changed products for the stock stream.", productIds.size(), e);
+      return;
+    }
+    for (ProductStockUpdate update : updates.values()) {
+      Set<Subscriber> interested = subscribersByProduct.get(update.id());
+      if (interested != null) {
+        interested.forEach(subscriber -> subscriber.offer(update));
+      }
+    }
+  }
+
+  @Override
+  public void sendHeartbeats() {
+    subscribers.forEach(Subscriber::heartbeat);
+  }
+
+  @Override
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  private Map<Long, ProductStockUpdate> loadUpdates(Collection<Long> productIds) {
+    Map<Long, ProductStockUpdate> updates = new HashMap<>();
+    productRepository.findStockUpdatesByIds(productIds)
+        .forEach(update -> updates.put(update.id(), update));
+    productIds.forEach(id -> updates.putIfAbsent(id, ProductStockUpdate.removed(id)));
+    return updates;
+  }
+
+  private void register(Subscriber subscriber) {
+    subscribers.add(subscriber);
+    for (Long productId : subscriber.productIds) {
+      subscribersByProduct.compute(productId, (_, interested) -> {
+        Set<Subscriber> set = interested != null ? interested : ConcurrentHashMap.newKeySet();
+        set.add(subscriber);
+        return set;
+      });
+    }
+  }
+
+  private void unregister(Subscriber subscriber) {
+    if (!subscribers.remove(subscriber)) {
+      return;
+    }
+    for (Long productId : subscriber.productIds) {
+      subscribersByProduct.computeIfPresent(productId, (_, interested) -> {
+        interested.remove(subscriber);
+        return interested.isEmpty() ? null : interested;
+      });
+    }
+  }
+
+  private final class Subscriber {
+    private final SseEmitter emitter;
+    private final Set<Long> productIds;
+    private final ConcurrentMap<Long, ProductStockUpdate> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private volatile boolean heartbeatDue;
+    private volatile boolean closed;
+
+    private Subscriber(SseEmitter emitter, Set<Long> productIds) {
+      this.emitter = emitter;
+      this.productIds = productIds;
+    }
+
+    void offer(ProductStockUpdate update) {
+      pending.put(update.id(), update);
+      schedule();
+    }
+
+    void heartbeat() {
+      heartbeatDue = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (closed || !sending.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        streamTaskExecutor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        // Pending values stay put and go out with the next offer or heartbeat.
+        sending.set(false);
+      }
+    }
+
+    private void drain() {
+      try {
+        for (Long productId : pending.keySet()) {
+          ProductStockUpdate update = pending.remove(productId);
+          if (update != null) {
+            emitter.send(SseEmitter.event().name("stock").data(update, MediaType.APPLICATION_JSON));
+          }
+        }
+        if (heartbeatDue) {
+          heartbeatDue = false;
+          emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+      } catch (IOException | IllegalStateException e) {
+        // The client went away; the container completes the emitter.
+        log.debug("Dropping stock stream subscriber: {}", e.getMessage());
+        close();
+      } catch (RuntimeException e) {
+        log.warn("Failed to write to a stock stream subscriber.", e);
+        close();
+        emitter.completeWithError(e);
+      } finally {
+        sending.set(false);
+      }
+      if (!pending.isEmpty() || heartbeatDue) {
+        schedule();
+      }
+    }
+
+    private void close() {
+      closed = true;
+      pending.clear();
+      unregister(this);
+    }
+  }
+}
@@ -7,6 +7,7 @@ import com.ecommerce.entity.Review;
 import com.ecommerce.entity.User;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.ReviewReadditionException;
+import com.ecommerce.metrics.HotPath;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,14 +26,15 @@ public class ReviewServiceImpl implements ReviewService {
   @Override
   @Transactional(readOnly = true)
   public Page<ReviewDto> getReviewsForProduct(Long productId, Pageable pageable) {
-    Product product = productRepository.findById(productId)
-        .orElseThrow(() -> new ResourceNotFoundException("Product with ID " + productId + " not found."));
-    Page<Review> reviews = reviewRepository.findByProductOrderByCreatedAtDesc(product, pageable);
-    return reviews.map(this::convertToDto);
+    if (!productRepository.existsById(productId)) {
+      throw new ResourceNotFoundException("Product with ID " + productId + " not found.");
+    }
+    return reviewRepository.findViewsByProductId(productId, pageable);
   }
 
   @Override
   @Transactional
+  @HotPath("review.add")
   public void addReview(Long productId, ReviewSubmissionDto reviewDto) {
     User currentUser = userService.getCurrentUser();
     Product product = productRepository.findById(productId)
@@ -49,13 +51,4 @@ public class ReviewServiceImpl implements ReviewService {
     review.setComment(reviewDto.comment());
     product.addReview(review);
   }
-
-  private ReviewDto convertToDto(Review review) {
-    return new ReviewDto(
-        review.getUser().getUsername(),
-        review.getRating(),
-        review.getComment(),
-        review.getCreatedAt()
-    );
-  }
 }
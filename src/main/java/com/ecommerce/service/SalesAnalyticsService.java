@@ -0,0 +1,30 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.DailyRevenueDto;
+import com.ecommerce.dto.OrderStatusCountDto;
+import com.ecommerce.dto.TopSellerDto;
+import com.ecommerce.entity.Order;
+import com.ecommerce.event.OrderPlacedEvent;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesAnalyticsService {
+  void recordOrderPlaced(OrderPlacedEvent event);
+
+  void recordStatusChange(Order.Status from, Order.Status to, long orderCount);
+
+  DailyRevenueDto getRevenueForDay(LocalDate day);
+
+  List<DailyRevenueDto> getDailyRevenue(LocalDate from, LocalDate to);
+
+  List<TopSellerDto> getTopSellers(LocalDate from, LocalDate to, int limit);
+
+  List<OrderStatusCountDto> getOrderStatusCounts();
+
+  void rebuildDay(LocalDate day);
+
+  void rebuildStatusCounts();
+
+  int purgeProductRollupsBefore(LocalDate day);
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.*;
+import com.ecommerce.entity.DailySalesRollup;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderStatusRollup;
+import com.ecommerce.entity.ProductSalesRollup;
+import com.ecommerce.event.OrderPlacedEvent;
+import com.ecommerce.repository.DailySalesRollupRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.OrderStatusRollupRepository;
+import com.ecommerce.repository.ProductSalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+  private final DailySalesRollupRepository dailySalesRollupRepository;
+  private final ProductSalesRollupRepository productSalesRollupRepository;
+  private final OrderStatusRollupRepository orderStatusRollupRepository;
+  private final OrderRepository orderRepository;
+
+  private static LocalDate toSalesDate(Instant instant) {
+    return LocalDate.ofInstant(instant, ZoneId.systemDefault());
+  }
+
+  private static Instant startOf(LocalDate day) {
+    return day.atStartOfDay(ZoneId.systemDefault()).toInstant();
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void recordOrderPlaced(OrderPlacedEvent event) {
+    LocalDate salesDate = toSalesDate(event.orderDate());
+
+    if (dailySalesRollupRepository.increment(salesDate, 1, event.totalAmount()) == 0) {
+      dailySalesRollupRepository.saveAndFlush(
+          new DailySalesRollup(salesDate, 1, event.totalAmount()));
+    }
+
+    for (OrderPlacedEvent.Line line : event.lines()) {
+      BigDecimal lineRevenue = line.price().multiply(BigDecimal.valueOf(line.quantity()));
+      if (productSalesRollupRepository.increment(salesDate, line.productId(), line.productName(),
+          line.quantity(), lineRevenue) == 0) {
+        productSalesRollupRepository.saveAndFlush(new ProductSalesRollup(
+            salesDate, line.productId(), line.productName(), line.quantity(), lineRevenue));
+      }
+    }
+
+    incrementStatus(Order.Status.PENDING, 1);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void recordStatusChange(Order.Status from, Order.Status to, long orderCount) {
+    if (from == to || orderCount == 0) {
+      return;
+    }
+    incrementStatus(from, -orderCount);
+    incrementStatus(to, orderCount);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public DailyRevenueDto getRevenueForDay(LocalDate day) {
+    return dailySalesRollupRepository.findById(day)
+        .map(rollup -> new DailyRevenueDto(
+            rollup.getSalesDate(), rollup.getOrderCount(), rollup.getRevenue()))
+        .orElse(new DailyRevenueDto(day, 0, BigDecimal.ZERO));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<DailyRevenueDto> getDailyRevenue(LocalDate from, LocalDate to) {
+    return dailySalesRollupRepository.findDailyRevenue(from, to);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<TopSellerDto> getTopSellers(LocalDate from, LocalDate to, int limit) {
+    return productSalesRollupRepository.findTopSellers(from, to, PageRequest.of(0, limit));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<OrderStatusCountDto> getOrderStatusCounts() {
+    return orderStatusRollupRepository.findStatusCounts();
+  }
+
+  @Override
+  @Transactional
+  public void rebuildDay(LocalDate day) {
+    Instant from = startOf(day);
+    Instant to = startOf(day.plusDays(1));
+
+    SalesTotalsView totals = orderRepository.sumSalesBetween(from, to);
+    dailySalesRollupRepository.save(
+        new DailySalesRollup(day, totals.getOrderCount(), totals.getRevenue()));
+
+    productSalesRollupRepository.deleteBySalesDate(day);
+    List<ProductSalesRollup> productRollups = orderRepository.sumProductSalesBetween(from, to)
+        .stream()
+        .map(sales -> new ProductSalesRollup(day, sales.getProductId(), sales.getProductName(),
+            sales.getUnits(), sales.getRevenue()))
+        .toList();
+    productSalesRollupRepository.saveAll(productRollups);
+  }
+
+  /**
+   * Recounts the rows in place rather than deleting and reinserting them: the update holds the
+   * row locks until commit, so a concurrent {@link #recordStatusChange} waits and then applies its
+   * delta on top, instead of finding no row and inserting a duplicate.
+   */
+  @Override
+  @Transactional
+  public void rebuildStatusCounts() {
+    orderStatusRollupRepository.recountExisting();
+    orderStatusRollupRepository.insertMissing();
+  }
+
+  @Override
+  @Transactional
+  public int purgeProductRollupsBefore(LocalDate day) {
+    return productSalesRollupRepository.deleteOlderThan(day);
+  }
+
+  private void incrementStatus(Order.Status status, long delta) {
+    if (orderStatusRollupRepository.increment(status, delta) == 0) {
+      orderStatusRollupRepository.saveAndFlush(new OrderStatusRollup(status, Math.max(delta, 0)));
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.service;
+
+public interface StockShardService {
+  void configure(Long productId, int shardCount, int totalQuantity);
+
+  /**
+   * Adds {@code quantityDelta} to the product's live shard total under the shard row locks and
+   * spreads the result over {@code shardCount} shards. Returns the new total.
+   */
+  int adjust(Long productId, int shardCount, int quantityDelta);
+
+  boolean tryDecrement(Long productId, int quantity);
+
+  int getAvailableStock(Long productId);
+
+  void rebalance(Long productId);
+
+  int rebalanceDepletedShards();
+
+  int syncProductStockSnapshots();
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.ProductStockShard;
+import com.ecommerce.repository.ProductStockShardRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@RequiredArgsConstructor
+public class StockShardServiceImpl implements StockShardService {
+  public static final int MAX_SHARDS = 64;
+
+  private final ProductStockShardRepository productStockShardRepository;
+  private final EntityManagerFactory entityManagerFactory;
+
+  @Override
+  @Transactional
+  public void configure(Long productId, int shardCount, int totalQuantity) {
+    checkShardCount(shardCount);
+    List<ProductStockShard> shards = productStockShardRepository.findByProductIdWithLock(productId);
+    store(productId, shardCount, shards, totalQuantity);
+  }
+
+  @Override
+  @Transactional
+  public int adjust(Long productId, int shardCount, int quantityDelta) {
+    checkShardCount(shardCount);
+    List<ProductStockShard> shards = productStockShardRepository.findByProductIdWithLock(productId);
+    int total = Math.max(0,
+        shards.stream().mapToInt(ProductStockShard::getQuantity).sum() + quantityDelta);
+    store(productId, shardCount, shards, total);
+    return total;
+  }
+
+  private static void checkShardCount(int shardCount) {
+    if (shardCount < 0 || shardCount > MAX_SHARDS) {
+      throw new IllegalArgumentException(
+          "Shard count must be between 0 and " + MAX_SHARDS + ".");
+    }
+  }
+
+  private void store(Long productId, int shardCount, List<ProductStockShard> shards,
+                     int totalQuantity) {
+    if (shards.size() != shardCount) {
+      productStockShardRepository.deleteByProductId(productId);
+      shards = new ArrayList<>(shardCount);
+      for (int i = 0; i < shardCount; i++) {
+        shards.add(new ProductStockShard(productId, i, 0));
+      }
+    }
+    distribute(shards, totalQuantity);
+    productStockShardRepository.saveAll(shards);
+  }
+
+  @Override
+  @Transactional
+  public boolean tryDecrement(Long productId, int quantity) {
+    // Scalar, unlocked read so the conditional updates below only touch shards that can cover
+    // the quantity; an update that matches no row would still hold its row lock until commit.
+    List<Integer> candidates =
+        productStockShardRepository.findShardIndexesWithQuantity(productId, quantity);
+    if (!candidates.isEmpty()) {
+      int start = ThreadLocalRandom.current().nextInt(candidates.size());
+      for (int i = 0; i < candidates.size(); i++) {
+        int shardIndex = candidates.get((start + i) % candidates.size());
+        if (productStockShardRepository.tryDecrement(productId, shardIndex, quantity) == 1) {
+          return true;
+        }
+      }
+    }
+    return decrementAcrossShards(productId, quantity);
+  }
+
+  private boolean decrementAcrossShards(Long productId, int quantity) {
+    List<ProductStockShard> shards = productStockShardRepository.findByProductIdWithLock(productId);
+    int available = shards.stream().mapToInt(ProductStockShard::getQuantity).sum();
+    if (available < quantity) {
+      return false;
+    }
+    int remaining = quantity;
+    for (ProductStockShard shard : shards) {
+      int taken = Math.min(shard.getQuantity(), remaining);
+      shard.setQuantity(shard.getQuantity() - taken);
+      remaining -= taken;
+      if (remaining == 0) {
+        break;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public int getAvailableStock(Long productId) {
+    return productStockShardRepository.sumQuantityByProductId(productId);
+  }
+
+  @Override
+  @Transactional
+  public void rebalance(Long productId) {
+    List<ProductStockShard> shards = productStockShardRepository.findByProductIdWithLock(productId);
+    int total = shards.stream().mapToInt(ProductStockShard::getQuantity).sum();
+    distribute(shards, total);
+  }
+
+  @Override
+  @Transactional
+  public int rebalanceDepletedShards() {
+    List<Long> productIds = productStockShardRepository.findProductIdsWithDepletedShards();
+    productIds.forEach(this::rebalance);
+    return productIds.size();
+  }
+
+  @Override
+  @Transactional
+  public int syncProductStockSnapshots() {
+    List<Long> staleProductIds = productStockShardRepository.findProductIdsWithStaleStockSnapshot();
+    if (staleProductIds.isEmpty()) {
+      return 0;
+    }
+    int updated = productStockShardRepository.syncProductStockSnapshots(staleProductIds);
+    evictProductsAfterCommit(staleProductIds);
+    return updated;
+  }
+
+  /**
+   * The native update bypasses the second-level cache, so the synced products are evicted one
+   * by one; evicting before the commit would let a concurrent read cache the old stock again.
+   */
+  private void evictProductsAfterCommit(List<Long> productIds) {
+    Runnable evict = () -> productIds.forEach(
+        productId -> entityManagerFactory.getCache().evict(Product.class, productId));
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evict.run();
+        }
+      });
+    } else {
+      evict.run();
+    }
+  }
+
+  private static void distribute(List<ProductStockShard> shards, int totalQuantity) {
+    if (shards.isEmpty()) {
+      return;
+    }
+    int base = totalQuantity / shards.size();
+    int remainder = totalQuantity % shards.size();
+    for (ProductStockShard shard : shards) {
+      shard.setQuantity(base + (shard.getShardIndex() < remainder ? 1 : 0));
+    }
+  }
+}
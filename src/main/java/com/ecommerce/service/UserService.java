@@ -1,6 +1,7 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.ChangePasswordDto;
+import com.ecommerce.dto.CurrentUser;
 import com.ecommerce.dto.RegistrationDto;
 import com.ecommerce.dto.UserInfoDto;
 import com.ecommerce.entity.User;
@@ -23,13 +24,21 @@ public interface UserService {
 
   User getCurrentUser();
 
+  CurrentUser getCurrentUserSnapshot();
+
+  CurrentUser getUserSnapshot(String username);
+
+  User getReferenceById(Long id);
+
   void updateCurrentUserInfo(UserInfoDto userInfoDto);
 
   void createPasswordResetTokenForUser(User user);
 
   boolean validatePasswordResetToken(String token);
 
-  Optional<User> findByPasswordResetToken(String token);
+  Optional<User> resetPasswordWithToken(String token, String password);
+
+  int purgeExpiredPasswordResetTokens(int limit);
 
   void changeUserPassword(User user, String password);
 
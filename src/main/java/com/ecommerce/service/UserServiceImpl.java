@@ -1,35 +1,64 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CurrentUserCache;
 import com.ecommerce.dto.ChangePasswordDto;
+import com.ecommerce.dto.CurrentUser;
 import com.ecommerce.dto.RegistrationDto;
 import com.ecommerce.dto.UserInfoDto;
+import com.ecommerce.dto.UserRoleView;
+import com.ecommerce.entity.PasswordResetToken;
 import com.ecommerce.entity.Role;
 import com.ecommerce.entity.User;
+import com.ecommerce.event.PasswordChangedEvent;
 import com.ecommerce.exception.ConfigurationException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.UserNotAuthenticatedException;
+import com.ecommerce.repository.PasswordResetTokenRepository;
 import com.ecommerce.repository.RoleRepository;
 import com.ecommerce.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
+  private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+  private static final int RESET_TOKEN_BYTES = 32;
+
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final RoleRepository roleRepository;
   private final EmailService emailService;
+  private final CurrentUserCache currentUserCache;
+  private final UserCache userCache;
+  private final PasswordResetTokenRepository passwordResetTokenRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
   @Override
   public boolean existsByUsername(String username) {
@@ -70,6 +99,42 @@ public class UserServiceImpl implements UserService {
 
   @Override
   public User getCurrentUser() {
+    String username = getAuthenticatedUsername();
+    return findByUsername(username)
+        .orElseThrow(() -> new ResourceNotFoundException(
+            "Authenticated user '" + username + "' not found in the database."));
+  }
+
+  @Override
+  public CurrentUser getCurrentUserSnapshot() {
+    String username = getAuthenticatedUsername();
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    Object memo = requestAttributes == null ? null
+        : requestAttributes.getAttribute(CurrentUser.REQUEST_ATTRIBUTE,
+            RequestAttributes.SCOPE_REQUEST);
+    if (memo instanceof CurrentUser currentUser && currentUser.username().equals(username)) {
+      return currentUser;
+    }
+
+    CurrentUser currentUser = getUserSnapshot(username);
+    if (requestAttributes != null) {
+      requestAttributes.setAttribute(CurrentUser.REQUEST_ATTRIBUTE, currentUser,
+          RequestAttributes.SCOPE_REQUEST);
+    }
+    return currentUser;
+  }
+
+  @Override
+  public CurrentUser getUserSnapshot(String username) {
+    return currentUserCache.find(username).orElseGet(() -> loadCurrentUser(username));
+  }
+
+  @Override
+  public User getReferenceById(Long id) {
+    return userRepository.getReferenceById(id);
+  }
+
+  private String getAuthenticatedUsername() {
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
     if (authentication == null || !authentication.isAuthenticated() ||
         "anonymousUser".equals(authentication.getPrincipal())) {
@@ -77,18 +142,35 @@ public class UserServiceImpl implements UserService {
           "No authenticated user found in the security context.");
     }
 
-    String username;
     Object principal = authentication.getPrincipal();
-
     if (principal instanceof UserDetails) {
-      username = ((UserDetails) principal).getUsername();
-    } else {
-      username = principal.toString();
+      return ((UserDetails) principal).getUsername();
     }
+    return principal.toString();
+  }
 
-    return findByUsername(username)
-        .orElseThrow(() -> new ResourceNotFoundException(
-            "Authenticated user '" + username + "' not found in the database."));
+  private CurrentUser loadCurrentUser(String username) {
+    List<UserRoleView> rows = userRepository.findRoleViewsByUsername(username);
+    if (rows.isEmpty()) {
+      throw new ResourceNotFoundException(
+          "Authenticated user '" + username + "' not found in the database.");
+    }
+    Set<String> roles = rows.stream()
+        .map(UserRoleView::getRole)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toUnmodifiableSet());
+    CurrentUser currentUser = new CurrentUser(rows.getFirst().getId(), username, roles);
+    currentUserCache.put(currentUser);
+    return currentUser;
+  }
+
+  private void evictCurrentUser(String username) {
+    currentUserCache.invalidate(username);
+    RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+    if (requestAttributes != null) {
+      requestAttributes.removeAttribute(CurrentUser.REQUEST_ATTRIBUTE,
+          RequestAttributes.SCOPE_REQUEST);
+    }
   }
 
   @Override
@@ -99,36 +181,57 @@ public class UserServiceImpl implements UserService {
     currentUser.setLastName(userInfoDto.getLastName());
     currentUser.setPhoneNumber(userInfoDto.getPhoneNumber());
     userRepository.save(currentUser);
+    evictCurrentUser(currentUser.getUsername());
   }
 
   @Override
   @Transactional
   public void createPasswordResetTokenForUser(User user) {
-    String token = UUID.randomUUID().toString();
-    user.setPasswordResetToken(token);
-    user.setPasswordResetTokenExpiry(Instant.now().plus(1, ChronoUnit.HOURS));
-    userRepository.save(user);
+    byte[] tokenBytes = new byte[RESET_TOKEN_BYTES];
+    SECURE_RANDOM.nextBytes(tokenBytes);
+    String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+    passwordResetTokenRepository.deleteByUserId(user.getId());
+    passwordResetTokenRepository.save(new PasswordResetToken(
+        hashResetToken(token), user, Instant.now().plus(1, ChronoUnit.HOURS)));
     emailService.sendPasswordResetEmail(user, token);
   }
 
   @Override
   public boolean validatePasswordResetToken(String token) {
-    return userRepository.findByPasswordResetToken(token)
-        .map(user -> user.getPasswordResetTokenExpiry().isAfter(Instant.now()))
-        .orElse(false);
+    return passwordResetTokenRepository.existsByTokenHashAndExpiresAtAfter(
+        hashResetToken(token), Instant.now());
+  }
+
+  @Override
+  @Transactional
+  public Optional<User> resetPasswordWithToken(String token, String password) {
+    return passwordResetTokenRepository.findValidByTokenHash(hashResetToken(token), Instant.now())
+        .map(resetToken -> {
+          User user = resetToken.getUser();
+          // Consumes this token and any other outstanding one issued to the same user.
+          passwordResetTokenRepository.deleteByUserId(user.getId());
+          changeUserPassword(user, password);
+          return user;
+        });
   }
 
   @Override
-  public Optional<User> findByPasswordResetToken(String token) {
-    return userRepository.findByPasswordResetToken(token);
+  @Transactional
+  public int purgeExpiredPasswordResetTokens(int limit) {
+    List<Long> ids = passwordResetTokenRepository.findExpiredIds(
+        Instant.now(), PageRequest.of(0, limit));
+    return ids.isEmpty() ? 0 : passwordResetTokenRepository.deleteByIdIn(ids);
   }
 
   @Override
   public void changeUserPassword(User user, String password) {
     user.setPassword(passwordEncoder.encode(password));
-    user.setPasswordResetToken(null);
-    user.setPasswordResetTokenExpiry(null);
+    user.setPasswordChangedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
     userRepository.save(user);
+    evictCurrentUser(user.getUsername());
+    evictCredentialsAfterCommit(user.getUsername());
+    eventPublisher.publishEvent(
+        new PasswordChangedEvent(user.getUsername(), user.getPasswordChangedAt()));
   }
 
   @Override
@@ -139,7 +242,38 @@ public class UserServiceImpl implements UserService {
       return false;
     }
     currentUser.setPassword(passwordEncoder.encode(changePasswordDto.getNewPassword()));
+    currentUser.setPasswordChangedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
     userRepository.save(currentUser);
+    evictCurrentUser(currentUser.getUsername());
+    evictCredentialsAfterCommit(currentUser.getUsername());
+    eventPublisher.publishEvent(new PasswordChangedEvent(
+        currentUser.getUsername(), currentUser.getPasswordChangedAt()));
     return true;
   }
+
+  /**
+   * Evicting before the commit would let a concurrent login cache the old hash again. Other
+   * instances notice the change when they revalidate the cached hash on login.
+   */
+  private void evictCredentialsAfterCommit(String username) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          userCache.removeUserFromCache(username);
+        }
+      });
+    } else {
+      userCache.removeUserFromCache(username);
+    }
+  }
+
+  private static String hashResetToken(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
 }
@@ -0,0 +1,218 @@
+-- Schema as it stood before migrations were introduced. Databases created earlier are
+-- baselined at this version (spring.flyway.baseline-on-migrate) and start at V2.
+
+create table addresses (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    postal_code varchar(20) not null,
+    name varchar(50) not null,
+    country varchar(60) not null,
+    city varchar(100) not null,
+    address_line varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table cart_items (
+    quantity integer not null,
+    cart_id bigint not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table carts (
+    id bigint not null auto_increment,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table categories (
+    is_deleted bit not null,
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table categories_products (
+    category_id bigint not null,
+    product_id bigint not null
+) engine=InnoDB;
+
+create table order_items (
+    price decimal(8,2) not null,
+    quantity integer not null,
+    id bigint not null auto_increment,
+    order_id bigint not null,
+    product_id bigint not null,
+    product_description TEXT,
+    product_name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    total_amount decimal(10,2) not null,
+    id bigint not null auto_increment,
+    order_date datetime(6) not null,
+    shipping_details_id bigint not null,
+    user_id bigint,
+    status enum ('DELIVERED','PENDING','SHIPPED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    average_rating decimal(3,2),
+    is_deleted bit not null,
+    price decimal(8,2) not null,
+    review_count integer,
+    stock_quantity integer not null,
+    id bigint not null auto_increment,
+    description varchar(255),
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table reviews (
+    rating integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    user_id bigint not null,
+    comment TEXT,
+    primary key (id)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table shipping_details (
+    id bigint not null auto_increment,
+    phone_number varchar(15) not null,
+    first_name varchar(50) not null,
+    last_name varchar(50) not null,
+    country varchar(60) not null,
+    city varchar(100) not null,
+    address_line varchar(255) not null,
+    email varchar(255) not null,
+    postal_code varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    role_id bigint not null,
+    user_id bigint not null,
+    primary key (role_id, user_id)
+) engine=InnoDB;
+
+create table users (
+    enabled bit not null,
+    id bigint not null auto_increment,
+    phone_number varchar(15),
+    first_name varchar(50),
+    last_name varchar(50),
+    username varchar(50) not null,
+    email varchar(255) not null,
+    password varchar(255) not null,
+    password_reset_token varchar(255),
+    password_reset_token_expiry datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table addresses 
+   add constraint UKjffhs9ir37mduu97th857lucp unique (user_id, name);
+
+alter table carts 
+   add constraint UK64t7ox312pqal3p7fg9o503c2 unique (user_id);
+
+alter table categories 
+   add constraint UKt8o6pivur7nn124jehx7cygw5 unique (name);
+
+alter table categories_products 
+   add constraint UKth8b46vfe80rhjxnxqvgg0apj unique (product_id, category_id);
+
+alter table orders 
+   add constraint UK7js4iw0kqq0ibbq4nenpw991e unique (shipping_details_id);
+
+alter table reviews 
+   add constraint UK1nv3auyahyyy79hvtrcqgtfo9 unique (user_id, product_id);
+
+alter table roles 
+   add constraint UKofx66keruapi6vyqpv6f2or37 unique (name);
+
+alter table users 
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users 
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table addresses 
+   add constraint FK1fa36y2oqhao3wgg2rw1pi459 
+   foreign key (user_id) 
+   references users (id);
+
+alter table cart_items 
+   add constraint FKpcttvuq4mxppo8sxggjtn5i2c 
+   foreign key (cart_id) 
+   references carts (id);
+
+alter table cart_items 
+   add constraint FK1re40cjegsfvw58xrkdp6bac6 
+   foreign key (product_id) 
+   references products (id);
+
+alter table carts 
+   add constraint FKb5o626f86h46m4s7ms6ginnop 
+   foreign key (user_id) 
+   references users (id);
+
+alter table categories_products 
+   add constraint FK2a3u5mbtmtq3d4s5abajhhksf 
+   foreign key (category_id) 
+   references categories (id);
+
+alter table categories_products 
+   add constraint FK2tnk948b1lgpg3uggwyi2kwfq 
+   foreign key (product_id) 
+   references products (id);
+
+alter table order_items 
+   add constraint FKbioxgbv59vetrxe0ejfubep1w 
+   foreign key (order_id) 
+   references orders (id);
+
+alter table order_items 
+   add constraint FKocimc7dtr037rh4ls4l95nlfi 
+   foreign key (product_id) 
+   references products (id);
+
+alter table orders 
+   add constraint FKk74v85qxq8ly5niuw313jqk44 
+   foreign key (shipping_details_id) 
+   references shipping_details (id);
+
+alter table orders 
+   add constraint FK32ql8ubntj5uh44ph9659tiih 
+   foreign key (user_id) 
+   references users (id);
+
+alter table reviews 
+   add constraint FKpl51cejpw4gy5swfar8br9ngi 
+   foreign key (product_id) 
+   references products (id);
+
+alter table reviews 
+   add constraint FKcgy7qjc1r99dp117y9en6lxye 
+   foreign key (user_id) 
+   references users (id);
+
+alter table user_roles 
+   add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 
+   foreign key (role_id) 
+   references roles (id);
+
+alter table user_roles 
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f 
+   foreign key (user_id) 
+   references users (id);
@@ -0,0 +1,6 @@
+-- Checkout idempotency keys (one order per submitted checkout form).
+alter table orders
+   add column idempotency_key varchar(64);
+
+alter table orders
+   add constraint uk_orders_idempotency_key unique (idempotency_key);
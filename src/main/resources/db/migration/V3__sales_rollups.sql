@@ -0,0 +1,48 @@
+-- Sales analytics rollups. Existing orders are summed in once here; after that the rollups
+-- are kept up to date per order and rebuilt nightly by SalesRollupCompactionJob.
+create table daily_sales_rollups (
+    revenue decimal(14,2) not null,
+    sales_date date not null,
+    order_count bigint not null,
+    primary key (sales_date)
+) engine=InnoDB;
+
+create table order_status_rollups (
+    order_count bigint not null,
+    status enum ('DELIVERED','PENDING','SHIPPED') not null,
+    primary key (status)
+) engine=InnoDB;
+
+create table product_sales_rollups (
+    revenue decimal(14,2) not null,
+    sales_date date not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    units bigint not null,
+    product_name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table product_sales_rollups
+   add constraint uk_product_sales_rollups_date_product unique (sales_date, product_id);
+
+create index idx_orders_order_date
+   on orders (order_date);
+
+-- order_date holds the application's local time, so its date part is the sales date.
+insert into daily_sales_rollups (sales_date, order_count, revenue)
+select cast(o.order_date as date), count(*), sum(o.total_amount)
+from orders o
+group by cast(o.order_date as date);
+
+insert into order_status_rollups (status, order_count)
+select o.status, count(*)
+from orders o
+group by o.status;
+
+insert into product_sales_rollups (sales_date, product_id, product_name, units, revenue)
+select cast(o.order_date as date), oi.product_id, max(oi.product_name), sum(oi.quantity),
+    sum(oi.price * oi.quantity)
+from order_items oi
+join orders o on o.id = oi.order_id
+group by cast(o.order_date as date), oi.product_id;
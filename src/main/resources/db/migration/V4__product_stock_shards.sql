@@ -0,0 +1,14 @@
+-- Sharded stock counters for hot products. Existing products stay unsharded.
+alter table products
+   add column stock_shard_count integer not null default 0;
+
+create table product_stock_shards (
+    quantity integer not null,
+    shard_index integer not null,
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table product_stock_shards
+   add constraint uk_product_stock_shards_product_shard unique (product_id, shard_index);
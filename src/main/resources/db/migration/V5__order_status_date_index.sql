@@ -0,0 +1,3 @@
+-- Backs the status filter of the admin order console.
+create index idx_orders_status_order_date
+   on orders (status, order_date);
@@ -0,0 +1,3 @@
+-- Last write time of each product; catalog ETags and cached product cards are keyed on it.
+alter table products
+   add column updated_at datetime(6) default current_timestamp(6);
@@ -0,0 +1,4 @@
+-- Moves whenever a user changes or resets their password; API tokens issued before it are
+-- rejected. Existing users start at the migration time.
+alter table users
+   add column password_changed_at datetime(6) not null default current_timestamp(6);
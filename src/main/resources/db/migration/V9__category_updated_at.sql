@@ -0,0 +1,3 @@
+-- Last write time of each category; the catalog ETag covers the category filter through it.
+alter table categories
+   add column updated_at datetime(6) default current_timestamp(6);
@@ -0,0 +1,105 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.RegistrationDto;
+import com.ecommerce.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Per-request cost of authenticating an {@code /api/cart} call from a spring-session-jdbc
+ * session versus from a signed bearer token. Both paths hit the same endpoint, so the
+ * difference is the session load/save against the in-memory token check.
+ * Run with {@code ./mvnw test -Pbenchmark}.
+ */
+@SpringBootTest(properties = {
+    "ecommerce.security.api-token.enabled=true",
+    "ecommerce.security.api-token.secret=benchmark-secret-benchmark-secret",
+    "ecommerce.security.rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ApiAuthOverheadBenchmark {
+  private static final int WARMUP_REQUESTS = 300;
+  private static final int MEASURED_REQUESTS = 3_000;
+  private static final String USERNAME = "api-benchmark";
+  private static final String PASSWORD = "benchmark-password";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void tokenAuthenticationIsCheaperThanSessionLookup() throws Exception {
+    RegistrationDto registration = new RegistrationDto();
+    registration.setUsername(USERNAME);
+    registration.setEmail(USERNAME + "@example.com");
+    registration.setPassword(PASSWORD);
+    registration.setConfirmPassword(PASSWORD);
+    transactionTemplate.executeWithoutResult(_ -> userService.registerUser(registration));
+
+    Cookie sessionCookie = mockMvc.perform(formLogin("/login").user(USERNAME).password(PASSWORD))
+        .andReturn().getResponse().getCookie("SESSION");
+    assertThat(sessionCookie).isNotNull();
+
+    String tokenResponse = mockMvc.perform(post("/api/auth/token")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(
+                Map.of("username", USERNAME, "password", PASSWORD))))
+        .andReturn().getResponse().getContentAsString();
+    String token = objectMapper.readTree(tokenResponse).get("token").asText();
+
+    Supplier<RequestBuilder> sessionRequest = () -> delete("/api/cart/remove")
+        .param("productId", "1")
+        .cookie(sessionCookie)
+        .with(csrf());
+    Supplier<RequestBuilder> tokenRequest = () -> delete("/api/cart/remove")
+        .param("productId", "1")
+        .header("Authorization", "Bearer " + token);
+
+    run(sessionRequest, WARMUP_REQUESTS);
+    run(tokenRequest, WARMUP_REQUESTS);
+    double sessionMicros = run(sessionRequest, MEASURED_REQUESTS);
+    double tokenMicros = run(tokenRequest, MEASURED_REQUESTS);
+
+    System.out.printf("%nAPI auth overhead (%d requests each)%n", MEASURED_REQUESTS);
+    System.out.printf("  session (spring-session-jdbc): %8.1f us/request%n", sessionMicros);
+    System.out.printf("  bearer token (HMAC):           %8.1f us/request%n", tokenMicros);
+
+    assertThat(tokenMicros).isLessThan(sessionMicros);
+  }
+
+  private double run(Supplier<RequestBuilder> request, int count) throws Exception {
+    long startedAt = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      int status = mockMvc.perform(request.get()).andReturn().getResponse().getStatus();
+      assertThat(status).isEqualTo(200);
+    }
+    return (System.nanoTime() - startedAt) / 1_000.0 / count;
+  }
+}
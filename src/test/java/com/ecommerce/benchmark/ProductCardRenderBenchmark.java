@@ -0,0 +1,93 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.FragmentCache;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Time to serve {@code /products/list} per page size with every product card rendered from
+ * scratch versus served from the fragment cache. The search query is the same in both runs,
+ * so the difference is the template work on the cards.
+ * Run with {@code ./mvnw test -Pbenchmark}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductCardRenderBenchmark {
+  private static final int[] PAGE_SIZES = {12, 48, 100};
+  private static final int WARMUP_REQUESTS = 50;
+  private static final int MEASURED_REQUESTS = 200;
+  private static final String NAME = "Render benchmark";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private FragmentCache fragmentCache;
+
+  @Test
+  void cachedCardsRenderFasterThanUncachedCards() throws Exception {
+    List<Product> products = new ArrayList<>();
+    for (int i = 0; i < PAGE_SIZES[PAGE_SIZES.length - 1]; i++) {
+      Product product = new Product();
+      product.setName(NAME + " " + i);
+      product.setDescription("A product used to measure how long its card takes to render.");
+      product.setPrice(new BigDecimal("19.99"));
+      product.setStockQuantity(i % 10);
+      products.add(product);
+    }
+    productRepository.saveAll(products);
+
+    Map<Integer, double[]> results = new LinkedHashMap<>();
+    for (int size : PAGE_SIZES) {
+      run(size, WARMUP_REQUESTS, false);
+      run(size, WARMUP_REQUESTS, true);
+      double uncachedMicros = run(size, MEASURED_REQUESTS, false);
+      double cachedMicros = run(size, MEASURED_REQUESTS, true);
+      results.put(size, new double[]{uncachedMicros, cachedMicros});
+    }
+
+    System.out.printf("%nProduct list render time (%d requests each)%n", MEASURED_REQUESTS);
+    System.out.printf("  %5s %14s %14s%n", "cards", "uncached us", "cached us");
+    results.forEach((size, micros) ->
+        System.out.printf("  %5d %14.1f %14.1f%n", size, micros[0], micros[1]));
+
+    double[] largest = results.get(PAGE_SIZES[PAGE_SIZES.length - 1]);
+    assertThat(largest[1]).isLessThan(largest[0]);
+  }
+
+  private double run(int size, int count, boolean cached) throws Exception {
+    long elapsedNanos = 0;
+    for (int i = 0; i < count; i++) {
+      if (!cached) {
+        fragmentCache.clear();
+      }
+      long startedAt = System.nanoTime();
+      String html = mockMvc.perform(get("/products/list")
+              .param("name", NAME)
+              .param("size", String.valueOf(size)))
+          .andReturn().getResponse().getContentAsString();
+      elapsedNanos += System.nanoTime() - startedAt;
+      assertThat(html.split("form=\"product-", -1)).hasSize(2 * size + 1);
+    }
+    return elapsedNanos / 1_000.0 / count;
+  }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.StockShardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout throughput on a single hot product for an increasing number of stock shards.
+ * Each simulated checkout decrements one unit and keeps its transaction open for a few
+ * milliseconds, the way order and item inserts do in {@code OrderServiceImpl#placeOrder}.
+ * Run with {@code ./mvnw test -Pbenchmark}.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.hikari.maximum-pool-size=40",
+    "ecommerce.inventory.shard-maintenance-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class StockShardThroughputBenchmark {
+  private static final int[] SHARD_COUNTS = {1, 2, 4, 8, 16};
+  private static final int THREADS = 32;
+  private static final int CHECKOUTS_PER_THREAD = 40;
+  private static final long TRANSACTION_HOLD_MILLIS = 2;
+  private static final int INITIAL_STOCK = 1_000_000;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private StockShardService stockShardService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Test
+  void checkoutThroughputScalesWithShardCount() throws Exception {
+    Product product = new Product();
+    product.setName("Flash sale item");
+    product.setPrice(BigDecimal.TEN);
+    product.setStockQuantity(INITIAL_STOCK);
+    Long productId = productRepository.save(product).getId();
+
+    Map<Integer, Double> throughput = new LinkedHashMap<>();
+    for (int shardCount : SHARD_COUNTS) {
+      stockShardService.configure(productId, shardCount, INITIAL_STOCK);
+      throughput.put(shardCount, run(productId));
+      assertThat(stockShardService.getAvailableStock(productId))
+          .isEqualTo(INITIAL_STOCK - THREADS * CHECKOUTS_PER_THREAD);
+    }
+
+    System.out.printf("%nStock shard throughput (%d threads, %d ms per transaction)%n",
+        THREADS, TRANSACTION_HOLD_MILLIS);
+    throughput.forEach((shards, opsPerSecond) ->
+        System.out.printf("  %2d shard(s): %8.1f checkouts/s%n", shards, opsPerSecond));
+
+    assertThat(throughput.get(SHARD_COUNTS[SHARD_COUNTS.length - 1]))
+        .isGreaterThan(throughput.get(SHARD_COUNTS[0]));
+  }
+
+  private double run(Long productId) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger failures = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int i = 0; i < CHECKOUTS_PER_THREAD; i++) {
+          Boolean decremented = transactionTemplate.execute(_ -> {
+            boolean result = stockShardService.tryDecrement(productId, 1);
+            try {
+              Thread.sleep(TRANSACTION_HOLD_MILLIS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            return result;
+          });
+          if (!Boolean.TRUE.equals(decremented)) {
+            failures.incrementAndGet();
+          }
+        }
+        return null;
+      }));
+    }
+
+    long startedAt = System.nanoTime();
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    long elapsedNanos = System.nanoTime() - startedAt;
+    executor.shutdown();
+
+    assertThat(failures.get()).isZero();
+    return THREADS * CHECKOUTS_PER_THREAD / (elapsedNanos / 1_000_000_000.0);
+  }
+}
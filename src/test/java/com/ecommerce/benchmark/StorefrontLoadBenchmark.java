@@ -0,0 +1,474 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.RoleRepository;
+import com.ecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load on the storefront: the application runs on H2 with a synthetic catalog, and
+ * virtual-thread clients browse, search, add to cart and check out over HTTP, with CSRF tokens
+ * and session cookies like a browser. A fifth of the clients log in first and use the database
+ * cart. Throughput and latency percentiles are reported per endpoint.
+ * <p>
+ * Absolute numbers depend on the machine, so the regression check works on ratios within one
+ * run: each endpoint's p95 is divided by the p95 of {@value #REFERENCE_ENDPOINT} measured
+ * alongside it, and that ratio is compared with the one stored in
+ * {@code src/test/resources/benchmark/storefront-load-baseline.json}. An endpoint whose ratio
+ * grows by more than {@code load.tolerance} (default 0.3) fails the run. A slowdown shared by
+ * every endpoint, the reference included, is not caught here.
+ * <p>
+ * Run with {@code ./mvnw test -Pbenchmark -Dtest=StorefrontLoadBenchmark}; the default build
+ * does not run it. The workload is set with {@code -Dload.products}, {@code load.categories},
+ * {@code load.users}, {@code load.clients}, {@code load.warmup-seconds} and
+ * {@code load.seconds}; {@code -Dload.update-baseline=true} records the run as the new baseline.
+ */
+class StorefrontLoadBenchmark {
+  private static final Path BASELINE =
+      Path.of("src/test/resources/benchmark/storefront-load-baseline.json");
+  /** Percentiles of endpoints with fewer samples than this in the baseline are too noisy. */
+  private static final int MIN_COMPARED_REQUESTS = 100;
+  /** The cheapest and most frequent page in the mix; other endpoints are timed against it. */
+  static final String REFERENCE_ENDPOINT = "GET /products/{id}";
+  private static final String PASSWORD = "load-test-password";
+  private static final String[] NOUNS = {"lamp", "chair", "desk", "mug", "kettle", "shelf",
+      "rug", "clock", "pillow", "blanket", "vase", "mirror"};
+  private static final String[] ADJECTIVES = {"oak", "steel", "linen", "ceramic", "walnut",
+      "glass", "woollen", "brass"};
+  private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"[^>]*value=\"([^\"]+)\"");
+  private static final Pattern IDEMPOTENCY_KEY =
+      Pattern.compile("name=\"idempotencyKey\"[^>]*value=\"([^\"]*)\"");
+
+  private final Workload workload = Workload.fromSystemProperties();
+  private final ObjectMapper objectMapper = new ObjectMapper()
+      .enable(SerializationFeature.INDENT_OUTPUT);
+  private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> errors = new ConcurrentHashMap<>();
+  private volatile boolean measuring;
+
+  @Test
+  void storefrontMixStaysWithinBaseline() throws Exception {
+    Report report;
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+        EcommerceApplication.class)
+        .profiles("test")
+        .initializers(applicationContext -> ((GenericApplicationContext) applicationContext)
+            .registerBean("mailSender", JavaMailSender.class, DiscardingMailSender::new))
+        .run("--server.port=0",
+            "--ecommerce.security.rate-limit.enabled=false",
+            "--ecommerce.security.password-hash-target-ms=1",
+            "--ecommerce.security.password-hashing-queue-timeout-ms=60000",
+            "--logging.level.com.ecommerce=WARN")) {
+      List<Long> productIds = seed(context);
+      int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+      report = run(URI.create("http://localhost:" + port), productIds);
+    }
+    print(report);
+
+    assertThat(report.endpoints().values()).allSatisfy(endpoint ->
+        assertThat(endpoint.errors()).as("errors").isZero());
+    if (Boolean.getBoolean("load.update-baseline")) {
+      Files.createDirectories(BASELINE.getParent());
+      objectMapper.writeValue(BASELINE.toFile(), report);
+      System.out.println("Baseline written to " + BASELINE);
+      return;
+    }
+    compareWithBaseline(report);
+  }
+
+  private List<Long> seed(ConfigurableApplicationContext context) {
+    CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+    ProductRepository productRepository = context.getBean(ProductRepository.class);
+    UserRepository userRepository = context.getBean(UserRepository.class);
+    RoleRepository roleRepository = context.getBean(RoleRepository.class);
+    Random random = new Random(42);
+
+    List<Category> categories = new ArrayList<>();
+    for (int i = 0; i < workload.categories(); i++) {
+      categories.add(new Category("Load category " + i));
+    }
+    categories = categoryRepository.saveAll(categories);
+
+    List<Long> productIds = new ArrayList<>();
+    List<Product> batch = new ArrayList<>();
+    for (int i = 0; i < workload.products(); i++) {
+      Product product = new Product();
+      product.setName("Load " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+          + NOUNS[random.nextInt(NOUNS.length)] + " " + i);
+      product.setDescription("Synthetic product " + i + " for the storefront load test.");
+      product.setPrice(BigDecimal.valueOf(100 + random.nextInt(20_000), 2));
+      product.setStockQuantity(1_000_000);
+      product.addCategory(categories.get(random.nextInt(categories.size())));
+      batch.add(product);
+      if (batch.size() == 500 || i == workload.products() - 1) {
+        productRepository.saveAll(batch).forEach(saved -> productIds.add(saved.getId()));
+        batch.clear();
+      }
+    }
+
+    // One hash for every user; the role has to stay managed while the users are persisted.
+    String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).executeWithoutResult(
+        _ -> {
+          Role userRole = roleRepository.findByName("ROLE_USER").orElseThrow();
+          List<User> users = new ArrayList<>();
+          for (int i = 0; i < workload.users(); i++) {
+            User user = new User();
+            user.setUsername("loaduser" + i);
+            user.setEmail("loaduser" + i + "@example.com");
+            user.setPassword(passwordHash);
+            user.setEnabled(true);
+            user.addRole(userRole);
+            users.add(user);
+          }
+          userRepository.saveAll(users);
+        });
+    return productIds;
+  }
+
+  private Report run(URI baseUri, List<Long> productIds) throws Exception {
+    try (HttpClient client = HttpClient.newBuilder()
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build()) {
+      List<Client> clients = new ArrayList<>();
+      for (int i = 0; i < workload.clients(); i++) {
+        String username = i % 5 == 0 && workload.users() > 0
+            ? "loaduser" + (i / 5 % workload.users()) : null;
+        clients.add(new Client(client, baseUri, productIds, new Random(i), username));
+      }
+
+      // Sessions and logins are set up before the clock starts; they are not part of the mix.
+      runClients(clients, Client::start);
+
+      long warmupEnd = System.nanoTime() + workload.warmupSeconds() * 1_000_000_000L;
+      long end = warmupEnd + workload.seconds() * 1_000_000_000L;
+      Thread.ofVirtual().start(() -> {
+        LockSupport.parkNanos(warmupEnd - System.nanoTime());
+        measuring = true;
+      });
+      runClients(clients, loadClient -> {
+        while (System.nanoTime() < end) {
+          loadClient.runScenario();
+        }
+      });
+    }
+
+    Map<String, long[]> sortedLatencies = new TreeMap<>();
+    latencies.forEach((endpoint, samples) -> sortedLatencies.put(endpoint,
+        samples.stream().mapToLong(Long::longValue).sorted().toArray()));
+    long[] reference = sortedLatencies.get(REFERENCE_ENDPOINT);
+    assertThat(reference).as("samples of %s", REFERENCE_ENDPOINT).isNotEmpty();
+    double referenceP95 = percentile(reference, 0.95);
+
+    Map<String, EndpointResult> endpoints = new TreeMap<>();
+    sortedLatencies.forEach((endpoint, sorted) -> {
+      double p95 = percentile(sorted, 0.95);
+      endpoints.put(endpoint, new EndpointResult(sorted.length,
+          sorted.length / (double) workload.seconds(),
+          percentile(sorted, 0.50), p95, percentile(sorted, 0.99), p95 / referenceP95,
+          errors.getOrDefault(endpoint, new AtomicInteger()).get()));
+    });
+    return new Report(workload, endpoints);
+  }
+
+  /** Runs one task per client on its own virtual thread and rethrows the first failure. */
+  private static void runClients(List<Client> clients, ClientTask task) throws Exception {
+    List<Future<Void>> futures = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (Client loadClient : clients) {
+        futures.add(executor.submit(() -> {
+          task.run(loadClient);
+          return null;
+        }));
+      }
+    }
+    for (Future<Void> future : futures) {
+      future.get();
+    }
+  }
+
+  private void compareWithBaseline(Report report) throws IOException {
+    if (!Files.exists(BASELINE)) {
+      System.out.println("No baseline at " + BASELINE + "; run with -Dload.update-baseline=true.");
+      return;
+    }
+    Report baseline = objectMapper.readValue(BASELINE.toFile(), Report.class);
+    if (!baseline.workload().equals(report.workload())) {
+      System.out.println("Baseline was recorded for " + baseline.workload()
+          + "; skipping the regression check.");
+      return;
+    }
+    double tolerance = Double.parseDouble(System.getProperty("load.tolerance", "0.3"));
+    double referenceP95 = report.endpoints().get(REFERENCE_ENDPOINT).p95Millis();
+    List<String> regressions = new ArrayList<>();
+    baseline.endpoints().forEach((endpoint, before) -> {
+      EndpointResult now = report.endpoints().get(endpoint);
+      if (now == null) {
+        regressions.add(endpoint + " was not exercised");
+        return;
+      }
+      if (before.requests() < MIN_COMPARED_REQUESTS || endpoint.equals(REFERENCE_ENDPOINT)) {
+        return;
+      }
+      // The baseline ratio scaled by this run's reference, plus a couple of milliseconds of
+      // slack so fast endpoints do not fail on jitter.
+      double allowedP95 = before.p95Ratio() * referenceP95 * (1 + tolerance) + 2;
+      if (now.p95Millis() > allowedP95) {
+        regressions.add(String.format("%s p95 %.2fx %s, baseline %.2fx", endpoint,
+            now.p95Ratio(), REFERENCE_ENDPOINT, before.p95Ratio()));
+      }
+    });
+    assertThat(regressions).as("regressions against %s (tolerance %.0f%%)", BASELINE,
+        tolerance * 100).isEmpty();
+  }
+
+  private void print(Report report) {
+    System.out.println(report.workload());
+    System.out.printf("%-32s %9s %12s %10s %10s %10s %10s %8s%n", "endpoint", "requests",
+        "requests/s", "p50 ms", "p95 ms", "p99 ms", "p95 ratio", "errors");
+    report.endpoints().forEach((endpoint, result) -> System.out.printf(
+        "%-32s %9d %12.1f %10.1f %10.1f %10.1f %10.2f %8d%n", endpoint, result.requests(),
+        result.throughput(), result.p50Millis(), result.p95Millis(), result.p99Millis(),
+        result.p95Ratio(), result.errors()));
+  }
+
+  private static double percentile(long[] sortedNanos, double percentile) {
+    if (sortedNanos.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+    return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+  }
+
+  /** One browser: its own cookies and CSRF token, running weighted scenarios back to back. */
+  private final class Client {
+    private final HttpClient http;
+    private final URI baseUri;
+    private final List<Long> productIds;
+    private final Random random;
+    private final String username;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+    private String csrfToken;
+
+    Client(HttpClient http, URI baseUri, List<Long> productIds, Random random, String username) {
+      this.http = http;
+      this.baseUri = baseUri;
+      this.productIds = productIds;
+      this.random = random;
+      this.username = username;
+    }
+
+    void start() throws Exception {
+      get("GET /login", "/login");
+      if (username != null) {
+        HttpResponse<String> response =
+            post("POST /login", "/login", Map.of("username", username, "password", PASSWORD));
+        assertThat(response.headers().firstValue("Location").orElse(""))
+            .as("login of %s", username).doesNotContain("error");
+        assertThat(response.statusCode()).as("login of %s", username).isEqualTo(302);
+        // The session id and CSRF token change on login.
+        csrfToken = null;
+        get("GET /", "/");
+      }
+    }
+
+    void runScenario() throws Exception {
+      int roll = random.nextInt(100);
+      if (roll < 45) {
+        browse();
+      } else if (roll < 70) {
+        search();
+      } else if (roll < 90) {
+        addToCart();
+      } else {
+        checkout();
+      }
+    }
+
+    private void browse() throws Exception {
+      get("GET /products/list", "/products/list?page=" + random.nextInt(5) + "&size=12");
+      get("GET /products/{id}", "/products/" + randomProduct());
+    }
+
+    private void search() throws Exception {
+      String query = "/products/list?name=" + NOUNS[random.nextInt(NOUNS.length)];
+      if (random.nextBoolean()) {
+        query += "&onlyAvailable=true&minPrice=10&maxPrice=150";
+      }
+      get("GET /products/list?name", query);
+    }
+
+    private void addToCart() throws Exception {
+      long productId = randomProduct();
+      get("GET /products/{id}", "/products/" + productId);
+      post("POST /cart/add", "/cart/add", Map.of("productId", String.valueOf(productId),
+          "quantity", String.valueOf(1 + random.nextInt(3))));
+      get("GET /cart", "/cart");
+    }
+
+    private void checkout() throws Exception {
+      post("POST /cart/add", "/cart/add", Map.of("productId", String.valueOf(randomProduct()),
+          "quantity", "1"));
+      String form = get("GET /orders/shipping-details", "/orders/shipping-details");
+      Matcher key = IDEMPOTENCY_KEY.matcher(form);
+      Map<String, String> fields = new LinkedHashMap<>();
+      fields.put("firstName", "Load");
+      fields.put("lastName", "Tester");
+      fields.put("email", "load.tester@example.com");
+      fields.put("phoneNumber", "123456789");
+      fields.put("addressLine", "1 Benchmark Street");
+      fields.put("city", "Testville");
+      fields.put("country", "Testland");
+      fields.put("postalCode", "12345");
+      fields.put("idempotencyKey", key.find() ? key.group(1) : UUID.randomUUID().toString());
+      HttpResponse<String> response =
+          post("POST /orders/place-order", "/orders/place-order", fields);
+      String location = response.headers().firstValue("Location").orElse("");
+      if (!location.endsWith("/orders/confirmation")) {
+        errors.computeIfAbsent("POST /orders/place-order", _ -> new AtomicInteger())
+            .incrementAndGet();
+      }
+    }
+
+    private long randomProduct() {
+      return productIds.get(random.nextInt(productIds.size()));
+    }
+
+    private String get(String endpoint, String path) throws Exception {
+      HttpResponse<String> response = send(endpoint, HttpRequest.newBuilder(baseUri.resolve(path))
+          .GET(), 200);
+      Matcher csrf = CSRF.matcher(response.body());
+      if (csrf.find()) {
+        csrfToken = csrf.group(1);
+      }
+      return response.body();
+    }
+
+    private HttpResponse<String> post(String endpoint, String path, Map<String, String> fields)
+        throws Exception {
+      if (csrfToken == null) {
+        get("GET /login", "/login");
+      }
+      Map<String, String> form = new LinkedHashMap<>(fields);
+      form.put("_csrf", csrfToken);
+      String body = form.entrySet().stream()
+          .map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(),
+              StandardCharsets.UTF_8))
+          .collect(Collectors.joining("&"));
+      return send(endpoint, HttpRequest.newBuilder(baseUri.resolve(path))
+          .header("Content-Type", "application/x-www-form-urlencoded")
+          .POST(HttpRequest.BodyPublishers.ofString(body)), 302);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request,
+        int expectedStatus) throws Exception {
+      if (!cookies.isEmpty()) {
+        request.header("Cookie", cookies.entrySet().stream()
+            .map(cookie -> cookie.getKey() + "=" + cookie.getValue())
+            .collect(Collectors.joining("; ")));
+      }
+      long start = System.nanoTime();
+      HttpResponse<String> response = http.send(request.build(),
+          HttpResponse.BodyHandlers.ofString());
+      long elapsed = System.nanoTime() - start;
+      for (String setCookie : response.headers().allValues("Set-Cookie")) {
+        String pair = setCookie.split(";", 2)[0];
+        int equals = pair.indexOf('=');
+        cookies.put(pair.substring(0, equals), pair.substring(equals + 1));
+      }
+      if (measuring) {
+        latencies.computeIfAbsent(endpoint, _ -> new ConcurrentLinkedQueue<>()).add(elapsed);
+        if (response.statusCode() != expectedStatus) {
+          errors.computeIfAbsent(endpoint, _ -> new AtomicInteger()).incrementAndGet();
+        }
+      }
+      return response;
+    }
+  }
+
+  @FunctionalInterface
+  private interface ClientTask {
+    void run(Client client) throws Exception;
+  }
+
+  /** Accepts and drops mail, so checkouts do not depend on an SMTP server. */
+  private static class DiscardingMailSender extends JavaMailSenderImpl {
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) {
+    }
+  }
+
+  record Workload(int products, int categories, int users, int clients, int warmupSeconds,
+                  int seconds) {
+    static Workload fromSystemProperties() {
+      return new Workload(Integer.getInteger("load.products", 2_000),
+          Integer.getInteger("load.categories", 20),
+          Integer.getInteger("load.users", 100),
+          Integer.getInteger("load.clients", 16),
+          Integer.getInteger("load.warmup-seconds", 5),
+          Integer.getInteger("load.seconds", 30));
+    }
+  }
+
+  /** Latencies are for reading the report; only {@code p95Ratio} is compared between runs. */
+  record EndpointResult(int requests, double throughput, double p50Millis, double p95Millis,
+                        double p99Millis, double p95Ratio, int errors) {
+  }
+
+  record Report(Workload workload, Map<String, EndpointResult> endpoints) {
+    @Override
+    public String toString() {
+      return workload + " " + Arrays.toString(endpoints.keySet().toArray());
+    }
+  }
+}
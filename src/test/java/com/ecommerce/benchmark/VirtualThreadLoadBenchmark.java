@@ -0,0 +1,127 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.config.ConcurrencyLimitedDataSource;
+import org.apache.catalina.connector.Connector;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and p99 latency of {@code /products/list} under more concurrent clients than
+ * Tomcat has platform request threads, once per threading mode. Each mode gets its own
+ * application on a random port, with the same Hikari pool size; in virtual-thread mode the
+ * JDBC guard queues the excess requests instead of Tomcat's accept queue.
+ * H2 answers in memory and never blocks on the network, so the gap here understates the one
+ * against MySQL. Run with {@code ./mvnw test -Pbenchmark}.
+ */
+class VirtualThreadLoadBenchmark {
+  private static final int CLIENTS = 300;
+  private static final int WARMUP_REQUESTS_PER_CLIENT = 3;
+  private static final int MEASURED_REQUESTS_PER_CLIENT = 15;
+  private static final String PATH = "/products/list";
+
+  @Test
+  void virtualThreadModeServesLoadWithoutErrors() throws Exception {
+    Result platform = run(false);
+    Result virtual = run(true);
+
+    System.out.printf("%-10s %12s %10s %10s%n", "mode", "requests/s", "p50 ms", "p99 ms");
+    for (Result result : List.of(platform, virtual)) {
+      System.out.printf("%-10s %12.0f %10.1f %10.1f%n", result.mode(), result.throughput(),
+          result.p50Millis(), result.p99Millis());
+    }
+
+    assertThat(platform.errors()).isZero();
+    assertThat(virtual.errors()).isZero();
+    assertThat(virtual.throughput()).isGreaterThan(platform.throughput() * 0.5);
+  }
+
+  private Result run(boolean virtualThreads) throws Exception {
+    try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+        EcommerceApplication.class)
+        .profiles("test")
+        .run("--server.port=0",
+            "--spring.threads.virtual.enabled=" + virtualThreads,
+            "--spring.datasource.hikari.maximum-pool-size=20",
+            "--ecommerce.security.rate-limit.enabled=false")) {
+      assertThat(context.getBean(DataSource.class).isWrapperFor(ConcurrencyLimitedDataSource.class))
+          .isEqualTo(virtualThreads);
+      TomcatWebServer webServer = (TomcatWebServer)
+          ((ServletWebServerApplicationContext) context).getWebServer();
+      Connector connector = webServer.getTomcat().getConnector();
+      assertThat(connector.getProtocolHandler().getExecutor().getClass().getSimpleName())
+          .isEqualTo(virtualThreads ? "VirtualThreadExecutor" : "ThreadPoolExecutor");
+
+      URI uri = URI.create("http://localhost:" + webServer.getPort() + PATH);
+      try (HttpClient client = HttpClient.newBuilder()
+          .executor(Executors.newVirtualThreadPerTaskExecutor())
+          .build()) {
+        load(client, uri, WARMUP_REQUESTS_PER_CLIENT, new AtomicInteger());
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        long[] latencies = load(client, uri, MEASURED_REQUESTS_PER_CLIENT, errors);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(virtualThreads ? "virtual" : "platform",
+            latencies.length / (elapsed / 1_000_000_000.0),
+            percentile(latencies, 0.50), percentile(latencies, 0.99), errors.get());
+      }
+    }
+  }
+
+  /** Closed loop: every client sends its next request as soon as the previous one returns. */
+  private long[] load(HttpClient client, URI uri, int requestsPerClient, AtomicInteger errors)
+      throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+    List<Future<long[]>> futures = new ArrayList<>();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int c = 0; c < CLIENTS; c++) {
+        futures.add(clients.submit(() -> {
+          long[] latencies = new long[requestsPerClient];
+          for (int i = 0; i < requestsPerClient; i++) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies[i] = System.nanoTime() - start;
+            if (response.statusCode() != 200) {
+              errors.incrementAndGet();
+            }
+          }
+          return latencies;
+        }));
+      }
+    }
+    long[] all = new long[CLIENTS * requestsPerClient];
+    for (int c = 0; c < CLIENTS; c++) {
+      System.arraycopy(futures.get(c).get(), 0, all, c * requestsPerClient, requestsPerClient);
+    }
+    return all;
+  }
+
+  private static double percentile(long[] sortedNanos, double percentile) {
+    int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+    return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+  }
+
+  private record Result(String mode, double throughput, double p50Millis, double p99Millis,
+                        int errors) {
+  }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.controller.api;
+
+import com.ecommerce.cart.ShoppingCart;
+import com.ecommerce.config.StringToCategoryConverter;
+import com.ecommerce.dto.CurrentUser;
+import com.ecommerce.security.ApiTokenService;
+import com.ecommerce.security.CustomAccessDeniedHandler;
+import com.ecommerce.security.CustomAuthenticationSuccessHandler;
+import com.ecommerce.security.JpaUserDetailsService;
+import com.ecommerce.security.SecurityConfig;
+import com.ecommerce.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(SecurityConfig.class)
+@WebMvcTest(AuthApiController.class)
+@WithAnonymousUser
+@TestPropertySource(properties = {
+    "ecommerce.security.api-token.enabled=true",
+    "ecommerce.security.rate-limit.identity-limit=2"})
+@SuppressWarnings("unused")
+class AuthApiControllerTest {
+
+  // Beans for SecurityConfig dependencies
+  @MockitoBean
+  private JpaUserDetailsService jpaUserDetailsService;
+  @MockitoBean
+  private CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler;
+  @MockitoBean
+  private CustomAccessDeniedHandler customAccessDeniedHandler;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private AuthenticationManager authenticationManager;
+
+  @MockitoBean
+  private ApiTokenService apiTokenService;
+
+  @MockitoBean
+  private UserService userService;
+
+  @MockitoBean
+  private StringToCategoryConverter stringToCategoryConverter;
+
+  @MockitoBean
+  private ShoppingCart shoppingCart;
+
+  @Test
+  void issueToken_withValidJsonCredentials_returnsTokenWithoutCsrf() throws Exception {
+    CurrentUser user = new CurrentUser(1L, "tom", Set.of("ROLE_USER"));
+    when(authenticationManager.authenticate(any())).thenReturn(
+        UsernamePasswordAuthenticationToken.authenticated("tom", null, List.of()));
+    when(userService.getUserSnapshot("tom")).thenReturn(user);
+    when(apiTokenService.issue(user)).thenReturn("signed-token");
+
+    mockMvc.perform(post("/api/auth/token")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"username\": \"tom\", \"password\": \"password1\"}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.token").value("signed-token"));
+  }
+
+  @Test
+  void issueToken_overIdentityLimit_returnsTooManyRequestsWithoutAuthenticating()
+      throws Exception {
+    when(authenticationManager.authenticate(any()))
+        .thenThrow(new BadCredentialsException("Bad credentials"));
+    String body = "{\"username\": \"jerry\", \"password\": \"wrong-password\"}";
+    for (int i = 1; i <= 2; i++) {
+      String ip = "10.0.0." + i;
+      mockMvc.perform(post("/api/auth/token")
+              .with(request -> {
+                request.setRemoteAddr(ip);
+                return request;
+              })
+              .contentType(MediaType.APPLICATION_JSON)
+              .content(body))
+          .andExpect(status().isUnauthorized());
+    }
+
+    mockMvc.perform(post("/api/auth/token")
+            .with(request -> {
+              request.setRemoteAddr("10.0.0.3");
+              return request;
+            })
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(body))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "60"));
+    verify(authenticationManager, times(2)).authenticate(any());
+  }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.controller.api;
+
+import com.ecommerce.cart.ShoppingCart;
+import com.ecommerce.config.StringToCategoryConverter;
+import com.ecommerce.dto.ProductSummaryDto;
+import com.ecommerce.dto.ReviewDto;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.security.CustomAccessDeniedHandler;
+import com.ecommerce.security.CustomAuthenticationSuccessHandler;
+import com.ecommerce.security.JpaUserDetailsService;
+import com.ecommerce.security.SecurityConfig;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.service.ProductUpdateStreamService;
+import com.ecommerce.service.ReviewService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(SecurityConfig.class)
+@WebMvcTest(ProductApiController.class)
+@WithAnonymousUser
+@SuppressWarnings("unused")
+class ProductApiControllerTest {
+
+  // Beans for SecurityConfig dependencies
+  @MockitoBean
+  private JpaUserDetailsService jpaUserDetailsService;
+  @MockitoBean
+  private CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler;
+  @MockitoBean
+  private CustomAccessDeniedHandler customAccessDeniedHandler;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private ProductService productService;
+
+  @MockitoBean
+  private ReviewService reviewService;
+
+  @MockitoBean
+  private ProductUpdateStreamService productUpdateStreamService;
+
+  @MockitoBean
+  private StringToCategoryConverter stringToCategoryConverter;
+
+  @MockitoBean
+  private ShoppingCart shoppingCart;
+
+  private static ProductSummaryDto summary(Long id, String name) {
+    return new ProductSummaryDto(id, name, "Description", new BigDecimal("19.99"), 4,
+        new BigDecimal("4.50"), 2);
+  }
+
+  @Test
+  void whenSearchProducts_thenWritesRowsWithPageMetadata() throws Exception {
+    when(productService.searchProductSummaries(eq("Table"), eq(List.of(1L, 2L)), isNull(),
+        isNull(), eq(true), eq(PageRequest.of(1, 2))))
+        .thenReturn(new PageImpl<>(List.of(summary(3L, "Green Table"), summary(4L, "Black Table")),
+            PageRequest.of(1, 2), 5));
+
+    mockMvc.perform(get("/api/products")
+            .param("name", "Table")
+            .param("categoryIds", "1", "2")
+            .param("onlyAvailable", "true")
+            .param("page", "1")
+            .param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.content", hasSize(2)))
+        .andExpect(jsonPath("$.content[0].id").value(3))
+        .andExpect(jsonPath("$.content[0].price").value(19.99))
+        .andExpect(jsonPath("$.content[1].name").value("Black Table"))
+        .andExpect(jsonPath("$.page").value(1))
+        .andExpect(jsonPath("$.size").value(2))
+        .andExpect(jsonPath("$.totalElements").value(5))
+        .andExpect(jsonPath("$.totalPages").value(3));
+  }
+
+  @Test
+  void whenSearchProducts_withTooLargePage_thenBadRequest() throws Exception {
+    mockMvc.perform(get("/api/products").param("size", "101"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").exists());
+
+    verifyNoInteractions(productService);
+  }
+
+  @Test
+  void whenGetProduct_withExistingId_thenReturnsSummary() throws Exception {
+    when(productService.findSummaryById(7L)).thenReturn(Optional.of(summary(7L, "Lamp")));
+
+    mockMvc.perform(get("/api/products/7"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Lamp"))
+        .andExpect(jsonPath("$.reviewCount").value(2));
+  }
+
+  @Test
+  void whenGetProduct_withMissingId_thenNotFound() throws Exception {
+    when(productService.findSummaryById(7L)).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/products/7"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("Product with ID 7 not found."));
+  }
+
+  @Test
+  void whenGetReviews_thenStreamsReviewPage() throws Exception {
+    Pageable pageable = PageRequest.of(0, 5);
+    when(reviewService.getReviewsForProduct(7L, pageable)).thenReturn(new PageImpl<>(
+        List.of(new ReviewDto("user", 5, "Great", Instant.parse("2025-01-01T10:00:00Z"))),
+        pageable, 1));
+
+    mockMvc.perform(get("/api/products/7/reviews"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].authorUsername").value("user"))
+        .andExpect(jsonPath("$.content[0].createdAt").value("2025-01-01T10:00:00Z"))
+        .andExpect(jsonPath("$.totalElements").value(1))
+        .andExpect(jsonPath("$.totalPages").value(1));
+  }
+
+  @Test
+  void whenGetReviews_withMissingProduct_thenNotFound() throws Exception {
+    when(reviewService.getReviewsForProduct(any(), any()))
+        .thenThrow(new ResourceNotFoundException("Product with ID 7 not found."));
+
+    mockMvc.perform(get("/api/products/7/reviews"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("Product with ID 7 not found."));
+  }
+
+  @Test
+  void whenStreamUpdates_withTooManyIds_thenBadRequest() throws Exception {
+    String ids = LongStream.rangeClosed(1, 101)
+        .mapToObj(String::valueOf)
+        .collect(Collectors.joining(","));
+
+    mockMvc.perform(get("/api/products/updates").param("ids", ids))
+        .andExpect(status().isBadRequest());
+
+    verifyNoInteractions(productUpdateStreamService);
+  }
+}
@@ -1,7 +1,9 @@
 package com.ecommerce.controller.web;
 
+import com.ecommerce.cache.UserInfoCache;
 import com.ecommerce.config.StringToCategoryConverter;
 import com.ecommerce.dto.ChangePasswordDto;
+import com.ecommerce.dto.UserInfoDto;
 import com.ecommerce.entity.User;
 import com.ecommerce.security.CustomAccessDeniedHandler;
 import com.ecommerce.security.CustomAuthenticationSuccessHandler;
@@ -20,6 +22,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
@@ -48,28 +51,27 @@ public class AccountControllerTest {
   @MockitoBean
   private UserService userService;
 
+  @MockitoBean
+  private UserInfoCache userInfoCache;
+
   @MockitoBean
   private StringToCategoryConverter stringToCategoryConverter;
 
   @Test
   @WithMockUser(username = "testuser")
   void whenShowMyAccount_returnsDashboardWithUserData() throws Exception {
-    User currentUser = new User();
-    currentUser.setUsername("testuser");
-    currentUser.setFirstName("John");
-    currentUser.setLastName("Doe");
-    currentUser.setPhoneNumber("123456789");
-
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(userInfoCache.getCurrentUserInfo())
+        .thenReturn(new UserInfoDto("John", "Doe", "123456789", "testuser@example.com"));
 
     mockMvc.perform(get("/my-account"))
         .andExpect(status().isOk())
         .andExpect(view().name("public/my-account"))
         .andExpect(model().attributeExists("userInfo", "address"))
         .andExpect(model().attribute("userInfo", hasProperty("firstName", is("John"))))
-        .andExpect(model().attribute("userInfo", hasProperty("lastName", is("Doe"))));
+        .andExpect(model().attribute("userInfo", hasProperty("lastName", is("Doe"))))
+        .andExpect(content().string(containsString("value=\"John\"")));
 
-    verify(userService).getCurrentUser();
+    verify(userService, never()).getCurrentUser();
   }
 
   @Test
@@ -200,7 +202,8 @@ public class AccountControllerTest {
   void whenProcessResetPassword_withValidData_redirectsToLogin() throws Exception {
     User user = new User();
     user.setUsername("testuser");
-    when(userService.findByPasswordResetToken("valid-token")).thenReturn(Optional.of(user));
+    when(userService.resetPasswordWithToken("valid-token", "newPass123"))
+        .thenReturn(Optional.of(user));
 
     mockMvc.perform(post("/reset-password")
             .with(csrf())
@@ -212,13 +215,14 @@ public class AccountControllerTest {
         .andExpect(redirectedUrl("/login"))
         .andExpect(flash().attribute("message", "You have successfully changed your password."));
 
-    verify(userService).changeUserPassword(eq(user), eq("newPass123"));
+    verify(userService).resetPasswordWithToken("valid-token", "newPass123");
   }
 
   @Test
   @WithAnonymousUser
   void whenProcessResetPassword_withInvalidToken_redirectsWithError() throws Exception {
-    when(userService.findByPasswordResetToken("invalid-token")).thenReturn(Optional.empty());
+    when(userService.resetPasswordWithToken("invalid-token", "newPass123"))
+        .thenReturn(Optional.empty());
 
     mockMvc.perform(post("/reset-password")
             .with(csrf())
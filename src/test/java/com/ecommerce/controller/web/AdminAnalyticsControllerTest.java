@@ -0,0 +1,82 @@
+package com.ecommerce.controller.web;
+
+import com.ecommerce.config.StringToCategoryConverter;
+import com.ecommerce.dto.DailyRevenueDto;
+import com.ecommerce.dto.OrderStatusCountDto;
+import com.ecommerce.dto.TopSellerDto;
+import com.ecommerce.entity.Order;
+import com.ecommerce.security.CustomAccessDeniedHandler;
+import com.ecommerce.security.CustomAuthenticationSuccessHandler;
+import com.ecommerce.security.JpaUserDetailsService;
+import com.ecommerce.security.SecurityConfig;
+import com.ecommerce.service.SalesAnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(SecurityConfig.class)
+@WebMvcTest(AdminAnalyticsController.class)
+@SuppressWarnings("unused")
+public class AdminAnalyticsControllerTest {
+
+  // Beans for SecurityConfig dependencies
+  @MockitoBean
+  private JpaUserDetailsService jpaUserDetailsService;
+  @MockitoBean
+  private CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler;
+  @MockitoBean
+  private CustomAccessDeniedHandler customAccessDeniedHandler;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private SalesAnalyticsService salesAnalyticsService;
+
+  @MockitoBean
+  private StringToCategoryConverter stringToCategoryConverter;
+
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  void whenShowDashboard_returnsAnalyticsViewWithRollupData() throws Exception {
+    LocalDate today = LocalDate.now();
+    DailyRevenueDto todayRevenue = new DailyRevenueDto(today, 3, new BigDecimal("120.00"));
+    when(salesAnalyticsService.getRevenueForDay(today)).thenReturn(todayRevenue);
+    when(salesAnalyticsService.getDailyRevenue(any(), any())).thenReturn(List.of(todayRevenue));
+    when(salesAnalyticsService.getTopSellers(any(), any(), eq(10))).thenReturn(
+        List.of(new TopSellerDto(1L, "Toy", 5, new BigDecimal("125.00"))));
+    when(salesAnalyticsService.getOrderStatusCounts()).thenReturn(
+        List.of(new OrderStatusCountDto(Order.Status.PENDING, 3)));
+
+    mockMvc.perform(get("/admin/analytics").param("days", "7"))
+        .andExpect(status().isOk())
+        .andExpect(view().name("admin/analytics"))
+        .andExpect(model().attribute("today", todayRevenue))
+        .andExpect(model().attribute("days", 7))
+        .andExpect(model().attributeExists("dailyRevenue", "topSellers", "statusCounts"));
+
+    verify(salesAnalyticsService).getDailyRevenue(today.minusDays(6), today);
+  }
+
+  @Test
+  @WithMockUser
+  void whenShowDashboard_asRegularUser_doesNotReadAnalytics() throws Exception {
+    mockMvc.perform(get("/admin/analytics"));
+
+    verifyNoInteractions(salesAnalyticsService);
+  }
+}
@@ -0,0 +1,135 @@
+package com.ecommerce.controller.web;
+
+import com.ecommerce.config.StringToCategoryConverter;
+import com.ecommerce.dto.AdminOrderPageDto;
+import com.ecommerce.dto.AdminOrderRowDto;
+import com.ecommerce.entity.Order;
+import com.ecommerce.exception.InvalidOrderStatusTransitionException;
+import com.ecommerce.security.CustomAccessDeniedHandler;
+import com.ecommerce.security.CustomAuthenticationSuccessHandler;
+import com.ecommerce.security.JpaUserDetailsService;
+import com.ecommerce.security.SecurityConfig;
+import com.ecommerce.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@Import(SecurityConfig.class)
+@WebMvcTest(AdminOrderController.class)
+@WithMockUser(roles = "ADMIN")
+@SuppressWarnings("unused")
+public class AdminOrderControllerTest {
+
+  // Beans for SecurityConfig dependencies
+  @MockitoBean
+  private JpaUserDetailsService jpaUserDetailsService;
+  @MockitoBean
+  private CustomAuthenticationSuccessHandler customAuthenticationSuccessHandler;
+  @MockitoBean
+  private CustomAccessDeniedHandler customAccessDeniedHandler;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @MockitoBean
+  private OrderService orderService;
+
+  @MockitoBean
+  private StringToCategoryConverter stringToCategoryConverter;
+
+  @Test
+  void whenListOrders_withFilters_returnsListViewWithPage() throws Exception {
+    Instant cursor = Instant.parse("2025-03-10T10:00:00Z");
+    AdminOrderPageDto page = new AdminOrderPageDto(List.of(new AdminOrderRowDto(
+        7L, cursor, Order.Status.PENDING, BigDecimal.TEN, "Tom", "Jerry", "tom@jerry.com")),
+        cursor, 7L);
+    Instant from = LocalDate.of(2025, 3, 1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+    when(orderService.findOrdersForAdmin(Order.Status.PENDING, from, null, null, 20))
+        .thenReturn(page);
+
+    mockMvc.perform(get("/admin/orders/list")
+            .param("status", "PENDING")
+            .param("from", "2025-03-01")
+            .param("size", "20"))
+        .andExpect(status().isOk())
+        .andExpect(view().name("admin/orders-list"))
+        .andExpect(model().attribute("page", page))
+        .andExpect(model().attribute("status", Order.Status.PENDING))
+        .andExpect(model().attribute("adminSection", "orders"));
+  }
+
+  @Test
+  void whenListOrders_withCursor_passesCursorToService() throws Exception {
+    Instant cursor = Instant.parse("2025-03-10T10:00:00Z");
+    when(orderService.findOrdersForAdmin(null, null, cursor, 9L, 50))
+        .thenReturn(new AdminOrderPageDto(List.of(), null, null));
+
+    mockMvc.perform(get("/admin/orders/list")
+            .param("beforeDate", "2025-03-10T10:00:00Z")
+            .param("beforeId", "9"))
+        .andExpect(status().isOk());
+
+    verify(orderService).findOrdersForAdmin(null, null, cursor, 9L, 50);
+  }
+
+  @Test
+  void whenListOrders_withTooLargePageSize_doesNotQueryOrders() throws Exception {
+    mockMvc.perform(get("/admin/orders/list").param("size", "1000"));
+
+    verify(orderService, never()).findOrdersForAdmin(any(), any(), any(), any(), anyInt());
+  }
+
+  @Test
+  void whenBulkUpdateStatus_withSelectedOrders_redirectsWithSuccessMessage() throws Exception {
+    when(orderService.bulkUpdateStatus(List.of(1L, 2L), Order.Status.SHIPPED)).thenReturn(2);
+
+    mockMvc.perform(post("/admin/orders/status").with(csrf())
+            .param("orderIds", "1", "2")
+            .param("status", "SHIPPED"))
+        .andExpect(status().is3xxRedirection())
+        .andExpect(redirectedUrl("/admin/orders/list"))
+        .andExpect(flash().attribute("successMessage", "2 order(s) marked as SHIPPED."));
+  }
+
+  @Test
+  void whenBulkUpdateStatus_withInvalidTransition_redirectsWithErrorMessage() throws Exception {
+    when(orderService.bulkUpdateStatus(anyList(), eq(Order.Status.PENDING)))
+        .thenThrow(new InvalidOrderStatusTransitionException(
+            "Orders cannot be moved to status PENDING."));
+
+    mockMvc.perform(post("/admin/orders/status").with(csrf())
+            .param("status", "PENDING"))
+        .andExpect(status().is3xxRedirection())
+        .andExpect(flash().attribute("errorMessage",
+            "Orders cannot be moved to status PENDING."));
+  }
+
+  @Test
+  @WithMockUser
+  void whenBulkUpdateStatus_asRegularUser_doesNotUpdateOrders() throws Exception {
+    mockMvc.perform(post("/admin/orders/status").with(csrf())
+        .param("orderIds", "1")
+        .param("status", "SHIPPED"));
+
+    verifyNoInteractions(orderService);
+  }
+}
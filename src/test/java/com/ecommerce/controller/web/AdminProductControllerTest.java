@@ -194,4 +194,25 @@ public class AdminProductControllerTest {
         .andExpect(redirectedUrl("/admin/products/list"))
         .andExpect(flash().attribute("errorMessage", "Product with ID 1 not found."));
   }
+
+  @Test
+  void whenRebalanceStock_withValidId_redirectsToEditFormWithSuccessMessage() throws Exception {
+    mockMvc.perform(post("/admin/products/rebalance-stock/1").with(csrf()))
+        .andExpect(status().is3xxRedirection())
+        .andExpect(redirectedUrl("/admin/products/edit/1"))
+        .andExpect(flash().attribute("successMessage", "Stock shards rebalanced."));
+
+    verify(productService).rebalanceStock(1L);
+  }
+
+  @Test
+  void whenRebalanceStock_withNonExistingId_redirectsToListWithErrorMessage() throws Exception {
+    doThrow(new ResourceNotFoundException("Product with ID 1 not found."))
+        .when(productService).rebalanceStock(anyLong());
+
+    mockMvc.perform(post("/admin/products/rebalance-stock/1").with(csrf()))
+        .andExpect(status().is3xxRedirection())
+        .andExpect(redirectedUrl("/admin/products/list"))
+        .andExpect(flash().attribute("errorMessage", "Product with ID 1 not found."));
+  }
 }
@@ -1,7 +1,7 @@
 package com.ecommerce.controller.web;
 
 import com.ecommerce.config.StringToCategoryConverter;
-import com.ecommerce.entity.Address;
+import com.ecommerce.dto.AddressViewDto;
 import com.ecommerce.security.CustomAccessDeniedHandler;
 import com.ecommerce.security.CustomAuthenticationSuccessHandler;
 import com.ecommerce.security.JpaUserDetailsService;
@@ -48,7 +48,8 @@ public class FragmentControllerTest {
   @WithMockUser
   void getAddressesFragment_whenAuthenticated_returnsAddressFragment() throws Exception {
     when(addressService.getAddressesForCurrentUser())
-        .thenReturn(Collections.singletonList(new Address()));
+        .thenReturn(Collections.singletonList(
+            new AddressViewDto(1L, "Home", "Poland", "Warsaw", "Happy St. 123", "12-345")));
 
     mockMvc.perform(get("/fragments/addresses"))
         .andExpect(status().isOk())
@@ -11,6 +11,7 @@ import com.ecommerce.security.JpaUserDetailsService;
 import com.ecommerce.security.SecurityConfig;
 import com.ecommerce.service.AddressService;
 import com.ecommerce.service.CartService;
+import com.ecommerce.service.CheckoutService;
 import com.ecommerce.service.OrderService;
 import com.ecommerce.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -28,7 +30,10 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -63,6 +68,9 @@ public class OrderUIControllerTest {
   @MockitoBean
   private OrderService orderService;
 
+  @MockitoBean
+  private CheckoutService checkoutService;
+
   @MockitoBean
   private StringToCategoryConverter stringToCategoryConverter;
 
@@ -117,7 +125,44 @@ public class OrderUIControllerTest {
         .andExpect(status().is3xxRedirection())
         .andExpect(redirectedUrl("/orders/confirmation"));
 
-    verify(orderService).placeOrder(any());
+    verify(checkoutService).placeOrder(any());
+  }
+
+  @Test
+  @WithMockUser
+  void shippingDetailsForm_shouldAssignIdempotencyKey() throws Exception {
+    when(cartService.getCartForCurrentUser())
+        .thenReturn(new CartViewDto(List.of(new CartItemViewDto(null)), BigDecimal.TEN));
+    when(userService.getCurrentUser()).thenReturn(testUser);
+    when(addressService.getAddressesForCurrentUser()).thenReturn(Collections.emptyList());
+
+    mockMvc.perform(get("/orders/shipping-details"))
+        .andExpect(status().isOk())
+        .andExpect(model().attribute("shippingDetails",
+            hasProperty("idempotencyKey", notNullValue())));
+  }
+
+  @Test
+  @WithMockUser
+  void placeOrder_withConcurrentDuplicateSubmission_shouldRedirectToConfirmation()
+      throws Exception {
+    when(checkoutService.placeOrder(any()))
+        .thenThrow(new DataIntegrityViolationException("uk_orders_idempotency_key"));
+    when(orderService.findOrderIdByIdempotencyKey("checkout-key-1")).thenReturn(Optional.of(1L));
+
+    mockMvc.perform(post("/orders/place-order")
+            .param("firstName", "Tom")
+            .param("lastName", "Jerry")
+            .param("email", "tom.jerry@example.com")
+            .param("phoneNumber", "1234567")
+            .param("addressLine", "street-house")
+            .param("city", "City")
+            .param("country", "USA")
+            .param("postalCode", "12345")
+            .param("idempotencyKey", "checkout-key-1")
+            .with(csrf()))
+        .andExpect(status().is3xxRedirection())
+        .andExpect(redirectedUrl("/orders/confirmation"));
   }
 
   @Test
@@ -137,7 +182,7 @@ public class OrderUIControllerTest {
         .andExpect(flash().attributeExists("shippingDetails"))
         .andExpect(flash().attributeExists(BindingResult.MODEL_KEY_PREFIX + "shippingDetails"));
 
-    verify(orderService, never()).placeOrder(any());
+    verify(checkoutService, never()).placeOrder(any());
   }
 
   @Test
@@ -0,0 +1,117 @@
+package com.ecommerce.controller.web;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.dto.ProductDto;
+import com.ecommerce.entity.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two application instances on one database, as on Cloud Run: a product edited through one
+ * instance must not be answered with 304 by the other.
+ */
+class ProductUIControllerMultiInstanceTest {
+  private static final String DATABASE =
+      "--spring.datasource.url=jdbc:h2:mem:shared-catalog;DB_CLOSE_DELAY=-1";
+
+  private static ConfigurableApplicationContext instanceA;
+  private static ConfigurableApplicationContext instanceB;
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .cookieHandler(new CookieManager())
+      .followRedirects(HttpClient.Redirect.NEVER)
+      .build();
+
+  @BeforeAll
+  static void startInstances() {
+    instanceA = start(DATABASE);
+    instanceB = start(DATABASE,
+        "--spring.jpa.hibernate.ddl-auto=none",
+        "--spring.sql.init.mode=never",
+        "--spring.session.jdbc.initialize-schema=never");
+  }
+
+  @AfterAll
+  static void stopInstances() {
+    instanceB.close();
+    instanceA.close();
+  }
+
+  private static ConfigurableApplicationContext start(String... args) {
+    String[] common = {"--server.port=0", "--logging.level.com.ecommerce=WARN"};
+    String[] all = new String[common.length + args.length];
+    System.arraycopy(common, 0, all, 0, common.length);
+    System.arraycopy(args, 0, all, common.length, args.length);
+    return new SpringApplicationBuilder(EcommerceApplication.class).profiles("test").run(all);
+  }
+
+  @Test
+  void whenProductIsEditedOnAnotherInstance_thenDetailPageIsRenderedAgain() throws Exception {
+    Product product = createProduct("Shared lamp detail");
+    String path = "/products/" + product.getId();
+    HttpResponse<String> first = get(instanceB, path, null);
+    String etag = first.headers().firstValue("ETag").orElseThrow();
+    assertThat(get(instanceB, path, etag).statusCode()).isEqualTo(304);
+
+    changePrice(product, "12.34");
+
+    HttpResponse<String> afterEdit = get(instanceB, path, etag);
+    assertThat(afterEdit.statusCode()).isEqualTo(200);
+    assertThat(afterEdit.body()).contains("$12.34");
+  }
+
+  @Test
+  void whenProductIsEditedOnAnotherInstance_thenListPageIsRenderedAgain() throws Exception {
+    Product product = createProduct("Shared lamp list");
+    String path = "/products/list?name=Shared+lamp+list";
+    HttpResponse<String> first = get(instanceB, path, null);
+    String etag = first.headers().firstValue("ETag").orElseThrow();
+    assertThat(get(instanceB, path, etag).statusCode()).isEqualTo(304);
+
+    changePrice(product, "56.78");
+
+    HttpResponse<String> afterEdit = get(instanceB, path, etag);
+    assertThat(afterEdit.statusCode()).isEqualTo(200);
+    assertThat(afterEdit.body()).contains("$56.78");
+  }
+
+  private Product createProduct(String name) {
+    Product product = new Product();
+    product.setName(name);
+    product.setPrice(new BigDecimal("10.00"));
+    product.setStockQuantity(5);
+    return instanceA.getBean(ProductRepository.class).save(product);
+  }
+
+  private void changePrice(Product product, String price) {
+    ProductDto dto = ProductDto.fromEntity(product);
+    dto.setPrice(new BigDecimal(price));
+    instanceA.getBean(ProductService.class).save(dto);
+  }
+
+  private HttpResponse<String> get(ConfigurableApplicationContext instance, String path,
+      String etag) throws Exception {
+    int port = ((ServletWebServerApplicationContext) instance).getWebServer().getPort();
+    HttpRequest.Builder request = HttpRequest.newBuilder(
+        URI.create("http://localhost:" + port + path));
+    if (etag != null) {
+      request.header("If-None-Match", etag);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+}
@@ -1,7 +1,9 @@
 package com.ecommerce.controller.web;
 
+import com.ecommerce.cart.CartSessionItem;
 import com.ecommerce.cart.ShoppingCart;
 import com.ecommerce.config.StringToCategoryConverter;
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.dto.ProductViewDto;
 import com.ecommerce.dto.ReviewDto;
 import com.ecommerce.entity.Category;
@@ -23,8 +25,11 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -32,7 +37,11 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -128,7 +137,7 @@ public class ProductUIControllerTest {
     Product product = new Product();
     Page<ReviewDto> reviewsPage = new PageImpl<>(Collections.emptyList());
 
-    when(productService.findById(1L)).thenReturn(Optional.of(product));
+    when(productService.findCurrentById(1L)).thenReturn(Optional.of(product));
     when(reviewService.getReviewsForProduct(any(Long.class), any(Pageable.class)))
         .thenReturn(reviewsPage);
     when(shoppingCart.getItems()).thenReturn(Collections.emptyList());
@@ -142,11 +151,112 @@ public class ProductUIControllerTest {
 
   @Test
   void productDetail_whenProductNotFound_throwsResourceNotFoundException() throws Exception {
-    when(productService.findById(1L)).thenReturn(Optional.empty());
+    when(productService.findCurrentById(1L)).thenReturn(Optional.empty());
 
     mockMvc.perform(get("/products/1"))
         .andExpect(status().is3xxRedirection())
         .andExpect(redirectedUrl("/products/list"))
         .andExpect(flash().attribute("errorMessage", "Product with ID 1 not found."));
   }
+
+  @Test
+  void showProductList_withCurrentETag_returnsNotModifiedWithoutLoadingThePage() throws Exception {
+    when(productService.findSearchVersion(any(), any(), any(), any(), any()))
+        .thenReturn(new CatalogVersion(1, Instant.parse("2026-03-01T10:00:00Z")));
+    when(categoryService.findVersion()).thenReturn(new CatalogVersion(0, null));
+    when(productService.searchProducts(any(), any(), any(), any(), any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(product(1L, Instant.parse("2026-03-01T10:00:00Z")))));
+    when(shoppingCart.getItems()).thenReturn(Collections.emptyList());
+
+    String etag = mockMvc.perform(get("/products/list"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", "no-cache, private"))
+        .andReturn().getResponse().getHeader("ETag");
+    clearInvocations(productService, categoryService);
+
+    mockMvc.perform(get("/products/list").header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+    verify(productService, never())
+        .searchProducts(any(), any(), any(), any(), any(), any(Pageable.class));
+    verify(categoryService, never()).findAllSortedByName();
+  }
+
+  @Test
+  void showProductList_afterProductChange_rendersAgain() throws Exception {
+    when(productService.findSearchVersion(any(), any(), any(), any(), any()))
+        .thenReturn(new CatalogVersion(1, Instant.parse("2026-03-01T10:00:00Z")),
+            new CatalogVersion(1, Instant.parse("2026-03-01T10:05:00Z")));
+    when(productService.searchProducts(any(), any(), any(), any(), any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(product(1L, Instant.parse("2026-03-01T10:00:00Z")))));
+    when(shoppingCart.getItems()).thenReturn(Collections.emptyList());
+
+    String etag = mockMvc.perform(get("/products/list"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/products/list").header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", not(etag)));
+  }
+
+  @Test
+  void showProductList_afterCategoryChange_rendersAgain() throws Exception {
+    when(productService.findSearchVersion(any(), any(), any(), any(), any()))
+        .thenReturn(new CatalogVersion(0, null));
+    when(categoryService.findVersion())
+        .thenReturn(new CatalogVersion(2, Instant.parse("2026-03-01T10:00:00Z")),
+            new CatalogVersion(2, Instant.parse("2026-03-01T10:05:00Z")));
+    when(productService.searchProducts(any(), any(), any(), any(), any(), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(Collections.emptyList()));
+    when(shoppingCart.getItems()).thenReturn(Collections.emptyList());
+
+    String etag = mockMvc.perform(get("/products/list"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/products/list").header("If-None-Match", etag))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void productDetail_withCurrentETag_returnsNotModifiedWithoutLoadingReviews() throws Exception {
+    when(productService.findCurrentById(1L))
+        .thenReturn(Optional.of(product(1L, Instant.parse("2026-03-01T10:00:00Z"))));
+    when(reviewService.getReviewsForProduct(any(Long.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(Collections.emptyList()));
+    when(shoppingCart.getItems()).thenReturn(Collections.emptyList());
+
+    String etag = mockMvc.perform(get("/products/1"))
+        .andReturn().getResponse().getHeader("ETag");
+    clearInvocations(reviewService);
+
+    mockMvc.perform(get("/products/1").header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+    verify(reviewService, never()).getReviewsForProduct(any(Long.class), any(Pageable.class));
+  }
+
+  @Test
+  void productDetail_withChangedCart_rendersAgain() throws Exception {
+    ProductViewDto product = new ProductViewDto(1L, "Laptop", "Laptop", 5,
+        BigDecimal.TEN, BigDecimal.ZERO, 0, 0);
+    when(productService.findCurrentById(1L)).thenReturn(Optional.of(new Product()));
+    when(reviewService.getReviewsForProduct(any(Long.class), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(Collections.emptyList()));
+    when(shoppingCart.getItems()).thenReturn(Collections.emptyList(),
+        List.of(new CartSessionItem(product, 1)));
+
+    String etag = mockMvc.perform(get("/products/1"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/products/1").header("If-None-Match", etag))
+        .andExpect(status().isOk());
+  }
+
+  private static Product product(Long id, Instant updatedAt) {
+    Product product = new Product();
+    ReflectionTestUtils.setField(product, "id", id);
+    ReflectionTestUtils.setField(product, "updatedAt", updatedAt);
+    product.setName("Laptop");
+    product.setPrice(BigDecimal.TEN);
+    return product;
+  }
 }
@@ -0,0 +1,22 @@
+package com.ecommerce.metrics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when it runs more than {@link #value()} SQL statements on the test thread,
+ * counted from {@link QueryBudget#start()} or, without it, from the start of the test method.
+ * The application context needs {@code QueryCountConfig}, so the data source is counted.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface MaxQueries {
+  int value();
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.metrics;
+
+import java.util.Map;
+
+/** Statements counted for the running test; inject it to leave the arrange step out of the budget. */
+public final class QueryBudget {
+  private QueryCounter.Scope scope = QueryCounter.open();
+
+  /** Discards what was counted so far and counts from here on. */
+  public void start() {
+    scope.close();
+    scope = QueryCounter.open();
+  }
+
+  public int getCount() {
+    return scope.getCount();
+  }
+
+  public Map<String, Integer> getShapes() {
+    return scope.getShapes();
+  }
+
+  void close() {
+    scope.close();
+  }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.metrics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Checks {@link MaxQueries} budgets and resolves {@link QueryBudget} test method parameters. */
+public class QueryBudgetExtension
+    implements BeforeTestExecutionCallback, AfterTestExecutionCallback, ParameterResolver {
+  private static final ExtensionContext.Namespace NAMESPACE =
+      ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+  @Override
+  public void beforeTestExecution(ExtensionContext context) throws SQLException {
+    DataSource dataSource = SpringExtension.getApplicationContext(context).getBean(DataSource.class);
+    assertThat(dataSource.isWrapperFor(QueryCountingDataSource.class))
+        .as("Query budgets need @Import(QueryCountConfig.class)")
+        .isTrue();
+    budget(context);
+  }
+
+  @Override
+  public void afterTestExecution(ExtensionContext context) {
+    QueryBudget budget = context.getStore(NAMESPACE).remove(QueryBudget.class, QueryBudget.class);
+    if (budget == null) {
+      return;
+    }
+    budget.close();
+    MaxQueries maxQueries = context.getRequiredTestMethod().getAnnotation(MaxQueries.class);
+    if (maxQueries != null && context.getExecutionException().isEmpty()) {
+      assertThat(budget.getCount())
+          .as("SQL statements run by the test:%n%s", budget.getShapes().entrySet().stream()
+              .map(entry -> entry.getValue() + "x " + entry.getKey())
+              .collect(Collectors.joining(System.lineSeparator())))
+          .isLessThanOrEqualTo(maxQueries.value());
+    }
+  }
+
+  @Override
+  public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext context) {
+    return parameterContext.getParameter().getType() == QueryBudget.class;
+  }
+
+  @Override
+  public Object resolveParameter(ParameterContext parameterContext, ExtensionContext context) {
+    return budget(context);
+  }
+
+  private static QueryBudget budget(ExtensionContext context) {
+    return context.getStore(NAMESPACE)
+        .getOrComputeIfAbsent(QueryBudget.class, _ -> new QueryBudget(), QueryBudget.class);
+  }
+}
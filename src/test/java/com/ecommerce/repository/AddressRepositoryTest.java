@@ -1,5 +1,6 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.AddressViewDto;
 import com.ecommerce.entity.Address;
 import com.ecommerce.entity.User;
 import jakarta.validation.ConstraintViolationException;
@@ -28,7 +29,7 @@ class AddressRepositoryTest {
   private AddressRepository addressRepository;
 
   @Test
-  void whenFindByUser_withExistingUser_returnsAddressesForThatUserOnly() {
+  void whenFindViewsByUserId_withExistingUser_returnsAddressesForThatUserOnly() {
     User user1 = new User();
     user1.setUsername("user1");
     user1.setEmail("user1@email.com");
@@ -70,11 +71,37 @@ class AddressRepositoryTest {
 
     entityManager.flush();
 
-    List<Address> foundAddresses = addressRepository.findByUser(user1);
+    List<AddressViewDto> foundAddresses = addressRepository.findViewsByUserId(user1.getId());
 
     assertThat(foundAddresses).hasSize(2);
-    assertThat(foundAddresses).extracting(Address::getAddressLine)
-        .containsExactlyInAnyOrder("Happy St. 123", "Sad St. 321");
+    assertThat(foundAddresses).extracting(AddressViewDto::addressLine)
+        .containsExactly("Happy St. 123", "Sad St. 321");
+    assertThat(addressRepository.countByUserId(user1.getId())).isEqualTo(2);
+    assertThat(addressRepository.countByUserId(user2.getId())).isEqualTo(1);
+  }
+
+  @Test
+  void whenExistsByUserIdAndName_thenOnlyOtherAddressesOfThatUserCount() {
+    User user = new User();
+    user.setUsername("user");
+    user.setEmail("user@email.com");
+    user.setPassword("password");
+    entityManager.persist(user);
+
+    Address home = new Address();
+    home.setUser(user);
+    home.setName("Home");
+    home.setAddressLine("Line 1");
+    home.setCity("City");
+    home.setCountry("Country");
+    home.setPostalCode("12345");
+    entityManager.persistAndFlush(home);
+
+    assertThat(addressRepository.existsByUserIdAndName(user.getId(), "Home", null)).isTrue();
+    assertThat(addressRepository.existsByUserIdAndName(user.getId(), "Home", home.getId()))
+        .isFalse();
+    assertThat(addressRepository.existsByUserIdAndName(user.getId(), "Work", null)).isFalse();
+    assertThat(addressRepository.existsByUserIdAndName(user.getId() + 1, "Home", null)).isFalse();
   }
 
   @Test
@@ -1,13 +1,17 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.config.QueryCountConfig;
 import com.ecommerce.entity.Cart;
 import com.ecommerce.entity.CartItem;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
+import com.ecommerce.metrics.MaxQueries;
+import com.ecommerce.metrics.QueryBudget;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
@@ -19,6 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DataJpaTest
 @ActiveProfiles("test")
 @TestPropertySource(properties = {"spring.sql.init.mode=never"})
+@Import(QueryCountConfig.class)
 class CartRepositoryTest {
 
   @Autowired
@@ -28,28 +33,28 @@ class CartRepositoryTest {
   private CartRepository cartRepository;
 
   @Test
-  void whenFindByUser_withExistingCart_returnsOptionalOfCart() {
+  void whenFindByUserId_withExistingCart_returnsOptionalOfCart() {
     User user = createUser("user");
     Cart cart = new Cart();
     cart.setUser(user);
     entityManager.persist(cart);
     entityManager.flush();
 
-    Optional<Cart> foundCart = cartRepository.findByUser(user);
+    Optional<Cart> foundCart = cartRepository.findByUserId(user.getId());
 
     assertThat(foundCart).isPresent();
     assertThat(foundCart.get().getUser()).isEqualTo(user);
   }
 
   @Test
-  void whenFindByUser_withNoCart_returnsEmptyOptional() {
+  void whenFindByUserId_withNoCart_returnsEmptyOptional() {
     User user = createUser("user");
-    Optional<Cart> foundCart = cartRepository.findByUser(user);
+    Optional<Cart> foundCart = cartRepository.findByUserId(user.getId());
     assertThat(foundCart).isNotPresent();
   }
 
   @Test
-  void whenFindByUserWithLock_withExistingCart_returnsCartWithItems() {
+  void whenFindByUserIdWithLock_withExistingCart_returnsCartWithItems() {
     User user = createUser("user");
     Product product1 = createProduct("p1", BigDecimal.TEN);
     Product product2 = createProduct("p2", BigDecimal.ONE);
@@ -67,7 +72,7 @@ class CartRepositoryTest {
     entityManager.flush();
     entityManager.clear();
 
-    Optional<Cart> foundCart = cartRepository.findByUserWithLock(user);
+    Optional<Cart> foundCart = cartRepository.findByUserIdWithLock(user.getId());
 
     assertThat(foundCart).isPresent();
     assertThat(foundCart.get().getUser().getUsername()).isEqualTo("user");
@@ -78,12 +83,33 @@ class CartRepositoryTest {
   }
 
   @Test
-  void whenFindByUserWithLock_withNoCart_returnsEmpty() {
+  void whenFindByUserIdWithLock_withNoCart_returnsEmpty() {
     User user = createUser("user");
-    Optional<Cart> foundCart = cartRepository.findByUserWithLock(user);
+    Optional<Cart> foundCart = cartRepository.findByUserIdWithLock(user.getId());
     assertThat(foundCart).isNotPresent();
   }
 
+  @Test
+  @MaxQueries(1)
+  void whenFindByUserId_thenItemsAndProductsComeWithTheCart(QueryBudget queries) {
+    User user = createUser("user");
+    Cart cart = new Cart();
+    cart.setUser(user);
+    for (int i = 0; i < 5; i++) {
+      cart.getItems().add(new CartItem(cart, createProduct("p" + i, BigDecimal.ONE), 1));
+    }
+    entityManager.persist(cart);
+    entityManager.flush();
+    entityManager.clear();
+    queries.start();
+
+    Cart foundCart = cartRepository.findByUserId(user.getId()).orElseThrow();
+
+    assertThat(foundCart.getItems())
+        .extracting(item -> item.getProduct().getName())
+        .containsExactlyInAnyOrder("p0", "p1", "p2", "p3", "p4");
+  }
+
   private User createUser(String username) {
     User user = new User();
     user.setUsername(username);
@@ -1,6 +1,7 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,6 +12,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,6 +58,18 @@ public class CategoryRepositoryTest {
     assertThat(foundCategory).isNotPresent();
   }
 
+  @Test
+  void whenFindVersion_afterSoftDelete_countsOnlyActiveCategories() {
+    entityManager.flush();
+    assertThat(categoryRepository.findVersion().count()).isEqualTo(2);
+    assertThat(categoryRepository.findVersion().lastUpdatedAt()).isNotNull();
+
+    categoryRepository.delete(cat1);
+    entityManager.flush();
+
+    assertThat(categoryRepository.findVersion().count()).isEqualTo(1);
+  }
+
   @Test
   void whenFindAllWithDeleted_withStatusAll_returnsAllCategories() {
     categoryRepository.deleteById(cat2.getId());
@@ -130,6 +144,26 @@ public class CategoryRepositoryTest {
     assertThat(foundCategory.get().isDeleted()).isTrue();
   }
 
+  @Test
+  void whenCountActiveProducts_thenSoftDeletedProductsAreNotCounted() {
+    Product active = new Product();
+    active.setName("Active");
+    active.setPrice(BigDecimal.ONE);
+    active.addCategory(cat1);
+    entityManager.persist(active);
+    Product deleted = new Product();
+    deleted.setName("Deleted");
+    deleted.setPrice(BigDecimal.ONE);
+    deleted.addCategory(cat1);
+    deleted.addCategory(cat2);
+    deleted.setDeleted(true);
+    entityManager.persist(deleted);
+    entityManager.flush();
+
+    assertThat(categoryRepository.countActiveProducts(cat1.getId())).isEqualTo(1);
+    assertThat(categoryRepository.countActiveProducts(cat2.getId())).isZero();
+  }
+
   @Test
   void whenSaveAndFlush_withDuplicateName_throwsDataIntegrityViolationException() {
     Category duplicateCategory = new Category("Category_1");
@@ -0,0 +1,62 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.DailyRevenueDto;
+import com.ecommerce.entity.DailySalesRollup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never"})
+public class DailySalesRollupRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private DailySalesRollupRepository dailySalesRollupRepository;
+
+  private final LocalDate day = LocalDate.of(2025, 3, 10);
+
+  @Test
+  void whenIncrement_withExistingRow_addsToCounters() {
+    entityManager.persistAndFlush(new DailySalesRollup(day, 2, new BigDecimal("40.00")));
+
+    int updated = dailySalesRollupRepository.increment(day, 1, new BigDecimal("15.50"));
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    DailySalesRollup rollup = dailySalesRollupRepository.findById(day).orElseThrow();
+    assertThat(rollup.getOrderCount()).isEqualTo(3);
+    assertThat(rollup.getRevenue()).isEqualByComparingTo("55.50");
+  }
+
+  @Test
+  void whenIncrement_withoutRow_updatesNothing() {
+    assertThat(dailySalesRollupRepository.increment(day, 1, BigDecimal.TEN)).isZero();
+  }
+
+  @Test
+  void whenFindDailyRevenue_returnsDaysInRangeNewestFirst() {
+    entityManager.persist(new DailySalesRollup(day.minusDays(10), 1, BigDecimal.ONE));
+    entityManager.persist(new DailySalesRollup(day.minusDays(1), 2, BigDecimal.TWO));
+    entityManager.persist(new DailySalesRollup(day, 3, BigDecimal.TEN));
+    entityManager.flush();
+
+    List<DailyRevenueDto> revenue = dailySalesRollupRepository.findDailyRevenue(
+        day.minusDays(6), day);
+
+    assertThat(revenue).extracting(DailyRevenueDto::salesDate)
+        .containsExactly(day, day.minusDays(1));
+  }
+}
@@ -1,13 +1,24 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.config.QueryCountConfig;
+import com.ecommerce.dto.AdminOrderRowDto;
 import com.ecommerce.dto.OrderHistoryDto;
+import com.ecommerce.dto.OrderHistoryItemDto;
+import com.ecommerce.dto.OrderStatusNotification;
+import com.ecommerce.dto.ProductSalesView;
+import com.ecommerce.dto.SalesTotalsView;
 import com.ecommerce.entity.*;
+import com.ecommerce.metrics.MaxQueries;
+import com.ecommerce.metrics.QueryBudget;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
@@ -22,6 +33,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 @DataJpaTest
 @ActiveProfiles("test")
 @TestPropertySource(properties = {"spring.sql.init.mode=never"})
+@Import(QueryCountConfig.class)
 public class OrderRepositoryTest {
 
   @Autowired
@@ -48,7 +60,7 @@ public class OrderRepositoryTest {
   }
 
   @Test
-  void whenFindOrderHistoryByUser_withExistingOrders_returnsDtoListSortedByDateDesc() {
+  void whenFindOrderHistoryByUserId_withExistingOrders_returnsDtoListSortedByDateDesc() {
     Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
     Order order1 = new Order();
     order1.setUser(user);
@@ -68,13 +80,31 @@ public class OrderRepositoryTest {
     order2.setShippingDetails(createShippingDetails());
     entityManager.persist(order2);
 
-    List<OrderHistoryDto> foundOrders = orderRepository.findOrderHistoryByUser(user);
+    List<OrderHistoryDto> foundOrders = orderRepository.findOrderHistoryByUserId(user.getId());
 
     assertThat(foundOrders).hasSize(2);
     assertThat(foundOrders).extracting(OrderHistoryDto::orderDate)
         .containsExactly(now, now.minus(1, ChronoUnit.DAYS));
   }
 
+  @Test
+  @MaxQueries(2)
+  void whenLoadingOrderHistoryWithItems_thenQueryCountDoesNotGrowWithOrders(QueryBudget queries) {
+    for (int i = 0; i < 4; i++) {
+      entityManager.persist(createValidOrder());
+    }
+    entityManager.flush();
+    entityManager.clear();
+    queries.start();
+
+    List<OrderHistoryDto> orders = orderRepository.findOrderHistoryByUserId(user.getId());
+    List<OrderHistoryItemDto> items = orderRepository.findOrderHistoryItemsByOrderIds(
+        orders.stream().map(OrderHistoryDto::orderId).toList());
+
+    assertThat(orders).hasSize(4);
+    assertThat(items).hasSize(4);
+  }
+
   @Test
   void whenSaveAndFlush_withNoOrderItems_throwsConstraintViolationException() {
     Order order = createValidOrder();
@@ -105,6 +135,125 @@ public class OrderRepositoryTest {
         .hasMessageContaining("Total amount cannot be negative.");
   }
 
+  @Test
+  void whenFindIdByIdempotencyKey_withExistingOrder_returnsOrderId() {
+    Order order = createValidOrder();
+    order.setIdempotencyKey("checkout-key-1");
+    entityManager.persist(order);
+
+    assertThat(orderRepository.findIdByIdempotencyKey("checkout-key-1")).contains(order.getId());
+    assertThat(orderRepository.findIdByIdempotencyKey("checkout-key-2")).isEmpty();
+  }
+
+  @Test
+  void whenSaveAndFlush_withDuplicateIdempotencyKey_throwsDataIntegrityViolationException() {
+    Order first = createValidOrder();
+    first.setIdempotencyKey("checkout-key-1");
+    orderRepository.saveAndFlush(first);
+
+    Order second = createValidOrder();
+    second.setIdempotencyKey("checkout-key-1");
+
+    assertThatThrownBy(() -> orderRepository.saveAndFlush(second))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  @Test
+  void whenSumSalesBetween_aggregatesOrdersInRange() {
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    Order inRange = createValidOrder();
+    inRange.setOrderDate(now);
+    entityManager.persist(inRange);
+    Order outOfRange = createValidOrder();
+    outOfRange.setOrderDate(now.minus(3, ChronoUnit.DAYS));
+    entityManager.persist(outOfRange);
+
+    SalesTotalsView totals = orderRepository.sumSalesBetween(
+        now.minus(1, ChronoUnit.DAYS), now.plus(1, ChronoUnit.DAYS));
+    List<ProductSalesView> productSales = orderRepository.sumProductSalesBetween(
+        now.minus(1, ChronoUnit.DAYS), now.plus(1, ChronoUnit.DAYS));
+
+    assertThat(totals.getOrderCount()).isEqualTo(1);
+    assertThat(totals.getRevenue()).isEqualByComparingTo(BigDecimal.TEN);
+    assertThat(productSales).singleElement().satisfies(sales -> {
+      assertThat(sales.getProductId()).isEqualTo(product.getId());
+      assertThat(sales.getUnits()).isEqualTo(1);
+      assertThat(sales.getRevenue()).isEqualByComparingTo(BigDecimal.TEN);
+    });
+  }
+
+  @Test
+  void whenFindAdminPage_withCursor_returnsOlderOrdersNewestFirst() {
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    Order newest = persistOrder(now, Order.Status.PENDING);
+    Order sameTime = persistOrder(now, Order.Status.SHIPPED);
+    Order oldest = persistOrder(now.minus(1, ChronoUnit.HOURS), Order.Status.PENDING);
+    Instant firstPage = Instant.parse("9999-12-31T00:00:00Z");
+
+    List<AdminOrderRowDto> page1 = orderRepository.findAdminPage(
+        Instant.EPOCH, firstPage, Long.MAX_VALUE, Limit.of(2));
+    AdminOrderRowDto last = page1.getLast();
+    List<AdminOrderRowDto> page2 = orderRepository.findAdminPage(
+        Instant.EPOCH, last.orderDate(), last.orderId(), Limit.of(2));
+
+    assertThat(page1).extracting(AdminOrderRowDto::orderId)
+        .containsExactly(sameTime.getId(), newest.getId());
+    assertThat(page1.getFirst().email()).isEqualTo("tom.jerry@email.com");
+    assertThat(page2).extracting(AdminOrderRowDto::orderId).containsExactly(oldest.getId());
+  }
+
+  @Test
+  void whenFindAdminPageByStatus_returnsOnlyMatchingOrdersAfterFromDate() {
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    Order recentPending = persistOrder(now, Order.Status.PENDING);
+    persistOrder(now, Order.Status.SHIPPED);
+    persistOrder(now.minus(10, ChronoUnit.DAYS), Order.Status.PENDING);
+
+    List<AdminOrderRowDto> page = orderRepository.findAdminPageByStatus(Order.Status.PENDING,
+        now.minus(1, ChronoUnit.DAYS), Instant.parse("9999-12-31T00:00:00Z"), Long.MAX_VALUE,
+        Limit.of(10));
+
+    assertThat(page).extracting(AdminOrderRowDto::orderId).containsExactly(recentPending.getId());
+  }
+
+  @Test
+  void whenFindStatusNotificationsForUpdate_returnsOnlyOrdersInStatus() {
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    Order pending = persistOrder(now, Order.Status.PENDING);
+    Order shipped = persistOrder(now, Order.Status.SHIPPED);
+
+    List<OrderStatusNotification> notifications = orderRepository
+        .findStatusNotificationsForUpdate(List.of(pending.getId(), shipped.getId()),
+            Order.Status.PENDING);
+
+    assertThat(notifications).containsExactly(
+        new OrderStatusNotification(pending.getId(), "tom.jerry@email.com", "Tom"));
+  }
+
+  @Test
+  void whenUpdateStatus_updatesOnlyOrdersInPreviousStatus() {
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    Order pending = persistOrder(now, Order.Status.PENDING);
+    Order delivered = persistOrder(now, Order.Status.DELIVERED);
+
+    int updated = orderRepository.updateStatus(List.of(pending.getId(), delivered.getId()),
+        Order.Status.PENDING, Order.Status.SHIPPED);
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    assertThat(orderRepository.findById(pending.getId()).orElseThrow().getStatus())
+        .isEqualTo(Order.Status.SHIPPED);
+    assertThat(orderRepository.findById(delivered.getId()).orElseThrow().getStatus())
+        .isEqualTo(Order.Status.DELIVERED);
+  }
+
+  private Order persistOrder(Instant orderDate, Order.Status status) {
+    Order order = createValidOrder();
+    order.setOrderDate(orderDate);
+    order.setStatus(status);
+    return entityManager.persistAndFlush(order);
+  }
+
   private Order createValidOrder() {
     Order order = new Order();
     order.setUser(user);
@@ -0,0 +1,99 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.OrderStatusCountDto;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderItem;
+import com.ecommerce.entity.OrderStatusRollup;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.ShippingDetails;
+import com.ecommerce.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never"})
+public class OrderStatusRollupRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private OrderStatusRollupRepository orderStatusRollupRepository;
+
+  @Test
+  void whenIncrement_withNegativeDelta_decrementsCount() {
+    entityManager.persistAndFlush(new OrderStatusRollup(Order.Status.PENDING, 5));
+
+    int updated = orderStatusRollupRepository.increment(Order.Status.PENDING, -2);
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    assertThat(orderStatusRollupRepository.findStatusCounts())
+        .containsExactly(new OrderStatusCountDto(Order.Status.PENDING, 3));
+  }
+
+  @Test
+  void whenIncrement_withoutRow_updatesNothing() {
+    assertThat(orderStatusRollupRepository.increment(Order.Status.SHIPPED, 1)).isZero();
+  }
+
+  @Test
+  void whenRecountedAndMissingInserted_thenRowsMatchOrders() {
+    User user = new User();
+    user.setUsername("testuser");
+    user.setEmail("test@email.com");
+    user.setPassword("password");
+    entityManager.persist(user);
+    Product product = new Product();
+    product.setName("Test Product");
+    product.setPrice(BigDecimal.TEN);
+    entityManager.persist(product);
+    persistOrder(user, product, Order.Status.PENDING);
+    persistOrder(user, product, Order.Status.PENDING);
+    persistOrder(user, product, Order.Status.SHIPPED);
+    entityManager.persist(new OrderStatusRollup(Order.Status.PENDING, 40));
+    entityManager.persistAndFlush(new OrderStatusRollup(Order.Status.DELIVERED, 3));
+
+    int recounted = orderStatusRollupRepository.recountExisting();
+    int inserted = orderStatusRollupRepository.insertMissing();
+    entityManager.clear();
+
+    assertThat(recounted).isEqualTo(2);
+    assertThat(inserted).isEqualTo(1);
+    assertThat(orderStatusRollupRepository.findStatusCounts()).containsExactlyInAnyOrder(
+        new OrderStatusCountDto(Order.Status.PENDING, 2),
+        new OrderStatusCountDto(Order.Status.SHIPPED, 1),
+        new OrderStatusCountDto(Order.Status.DELIVERED, 0));
+  }
+
+  private void persistOrder(User user, Product product, Order.Status status) {
+    Order order = new Order();
+    order.setUser(user);
+    order.setOrderDate(Instant.now());
+    order.setStatus(status);
+    order.setTotalAmount(BigDecimal.TEN);
+    ShippingDetails details = new ShippingDetails();
+    details.setFirstName("Tom");
+    details.setLastName("Jerry");
+    details.setEmail("tom.jerry@email.com");
+    details.setPhoneNumber("123456789");
+    details.setAddressLine("Anystreet");
+    details.setCity("Anytown");
+    details.setCountry("USA");
+    details.setPostalCode("12345");
+    order.setShippingDetails(details);
+    order.addOrderItems(List.of(new OrderItem(order, product, 1)));
+    entityManager.persist(order);
+  }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.PasswordResetToken;
+import com.ecommerce.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never"})
+class PasswordResetTokenRepositoryTest {
+
+  private final Instant now = Instant.now();
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private PasswordResetTokenRepository passwordResetTokenRepository;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() {
+    user = new User();
+    user.setUsername("user");
+    user.setEmail("user@email.com");
+    user.setPassword("password123");
+    entityManager.persist(user);
+    entityManager.persist(new PasswordResetToken("valid-hash", user, now.plus(1, ChronoUnit.HOURS)));
+    entityManager.persist(new PasswordResetToken("old-hash-1", user, now.minus(2, ChronoUnit.HOURS)));
+    entityManager.persist(new PasswordResetToken("old-hash-2", user, now.minus(1, ChronoUnit.HOURS)));
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void whenFindValidByTokenHash_withValidToken_returnsTokenWithUser() {
+    Optional<PasswordResetToken> token =
+        passwordResetTokenRepository.findValidByTokenHash("valid-hash", now);
+
+    assertThat(token).isPresent();
+    assertThat(token.get().getUser().getUsername()).isEqualTo("user");
+  }
+
+  @Test
+  void whenFindValidByTokenHash_withExpiredOrUnknownToken_returnsEmpty() {
+    assertThat(passwordResetTokenRepository.findValidByTokenHash("old-hash-1", now)).isEmpty();
+    assertThat(passwordResetTokenRepository.findValidByTokenHash("unknown", now)).isEmpty();
+  }
+
+  @Test
+  void whenExistsByTokenHashAndExpiresAtAfter_onlyValidTokenMatches() {
+    assertThat(passwordResetTokenRepository.existsByTokenHashAndExpiresAtAfter("valid-hash", now))
+        .isTrue();
+    assertThat(passwordResetTokenRepository.existsByTokenHashAndExpiresAtAfter("old-hash-2", now))
+        .isFalse();
+  }
+
+  @Test
+  void whenFindExpiredIds_returnsOldestFirstUpToLimit_andDeleteByIdInRemovesThem() {
+    List<Long> ids = passwordResetTokenRepository.findExpiredIds(now, PageRequest.of(0, 1));
+    assertThat(ids).hasSize(1);
+
+    assertThat(passwordResetTokenRepository.deleteByIdIn(ids)).isEqualTo(1);
+    assertThat(passwordResetTokenRepository.findExpiredIds(now, PageRequest.of(0, 10)))
+        .hasSize(1);
+  }
+
+  @Test
+  void whenDeleteByUserId_removesAllTokensOfUser() {
+    assertThat(passwordResetTokenRepository.deleteByUserId(user.getId())).isEqualTo(3);
+    assertThat(passwordResetTokenRepository.count()).isZero();
+  }
+}
@@ -1,14 +1,21 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.CatalogVersion;
 import com.ecommerce.dto.ProductAdminView;
+import com.ecommerce.dto.ProductStockUpdate;
+import com.ecommerce.dto.ProductSummaryDto;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
+import com.ecommerce.entity.ProductStockShard;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
@@ -18,6 +25,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -144,6 +152,125 @@ class ProductRepositoryTest {
     assertThat(adminView.get(2).getIsDeleted()).isTrue();
   }
 
+  @Test
+  void whenFindSummaries_withCategorySpecification_returnsDistinctActiveRowsForPage() {
+    Category electronics = new Category("Electronics");
+    Category books = new Category("Books");
+    entityManager.persist(electronics);
+    entityManager.persist(books);
+
+    Product laptop = new Product();
+    laptop.setName("Laptop");
+    laptop.setPrice(new BigDecimal("1200.00"));
+    laptop.setStockQuantity(10);
+    laptop.addCategory(electronics);
+    entityManager.persist(laptop);
+
+    Product reader = new Product();
+    reader.setName("E-Reader");
+    reader.setPrice(new BigDecimal("250.00"));
+    reader.setStockQuantity(20);
+    reader.addCategory(electronics);
+    reader.addCategory(books);
+    entityManager.persist(reader);
+
+    Product phone = new Product();
+    phone.setName("Old Phone");
+    phone.setPrice(new BigDecimal("50.00"));
+    phone.setStockQuantity(1);
+    phone.addCategory(electronics);
+    phone.setDeleted(true);
+    entityManager.persistAndFlush(phone);
+    entityManager.clear();
+
+    Specification<Product> inCategories =
+        ProductSpecification.inCategories(List.of(electronics.getId(), books.getId()));
+    List<ProductSummaryDto> firstPage =
+        productRepository.findSummaries(inCategories, PageRequest.of(0, 1, Sort.by("name")));
+
+    assertThat(firstPage).extracting(ProductSummaryDto::name).containsExactly("E-Reader");
+    assertThat(firstPage.getFirst().price()).isEqualByComparingTo("250.00");
+    assertThat(productRepository.count(inCategories)).isEqualTo(2);
+  }
+
+  @Test
+  void whenFindVersion_withCategorySpecification_countsActiveRowsAndLatestUpdate() {
+    Category electronics = new Category("Electronics");
+    entityManager.persist(electronics);
+    Product laptop = new Product();
+    laptop.setName("Laptop");
+    laptop.setPrice(new BigDecimal("1200.00"));
+    laptop.setStockQuantity(10);
+    laptop.addCategory(electronics);
+    entityManager.persist(laptop);
+    Product phone = new Product();
+    phone.setName("Old Phone");
+    phone.setPrice(new BigDecimal("50.00"));
+    phone.setStockQuantity(1);
+    phone.addCategory(electronics);
+    phone.setDeleted(true);
+    entityManager.persistAndFlush(phone);
+    entityManager.clear();
+
+    CatalogVersion version = productRepository.findVersion(
+        ProductSpecification.inCategories(List.of(electronics.getId())));
+
+    assertThat(version.count()).isEqualTo(1);
+    assertThat(version.lastUpdatedAt()).isEqualTo(laptop.getUpdatedAt());
+  }
+
+  @Test
+  void whenFindSummaryById_withSoftDeletedProduct_returnsEmptyOptional() {
+    Product product = new Product();
+    product.setName("Toy");
+    product.setStockQuantity(1);
+    product.setPrice(BigDecimal.ONE);
+    entityManager.persistAndFlush(product);
+
+    assertThat(productRepository.findSummaryById(product.getId()))
+        .get().extracting(ProductSummaryDto::name).isEqualTo("Toy");
+
+    productRepository.deleteById(product.getId());
+    entityManager.flush();
+
+    assertThat(productRepository.findSummaryById(product.getId())).isEmpty();
+  }
+
+  @Test
+  void whenFindStockUpdatesByIds_withShardedProduct_sumsShardsInsteadOfSnapshot() {
+    Product plain = new Product();
+    plain.setName("Plain");
+    plain.setPrice(new BigDecimal("5.00"));
+    plain.setStockQuantity(7);
+    entityManager.persist(plain);
+
+    Product sharded = new Product();
+    sharded.setName("Sharded");
+    sharded.setPrice(new BigDecimal("9.00"));
+    sharded.setStockQuantity(100);
+    sharded.setStockShardCount(2);
+    entityManager.persist(sharded);
+    entityManager.persist(new ProductStockShard(sharded.getId(), 0, 3));
+    entityManager.persist(new ProductStockShard(sharded.getId(), 1, 4));
+
+    Product deleted = new Product();
+    deleted.setName("Deleted");
+    deleted.setPrice(BigDecimal.ONE);
+    deleted.setStockQuantity(1);
+    deleted.setDeleted(true);
+    entityManager.persistAndFlush(deleted);
+
+    List<ProductStockUpdate> updates = productRepository.findStockUpdatesByIds(
+        List.of(plain.getId(), sharded.getId(), deleted.getId()));
+
+    assertThat(updates)
+        .extracting(ProductStockUpdate::id, ProductStockUpdate::stockQuantity,
+            ProductStockUpdate::active)
+        .containsExactlyInAnyOrder(
+            tuple(plain.getId(), 7, true),
+            tuple(sharded.getId(), 7, true));
+  }
+
   @Test
   void whenSaveAndFlush_withNullName_throwsConstraintViolationException() {
     Product productWithNullName = new Product();
@@ -0,0 +1,87 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.TopSellerDto;
+import com.ecommerce.entity.ProductSalesRollup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never"})
+public class ProductSalesRollupRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private ProductSalesRollupRepository productSalesRollupRepository;
+
+  private final LocalDate day = LocalDate.of(2025, 3, 10);
+
+  @Test
+  void whenIncrement_withExistingRow_addsUnitsAndRevenue() {
+    ProductSalesRollup rollup = entityManager.persistAndFlush(
+        new ProductSalesRollup(day, 1L, "Toy", 2, new BigDecimal("50.00")));
+
+    int updated = productSalesRollupRepository.increment(
+        day, 1L, "Toy v2", 3, new BigDecimal("75.00"));
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    ProductSalesRollup reloaded = productSalesRollupRepository.findById(rollup.getId())
+        .orElseThrow();
+    assertThat(reloaded.getUnits()).isEqualTo(5);
+    assertThat(reloaded.getRevenue()).isEqualByComparingTo("125.00");
+    assertThat(reloaded.getProductName()).isEqualTo("Toy v2");
+  }
+
+  @Test
+  void whenSaveAndFlush_withDuplicateDayAndProduct_throwsDataIntegrityViolationException() {
+    productSalesRollupRepository.saveAndFlush(
+        new ProductSalesRollup(day, 1L, "Toy", 1, BigDecimal.TEN));
+
+    assertThatThrownBy(() -> productSalesRollupRepository.saveAndFlush(
+        new ProductSalesRollup(day, 1L, "Toy", 1, BigDecimal.TEN)))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  @Test
+  void whenFindTopSellers_aggregatesAcrossDaysOrderedByUnits() {
+    entityManager.persist(new ProductSalesRollup(day.minusDays(1), 1L, "Toy", 2, BigDecimal.TEN));
+    entityManager.persist(new ProductSalesRollup(day, 1L, "Toy", 3, BigDecimal.TEN));
+    entityManager.persist(new ProductSalesRollup(day, 2L, "Book", 4, BigDecimal.ONE));
+    entityManager.persist(new ProductSalesRollup(day.minusDays(30), 2L, "Book", 100, BigDecimal.ONE));
+    entityManager.flush();
+
+    List<TopSellerDto> topSellers = productSalesRollupRepository.findTopSellers(
+        day.minusDays(6), day, PageRequest.of(0, 10));
+
+    assertThat(topSellers).extracting(TopSellerDto::productId).containsExactly(1L, 2L);
+    assertThat(topSellers.getFirst().units()).isEqualTo(5);
+  }
+
+  @Test
+  void whenDeleteOlderThan_removesOnlyOlderRows() {
+    entityManager.persist(new ProductSalesRollup(day.minusDays(500), 1L, "Toy", 1, BigDecimal.ONE));
+    entityManager.persist(new ProductSalesRollup(day, 1L, "Toy", 1, BigDecimal.ONE));
+    entityManager.flush();
+
+    int deleted = productSalesRollupRepository.deleteOlderThan(day.minusDays(400));
+
+    assertThat(deleted).isEqualTo(1);
+    assertThat(productSalesRollupRepository.count()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.ProductStockShard;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never"})
+public class ProductStockShardRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private ProductStockShardRepository productStockShardRepository;
+
+  private Product persistProduct(int stockQuantity, int shardCount) {
+    Product product = new Product();
+    product.setName("Toy");
+    product.setStockQuantity(stockQuantity);
+    product.setStockShardCount(shardCount);
+    product.setPrice(BigDecimal.ONE);
+    return entityManager.persistAndFlush(product);
+  }
+
+  @Test
+  void whenTryDecrement_withEnoughQuantity_updatesShard() {
+    ProductStockShard shard = entityManager.persistAndFlush(new ProductStockShard(1L, 0, 5));
+
+    int updated = productStockShardRepository.tryDecrement(1L, 0, 3);
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    assertThat(productStockShardRepository.findById(shard.getId()).orElseThrow().getQuantity())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void whenTryDecrement_withInsufficientQuantity_leavesShardUntouched() {
+    ProductStockShard shard = entityManager.persistAndFlush(new ProductStockShard(1L, 0, 2));
+
+    int updated = productStockShardRepository.tryDecrement(1L, 0, 3);
+    entityManager.clear();
+
+    assertThat(updated).isZero();
+    assertThat(productStockShardRepository.findById(shard.getId()).orElseThrow().getQuantity())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void whenFindShardIndexesWithQuantity_returnsOnlyShardsCoveringQuantity() {
+    entityManager.persist(new ProductStockShard(1L, 0, 1));
+    entityManager.persist(new ProductStockShard(1L, 1, 4));
+    entityManager.persist(new ProductStockShard(2L, 0, 9));
+    entityManager.flush();
+
+    assertThat(productStockShardRepository.findShardIndexesWithQuantity(1L, 2))
+        .containsExactly(1);
+  }
+
+  @Test
+  void whenSumQuantityByProductId_returnsTotalAcrossShards() {
+    entityManager.persist(new ProductStockShard(1L, 0, 3));
+    entityManager.persist(new ProductStockShard(1L, 1, 4));
+    entityManager.flush();
+
+    assertThat(productStockShardRepository.sumQuantityByProductId(1L)).isEqualTo(7);
+    assertThat(productStockShardRepository.sumQuantityByProductId(2L)).isZero();
+  }
+
+  @Test
+  void whenFindProductIdsWithDepletedShards_returnsOnlyRebalanceableProducts() {
+    entityManager.persist(new ProductStockShard(1L, 0, 0));
+    entityManager.persist(new ProductStockShard(1L, 1, 6));
+    entityManager.persist(new ProductStockShard(2L, 0, 0));
+    entityManager.persist(new ProductStockShard(2L, 1, 1));
+    entityManager.persist(new ProductStockShard(3L, 0, 2));
+    entityManager.persist(new ProductStockShard(3L, 1, 2));
+    entityManager.flush();
+
+    assertThat(productStockShardRepository.findProductIdsWithDepletedShards()).containsExactly(1L);
+  }
+
+  @Test
+  void whenSaveAndFlush_withDuplicateShardIndex_throwsDataIntegrityViolationException() {
+    productStockShardRepository.saveAndFlush(new ProductStockShard(1L, 0, 1));
+
+    assertThatThrownBy(() -> productStockShardRepository.saveAndFlush(
+        new ProductStockShard(1L, 0, 1)))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  @Test
+  void whenDeleteByProductId_removesOnlyThatProductsShards() {
+    entityManager.persist(new ProductStockShard(1L, 0, 1));
+    entityManager.persist(new ProductStockShard(1L, 1, 1));
+    entityManager.persist(new ProductStockShard(2L, 0, 1));
+    entityManager.flush();
+
+    int deleted = productStockShardRepository.deleteByProductId(1L);
+
+    assertThat(deleted).isEqualTo(2);
+    assertThat(productStockShardRepository.findByProductIdWithLock(2L)).hasSize(1);
+  }
+
+  @Test
+  void whenSyncProductStockSnapshots_copiesShardTotalsToShardedProducts() {
+    Product sharded = persistProduct(100, 2);
+    Product plain = persistProduct(5, 0);
+    entityManager.persist(new ProductStockShard(sharded.getId(), 0, 10));
+    entityManager.persist(new ProductStockShard(sharded.getId(), 1, 7));
+    entityManager.flush();
+
+    int updated = productStockShardRepository.syncProductStockSnapshots(
+        List.of(sharded.getId(), plain.getId()));
+    entityManager.clear();
+
+    assertThat(updated).isEqualTo(1);
+    assertThat(entityManager.find(Product.class, sharded.getId()).getStockQuantity())
+        .isEqualTo(17);
+    assertThat(entityManager.find(Product.class, plain.getId()).getStockQuantity())
+        .isEqualTo(5);
+    assertThat(productStockShardRepository.syncProductStockSnapshots(List.of(sharded.getId())))
+        .isZero();
+  }
+
+  @Test
+  void whenFindByProductIdWithLock_returnsShardsInIndexOrder() {
+    entityManager.persist(new ProductStockShard(1L, 2, 1));
+    entityManager.persist(new ProductStockShard(1L, 0, 1));
+    entityManager.persist(new ProductStockShard(1L, 1, 1));
+    entityManager.flush();
+
+    List<ProductStockShard> shards = productStockShardRepository.findByProductIdWithLock(1L);
+
+    assertThat(shards).extracting(ProductStockShard::getShardIndex).containsExactly(0, 1, 2);
+  }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.ReviewDto;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.Review;
 import com.ecommerce.entity.User;
@@ -19,6 +20,7 @@ import java.math.BigDecimal;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test")
@@ -88,6 +90,41 @@ public class ReviewRepositoryTest {
     assertThat(reviewPage.getContent()).containsExactly(review2, review1);
   }
 
+  @Test
+  void whenFindViewsByProductId_withExistingReviews_returnsNewestFirstWithAuthor() {
+    Review review1 = new Review();
+    review1.setUser(user1);
+    review1.setProduct(product1);
+    review1.setRating(3);
+    entityManager.persist(review1);
+
+    try {
+      Thread.sleep(10);
+    } catch (InterruptedException _) {
+    }
+
+    Review review2 = new Review();
+    review2.setUser(user2);
+    review2.setProduct(product1);
+    review2.setRating(5);
+    review2.setComment("Great");
+    entityManager.persist(review2);
+
+    Review otherProductReview = new Review();
+    otherProductReview.setUser(user1);
+    otherProductReview.setProduct(product2);
+    otherProductReview.setRating(1);
+    entityManager.persistAndFlush(otherProductReview);
+
+    Page<ReviewDto> reviewPage = reviewRepository.findViewsByProductId(product1.getId(),
+        PageRequest.of(0, 1));
+
+    assertThat(reviewPage.getTotalElements()).isEqualTo(2);
+    assertThat(reviewPage.getContent())
+        .extracting(ReviewDto::authorUsername, ReviewDto::rating, ReviewDto::comment)
+        .containsExactly(tuple("user2", 5, "Great"));
+  }
+
   @Test
   void whenExistsByUserAndProduct_withVariousScenarios_returnsCorrectBoolean() {
     Review review = new Review();
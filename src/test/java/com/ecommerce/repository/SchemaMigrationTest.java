@@ -0,0 +1,76 @@
+package com.ecommerce.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on H2 in MySQL mode and lets Hibernate validate the result, the way
+ * production starts with {@code ddl-auto=validate}.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:migrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.defer-datasource-initialization=false",
+    "spring.sql.init.mode=never"})
+class SchemaMigrationTest {
+
+  @Autowired
+  private Flyway flyway;
+
+  @Test
+  void whenMigratedFromScratch_thenEntitiesValidateAgainstTheSchema() {
+    assertThat(flyway.info().pending()).isEmpty();
+    assertThat(flyway.info().current().getVersion())
+        .isEqualTo(flyway.info().all()[flyway.info().all().length - 1].getVersion());
+  }
+
+  @Test
+  void whenDatabasePredatesMigrations_thenOrdersAreRolledUp() {
+    SimpleDriverDataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(),
+        "jdbc:h2:mem:existing;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    Flyway.configure().dataSource(dataSource).target(MigrationVersion.fromVersion("1")).load()
+        .migrate();
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    jdbc.update("INSERT INTO products (id, name, price, stock_quantity, is_deleted) "
+        + "VALUES (1, 'Lamp', 10.00, 5, false)");
+    jdbc.update("INSERT INTO shipping_details (id, first_name, last_name, email, phone_number, "
+        + "address_line, city, country, postal_code) "
+        + "VALUES (1, 'A', 'B', 'a@b.c', '123', 'Street 1', 'City', 'Country', '00-001')");
+    jdbc.update("INSERT INTO orders (id, order_date, status, total_amount, shipping_details_id) "
+        + "VALUES (1, '2026-03-01 10:00:00', 'PENDING', 20.00, 1)");
+    jdbc.update("INSERT INTO order_items (id, order_id, product_id, product_name, quantity, price) "
+        + "VALUES (1, 1, 1, 'Lamp', 2, 10.00)");
+
+    Flyway.configure().dataSource(dataSource).load().migrate();
+
+    assertThat(jdbc.queryForObject("SELECT sales_date FROM daily_sales_rollups", LocalDate.class))
+        .isEqualTo(LocalDate.of(2026, 3, 1));
+    assertThat(jdbc.queryForObject("SELECT revenue FROM daily_sales_rollups", BigDecimal.class))
+        .isEqualByComparingTo("20.00");
+    assertThat(jdbc.queryForObject(
+        "SELECT order_count FROM order_status_rollups WHERE status = 'PENDING'", Long.class))
+        .isEqualTo(1L);
+    assertThat(jdbc.queryForObject(
+        "SELECT units FROM product_sales_rollups WHERE product_id = 1", Long.class))
+        .isEqualTo(2L);
+    assertThat(jdbc.queryForObject(
+        "SELECT stock_shard_count FROM products WHERE id = 1", Integer.class)).isZero();
+  }
+}
@@ -0,0 +1,229 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.config.QueryCountConfig;
+import com.ecommerce.config.SecondLevelCacheConfig;
+import com.ecommerce.entity.Category;
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.Role;
+import com.ecommerce.metrics.MaxQueries;
+import com.ecommerce.metrics.QueryBudget;
+import com.ecommerce.service.StockShardService;
+import com.ecommerce.service.StockShardServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Runs without the test transaction, so every step commits and goes through the cache. */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"spring.sql.init.mode=never"})
+@Import({SecondLevelCacheConfig.class, QueryCountConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private RoleRepository roleRepository;
+
+  @Autowired
+  private ProductStockShardRepository productStockShardRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate transaction;
+
+  @BeforeEach
+  void setUp() {
+    transaction = new TransactionTemplate(transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("DELETE FROM product_stock_shards");
+    jdbcTemplate.update("DELETE FROM categories_products");
+    jdbcTemplate.update("DELETE FROM products");
+    jdbcTemplate.update("DELETE FROM categories");
+    jdbcTemplate.update("DELETE FROM roles");
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  @MaxQueries(0)
+  void whenProductWasLoadedBefore_thenItAndItsCategoriesComeFromCache(QueryBudget queries) {
+    Long productId = saveProduct("Lamp", saveCategory("Lighting")).getId();
+    loadWithCategories(productId);
+
+    queries.start();
+    List<String> categoryNames = inTransaction(() -> productRepository.findById(productId)
+        .orElseThrow().getCategories().stream().map(Category::getName).toList());
+
+    assertThat(categoryNames).containsExactly("Lighting");
+  }
+
+  @Test
+  @MaxQueries(0)
+  void whenRoleWasLoadedBefore_thenItComesFromCache(QueryBudget queries) {
+    Long roleId = inTransaction(() -> roleRepository.save(new Role("ROLE_USER")).getId());
+    inTransaction(() -> roleRepository.findById(roleId));
+
+    queries.start();
+    String name = inTransaction(() -> roleRepository.findById(roleId).orElseThrow().getName());
+
+    assertThat(name).isEqualTo("ROLE_USER");
+  }
+
+  @Test
+  void whenCachedProductIsSoftDeleted_thenFindByIdNoLongerFindsIt() {
+    Long productId = saveProduct("Lamp").getId();
+    inTransaction(() -> productRepository.findById(productId));
+
+    inTransaction(() -> {
+      Product product = productRepository.findById(productId).orElseThrow();
+      product.setDeleted(true);
+      return productRepository.save(product);
+    });
+
+    assertThat(inTransaction(() -> productRepository.findById(productId))).isEmpty();
+    assertThat(entityManagerFactory.getCache().contains(Product.class, productId)).isFalse();
+  }
+
+  @Test
+  void whenProductIsRestoredByNativeUpdate_thenCachedStateIsDropped() {
+    Long productId = saveProduct("Lamp").getId();
+    Long categoryId = saveCategory("Lighting").getId();
+    inTransaction(() -> productRepository.findById(productId));
+    inTransaction(() -> categoryRepository.findById(categoryId));
+    inTransaction(() -> {
+      productRepository.deleteById(productId);
+      return null;
+    });
+    assertThat(inTransaction(() -> productRepository.findById(productId))).isEmpty();
+
+    inTransaction(() -> {
+      productRepository.restoreById(productId);
+      return null;
+    });
+
+    assertThat(inTransaction(() -> productRepository.findById(productId))).isPresent();
+    assertThat(entityManagerFactory.getCache().contains(Category.class, categoryId))
+        .as("regions of other tables stay cached")
+        .isTrue();
+  }
+
+  @Test
+  void whenStockSnapshotsAreSynced_thenOnlySyncedProductsAreEvicted() {
+    Long shardedId = saveProduct("Lamp").getId();
+    Long otherId = saveProduct("Chair").getId();
+    Long categoryId = saveCategory("Lighting").getId();
+    jdbcTemplate.update("UPDATE products SET stock_shard_count = 2 WHERE id = ?", shardedId);
+    jdbcTemplate.update("INSERT INTO product_stock_shards (product_id, shard_index, quantity) "
+        + "VALUES (?, 0, 4), (?, 1, 3)", shardedId, shardedId);
+    entityManagerFactory.getCache().evictAll();
+    inTransaction(() -> productRepository.findById(shardedId));
+    inTransaction(() -> productRepository.findById(otherId));
+    inTransaction(() -> categoryRepository.findById(categoryId));
+    StockShardService stockShardService =
+        new StockShardServiceImpl(productStockShardRepository, entityManagerFactory);
+
+    assertThat(inTransaction(stockShardService::syncProductStockSnapshots)).isEqualTo(1);
+
+    assertThat(entityManagerFactory.getCache().contains(Product.class, shardedId)).isFalse();
+    assertThat(inTransaction(() -> productRepository.findById(shardedId)).orElseThrow()
+        .getStockQuantity()).isEqualTo(7);
+    assertThat(entityManagerFactory.getCache().contains(Product.class, otherId)).isTrue();
+    assertThat(entityManagerFactory.getCache().contains(Category.class, categoryId)).isTrue();
+  }
+
+  @Test
+  void whenStockChangesBehindTheCache_thenAvailableStockReadsTheRow() {
+    Long plainId = saveProduct("Lamp").getId();
+    Long shardedId = saveProduct("Chair").getId();
+    inTransaction(() -> productRepository.findById(plainId));
+    jdbcTemplate.update("UPDATE products SET stock_quantity = 0 WHERE id = ?", plainId);
+    jdbcTemplate.update("UPDATE products SET stock_shard_count = 2 WHERE id = ?", shardedId);
+    jdbcTemplate.update("INSERT INTO product_stock_shards (product_id, shard_index, quantity) "
+        + "VALUES (?, 0, 4), (?, 1, 3)", shardedId, shardedId);
+
+    assertThat(inTransaction(() -> productRepository.findById(plainId)).orElseThrow()
+        .getStockQuantity()).isEqualTo(5);
+    assertThat(productRepository.findAvailableStockById(plainId)).contains(0);
+    assertThat(productRepository.findAvailableStockById(shardedId)).contains(7);
+  }
+
+  @Test
+  void whenCategoryIsSoftDeleted_thenCachedProductCategoriesLeaveItOut() {
+    Category kept = saveCategory("Lighting");
+    Category deleted = saveCategory("Seasonal");
+    Long productId = saveProduct("Lamp", kept, deleted).getId();
+    loadWithCategories(productId);
+
+    inTransaction(() -> {
+      Category category = categoryRepository.findById(deleted.getId()).orElseThrow();
+      category.setDeleted(true);
+      return categoryRepository.save(category);
+    });
+
+    List<String> categoryNames = inTransaction(() -> productRepository.findById(productId)
+        .orElseThrow().getCategories().stream().map(Category::getName).toList());
+    assertThat(categoryNames).containsExactly("Lighting");
+    assertThat(inTransaction(() -> categoryRepository.findById(deleted.getId()))).isEmpty();
+  }
+
+  private Category saveCategory(String name) {
+    return inTransaction(() -> categoryRepository.save(new Category(name)));
+  }
+
+  private Product saveProduct(String name, Category... categories) {
+    return inTransaction(() -> {
+      Product product = new Product();
+      product.setName(name);
+      product.setPrice(BigDecimal.TEN);
+      product.setStockQuantity(5);
+      for (Category category : categories) {
+        product.addCategory(categoryRepository.getReferenceById(category.getId()));
+      }
+      return productRepository.save(product);
+    });
+  }
+
+  private void loadWithCategories(Long productId) {
+    inTransaction(() -> {
+      Hibernate.initialize(productRepository.findById(productId).orElseThrow().getCategories());
+      return null;
+    });
+  }
+
+  private <T> T inTransaction(Supplier<T> action) {
+    return transaction.execute(_ -> action.get());
+  }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.UserRoleView;
 import com.ecommerce.entity.User;
 import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +12,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,7 +35,6 @@ class UserRepositoryTest {
     testUser.setUsername("user");
     testUser.setEmail("user@email.com");
     testUser.setPassword("password123");
-    testUser.setPasswordResetToken("reset-token-123");
     entityManager.persistAndFlush(testUser);
   }
 
@@ -50,6 +51,21 @@ class UserRepositoryTest {
     assertThat(notFoundUser).isNotPresent();
   }
 
+  @Test
+  void whenFindRoleViewsByUsername_withUserWithoutRoles_returnsSingleRowWithNullRole() {
+    List<UserRoleView> views = userRepository.findRoleViewsByUsername("user");
+    assertThat(views).singleElement().satisfies(view -> {
+      assertThat(view.getId()).isNotNull();
+      assertThat(view.getUsername()).isEqualTo("user");
+      assertThat(view.getRole()).isNull();
+    });
+  }
+
+  @Test
+  void whenFindRoleViewsByUsername_withNonExistentUser_returnsEmptyList() {
+    assertThat(userRepository.findRoleViewsByUsername("nonexistent")).isEmpty();
+  }
+
   @Test
   void whenFindByEmail_withExistingUser_returnsOptionalOfUser() {
     Optional<User> foundUser = userRepository.findByEmail("user@email.com");
@@ -87,19 +103,6 @@ class UserRepositoryTest {
     assertThat(notExists).isFalse();
   }
 
-  @Test
-  void whenFindByPasswordResetToken_withValidToken_returnsOptionalOfUser() {
-    Optional<User> foundUser = userRepository.findByPasswordResetToken("reset-token-123");
-    assertThat(foundUser).isPresent();
-    assertThat(foundUser.get().getPasswordResetToken()).isEqualTo("reset-token-123");
-  }
-
-  @Test
-  void whenFindByPasswordResetToken_withInvalidToken_returnsEmptyOptional() {
-    Optional<User> notFoundUser = userRepository.findByPasswordResetToken("invalid-token");
-    assertThat(notFoundUser).isNotPresent();
-  }
-
   @Test
   void whenSaveAndFlush_withDuplicateUsername_throwsDataIntegrityViolationException() {
     User duplicateUser = new User();
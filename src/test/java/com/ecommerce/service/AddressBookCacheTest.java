@@ -0,0 +1,51 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.AddressBookCache;
+import com.ecommerce.dto.AddressViewDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AddressBookCacheTest {
+
+  private static final AddressViewDto HOME =
+      new AddressViewDto(1L, "Home", "Poland", "Warsaw", "Happy St. 123", "12-345");
+
+  private final AddressBookCache cache = new AddressBookCache();
+
+  @Test
+  void whenLoaded_thenLaterCallsReturnImmutableCopy() {
+    List<AddressViewDto> addresses = new ArrayList<>(List.of(HOME));
+
+    cache.getOrLoad(1L, () -> addresses);
+    addresses.clear();
+
+    assertThat(cache.getOrLoad(1L, List::of)).hasSize(1);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void whenInvalidate_thenNextCallLoadsAgain() {
+    cache.getOrLoad(1L, () -> List.of(HOME));
+
+    cache.invalidate(1L);
+
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getOrLoad(1L, List::of)).isEmpty();
+  }
+
+  @Test
+  void whenInvalidatedWhileLoading_thenLoadedRowsAreNotCached() {
+    List<AddressViewDto> loaded = cache.getOrLoad(1L, () -> {
+      cache.invalidate(1L);
+      return List.of(HOME);
+    });
+
+    assertThat(loaded).containsExactly(HOME);
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getOrLoad(1L, List::of)).isEmpty();
+  }
+}
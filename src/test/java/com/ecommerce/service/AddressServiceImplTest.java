@@ -1,6 +1,9 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.AddressBookCache;
 import com.ecommerce.dto.AddressDto;
+import com.ecommerce.dto.AddressViewDto;
+import com.ecommerce.dto.CurrentUser;
 import com.ecommerce.entity.Address;
 import com.ecommerce.entity.User;
 import com.ecommerce.exception.AccessDeniedException;
@@ -13,37 +16,62 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class AddressServiceImplTest {
+  private static final CurrentUser CURRENT_USER = new CurrentUser(5L, "Tom", Set.of());
+
   @Mock
   private AddressRepository addressRepository;
 
   @Mock
   private UserService userService;
 
+  @Mock
+  private AddressBookCache addressBookCache;
+
   @InjectMocks
   AddressServiceImpl addressService;
 
+  private static AddressViewDto view(Long id, String name) {
+    return new AddressViewDto(id, name, "Country", "City", "Line", "12345");
+  }
+
   @Test
-  public void whenGetAddresses_returnAddresses() {
-    User currentUser = new User();
-    List<Address> addresses = List.of(new Address());
-    when(userService.getCurrentUser()).thenReturn(currentUser);
-    when(addressRepository.findByUser(currentUser)).thenReturn(addresses);
+  public void whenGetAddresses_onCacheMiss_loadAndCacheAddresses() {
+    List<AddressViewDto> addresses = List.of(view(1L, "Home"));
+    when(userService.getCurrentUserSnapshot()).thenReturn(new CurrentUser(1L, "user", Set.of()));
+    when(addressBookCache.getOrLoad(eq(1L), any()))
+        .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    when(addressRepository.findViewsByUserId(1L)).thenReturn(addresses);
+
+    List<AddressViewDto> returned_addresses = addressService.getAddressesForCurrentUser();
 
-    List<Address> returned_addresses = addressService.getAddressesForCurrentUser();
+    verify(addressRepository).findViewsByUserId(1L);
+    assertThat(returned_addresses).containsExactlyElementsOf(addresses);
+  }
+
+  @Test
+  public void whenGetAddresses_onCacheHit_skipRepository() {
+    List<AddressViewDto> addresses = List.of(view(1L, "Home"));
+    when(userService.getCurrentUserSnapshot()).thenReturn(new CurrentUser(1L, "user", Set.of()));
+    when(addressBookCache.getOrLoad(eq(1L), any())).thenReturn(addresses);
 
-    verify(addressRepository).findByUser(currentUser);
-    assertThat(returned_addresses).containsExactlyInAnyOrderElementsOf(addresses);
+    assertThat(addressService.getAddressesForCurrentUser()).isSameAs(addresses);
+    verify(addressRepository, never()).findViewsByUserId(any());
   }
 
   @Test
@@ -51,7 +79,7 @@ public class AddressServiceImplTest {
     AddressDto addressDto = new AddressDto();
     addressDto.setId(1L);
 
-    when(userService.getCurrentUser()).thenReturn(new User());
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
     when(addressRepository.findById(addressDto.getId())).thenReturn(java.util.Optional.empty());
 
     ResourceNotFoundException exception = assertThrows(
@@ -68,14 +96,12 @@ public class AddressServiceImplTest {
     AddressDto addressDto = new AddressDto();
     addressDto.setId(1L);
 
-    User currentUser = mock(User.class);
     User addressOwner = mock(User.class);
     Address existingAddress = new Address();
     existingAddress.setUser(addressOwner);
 
-    when(currentUser.getId()).thenReturn(5L);
     when(addressOwner.getId()).thenReturn(10L);
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
     when(addressRepository.findById(1L)).thenReturn(Optional.of(existingAddress));
 
     AccessDeniedException exception = assertThrows(
@@ -97,17 +123,17 @@ public class AddressServiceImplTest {
     addressDto.setName("New Name");
     addressDto.setPostalCode("54321");
 
-    User currentUser = mock(User.class);
+    User owner = mock(User.class);
     Address existingAddress = new Address();
     existingAddress.setAddressLine("Old Address Line");
     existingAddress.setCity("Old City");
     existingAddress.setCountry("Old Country");
     existingAddress.setName("Old Name");
     existingAddress.setPostalCode("12345");
-    existingAddress.setUser(currentUser);
+    existingAddress.setUser(owner);
 
-    when(currentUser.getId()).thenReturn(5L);
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(owner.getId()).thenReturn(5L);
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
     when(addressRepository.findById(1L)).thenReturn(Optional.of(existingAddress));
 
     addressService.saveAddress(addressDto);
@@ -121,20 +147,16 @@ public class AddressServiceImplTest {
     assertThat(savedAddress.getCountry()).isEqualTo("New Country");
     assertThat(savedAddress.getName()).isEqualTo("New Name");
     assertThat(savedAddress.getPostalCode()).isEqualTo("54321");
-    assertThat(savedAddress.getUser()).isSameAs(currentUser);
+    assertThat(savedAddress.getUser()).isSameAs(owner);
+    verify(addressBookCache).invalidate(5L);
   }
 
   @Test
   public void whenSaveAddress_withUserAddressesLimit_throwAddressLimitExceededException() {
     AddressDto addressDto = new AddressDto();
 
-    User currentUser = mock(User.class);
-
-    when(currentUser.getId()).thenReturn(5L);
-    when(currentUser.getUsername()).thenReturn("Tom");
-    when(currentUser.getAddresses()).thenReturn(
-        List.of(new Address(), new Address(), new Address(), new Address(), new Address()));
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
+    when(addressRepository.countByUserId(5L)).thenReturn(5L);
 
     AddressLimitExceededException exception = assertThrows(
         AddressLimitExceededException.class,
@@ -157,7 +179,9 @@ public class AddressServiceImplTest {
 
     User currentUser = new User();
 
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
+    when(addressRepository.countByUserId(5L)).thenReturn(4L);
+    when(userService.getReferenceById(5L)).thenReturn(currentUser);
 
     addressService.saveAddress(addressDto);
 
@@ -171,12 +195,14 @@ public class AddressServiceImplTest {
     assertThat(savedAddress.getName()).isEqualTo("Name");
     assertThat(savedAddress.getPostalCode()).isEqualTo("12345");
     assertThat(savedAddress.getUser()).isSameAs(currentUser);
+    verify(addressBookCache).invalidate(5L);
   }
 
   @Test
   public void whenDeleteAddress_withNotFoundId_throwResourceNotFoundException() {
     Long addressId = 1L;
 
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
     when(addressRepository.findById(addressId)).thenReturn(Optional.empty());
 
     ResourceNotFoundException exception = assertThrows(
@@ -191,14 +217,12 @@ public class AddressServiceImplTest {
   @Test
   public void whenDeleteAddress_withMismatchingUserId_throwAccessDeniedException() {
     Long addressId = 1L;
-    User currentUser = mock(User.class);
     User addressOwner = mock(User.class);
     Address existingAddress = new Address();
     existingAddress.setUser(addressOwner);
 
-    when(currentUser.getId()).thenReturn(5L);
     when(addressOwner.getId()).thenReturn(10L);
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
     when(addressRepository.findById(addressId)).thenReturn(Optional.of(existingAddress));
 
     AccessDeniedException exception = assertThrows(
@@ -207,62 +231,61 @@ public class AddressServiceImplTest {
     );
 
     assertThat(exception.getMessage()).isEqualTo("You are not authorized to edit this address.");
-    verify(currentUser, never()).removeAddress(any(Address.class));
+    verify(addressRepository, never()).delete(any(Address.class));
   }
 
   @Test
   public void whenDeleteAddress_withValidData_removeSuccessfully() {
     Long addressId = 1L;
-    User currentUser = mock(User.class);
+    User owner = mock(User.class);
     Address existingAddress = new Address();
-    existingAddress.setUser(currentUser);
+    existingAddress.setUser(owner);
 
-    when(currentUser.getId()).thenReturn(5L);
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(owner.getId()).thenReturn(5L);
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
     when(addressRepository.findById(addressId)).thenReturn(Optional.of(existingAddress));
 
     addressService.deleteAddress(addressId);
 
-    ArgumentCaptor<Address> addressCaptor = ArgumentCaptor.forClass(Address.class);
-    verify(currentUser).removeAddress(addressCaptor.capture());
-    assertThat(addressCaptor.getValue()).isSameAs(existingAddress);
+    verify(addressRepository).delete(existingAddress);
+    verify(addressBookCache).invalidate(5L);
   }
 
   @Test
-  public void whenIsNameTakenByUser_returnTrue() {
-    User currentUser = mock(User.class);
-    Address address = mock(Address.class);
-
-    when(address.getId()).thenReturn(1L);
-    when(address.getName()).thenReturn("Name");
-    when(userService.getCurrentUser()).thenReturn(currentUser);
-    when(currentUser.getAddresses()).thenReturn(List.of(address));
+  public void whenSaveAddress_insideTransaction_invalidateAfterCommit() {
+    AddressDto addressDto = new AddressDto();
+    addressDto.setName("Name");
 
-    assertThat(addressService.isNameTakenByUser("Name", 2L)).isTrue();
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
+    when(addressRepository.countByUserId(5L)).thenReturn(0L);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      addressService.saveAddress(addressDto);
+
+      verify(addressBookCache, never()).invalidate(any());
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+      verify(addressBookCache).invalidate(5L);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
   }
 
   @Test
-  public void whenIsNameTakenByUser_returnFalse() {
-    User currentUser = mock(User.class);
-    Address address = mock(Address.class);
-
-    when(address.getId()).thenReturn(1L);
-    when(address.getName()).thenReturn("Name");
-    when(userService.getCurrentUser()).thenReturn(currentUser);
-    when(currentUser.getAddresses()).thenReturn(List.of(address));
+  public void whenIsNameTakenByUser_returnTrue() {
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
+    when(addressRepository.existsByUserIdAndName(5L, "Name", 2L)).thenReturn(true);
 
-    assertThat(addressService.isNameTakenByUser("Name 2", 2L)).isFalse();
+    assertThat(addressService.isNameTakenByUser("Name", 2L)).isTrue();
+    verifyNoInteractions(addressBookCache);
   }
 
   @Test
-  public void whenIsNameTakenByUser_withSameAddressId_returnFalse() {
-    User currentUser = mock(User.class);
-    Address address = mock(Address.class);
-
-    when(address.getId()).thenReturn(1L);
-    when(userService.getCurrentUser()).thenReturn(currentUser);
-    when(currentUser.getAddresses()).thenReturn(List.of(address));
+  public void whenIsNameTakenByUser_returnFalse() {
+    when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
+    when(addressRepository.existsByUserIdAndName(5L, "Name 2", 2L)).thenReturn(false);
 
-    assertThat(addressService.isNameTakenByUser("Home", 1L)).isFalse();
+    assertThat(addressService.isNameTakenByUser("Name 2", 2L)).isFalse();
+    verifyNoInteractions(addressBookCache);
   }
 }
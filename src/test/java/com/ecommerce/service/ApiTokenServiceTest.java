@@ -0,0 +1,154 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CurrentUser;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.ApiTokenAuthenticationFilter;
+import com.ecommerce.security.ApiTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ApiTokenServiceTest {
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+  private static final CurrentUser USER =
+      new CurrentUser(42L, "tom|sawyer", Set.of("ROLE_USER", "ROLE_ADMIN"));
+  private static final Instant PASSWORD_CHANGED_AT = Instant.parse("2025-12-01T08:30:00.123456Z");
+  private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+  private final UserRepository userRepository = mock(UserRepository.class);
+  private final ApiTokenService tokenService = tokenService(SECRET, NOW);
+
+  @BeforeEach
+  void setUp() {
+    when(userRepository.findPasswordChangedAtByUsername("tom|sawyer"))
+        .thenReturn(Optional.of(PASSWORD_CHANGED_AT));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void whenIssuedTokenIsVerified_returnsSameSnapshot() {
+    String token = tokenService.issue(USER);
+
+    assertThat(tokenService.verify(token)).contains(USER);
+  }
+
+  @Test
+  void whenTokenIsTampered_verifyReturnsEmpty() {
+    String token = tokenService.issue(USER);
+    String forged = tokenService.issue(new CurrentUser(1L, "admin", Set.of("ROLE_ADMIN")));
+    String mixed = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+    assertThat(tokenService.verify(mixed)).isEmpty();
+    assertThat(tokenService.verify("not-a-token")).isEmpty();
+    assertThat(tokenService("fedcba9876543210fedcba9876543210", NOW).verify(token)).isEmpty();
+  }
+
+  @Test
+  void whenTokenIsExpired_verifyReturnsEmpty() {
+    String token = tokenService.issue(USER);
+
+    ApiTokenService later = tokenService(SECRET, NOW.plus(Duration.ofHours(2)));
+
+    assertThat(later.verify(token)).isEmpty();
+  }
+
+  @Test
+  void whenTokenIsVerified_doesNotQueryTheUser() {
+    String token = tokenService.issue(USER);
+    clearInvocations(userRepository);
+
+    assertThat(tokenService.verify(token)).contains(USER);
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void whenPasswordChangesAfterIssue_verifyReturnsEmpty() {
+    String token = tokenService.issue(USER);
+    Instant changedAt = PASSWORD_CHANGED_AT.plusMillis(1);
+    when(userRepository.findPasswordChangedAtByUsername("tom|sawyer"))
+        .thenReturn(Optional.of(changedAt));
+
+    tokenService.revokeIssuedBefore("tom|sawyer", changedAt);
+
+    assertThat(tokenService.verify(token)).isEmpty();
+    assertThat(tokenService.verify(tokenService.issue(USER))).contains(USER);
+  }
+
+  @Test
+  void whenOtherUserChangesPassword_verifyStillAccepts() {
+    String token = tokenService.issue(USER);
+
+    tokenService.revokeIssuedBefore("huck", NOW);
+
+    assertThat(tokenService.verify(token)).contains(USER);
+  }
+
+  @Test
+  void whenSecretIsBlankOrShort_constructionFails() {
+    assertThatThrownBy(() -> tokenService("", NOW)).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> tokenService("short-secret", NOW))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void whenFilterReceivesValidBearerToken_authenticatesRequest() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/cart/update");
+    request.addHeader("Authorization", "Bearer " + tokenService.issue(USER));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    Authentication[] seen = new Authentication[1];
+
+    new ApiTokenAuthenticationFilter(tokenService).doFilter(request, response,
+        (req, res) -> seen[0] = SecurityContextHolder.getContext().getAuthentication());
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(seen[0].getName()).isEqualTo("tom|sawyer");
+    assertThat(seen[0].getAuthorities()).extracting("authority")
+        .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    assertThat(request.getAttribute(CurrentUser.REQUEST_ATTRIBUTE)).isEqualTo(USER);
+  }
+
+  @Test
+  void whenFilterReceivesInvalidBearerToken_returnsUnauthorized() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/cart/update");
+    request.addHeader("Authorization", "Bearer garbage");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+
+    new ApiTokenAuthenticationFilter(tokenService).doFilter(request, response, chain);
+
+    assertThat(response.getStatus()).isEqualTo(401);
+    assertThat(chain.getRequest()).isNull();
+  }
+
+  private ApiTokenService tokenService(String secret, Instant now) {
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+        Map.of("clock", Clock.fixed(now, ZoneOffset.UTC)));
+    return new ApiTokenService(secret, Duration.ofHours(1).toMillis(), userRepository,
+        beanFactory.getBeanProvider(Clock.class));
+  }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.PasswordHashingBusyException;
+import com.ecommerce.security.BCryptStrengthCalibrator;
+import com.ecommerce.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+  private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void whenEncodeAndMatches_delegatesOnExecutorThread() {
+    startExecutor(1, 10);
+    PasswordEncoder delegate = mock(PasswordEncoder.class);
+    when(delegate.encode("secret")).thenAnswer(_ -> Thread.currentThread().getName());
+    when(delegate.matches("secret", "hash")).thenReturn(true);
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, executor, 1_000);
+
+    assertThat(encoder.encode("secret")).startsWith("hash-test-");
+    assertThat(encoder.matches("secret", "hash")).isTrue();
+  }
+
+  @Test
+  void whenQueuedLongerThanTimeout_throwsPasswordHashingBusyException() throws Exception {
+    startExecutor(1, 10);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder delegate = mock(PasswordEncoder.class);
+    when(delegate.encode("slow")).thenAnswer(_ -> {
+      release.await(5, TimeUnit.SECONDS);
+      return "slow-hash";
+    });
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, executor, 50);
+    Thread blocker = Thread.ofPlatform().start(() -> encoder.encode("slow"));
+
+    try {
+      Thread.sleep(20);
+      assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("queued"));
+      verify(delegate, never()).encode("queued");
+    } finally {
+      release.countDown();
+      blocker.join();
+    }
+  }
+
+  @Test
+  void whenQueueFull_throwsPasswordHashingBusyException() throws Exception {
+    startExecutor(1, 0);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder delegate = mock(PasswordEncoder.class);
+    when(delegate.encode("slow")).thenAnswer(_ -> {
+      release.await(5, TimeUnit.SECONDS);
+      return "slow-hash";
+    });
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, executor, 1_000);
+    Thread blocker = Thread.ofPlatform().start(() -> encoder.encode("slow"));
+
+    try {
+      Thread.sleep(20);
+      assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("other", "hash"));
+    } finally {
+      release.countDown();
+      blocker.join();
+    }
+  }
+
+  @Test
+  void whenCalibrating_picksHighestStrengthWithinTarget() {
+    assertThat(BCryptStrengthCalibrator.strengthFor(60, 250)).isEqualTo(12);
+    assertThat(BCryptStrengthCalibrator.strengthFor(300, 250))
+        .isEqualTo(BCryptStrengthCalibrator.MIN_STRENGTH);
+    assertThat(BCryptStrengthCalibrator.strengthFor(1, 100_000))
+        .isEqualTo(BCryptStrengthCalibrator.MAX_STRENGTH);
+  }
+
+  @Test
+  void whenStoredCostDiffersFromStrength_upgradeEncodingInEitherDirection() {
+    String cost4 = BCryptStrengthCalibrator.encoderFor(4).encode("password");
+    String cost5 = BCryptStrengthCalibrator.encoderFor(5).encode("password");
+
+    assertThat(BCryptStrengthCalibrator.encoderFor(4).upgradeEncoding(cost4)).isFalse();
+    assertThat(BCryptStrengthCalibrator.encoderFor(5).upgradeEncoding(cost4)).isTrue();
+    assertThat(BCryptStrengthCalibrator.encoderFor(4).upgradeEncoding(cost5)).isTrue();
+  }
+
+  private void startExecutor(int threads, int queueCapacity) {
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("hash-test-");
+    executor.initialize();
+  }
+}
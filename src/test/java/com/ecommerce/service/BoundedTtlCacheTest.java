@@ -0,0 +1,77 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.BoundedTtlCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+  private final BoundedTtlCache<String, String> cache =
+      new BoundedTtlCache<>(100, Duration.ofMinutes(1));
+
+  @Test
+  void whenPut_thenGetReturnsValue() {
+    cache.put("a", "1");
+
+    assertThat(cache.get("a")).isEqualTo("1");
+    assertThat(cache.get("b")).isNull();
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void whenTtlElapsed_thenGetMisses() {
+    BoundedTtlCache<String, String> expiring = new BoundedTtlCache<>(100, Duration.ZERO);
+
+    expiring.put("a", "1");
+
+    assertThat(expiring.get("a")).isNull();
+    assertThat(expiring.size()).isZero();
+  }
+
+  @Test
+  void whenFull_thenOldestEntriesAreDropped() {
+    for (int i = 0; i <= 100; i++) {
+      cache.put("key-" + i, "value-" + i);
+    }
+
+    assertThat(cache.size()).isLessThanOrEqualTo(100);
+    assertThat(cache.get("key-0")).isNull();
+    assertThat(cache.get("key-100")).isEqualTo("value-100");
+  }
+
+  @Test
+  void whenPutAfterLookupMissed_thenValueIsStored() {
+    BoundedTtlCache.Lookup<String, String> lookup = cache.lookup("a");
+
+    assertThat(lookup.value()).isNull();
+    assertThat(cache.put(lookup, "1")).isTrue();
+    assertThat(cache.get("a")).isEqualTo("1");
+  }
+
+  @Test
+  void whenInvalidatedAfterLookup_thenPutIsDropped() {
+    BoundedTtlCache.Lookup<String, String> lookup = cache.lookup("a");
+
+    cache.invalidate("a");
+
+    assertThat(cache.put(lookup, "stale")).isFalse();
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.put(cache.lookup("a"), "fresh")).isTrue();
+    assertThat(cache.get("a")).isEqualTo("fresh");
+  }
+
+  @Test
+  void whenWrittenAfterLookup_thenPutIsDropped() {
+    cache.put("a", "1");
+    BoundedTtlCache.Lookup<String, String> lookup = cache.lookup("a");
+
+    cache.put("a", "2");
+
+    assertThat(lookup.value()).isEqualTo("1");
+    assertThat(cache.put(lookup, "older")).isFalse();
+    assertThat(cache.get("a")).isEqualTo("2");
+  }
+}
@@ -1,8 +1,10 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.StockAdmissionGate;
 import com.ecommerce.cart.CartSessionItem;
 import com.ecommerce.cart.ShoppingCart;
 import com.ecommerce.dto.CartViewDto;
+import com.ecommerce.dto.CurrentUser;
 import com.ecommerce.dto.ProductViewDto;
 import com.ecommerce.entity.Cart;
 import com.ecommerce.entity.CartItem;
@@ -24,6 +26,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -33,6 +36,7 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CartServiceImplTest {
+  private static final CurrentUser CURRENT_USER = new CurrentUser(1L, "user", Set.of("ROLE_USER"));
 
   @Mock
   private ProductRepository productRepository;
@@ -44,6 +48,8 @@ class CartServiceImplTest {
   private UserService userService;
   @Mock
   private Lock cartLock;
+  @Mock
+  private StockAdmissionGate stockAdmissionGate;
 
   @InjectMocks
   private CartServiceImpl cartService;
@@ -57,6 +63,18 @@ class CartServiceImplTest {
     product = mock(Product.class);
   }
 
+  @Test
+  void whenAddProductToCart_withSoldOutProduct_throwsWithoutDatabaseAccess() {
+    when(stockAdmissionGate.isSoldOut(7L)).thenReturn(true);
+
+    Exception exception = assertThrows(InsufficientStockException.class, () ->
+        cartService.addProductToCart(7L, 1)
+    );
+
+    assertThat(exception.getMessage()).isEqualTo("Product with ID 7 is sold out.");
+    verifyNoInteractions(productRepository, cartRepository, userService);
+  }
+
   @Test
   void whenAddProductToCart_withNonExistentProduct_throwsResourceNotFoundException() {
     when(productRepository.findById(99L)).thenReturn(Optional.empty());
@@ -75,7 +93,7 @@ class CartServiceImplTest {
     void setUp() {
       user = mock(User.class);
       product = mock(Product.class);
-      when(userService.getCurrentUser()).thenReturn(user);
+      when(userService.getCurrentUserSnapshot()).thenReturn(CURRENT_USER);
     }
 
     @Test
@@ -86,9 +104,8 @@ class CartServiceImplTest {
       when(product.getStockQuantity()).thenReturn(10);
 
       when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-      when(cartRepository.findByUserWithLock(user)).thenReturn(Optional.empty());
+      when(cartRepository.findByUserIdWithLock(CURRENT_USER.id())).thenReturn(Optional.empty());
       when(cartRepository.save(any())).thenReturn(userCart);
-      when(userService.getCurrentUser()).thenReturn(user);
 
       cartService.addProductToCart(product.getId(), 2);
 
@@ -104,7 +121,7 @@ class CartServiceImplTest {
       Cart cart = new Cart();
       cart.setUser(user);
       when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-      when(cartRepository.findByUserWithLock(user)).thenReturn(Optional.of(cart));
+      when(cartRepository.findByUserIdWithLock(CURRENT_USER.id())).thenReturn(Optional.of(cart));
 
       Exception exception = assertThrows(InsufficientStockException.class, () ->
           cartService.addProductToCart(product.getId(), 11)
@@ -124,7 +141,7 @@ class CartServiceImplTest {
       cart.setItems(new ArrayList<>(List.of(cartItem)));
 
       when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-      when(cartRepository.findByUserWithLock(user)).thenReturn(Optional.of(cart));
+      when(cartRepository.findByUserIdWithLock(CURRENT_USER.id())).thenReturn(Optional.of(cart));
 
       cartService.updateProductQuantity(product.getId(), 5);
 
@@ -139,7 +156,7 @@ class CartServiceImplTest {
       cart.setUser(user);
       cart.setItems(new ArrayList<>(List.of(cartItem)));
 
-      when(cartRepository.findByUserWithLock(user)).thenReturn(Optional.of(cart));
+      when(cartRepository.findByUserIdWithLock(CURRENT_USER.id())).thenReturn(Optional.of(cart));
 
       cartService.updateProductQuantity(product.getId(), 0);
 
@@ -157,7 +174,7 @@ class CartServiceImplTest {
       cart.setUser(user);
       cart.setItems(new ArrayList<>(List.of(cartItem)));
 
-      when(cartRepository.findByUser(user)).thenReturn(Optional.of(cart));
+      when(cartRepository.findByUserId(CURRENT_USER.id())).thenReturn(Optional.of(cart));
 
       CartViewDto cartView = cartService.getCartForCurrentUser();
 
@@ -173,7 +190,7 @@ class CartServiceImplTest {
 
     @BeforeEach
     void setUp() {
-      when(userService.getCurrentUser()).thenThrow(new RuntimeException("No user logged in"));
+      when(userService.getCurrentUserSnapshot()).thenThrow(new RuntimeException("No user logged in"));
     }
 
     @Test
@@ -2,7 +2,6 @@ package com.ecommerce.service;
 
 import com.ecommerce.dto.CategoryDto;
 import com.ecommerce.entity.Category;
-import com.ecommerce.entity.Product;
 import com.ecommerce.exception.CategoryInUseException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.RestoringActiveResourceException;
@@ -200,11 +199,10 @@ public class CategoryServiceImplTest {
   @Test
   void whenDeleteById_withUsedCategory_throwsCategoryInUseException() {
     Long categoryId = 1L;
-    Category category = spy(new Category("Furniture"));
-    Product product = new Product();
+    Category category = new Category("Furniture");
 
-    when(category.getProducts()).thenReturn(List.of(product));
     when(categoryRepository.findByIdWithDeleted(categoryId)).thenReturn(Optional.of(category));
+    when(categoryRepository.countActiveProducts(categoryId)).thenReturn(2L);
 
     CategoryInUseException exception = assertThrows(
         CategoryInUseException.class,
@@ -0,0 +1,103 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.StockAdmissionGate;
+import com.ecommerce.dto.CartItemViewDto;
+import com.ecommerce.dto.CartViewDto;
+import com.ecommerce.dto.ProductViewDto;
+import com.ecommerce.dto.ShippingDetailsDto;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutServiceImplTest {
+
+  @Mock
+  private OrderService orderService;
+  @Mock
+  private CartService cartService;
+  @Mock
+  private ProductRepository productRepository;
+  @Spy
+  private StockAdmissionGate stockAdmissionGate = new StockAdmissionGate(4, 100, 10);
+
+  @InjectMocks
+  private CheckoutServiceImpl checkoutService;
+
+  private final ShippingDetailsDto shippingDto = new ShippingDetailsDto(
+      "Tom", "Sawyer", "tom.sawyer@gmail.com", "123456789", "Some Address line",
+      "Some City", "Some Country", "12345", null);
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(productRepository.findAvailableStockById(1L)).thenReturn(Optional.of(2));
+  }
+
+  private CartViewDto cartWith(int quantity) {
+    ProductViewDto productDto = new ProductViewDto(1L, "Toy", "Toy", 2,
+        new BigDecimal("25.00"), BigDecimal.ZERO, 0, quantity);
+    CartViewDto cartView = new CartViewDto(
+        List.of(new CartItemViewDto(productDto)), new BigDecimal("25.00").multiply(
+            BigDecimal.valueOf(quantity)));
+    when(cartService.getCartForCurrentUser()).thenReturn(cartView);
+    return cartView;
+  }
+
+  @Test
+  void whenPlaceOrder_withSoldOutProduct_rejectsBeforeOpeningOrderTransaction() {
+    cartWith(3);
+
+    assertThrows(InsufficientStockException.class, () -> checkoutService.placeOrder(shippingDto));
+
+    verify(orderService, never()).placeOrder(any(), any());
+  }
+
+  @Test
+  void whenPlaceOrder_isAdmitted_placesOrderAndKeepsUnitsReserved() {
+    CartViewDto cartView = cartWith(2);
+    when(orderService.placeOrder(shippingDto, cartView)).thenReturn(7L);
+
+    assertThat(checkoutService.placeOrder(shippingDto)).isEqualTo(7L);
+
+    assertThat(stockAdmissionGate.isSoldOut(1L)).isTrue();
+    verify(cartService, times(1)).getCartForCurrentUser();
+    verify(productRepository, never()).findById(any());
+  }
+
+  @Test
+  void whenOrderTransactionFails_returnsUnitsToGate() {
+    CartViewDto cartView = cartWith(2);
+    when(orderService.placeOrder(shippingDto, cartView))
+        .thenThrow(new IllegalStateException("boom"));
+
+    assertThrows(IllegalStateException.class, () -> checkoutService.placeOrder(shippingDto));
+
+    assertThat(stockAdmissionGate.isSoldOut(1L)).isFalse();
+  }
+
+  @Test
+  void whenIdempotencyKeyWasUsed_returnsExistingOrderWithoutAdmission() {
+    shippingDto.setIdempotencyKey("checkout-key-1");
+    when(orderService.findOrderIdByIdempotencyKey("checkout-key-1")).thenReturn(Optional.of(5L));
+
+    assertThat(checkoutService.placeOrder(shippingDto)).isEqualTo(5L);
+
+    verifyNoInteractions(cartService, stockAdmissionGate);
+    verify(orderService, never()).placeOrder(any(), any());
+  }
+}
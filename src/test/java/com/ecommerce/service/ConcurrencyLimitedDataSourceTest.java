@@ -0,0 +1,74 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.ConcurrencyLimitedDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTest {
+
+  private DataSource target;
+  private ConcurrencyLimitedDataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    target = mock(DataSource.class);
+    when(target.getConnection()).thenAnswer(_ -> mock(Connection.class));
+    dataSource = new ConcurrencyLimitedDataSource(target, 2, Duration.ofMillis(50));
+  }
+
+  @Test
+  void whenAllPermitsAreTaken_thenNextCallerTimesOut() throws SQLException {
+    dataSource.getConnection();
+    dataSource.getConnection();
+
+    assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    assertThat(dataSource.getAvailablePermits()).isZero();
+  }
+
+  @Test
+  void whenConnectionIsClosedTwice_thenPermitIsReleasedOnce() throws SQLException {
+    Connection first = dataSource.getConnection();
+    dataSource.getConnection();
+
+    first.close();
+    first.close();
+
+    assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    dataSource.getConnection();
+    assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+  }
+
+  @Test
+  void whenTargetFails_thenPermitIsReturned() throws SQLException {
+    when(target.getConnection()).thenThrow(new SQLException("pool closed"));
+
+    assertThrows(SQLException.class, dataSource::getConnection);
+
+    assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+  }
+
+  @Test
+  void whenConnectionIsUsed_thenCallsReachTarget() throws SQLException {
+    Connection targetConnection = mock(Connection.class);
+    when(target.getConnection()).thenReturn(targetConnection);
+
+    Connection connection = dataSource.getConnection();
+    connection.setAutoCommit(false);
+    connection.close();
+
+    verify(targetConnection).setAutoCommit(false);
+    verify(targetConnection).close();
+  }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.service;
+
+import com.ecommerce.metrics.ContinuousRecording;
+import com.ecommerce.metrics.FlightRecordingEndpoint;
+import com.ecommerce.metrics.HotPath;
+import com.ecommerce.metrics.HotPathMetricsAspect;
+import com.ecommerce.metrics.HotPaths;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContinuousRecordingTest {
+
+  @TempDir
+  Path downloads;
+
+  private ContinuousRecording recording;
+  private Checkout checkout;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    recording = new ContinuousRecording("default", Duration.ofMinutes(5), 50L * 1024 * 1024, null);
+    recording.start();
+    AspectJProxyFactory factory = new AspectJProxyFactory(new Checkout());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new HotPathMetricsAspect(new SimpleMeterRegistry()));
+    checkout = factory.getProxy();
+  }
+
+  @AfterEach
+  void tearDown() {
+    recording.close();
+  }
+
+  @Test
+  void whenHotPathRuns_thenSnapshotHasItsEventWithLines() throws Exception {
+    checkout.place(4);
+
+    Path snapshot = downloads.resolve("snapshot.jfr");
+    try (InputStream data = recording.snapshot(Duration.ofMinutes(1))) {
+      Files.copy(data, snapshot);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(snapshot).stream()
+        .filter(event -> event.getEventType().getName().equals("com.ecommerce.HotPath"))
+        .toList();
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.getFirst();
+    assertThat(event.getString("operation")).isEqualTo("order.place");
+    assertThat(event.getString("outcome")).isEqualTo("success");
+    assertThat(event.getInt("lines")).isEqualTo(4);
+    assertThat(event.getDuration()).isPositive();
+  }
+
+  @Test
+  void whenSnapshotStreamIsClosed_thenItsCopyIsReleased() throws Exception {
+    int running = FlightRecorder.getFlightRecorder().getRecordings().size();
+
+    InputStream data = recording.snapshot(Duration.ofMinutes(1));
+    assertThat(FlightRecorder.getFlightRecorder().getRecordings()).hasSize(running + 1);
+    data.transferTo(OutputStream.nullOutputStream());
+    data.close();
+
+    assertThat(FlightRecorder.getFlightRecorder().getRecordings()).hasSize(running);
+    assertThat(recording.isRunning()).isTrue();
+  }
+
+  @Test
+  void whenEndpointIsCalled_thenSnapshotIsReturnedAsFile() throws Exception {
+    FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint(provider(recording));
+
+    WebEndpointResponse<Resource> response = endpoint.snapshot(2);
+
+    assertThat(response.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+    try (InputStream data = response.getBody().getInputStream()) {
+      assertThat(new String(data.readNBytes(3), StandardCharsets.US_ASCII)).isEqualTo("FLR");
+    }
+  }
+
+  @Test
+  void whenRecordingIsDisabledOrMinutesInvalid_thenEndpointRejectsCall() throws Exception {
+    assertThat(new FlightRecordingEndpoint(provider(null)).snapshot(null).getStatus())
+        .isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    assertThat(new FlightRecordingEndpoint(provider(recording)).snapshot(0).getStatus())
+        .isEqualTo(WebEndpointResponse.STATUS_BAD_REQUEST);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ObjectProvider<ContinuousRecording> provider(ContinuousRecording recording) {
+    ObjectProvider<ContinuousRecording> provider = mock(ObjectProvider.class);
+    when(provider.getIfAvailable()).thenReturn(recording);
+    return provider;
+  }
+
+  static class Checkout {
+    @HotPath("order.place")
+    public void place(int lines) {
+      HotPaths.lines(lines);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.CurrentUserCache;
+import com.ecommerce.dto.CurrentUser;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CurrentUserCacheTest {
+
+  private final CurrentUserCache cache = new CurrentUserCache();
+
+  @Test
+  void whenPut_thenFindReturnsSnapshot() {
+    CurrentUser currentUser = new CurrentUser(1L, "tom", Set.of("ROLE_USER"));
+
+    cache.put(currentUser);
+
+    assertThat(cache.find("tom")).contains(currentUser);
+    assertThat(cache.find("jerry")).isEmpty();
+  }
+
+  @Test
+  void whenInvalidate_thenFindReturnsEmpty() {
+    cache.put(new CurrentUser(1L, "tom", Set.of()));
+
+    cache.invalidate("tom");
+
+    assertThat(cache.find("tom")).isEmpty();
+    assertThat(cache.size()).isZero();
+  }
+}
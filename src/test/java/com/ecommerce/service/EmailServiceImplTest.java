@@ -1,5 +1,6 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.OrderStatusNotification;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.ShippingDetails;
 import com.ecommerce.entity.User;
@@ -84,4 +85,21 @@ public class EmailServiceImplTest {
         .contains("To reset your password, please click the link below:")
         .contains(expectedUrl);
   }
+
+  @Test
+  void whenSendOrderStatusEmail_mailIsSentWithNewStatus() {
+    emailService.sendOrderStatusEmail(
+        new OrderStatusNotification(42L, "customer@gmail.com", "Tom"), Order.Status.SHIPPED);
+
+    ArgumentCaptor<SimpleMailMessage> messageCaptor =
+        ArgumentCaptor.forClass(SimpleMailMessage.class);
+    verify(mailSender).send(messageCaptor.capture());
+
+    SimpleMailMessage sentMessage = messageCaptor.getValue();
+    assertThat(sentMessage.getTo()).containsExactly("customer@gmail.com");
+    assertThat(sentMessage.getSubject()).isEqualTo("E-commerce Order Status Update");
+    assertThat(sentMessage.getText())
+        .contains("Dear Tom,")
+        .contains("order #42 has changed to SHIPPED");
+  }
 }
@@ -0,0 +1,59 @@
+package com.ecommerce.service;
+
+import com.ecommerce.job.ExpiredSessionCleanupJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpiredSessionCleanupJobTest {
+
+  private static final Clock CLOCK =
+      Clock.fixed(Instant.ofEpochMilli(1_000_000L), ZoneOffset.UTC);
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+  private ExpiredSessionCleanupJob job(int chunkSize, int maxChunks) {
+    return new ExpiredSessionCleanupJob(jdbcTemplate, "SPRING_SESSION", chunkSize, maxChunks,
+        new StaticListableBeanFactory(Map.of("clock", CLOCK)).getBeanProvider(Clock.class));
+  }
+
+  @Test
+  void whenBacklogExceedsChunk_thenDeletesChunkByChunkUntilShortChunk() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq(1_000_000L), eq(2)))
+        .thenReturn(List.of("a", "b"), List.of("c"));
+    when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2, 1);
+
+    int deleted = job(2, 10).purgeExpiredSessions();
+
+    assertThat(deleted).isEqualTo(3);
+    verify(jdbcTemplate).update("DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN (?,?)", "a", "b");
+    verify(jdbcTemplate).update("DELETE FROM SPRING_SESSION WHERE PRIMARY_ID IN (?)", "c");
+  }
+
+  @Test
+  void whenChunkLimitReached_thenStopsForThisRun() {
+    when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any()))
+        .thenReturn(List.of("a", "b"));
+    when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2);
+
+    int deleted = job(2, 3).purgeExpiredSessions();
+
+    assertThat(deleted).isEqualTo(6);
+    verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+  }
+}
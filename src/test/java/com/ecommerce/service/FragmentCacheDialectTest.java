@@ -0,0 +1,109 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.FragmentCache;
+import com.ecommerce.cache.FragmentCacheDialect;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FragmentCacheDialectTest {
+
+  private static final String TEMPLATE = """
+      <ul><li th:each="product : ${products}">\
+      <span ec:cache-product="${product.id}" ec:cache-version="${product.version}" \
+      th:text="${product.name}">name</span>\
+      <b th:text="${suffix}">suffix</b></li></ul>""";
+
+  private FragmentCache fragmentCache = new FragmentCache(Duration.ofMinutes(10));
+  private SpringTemplateEngine templateEngine;
+
+  @BeforeEach
+  void setUp() {
+    templateEngine = engine(true);
+  }
+
+  private SpringTemplateEngine engine(boolean enabled) {
+    StaticListableBeanFactory beanFactory =
+        new StaticListableBeanFactory(Map.of("fragmentCache", fragmentCache));
+    SpringTemplateEngine engine = new SpringTemplateEngine();
+    engine.setTemplateResolver(new StringTemplateResolver());
+    engine.addDialect(
+        new FragmentCacheDialect(beanFactory.getBeanProvider(FragmentCache.class), enabled));
+    return engine;
+  }
+
+  private String render(String name, Object version, String suffix) {
+    Map<String, Object> product = new HashMap<>();
+    product.put("id", 1L);
+    product.put("name", name);
+    product.put("version", version);
+    Context context = new Context();
+    context.setVariable("products", List.of(product));
+    context.setVariable("suffix", suffix);
+    return templateEngine.process(TEMPLATE, context);
+  }
+
+  @Test
+  void whenVersionIsUnchanged_thenCachedMarkupIsServed() {
+    assertThat(render("Laptop", 1L, "a")).isEqualTo("<ul><li><span>Laptop</span><b>a</b></li></ul>");
+    assertThat(render("Renamed", 1L, "b")).isEqualTo("<ul><li><span>Laptop</span><b>b</b></li></ul>");
+    assertThat(fragmentCache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void whenVersionMoves_thenElementIsRenderedAgain() {
+    render("Laptop", 1L, "a");
+
+    assertThat(render("Renamed", 2L, "a"))
+        .isEqualTo("<ul><li><span>Renamed</span><b>a</b></li></ul>");
+  }
+
+  @Test
+  void whenVersionIsMissing_thenElementIsNotCached() {
+    assertThat(render("Laptop", null, "a")).isEqualTo("<ul><li><span>Laptop</span><b>a</b></li></ul>");
+
+    assertThat(render("Renamed", null, "a")).contains("Renamed");
+    assertThat(fragmentCache.size()).isZero();
+  }
+
+  @Test
+  void whenEntryIsOlderThanTtl_thenElementIsRenderedAgain() throws InterruptedException {
+    fragmentCache = new FragmentCache(Duration.ZERO);
+    templateEngine = engine(true);
+    render("Laptop", 1L, "a");
+    Thread.sleep(1);
+
+    assertThat(render("Renamed", 1L, "a")).contains("Renamed");
+  }
+
+  @Test
+  void whenEntryIsReplacedDuringRender_thenSlowerPutIsDropped() {
+    FragmentCache.Lookup slow = fragmentCache.find("product", 1L, 1L);
+    FragmentCache.Lookup fast = fragmentCache.find("product", 1L, 2L);
+    fragmentCache.put(fast, "<span>new</span>");
+
+    fragmentCache.put(slow, "<span>old</span>");
+
+    assertThat(fragmentCache.find("product", 1L, 2L).html()).isEqualTo("<span>new</span>");
+  }
+
+  @Test
+  void whenDisabled_thenElementIsRenderedEveryTime() {
+    templateEngine = engine(false);
+
+    render("Laptop", 1L, "a");
+
+    assertThat(render("Renamed", 1L, "a")).contains("Renamed");
+    assertThat(fragmentCache.size()).isZero();
+  }
+}
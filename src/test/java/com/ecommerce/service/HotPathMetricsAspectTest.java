@@ -0,0 +1,100 @@
+package com.ecommerce.service;
+
+import com.ecommerce.metrics.HotPath;
+import com.ecommerce.metrics.HotPathMetricsAspect;
+import com.ecommerce.metrics.HotPaths;
+import com.ecommerce.metrics.HotPathsEndpoint;
+import com.ecommerce.metrics.HotPathsEndpoint.HotPathsReport;
+import com.ecommerce.metrics.HotPathsEndpoint.Operation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotPathMetricsAspectTest {
+
+  private MeterRegistry meterRegistry;
+  private HotPathMetricsAspect aspect;
+  private Checkout checkout;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    aspect = new HotPathMetricsAspect(meterRegistry);
+    AspectJProxyFactory factory = new AspectJProxyFactory(new Checkout());
+    factory.setProxyTargetClass(true);
+    factory.addAspect(aspect);
+    checkout = factory.getProxy();
+  }
+
+  @Test
+  void whenCallSucceeds_thenTimerIsTaggedWithOutcomeAndExtraTags() {
+    checkout.place(3);
+
+    Timer timer = meterRegistry.get("ecommerce.order.place")
+        .tag("outcome", "success").tag("exception", "none").tag("lines", "3").timer();
+    assertThat(timer.count()).isEqualTo(1);
+  }
+
+  @Test
+  void whenCallFails_thenTimerRecordsExceptionAndUnsetTagsStayNone() {
+    assertThrows(IllegalStateException.class, () -> checkout.place(0));
+
+    Timer timer = meterRegistry.get("ecommerce.order.place")
+        .tag("outcome", "error").tag("exception", "IllegalStateException").tag("lines", "none")
+        .timer();
+    assertThat(timer.count()).isEqualTo(1);
+  }
+
+  @Test
+  void whenTagIsSetOutsideTimedCall_thenItIsIgnored() {
+    HotPaths.tag("lines", "7");
+
+    checkout.ship();
+
+    assertThat(meterRegistry.get("ecommerce.order.ship").timer().getId().getTag("lines")).isNull();
+  }
+
+  @Test
+  void whenEndpointIsRead_thenOperationsAndPoolsAreReported() {
+    checkout.place(1);
+    checkout.place(2);
+    checkout.ship();
+    Gauge.builder("hikaricp.connections.active", () -> 4).tag("pool", "HikariPool-1")
+        .register(meterRegistry);
+    Gauge.builder("executor.queued", () -> 2).tag("name", "mailTaskExecutor")
+        .register(meterRegistry);
+
+    HotPathsReport report = new HotPathsEndpoint(meterRegistry, aspect).hotPaths();
+
+    assertThat(report.operations()).extracting(Operation::name)
+        .containsExactlyInAnyOrder("order.place", "order.place", "order.ship");
+    Operation place = report.operations().stream()
+        .filter(operation -> "1".equals(operation.tags().get("lines")))
+        .findFirst().orElseThrow();
+    assertThat(place.count()).isEqualTo(1);
+    assertThat(place.p99Ms()).isGreaterThanOrEqualTo(0);
+    assertThat(report.pools().get("hikaricp:HikariPool-1")).containsEntry("connections.active", 4.0);
+    assertThat(report.pools().get("executor:mailTaskExecutor")).containsEntry("queued", 2.0);
+  }
+
+  static class Checkout {
+    @HotPath(value = "order.place", extraTags = "lines")
+    public void place(int lines) {
+      if (lines == 0) {
+        throw new IllegalStateException("empty");
+      }
+      HotPaths.tag("lines", String.valueOf(lines));
+    }
+
+    @HotPath("order.ship")
+    public void ship() {
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.UserDetailsCache;
+import com.ecommerce.entity.Role;
+import com.ecommerce.entity.User;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.JpaUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaUserDetailsServiceTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private UserCache userCache;
+
+  @InjectMocks
+  private JpaUserDetailsService userDetailsService;
+
+  @Test
+  void whenLoadUserByUsername_withCachedUserAndSameHash_skipsUserLoad() {
+    UserDetails cached = org.springframework.security.core.userdetails.User
+        .withUsername("tom").password("hash").build();
+    when(userCache.getUserFromCache("tom")).thenReturn(cached);
+    when(userRepository.findPasswordByUsername("tom")).thenReturn(Optional.of("hash"));
+
+    assertThat(userDetailsService.loadUserByUsername("tom")).isSameAs(cached);
+    verify(userRepository, never()).findByUsername(any());
+  }
+
+  @Test
+  void whenLoadUserByUsername_withCachedUserAndChangedHash_reloadsUser() {
+    UserDetails cached = org.springframework.security.core.userdetails.User
+        .withUsername("tom").password("old-hash").build();
+    User user = new User();
+    user.setUsername("tom");
+    user.setPassword("new-hash");
+    user.setEnabled(true);
+    when(userCache.getUserFromCache("tom")).thenReturn(cached);
+    when(userRepository.findPasswordByUsername("tom")).thenReturn(Optional.of("new-hash"));
+    when(userRepository.findByUsername("tom")).thenReturn(Optional.of(user));
+
+    assertThat(userDetailsService.loadUserByUsername("tom").getPassword()).isEqualTo("new-hash");
+    verify(userCache).removeUserFromCache("tom");
+  }
+
+  @Test
+  void whenPasswordChangesElsewhere_thenOldPasswordIsRejectedImmediately() {
+    PasswordEncoder encoder = NoOpPasswordEncoder.getInstance();
+    User user = new User();
+    user.setUsername("tom");
+    user.setPassword("old");
+    user.setEnabled(true);
+    when(userRepository.findByUsername("tom")).thenReturn(Optional.of(user));
+    when(userRepository.findPasswordByUsername("tom"))
+        .thenAnswer(invocation -> Optional.of(user.getPassword()));
+    DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new JpaUserDetailsService(
+        userRepository, new UserDetailsCache(300, new SimpleMeterRegistry())));
+    provider.setPasswordEncoder(encoder);
+    provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("tom", "old"));
+
+    // Written by another instance, whose cache eviction never reaches this one.
+    user.setPassword("new");
+
+    assertThrows(BadCredentialsException.class, () -> provider.authenticate(
+        UsernamePasswordAuthenticationToken.unauthenticated("tom", "old")));
+    assertThat(provider.authenticate(
+        UsernamePasswordAuthenticationToken.unauthenticated("tom", "new")).isAuthenticated())
+        .isTrue();
+  }
+
+  @Test
+  void whenLoadUserByUsername_withCacheMiss_loadsAndCachesUser() {
+    User user = new User();
+    user.setUsername("tom");
+    user.setPassword("hash");
+    user.setEnabled(false);
+    user.addRole(new Role("ROLE_USER"));
+    when(userRepository.findByUsername("tom")).thenReturn(Optional.of(user));
+
+    UserDetails userDetails = userDetailsService.loadUserByUsername("tom");
+
+    assertThat(userDetails.getPassword()).isEqualTo("hash");
+    assertThat(userDetails.isEnabled()).isFalse();
+    assertThat(userDetails.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    verify(userCache).putUserInCache(userDetails);
+  }
+
+  @Test
+  void whenLoadUserByUsername_withUnknownUser_throwsUsernameNotFoundException() {
+    when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+    assertThrows(UsernameNotFoundException.class,
+        () -> userDetailsService.loadUserByUsername("ghost"));
+    verify(userCache, never()).putUserInCache(any());
+  }
+
+  @Test
+  void whenUpdatePassword_savesNewHashAndEvictsCachedUser() {
+    User user = new User();
+    user.setUsername("tom");
+    user.setPassword("old-hash");
+    user.setEnabled(true);
+    when(userRepository.findByUsername("tom")).thenReturn(Optional.of(user));
+    UserDetails current = org.springframework.security.core.userdetails.User
+        .withUsername("tom").password("old-hash").build();
+
+    UserDetails updated = userDetailsService.updatePassword(current, "{bcrypt}new-hash");
+
+    assertThat(user.getPassword()).isEqualTo("{bcrypt}new-hash");
+    assertThat(updated.getPassword()).isEqualTo("{bcrypt}new-hash");
+    verify(userRepository).save(user);
+    verify(userCache).removeUserFromCache("tom");
+  }
+}
@@ -1,11 +1,17 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.RecentOrderKeyCache;
 import com.ecommerce.dto.*;
 import com.ecommerce.entity.Order;
 import com.ecommerce.entity.Product;
 import com.ecommerce.entity.User;
+import com.ecommerce.event.OrderPlacedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
 import com.ecommerce.exception.EmptyCartOrderException;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InvalidOrderStatusTransitionException;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.exception.UserNotAuthenticatedException;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.ProductRepository;
 import org.junit.jupiter.api.Test;
@@ -15,15 +21,20 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +50,12 @@ public class OrderServiceImplTest {
   private UserService userService;
   @Mock
   private EmailService emailService;
+  @Mock
+  private RecentOrderKeyCache recentOrderKeyCache;
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+  @Mock
+  private StockShardService stockShardService;
 
   @InjectMocks
   private OrderServiceImpl orderService;
@@ -64,7 +81,7 @@ public class OrderServiceImplTest {
   void whenPlaceOrderFromCart_withValidDataForGuest_createsOrderAndClearsCart() {
     ShippingDetailsDto shippingDto = new ShippingDetailsDto(
         "Tom", "Sawyer", "tom.sawyer@gmail.com", "123456789", "Some Address line",
-        "Some City", "Some Country", "12345");
+        "Some City", "Some Country", "12345", null);
 
     Product product = mock(Product.class);
     when(product.getId()).thenReturn(1L);
@@ -76,11 +93,11 @@ public class OrderServiceImplTest {
     CartItemViewDto cartItemView = new CartItemViewDto(productDto);
     CartViewDto cartView = new CartViewDto(List.of(cartItemView), new BigDecimal("50.00"));
 
-    when(cartService.getCartForCurrentUser()).thenReturn(cartView);
-    when(userService.getCurrentUser()).thenReturn(null);
+    when(userService.getCurrentUserSnapshot())
+        .thenThrow(new UserNotAuthenticatedException("No authenticated user"));
     when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
 
-    orderService.placeOrder(shippingDto);
+    orderService.placeOrder(shippingDto, cartView);
 
     verify(orderRepository).save(orderCaptor.capture());
     Order savedOrder = orderCaptor.getValue();
@@ -97,13 +114,22 @@ public class OrderServiceImplTest {
 
     verify(cartService).removeItem(1L);
     verify(emailService).sendOrderConfirmationEmail(savedOrder);
+
+    ArgumentCaptor<OrderPlacedEvent> eventCaptor = ArgumentCaptor.forClass(OrderPlacedEvent.class);
+    verify(eventPublisher).publishEvent(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().totalAmount()).isEqualByComparingTo("50.00");
+    assertThat(eventCaptor.getValue().lines()).singleElement()
+        .satisfies(line -> {
+          assertThat(line.productId()).isEqualTo(1L);
+          assertThat(line.quantity()).isEqualTo(2);
+        });
   }
 
   @Test
   void whenPlaceOrderFromCart_withValidDataForAuthenticatedUser_createsOrderAndClearsCart() {
     ShippingDetailsDto shippingDto = new ShippingDetailsDto(
         "Tom", "Sawyer", "tom.sawyer@gmail.com", "123456789", "Some Address line",
-        "Some City", "Some Country", "12345");
+        "Some City", "Some Country", "12345", null);
     User currentUser = new User();
 
     Product product = mock(Product.class);
@@ -114,11 +140,11 @@ public class OrderServiceImplTest {
     CartItemViewDto cartItemView = new CartItemViewDto(productDto);
     CartViewDto cartView = new CartViewDto(List.of(cartItemView), new BigDecimal("25.00"));
 
-    when(cartService.getCartForCurrentUser()).thenReturn(cartView);
-    when(userService.getCurrentUser()).thenReturn(currentUser);
+    when(userService.getCurrentUserSnapshot()).thenReturn(new CurrentUser(7L, "tom", Set.of()));
+    when(userService.getReferenceById(7L)).thenReturn(currentUser);
     when(productRepository.findAllById(any())).thenReturn(List.of(product));
 
-    orderService.placeOrder(shippingDto);
+    orderService.placeOrder(shippingDto, cartView);
 
     verify(orderRepository).save(orderCaptor.capture());
     Order savedOrder = orderCaptor.getValue();
@@ -132,15 +158,121 @@ public class OrderServiceImplTest {
   }
 
   @Test
-  void whenPlaceOrderFromCart_withEmptyCart_throwsEmptyCartOrderException() {
-    when(cartService.getCartForCurrentUser())
-        .thenReturn(new CartViewDto(Collections.emptyList(), BigDecimal.ZERO));
+  void whenPlaceOrderFromCart_withShardedProduct_decrementsShardsInsteadOfProductStock() {
+    ShippingDetailsDto shippingDto = new ShippingDetailsDto(
+        "Tom", "Sawyer", "tom.sawyer@gmail.com", "123456789", "Some Address line",
+        "Some City", "Some Country", "12345", null);
+
+    Product product = mock(Product.class);
+    when(product.getId()).thenReturn(1L);
+    when(product.isStockSharded()).thenReturn(true);
+
+    ProductViewDto productDto = ProductViewDto.fromEntity(product, 2);
+    CartViewDto cartView = new CartViewDto(List.of(new CartItemViewDto(productDto)),
+        new BigDecimal("50.00"));
+
+    when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+    when(stockShardService.tryDecrement(1L, 2)).thenReturn(true);
+
+    orderService.placeOrder(shippingDto, cartView);
+
+    verify(stockShardService).tryDecrement(1L, 2);
+    verify(product, never()).setStockQuantity(anyInt());
+    verify(productRepository).saveAll(productListCaptor.capture());
+    assertThat(productListCaptor.getValue()).isEmpty();
+    verify(orderRepository).save(any(Order.class));
+  }
+
+  @Test
+  void whenPlaceOrderFromCart_withExhaustedShards_throwsInsufficientStockException() {
+    ShippingDetailsDto shippingDto = new ShippingDetailsDto(
+        "Tom", "Sawyer", "tom.sawyer@gmail.com", "123456789", "Some Address line",
+        "Some City", "Some Country", "12345", null);
+
+    Product product = mock(Product.class);
+    when(product.getId()).thenReturn(1L);
+    when(product.getName()).thenReturn("Toy");
+    when(product.isStockSharded()).thenReturn(true);
+
+    ProductViewDto productDto = ProductViewDto.fromEntity(product, 3);
+    CartViewDto cartView = new CartViewDto(List.of(new CartItemViewDto(productDto)),
+        new BigDecimal("75.00"));
+
+    when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+    when(stockShardService.tryDecrement(1L, 3)).thenReturn(false);
+    when(stockShardService.getAvailableStock(1L)).thenReturn(2);
+
+    InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+        () -> orderService.placeOrder(shippingDto, cartView));
+
+    assertThat(exception.getMessage()).contains("Toy").contains("Available: 2");
+    verify(orderRepository, never()).save(any(Order.class));
+  }
+
+  @Test
+  void whenPlaceOrderFromCart_withNewIdempotencyKey_storesKeyOnOrderAndCachesIt() {
+    ShippingDetailsDto shippingDto = new ShippingDetailsDto(
+        "Tom", "Sawyer", "tom.sawyer@gmail.com", "123456789", "Some Address line",
+        "Some City", "Some Country", "12345", "checkout-key-1");
+
+    Product product = mock(Product.class);
+    when(product.getId()).thenReturn(1L);
+    when(product.getStockQuantity()).thenReturn(10);
+
+    ProductViewDto productDto = ProductViewDto.fromEntity(product, 1);
+    CartViewDto cartView = new CartViewDto(
+        List.of(new CartItemViewDto(productDto)), new BigDecimal("25.00"));
 
+    when(recentOrderKeyCache.findOrderId("checkout-key-1")).thenReturn(Optional.empty());
+    when(orderRepository.findIdByIdempotencyKey("checkout-key-1")).thenReturn(Optional.empty());
+    when(productRepository.findAllById(any())).thenReturn(List.of(product));
+
+    orderService.placeOrder(shippingDto, cartView);
+
+    verify(orderRepository).save(orderCaptor.capture());
+    assertThat(orderCaptor.getValue().getIdempotencyKey()).isEqualTo("checkout-key-1");
+    verify(recentOrderKeyCache).put(eq("checkout-key-1"), any());
+  }
+
+  @Test
+  void whenPlaceOrderFromCart_withCachedIdempotencyKey_returnsExistingOrderWithoutSideEffects() {
     ShippingDetailsDto shippingDto = new ShippingDetailsDto();
+    shippingDto.setIdempotencyKey("checkout-key-1");
+    when(recentOrderKeyCache.findOrderId("checkout-key-1")).thenReturn(Optional.of(42L));
+
+    Long orderId = orderService.placeOrder(
+        shippingDto, new CartViewDto(Collections.emptyList(), BigDecimal.ZERO));
+
+    assertThat(orderId).isEqualTo(42L);
+    verifyNoInteractions(cartService, productRepository, emailService);
+    verify(orderRepository, never()).save(any());
+    verify(orderRepository, never()).findIdByIdempotencyKey(any());
+  }
+
+  @Test
+  void whenPlaceOrderFromCart_withPersistedIdempotencyKey_returnsExistingOrderAndCachesIt() {
+    ShippingDetailsDto shippingDto = new ShippingDetailsDto();
+    shippingDto.setIdempotencyKey("checkout-key-1");
+    when(recentOrderKeyCache.findOrderId("checkout-key-1")).thenReturn(Optional.empty());
+    when(orderRepository.findIdByIdempotencyKey("checkout-key-1")).thenReturn(Optional.of(42L));
+
+    Long orderId = orderService.placeOrder(
+        shippingDto, new CartViewDto(Collections.emptyList(), BigDecimal.ZERO));
+
+    assertThat(orderId).isEqualTo(42L);
+    verify(recentOrderKeyCache).put("checkout-key-1", 42L);
+    verifyNoInteractions(cartService, productRepository, emailService);
+    verify(orderRepository, never()).save(any());
+  }
+
+  @Test
+  void whenPlaceOrderFromCart_withEmptyCart_throwsEmptyCartOrderException() {
+    ShippingDetailsDto shippingDto = new ShippingDetailsDto();
+    CartViewDto emptyCart = new CartViewDto(Collections.emptyList(), BigDecimal.ZERO);
 
     EmptyCartOrderException exception = assertThrows(
         EmptyCartOrderException.class,
-        () -> orderService.placeOrder(shippingDto)
+        () -> orderService.placeOrder(shippingDto, emptyCart)
     );
     verify(orderRepository, never()).save(any());
     assertThat(exception.getMessage()).isEqualTo("Cannot create order from an empty cart.");
@@ -156,24 +288,92 @@ public class OrderServiceImplTest {
     CartItemViewDto cartItemView = new CartItemViewDto(productDto);
     CartViewDto cartView = new CartViewDto(List.of(cartItemView), BigDecimal.TEN);
 
-    when(cartService.getCartForCurrentUser()).thenReturn(cartView);
-    when(userService.getCurrentUser()).thenReturn(null);
+    when(userService.getCurrentUserSnapshot())
+        .thenThrow(new UserNotAuthenticatedException("No authenticated user"));
 
     when(productRepository.findAllById(List.of(1L))).thenReturn(Collections.emptyList());
 
     ResourceNotFoundException exception = assertThrows(
         ResourceNotFoundException.class,
-        () -> orderService.placeOrder(shippingDto)
+        () -> orderService.placeOrder(shippingDto, cartView)
     );
     assertThat(exception.getMessage()).contains("Product with ID 1 not found.");
   }
 
   @Test
   void whenGetOrderHistoryForCurrentUser_withGuestUser_returnsEmptyList() {
-    when(userService.getCurrentUser()).thenReturn(null);
+    when(userService.getCurrentUserSnapshot()).thenReturn(null);
     List<OrderHistoryDto> history = orderService.getOrderHistoryForCurrentUser();
 
     assertThat(history).isEmpty();
-    verify(orderRepository, never()).findOrderHistoryByUser(any());
+    verify(orderRepository, never()).findOrderHistoryByUserId(any());
+  }
+
+  @Test
+  void whenFindOrdersForAdmin_withMoreRowsThanPageSize_returnsCursorOfLastRow() {
+    Instant now = Instant.parse("2025-03-10T10:00:00Z");
+    List<AdminOrderRowDto> rows = List.of(
+        new AdminOrderRowDto(3L, now, Order.Status.PENDING, BigDecimal.TEN, "A", "B", "a@b.c"),
+        new AdminOrderRowDto(2L, now, Order.Status.PENDING, BigDecimal.TEN, "A", "B", "a@b.c"),
+        new AdminOrderRowDto(1L, now, Order.Status.PENDING, BigDecimal.TEN, "A", "B", "a@b.c"));
+    when(orderRepository.findAdminPageByStatus(eq(Order.Status.PENDING), eq(Instant.EPOCH),
+        any(Instant.class), eq(Long.MAX_VALUE), eq(Limit.of(3)))).thenReturn(rows);
+
+    AdminOrderPageDto page = orderService.findOrdersForAdmin(
+        Order.Status.PENDING, null, null, null, 2);
+
+    assertThat(page.orders()).extracting(AdminOrderRowDto::orderId).containsExactly(3L, 2L);
+    assertThat(page.hasNext()).isTrue();
+    assertThat(page.nextBeforeDate()).isEqualTo(now);
+    assertThat(page.nextBeforeId()).isEqualTo(2L);
+  }
+
+  @Test
+  void whenFindOrdersForAdmin_withLastPage_returnsNoCursor() {
+    Instant cursor = Instant.parse("2025-03-10T10:00:00Z");
+    when(orderRepository.findAdminPage(Instant.EPOCH, cursor, 5L, Limit.of(51)))
+        .thenReturn(List.of());
+
+    AdminOrderPageDto page = orderService.findOrdersForAdmin(null, null, cursor, 5L, 50);
+
+    assertThat(page.orders()).isEmpty();
+    assertThat(page.hasNext()).isFalse();
+  }
+
+  @Test
+  void whenBulkUpdateStatus_toShipped_updatesPendingOrdersAndPublishesEvent() {
+    List<OrderStatusNotification> notifications = List.of(
+        new OrderStatusNotification(1L, "a@b.c", "A"),
+        new OrderStatusNotification(2L, "d@e.f", "D"));
+    when(orderRepository.findStatusNotificationsForUpdate(List.of(1L, 2L, 3L),
+        Order.Status.PENDING)).thenReturn(notifications);
+    when(orderRepository.updateStatus(List.of(1L, 2L), Order.Status.PENDING,
+        Order.Status.SHIPPED)).thenReturn(2);
+
+    int updated = orderService.bulkUpdateStatus(List.of(1L, 2L, 3L), Order.Status.SHIPPED);
+
+    assertThat(updated).isEqualTo(2);
+    verify(eventPublisher).publishEvent(new OrderStatusChangedEvent(
+        Order.Status.PENDING, Order.Status.SHIPPED, 2, notifications));
+    verifyNoInteractions(emailService);
+  }
+
+  @Test
+  void whenBulkUpdateStatus_withNoMatchingOrders_skipsUpdate() {
+    when(orderRepository.findStatusNotificationsForUpdate(List.of(1L), Order.Status.SHIPPED))
+        .thenReturn(List.of());
+
+    int updated = orderService.bulkUpdateStatus(List.of(1L), Order.Status.DELIVERED);
+
+    assertThat(updated).isZero();
+    verify(orderRepository, never()).updateStatus(any(), any(), any());
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void whenBulkUpdateStatus_toPending_throwsInvalidOrderStatusTransitionException() {
+    assertThrows(InvalidOrderStatusTransitionException.class,
+        () -> orderService.bulkUpdateStatus(List.of(1L), Order.Status.PENDING));
+    verifyNoInteractions(orderRepository);
   }
 }
@@ -1,9 +1,12 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.StockAdmissionGate;
 import com.ecommerce.dto.ProductAdminView;
 import com.ecommerce.dto.ProductDto;
+import com.ecommerce.dto.ProductSummaryDto;
 import com.ecommerce.entity.Category;
 import com.ecommerce.entity.Product;
+import com.ecommerce.event.ProductChangedEvent;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.RestoringActiveResourceException;
 import com.ecommerce.repository.CategoryRepository;
@@ -14,10 +17,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -38,6 +43,15 @@ class ProductServiceImplTest {
   @Mock
   private CategoryRepository categoryRepository;
 
+  @Mock
+  private StockShardService stockShardService;
+
+  @Mock
+  private StockAdmissionGate stockAdmissionGate;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private ProductServiceImpl productService;
 
@@ -86,6 +100,107 @@ class ProductServiceImplTest {
     assertThat(savedProduct.getStockQuantity()).isEqualTo(5);
   }
 
+  @Test
+  public void whenSaveExistingProduct_withShardCount_distributesStockAcrossShards() {
+    Long productId = 1L;
+    ProductDto productDto = new ProductDto();
+    productDto.setId(productId);
+    productDto.setName("Hot item");
+    productDto.setPrice(new BigDecimal("10.0"));
+    productDto.setStockQuantity(100);
+    productDto.setStockShardCount(8);
+
+    Product existingProduct = mock(Product.class);
+    when(existingProduct.getId()).thenReturn(productId);
+    when(existingProduct.isStockSharded()).thenReturn(false, true);
+    when(existingProduct.getStockShardCount()).thenReturn(8);
+    when(existingProduct.getStockQuantity()).thenReturn(100);
+    when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+
+    productService.save(productDto);
+
+    verify(existingProduct).setStockShardCount(8);
+    verify(stockShardService).configure(productId, 8, 100);
+    verify(stockAdmissionGate).invalidate(productId);
+  }
+
+  @Test
+  public void whenSaveShardedProduct_withUnchangedStockAndShards_leavesShardsAlone() {
+    Product existingProduct = new Product();
+    ReflectionTestUtils.setField(existingProduct, "id", 1L);
+    existingProduct.setStockShardCount(8);
+    existingProduct.setStockQuantity(90);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+    ProductDto productDto = shardedProductForm(100, 100, 8);
+
+    productService.save(productDto);
+
+    verifyNoInteractions(stockShardService);
+    assertThat(existingProduct.getStockQuantity()).isEqualTo(90);
+  }
+
+  @Test
+  public void whenSaveShardedProduct_withEditedStock_appliesDeltaToLiveShards() {
+    Product existingProduct = new Product();
+    ReflectionTestUtils.setField(existingProduct, "id", 1L);
+    existingProduct.setStockShardCount(8);
+    existingProduct.setStockQuantity(90);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(existingProduct));
+    when(stockShardService.adjust(1L, 4, 20)).thenReturn(105);
+    ProductDto productDto = shardedProductForm(100, 120, 4);
+
+    productService.save(productDto);
+
+    verify(stockShardService).adjust(1L, 4, 20);
+    verify(stockShardService, never()).configure(anyLong(), anyInt(), anyInt());
+    assertThat(existingProduct.getStockQuantity()).isEqualTo(105);
+  }
+
+  private static ProductDto shardedProductForm(int loadedStock, int stock, int shardCount) {
+    ProductDto productDto = new ProductDto();
+    productDto.setId(1L);
+    productDto.setName("Hot item");
+    productDto.setPrice(new BigDecimal("10.0"));
+    productDto.setLoadedStockQuantity(loadedStock);
+    productDto.setStockQuantity(stock);
+    productDto.setStockShardCount(shardCount);
+    return productDto;
+  }
+
+  @Test
+  public void whenSaveExistingProduct_withoutSharding_doesNotTouchShards() {
+    ProductDto productDto = new ProductDto();
+    productDto.setId(1L);
+    productDto.setName("Plain");
+    productDto.setPrice(new BigDecimal("10.0"));
+    productDto.setStockQuantity(3);
+
+    when(productRepository.findById(1L)).thenReturn(Optional.of(new Product()));
+
+    productService.save(productDto);
+
+    verifyNoInteractions(stockShardService);
+  }
+
+  @Test
+  public void whenRebalanceStock_withShardedProduct_rebalancesShards() {
+    Product product = new Product();
+    product.setStockShardCount(4);
+    when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+    productService.rebalanceStock(1L);
+
+    verify(stockShardService).rebalance(1L);
+  }
+
+  @Test
+  public void whenRebalanceStock_withNonExistingId_throwsResourceNotFoundException() {
+    when(productRepository.findById(1L)).thenReturn(Optional.empty());
+
+    assertThrows(ResourceNotFoundException.class, () -> productService.rebalanceStock(1L));
+    verifyNoInteractions(stockShardService);
+  }
+
   @Test
   public void whenSaveNewProduct_withCategories_categoriesAreAssociated() {
     ProductDto productDto = new ProductDto();
@@ -215,6 +330,43 @@ class ProductServiceImplTest {
     assertThat(actualPage.getContent()).containsExactlyInAnyOrderElementsOf(expectedProducts);
   }
 
+  @Test
+  public void whenSearchProductSummaries_loadPageAndCountWithSameSpecification() {
+    PageRequest pageable = PageRequest.of(0, 2);
+    ProductSummaryDto first = new ProductSummaryDto(1L, "Green Table", null, BigDecimal.TEN, 3,
+        BigDecimal.ZERO, 0);
+    ProductSummaryDto second = new ProductSummaryDto(2L, "Black Table", null, BigDecimal.ONE, 0,
+        BigDecimal.ZERO, 0);
+    ArgumentCaptor<Specification<Product>> specification =
+        ArgumentCaptor.forClass(Specification.class);
+
+    when(productRepository.findSummaries(specification.capture(), eq(pageable)))
+        .thenReturn(List.of(first, second));
+    when(productRepository.count(any(Specification.class))).thenReturn(5L);
+
+    Page<ProductSummaryDto> page = productService.searchProductSummaries(
+        "Table", List.of(1L), 1.0, 20.0, true, pageable);
+
+    assertThat(page.getContent()).containsExactly(first, second);
+    assertThat(page.getTotalElements()).isEqualTo(5L);
+    verify(productRepository).count(specification.getValue());
+  }
+
+  @Test
+  public void whenSearchProductSummaries_withPartialFirstPage_skipCount() {
+    PageRequest pageable = PageRequest.of(0, 12);
+    ProductSummaryDto only = new ProductSummaryDto(1L, "Green Table", null, BigDecimal.TEN, 3,
+        BigDecimal.ZERO, 0);
+    when(productRepository.findSummaries(any(Specification.class), eq(pageable)))
+        .thenReturn(List.of(only));
+
+    Page<ProductSummaryDto> page = productService.searchProductSummaries(
+        "Table", null, null, null, null, pageable);
+
+    assertThat(page.getTotalElements()).isEqualTo(1L);
+    verify(productRepository, never()).count(any(Specification.class));
+  }
+
   @Test
   public void whenSearchProducts_withAllFieldsFilter_returnFilteredPage() {
     String nameFilter = "Table";
@@ -272,6 +424,7 @@ class ProductServiceImplTest {
     verify(productRepository).save(productCaptor.capture());
     assertThat(productCaptor.getValue().isDeleted()).isTrue();
     assertThat(productCaptor.getValue().getName()).startsWith("Test Product_deleted_");
+    verify(eventPublisher).publishEvent(ProductChangedEvent.of(1L));
   }
 
   @Test
@@ -320,6 +473,7 @@ class ProductServiceImplTest {
     verify(productRepository).save(productCaptor.capture());
     assertThat(productCaptor.getValue().isDeleted()).isFalse();
     assertThat(productCaptor.getValue().getName()).isEqualTo("Test");
+    verify(eventPublisher).publishEvent(ProductChangedEvent.of(1L));
   }
 
   @Test
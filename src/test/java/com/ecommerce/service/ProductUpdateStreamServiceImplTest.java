@@ -0,0 +1,178 @@
+package com.ecommerce.service;
+
+import com.ecommerce.controller.api.ProductApiController;
+import com.ecommerce.dto.ProductStockUpdate;
+import com.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class ProductUpdateStreamServiceImplTest {
+
+  private final Queue<Runnable> sends = new ArrayDeque<>();
+  private ProductRepository productRepository;
+  private ProductUpdateStreamServiceImpl streamService;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    productRepository = mock(ProductRepository.class);
+    streamService = new ProductUpdateStreamServiceImpl(productRepository, sends::add, 60_000);
+    mockMvc = MockMvcBuilders.standaloneSetup(new ProductApiController(
+        mock(ProductService.class), mock(ReviewService.class), streamService,
+        new ObjectMapper())).build();
+  }
+
+  private static ProductStockUpdate update(Long id, int stockQuantity) {
+    return new ProductStockUpdate(id, new BigDecimal("9.99"), stockQuantity, true);
+  }
+
+  private MockHttpServletResponse subscribe(String ids) throws Exception {
+    return mockMvc.perform(get("/api/products/updates").param("ids", ids))
+        .andExpect(request().asyncStarted())
+        .andReturn().getResponse();
+  }
+
+  private void runSends() {
+    while (!sends.isEmpty()) {
+      sends.poll().run();
+    }
+  }
+
+  @Test
+  void whenSubscribed_thenCurrentValuesAreSentFirst() throws Exception {
+    when(productRepository.findStockUpdatesByIds(anyCollection()))
+        .thenReturn(List.of(update(1L, 4)));
+
+    MockHttpServletResponse response = subscribe("1,2");
+    runSends();
+
+    assertThat(streamService.getSubscriberCount()).isEqualTo(1);
+    assertThat(response.getContentAsString())
+        .contains("event:stock")
+        .contains("\"id\":1,\"price\":9.99,\"stockQuantity\":4,\"active\":true")
+        .contains("\"id\":2,\"price\":null,\"stockQuantity\":0,\"active\":false");
+  }
+
+  @Test
+  void whenProductChangesSeveralTimesBeforeTick_thenOneReadAndOneEvent() throws Exception {
+    when(productRepository.findStockUpdatesByIds(anyCollection()))
+        .thenReturn(List.of(update(1L, 4)))
+        .thenReturn(List.of(update(1L, 1)));
+    MockHttpServletResponse response = subscribe("1");
+    runSends();
+
+    streamService.publish(List.of(1L, 7L));
+    streamService.publish(List.of(1L));
+    streamService.flush();
+    streamService.flush();
+    runSends();
+
+    verify(productRepository, times(2)).findStockUpdatesByIds(anyCollection());
+    verify(productRepository, never()).findStockUpdatesByIds(List.of(7L));
+    assertThat(response.getContentAsString().split("event:stock", -1)).hasSize(3);
+    assertThat(response.getContentAsString()).endsWith("\"stockQuantity\":1,\"active\":true}\n\n");
+  }
+
+  @Test
+  void whenSubscriberIsStillBeingWritten_thenNewerValuesReplacePendingOnes() throws Exception {
+    when(productRepository.findStockUpdatesByIds(anyCollection()))
+        .thenReturn(List.of(update(1L, 4)))
+        .thenReturn(List.of(update(1L, 3)))
+        .thenReturn(List.of(update(1L, 2)));
+    MockHttpServletResponse response = subscribe("1");
+
+    streamService.publish(List.of(1L));
+    streamService.flush();
+    streamService.publish(List.of(1L));
+    streamService.flush();
+
+    assertThat(sends).hasSize(1);
+    runSends();
+    String body = response.getContentAsString();
+    assertThat(body.split("event:stock", -1)).hasSize(2);
+    assertThat(body).contains("\"stockQuantity\":2").doesNotContain("\"stockQuantity\":4");
+  }
+
+  @Test
+  void whenTickFailsToRead_thenChangesAreKeptForNextTick() throws Exception {
+    when(productRepository.findStockUpdatesByIds(anyCollection()))
+        .thenReturn(List.of(update(1L, 4)))
+        .thenThrow(new IllegalStateException("database unavailable"))
+        .thenReturn(List.of(update(1L, 0)));
+    MockHttpServletResponse response = subscribe("1");
+    runSends();
+
+    streamService.publish(List.of(1L));
+    streamService.flush();
+    streamService.flush();
+    runSends();
+
+    assertThat(response.getContentAsString()).contains("\"stockQuantity\":0");
+  }
+
+  @Test
+  void whenSendFails_thenSubscriberIsDroppedAndNotScheduledAgain() throws Exception {
+    when(productRepository.findStockUpdatesByIds(anyCollection()))
+        .thenReturn(List.of(update(1L, 4)));
+    mockMvc = MockMvcBuilders.standaloneSetup(new ProductApiController(
+            mock(ProductService.class), mock(ReviewService.class), streamService,
+            new ObjectMapper()))
+        .setMessageConverters(new StringHttpMessageConverter(), new FailingConverter())
+        .build();
+    subscribe("1");
+
+    runSends();
+    streamService.publish(List.of(1L));
+    streamService.flush();
+    streamService.sendHeartbeats();
+
+    assertThat(streamService.getSubscriberCount()).isZero();
+    assertThat(sends).isEmpty();
+  }
+
+  private static class FailingConverter extends AbstractHttpMessageConverter<Object> {
+    FailingConverter() {
+      super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+      return true;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void writeInternal(Object o, HttpOutputMessage outputMessage) {
+      throw new HttpMessageNotWritableException("cannot write " + o);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.service;
+
+import com.ecommerce.metrics.QueryCounter;
+import com.ecommerce.metrics.QueryCountingDataSource;
+import com.ecommerce.metrics.QueryStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QueryCountingDataSourceTest {
+
+  private QueryStatistics statistics;
+  private QueryCountingDataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    DataSource target = mock(DataSource.class);
+    Connection connection = mock(Connection.class);
+    when(target.getConnection()).thenReturn(connection);
+    when(connection.prepareStatement(anyString())).thenAnswer(_ -> mock(PreparedStatement.class));
+    when(connection.createStatement()).thenAnswer(_ -> mock(Statement.class));
+    statistics = new QueryStatistics(3);
+    dataSource = new QueryCountingDataSource(target, statistics);
+  }
+
+  @Test
+  void whenPreparedStatementRunsRepeatedly_thenEachExecutionIsCountedUnderOneShape()
+      throws SQLException {
+    try (QueryCounter.Scope scope = QueryCounter.open()) {
+      Connection connection = dataSource.getConnection();
+      for (long id = 1; id <= 3; id++) {
+        PreparedStatement statement = connection.prepareStatement(
+            "select p.name from products p where p.id=?");
+        statement.setLong(1, id);
+        statement.executeQuery();
+      }
+      connection.createStatement().execute("delete from carts where id = 42");
+      connection.createStatement().execute("delete from carts where id = 43");
+
+      assertThat(scope.getCount()).isEqualTo(5);
+      assertThat(scope.getShapes()).containsEntry("select p.name from products p where p.id=?", 3)
+          .containsEntry("delete from carts where id = ?", 2);
+    }
+  }
+
+  @Test
+  void whenStatementsRunOutsideScope_thenOnlyGlobalStatisticsSeeThem() throws SQLException {
+    dataSource.getConnection().createStatement()
+        .executeQuery("select * from orders where id in (1, 2, 3)");
+
+    assertThat(statistics.report().topShapes())
+        .containsExactly(new QueryStatistics.ShapeCount("select * from orders where id in (...)", 1));
+  }
+
+  @Test
+  void whenRequestExceedsThreshold_thenItIsFlaggedWithItsMostRepeatedShape() throws SQLException {
+    QueryCounter.Scope scope = QueryCounter.open();
+    Connection connection = dataSource.getConnection();
+    connection.prepareStatement("select * from users where id=?").executeQuery();
+    for (int i = 0; i < 3; i++) {
+      connection.prepareStatement("select * from products where id=?").executeQuery();
+    }
+    scope.close();
+
+    statistics.recordRequest("GET /cart", scope);
+
+    QueryStatistics.Report report = statistics.report();
+    assertThat(report.flaggedRequests()).isEqualTo(1);
+    assertThat(report.recentFlaggedRequests()).singleElement().satisfies(flagged -> {
+      assertThat(flagged.request()).isEqualTo("GET /cart");
+      assertThat(flagged.statements()).isEqualTo(4);
+      assertThat(flagged.mostRepeatedShape()).isEqualTo("select * from products where id=?");
+      assertThat(flagged.mostRepeatedCount()).isEqualTo(3);
+    });
+  }
+
+  @Test
+  void whenTransactionCompletes_thenItsStatementsAreRecordedByName() throws SQLException {
+    TransactionSynchronizationManager.initSynchronization();
+    TransactionSynchronizationManager.setCurrentTransactionName("CartServiceImpl.addProductToCart");
+    try {
+      Connection connection = dataSource.getConnection();
+      connection.prepareStatement("select * from carts where user_id=?").executeQuery();
+      connection.prepareStatement("update carts set version=? where id=?").executeUpdate();
+      TransactionSynchronizationUtils.invokeAfterCompletion(
+          TransactionSynchronizationManager.getSynchronizations(), 0);
+    } finally {
+      TransactionSynchronizationManager.clear();
+    }
+
+    assertThat(statistics.report().transactions()).containsExactly(
+        new QueryStatistics.TransactionCount("CartServiceImpl.addProductToCart", 1, 2.0, 2));
+  }
+}
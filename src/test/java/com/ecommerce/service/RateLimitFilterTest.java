@@ -0,0 +1,85 @@
+package com.ecommerce.service;
+
+import com.ecommerce.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of(
+      "meterRegistry", meterRegistry,
+      "clock", Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC)));
+  private final RateLimitFilter filter = new RateLimitFilter(true, 5, 2, 60, 4, 1024,
+      beanFactory.getBeanProvider(MeterRegistry.class),
+      beanFactory.getBeanProvider(Clock.class));
+
+  @Test
+  void whenIdentityLimitExceeded_returnsTooManyRequests() throws Exception {
+    assertThat(login("10.0.0.1", "tom").getStatus()).isEqualTo(200);
+    assertThat(login("10.0.0.2", "Tom").getStatus()).isEqualTo(200);
+
+    MockHttpServletResponse response = login("10.0.0.3", "tom");
+
+    assertThat(response.getStatus()).isEqualTo(429);
+    assertThat(response.getHeader("Retry-After")).isEqualTo("60");
+    assertThat(meterRegistry.get("ecommerce.ratelimit.requests")
+        .tag("result", "rejected-identity").counter().count()).isEqualTo(1.0);
+  }
+
+  @Test
+  void whenIpLimitExceeded_returnsTooManyRequests() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      assertThat(login("10.0.0.9", "user" + i).getStatus()).isEqualTo(200);
+    }
+
+    assertThat(login("10.0.0.9", "another").getStatus()).isEqualTo(429);
+    assertThat(meterRegistry.get("ecommerce.ratelimit.limit").tag("key", "ip").gauge().value())
+        .isEqualTo(5.0);
+  }
+
+  @Test
+  void whenRequestIsNotRateLimitedEndpoint_passesThrough() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+      request.setServletPath("/login");
+      MockHttpServletResponse response = new MockHttpServletResponse();
+      filter.doFilter(request, response, new MockFilterChain());
+      assertThat(response.getStatus()).isEqualTo(200);
+    }
+  }
+
+  @Test
+  void whenIdentityIsCountedOutsideForm_appliesSameLimit() {
+    assertThat(filter.tryIdentity("api-token", "tom")).isTrue();
+    assertThat(filter.tryIdentity("api-token", " TOM ")).isTrue();
+
+    assertThat(filter.tryIdentity("api-token", "tom")).isFalse();
+    assertThat(filter.tryIdentity("api-token", "jerry")).isTrue();
+    assertThat(meterRegistry.get("ecommerce.ratelimit.requests")
+        .tag("endpoint", "api-token").tag("result", "rejected-identity").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  private MockHttpServletResponse login(String ip, String username) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+    request.setServletPath("/login");
+    request.setRemoteAddr(ip);
+    request.setParameter("username", username);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.RecentOrderKeyCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentOrderKeyCacheTest {
+
+  private RecentOrderKeyCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new RecentOrderKeyCache();
+  }
+
+  @Test
+  void whenFindOrderId_withUnknownKey_returnsEmpty() {
+    assertThat(cache.findOrderId("unknown")).isEmpty();
+  }
+
+  @Test
+  void whenPut_thenFindOrderId_returnsOrderId() {
+    cache.put("checkout-key-1", 42L);
+
+    assertThat(cache.findOrderId("checkout-key-1")).contains(42L);
+  }
+
+  @Test
+  void whenPut_beyondCapacity_evictsOldestEntries() {
+    for (long i = 0; i <= 10_000; i++) {
+      cache.put("key-" + i, i);
+    }
+
+    assertThat(cache.size()).isLessThanOrEqualTo(10_000);
+    assertThat(cache.findOrderId("key-0")).isEmpty();
+    assertThat(cache.findOrderId("key-10000")).contains(10_000L);
+  }
+}
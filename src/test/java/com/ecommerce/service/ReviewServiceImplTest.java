@@ -47,23 +47,12 @@ public class ReviewServiceImplTest {
   void whenGetReviewsForProduct_withExistingProduct_returnsReviewPage() {
     Long productId = 1L;
     Pageable pageable = PageRequest.of(0, 10);
-    Product product = new Product();
-
-    User user = new User();
-    user.setUsername("testuser");
-
-    Review review = mock(Review.class);
     Instant reviewTime = Instant.now();
-    when(review.getUser()).thenReturn(user);
-    when(review.getRating()).thenReturn(5);
-    when(review.getComment()).thenReturn("Great product!");
-    when(review.getCreatedAt()).thenReturn(reviewTime);
+    ReviewDto review = new ReviewDto("testuser", 5, "Great product!", reviewTime);
 
-    Page<Review> expectedReviews = new PageImpl<>(List.of(review), pageable, 1);
-
-    when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-    when(reviewRepository.findByProductOrderByCreatedAtDesc(product, pageable))
-        .thenReturn(expectedReviews);
+    when(productRepository.existsById(productId)).thenReturn(true);
+    when(reviewRepository.findViewsByProductId(productId, pageable))
+        .thenReturn(new PageImpl<>(List.of(review), pageable, 1));
 
     Page<ReviewDto> result = reviewService.getReviewsForProduct(productId, pageable);
 
@@ -80,7 +69,7 @@ public class ReviewServiceImplTest {
   void whenGetReviewsForProduct_withNonExistentProduct_throwsResourceNotFoundException() {
     Long productId = 99L;
     Pageable pageable = PageRequest.of(0, 10);
-    when(productRepository.findById(productId)).thenReturn(Optional.empty());
+    when(productRepository.existsById(productId)).thenReturn(false);
 
     ResourceNotFoundException exception = assertThrows(
         ResourceNotFoundException.class,
@@ -88,7 +77,7 @@ public class ReviewServiceImplTest {
     );
 
     assertThat(exception.getMessage()).isEqualTo("Product with ID 99 not found.");
-    verify(reviewRepository, never()).findByProductOrderByCreatedAtDesc(any(), any());
+    verify(reviewRepository, never()).findViewsByProductId(any(), any());
   }
 
   @Test
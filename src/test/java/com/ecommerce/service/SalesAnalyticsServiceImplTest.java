@@ -0,0 +1,166 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.DailyRevenueDto;
+import com.ecommerce.dto.ProductSalesView;
+import com.ecommerce.dto.SalesTotalsView;
+import com.ecommerce.entity.DailySalesRollup;
+import com.ecommerce.entity.Order;
+import com.ecommerce.entity.OrderStatusRollup;
+import com.ecommerce.entity.ProductSalesRollup;
+import com.ecommerce.event.OrderPlacedEvent;
+import com.ecommerce.repository.DailySalesRollupRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.OrderStatusRollupRepository;
+import com.ecommerce.repository.ProductSalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesAnalyticsServiceImplTest {
+
+  @Mock
+  private DailySalesRollupRepository dailySalesRollupRepository;
+  @Mock
+  private ProductSalesRollupRepository productSalesRollupRepository;
+  @Mock
+  private OrderStatusRollupRepository orderStatusRollupRepository;
+  @Mock
+  private OrderRepository orderRepository;
+
+  @InjectMocks
+  private SalesAnalyticsServiceImpl salesAnalyticsService;
+
+  private final Instant orderDate = Instant.parse("2025-03-10T10:15:30Z");
+  private final LocalDate salesDate = LocalDate.ofInstant(orderDate, ZoneId.systemDefault());
+
+  private OrderPlacedEvent createEvent() {
+    return new OrderPlacedEvent(1L, orderDate, new BigDecimal("70.00"), List.of(
+        new OrderPlacedEvent.Line(10L, "Toy", 2, new BigDecimal("25.00")),
+        new OrderPlacedEvent.Line(11L, "Book", 1, new BigDecimal("20.00"))));
+  }
+
+  @Test
+  void whenRecordOrderPlaced_withExistingRollups_incrementsInPlace() {
+    when(dailySalesRollupRepository.increment(salesDate, 1, new BigDecimal("70.00"))).thenReturn(1);
+    when(productSalesRollupRepository.increment(any(), any(), any(), anyLong(), any()))
+        .thenReturn(1);
+    when(orderStatusRollupRepository.increment(Order.Status.PENDING, 1)).thenReturn(1);
+
+    salesAnalyticsService.recordOrderPlaced(createEvent());
+
+    verify(productSalesRollupRepository).increment(
+        salesDate, 10L, "Toy", 2, new BigDecimal("50.00"));
+    verify(productSalesRollupRepository).increment(
+        salesDate, 11L, "Book", 1, new BigDecimal("20.00"));
+    verify(dailySalesRollupRepository, never()).saveAndFlush(any());
+    verify(productSalesRollupRepository, never()).saveAndFlush(any());
+    verify(orderStatusRollupRepository, never()).saveAndFlush(any());
+  }
+
+  @Test
+  void whenRecordOrderPlaced_withoutRollups_createsRows() {
+    when(dailySalesRollupRepository.increment(any(), anyLong(), any())).thenReturn(0);
+    when(productSalesRollupRepository.increment(any(), any(), any(), anyLong(), any()))
+        .thenReturn(0);
+    when(orderStatusRollupRepository.increment(any(), anyLong())).thenReturn(0);
+
+    salesAnalyticsService.recordOrderPlaced(createEvent());
+
+    ArgumentCaptor<DailySalesRollup> dailyCaptor = ArgumentCaptor.forClass(DailySalesRollup.class);
+    verify(dailySalesRollupRepository).saveAndFlush(dailyCaptor.capture());
+    assertThat(dailyCaptor.getValue().getSalesDate()).isEqualTo(salesDate);
+    assertThat(dailyCaptor.getValue().getOrderCount()).isEqualTo(1);
+    assertThat(dailyCaptor.getValue().getRevenue()).isEqualByComparingTo("70.00");
+
+    verify(productSalesRollupRepository, times(2)).saveAndFlush(any(ProductSalesRollup.class));
+    verify(orderStatusRollupRepository).saveAndFlush(any(OrderStatusRollup.class));
+  }
+
+  @Test
+  void whenRecordStatusChange_movesCountsBetweenStatuses() {
+    when(orderStatusRollupRepository.increment(any(), anyLong())).thenReturn(1);
+
+    salesAnalyticsService.recordStatusChange(Order.Status.PENDING, Order.Status.SHIPPED, 5);
+
+    verify(orderStatusRollupRepository).increment(Order.Status.PENDING, -5);
+    verify(orderStatusRollupRepository).increment(Order.Status.SHIPPED, 5);
+  }
+
+  @Test
+  void whenRecordStatusChange_withSameStatus_doesNothing() {
+    salesAnalyticsService.recordStatusChange(Order.Status.SHIPPED, Order.Status.SHIPPED, 5);
+
+    verifyNoInteractions(orderStatusRollupRepository);
+  }
+
+  @Test
+  void whenGetRevenueForDay_withoutRollup_returnsZero() {
+    when(dailySalesRollupRepository.findById(salesDate)).thenReturn(Optional.empty());
+
+    DailyRevenueDto revenue = salesAnalyticsService.getRevenueForDay(salesDate);
+
+    assertThat(revenue.orderCount()).isZero();
+    assertThat(revenue.revenue()).isEqualByComparingTo(BigDecimal.ZERO);
+    verifyNoInteractions(orderRepository);
+  }
+
+  @Test
+  void whenRebuildDay_replacesRollupsFromOrders() {
+    SalesTotalsView totals = mock(SalesTotalsView.class);
+    when(totals.getOrderCount()).thenReturn(3L);
+    when(totals.getRevenue()).thenReturn(new BigDecimal("90.00"));
+    ProductSalesView productSales = mock(ProductSalesView.class);
+    when(productSales.getProductId()).thenReturn(10L);
+    when(productSales.getProductName()).thenReturn("Toy");
+    when(productSales.getUnits()).thenReturn(4L);
+    when(productSales.getRevenue()).thenReturn(new BigDecimal("100.00"));
+    when(orderRepository.sumSalesBetween(any(), any())).thenReturn(totals);
+    when(orderRepository.sumProductSalesBetween(any(), any())).thenReturn(List.of(productSales));
+
+    salesAnalyticsService.rebuildDay(salesDate);
+
+    ArgumentCaptor<DailySalesRollup> dailyCaptor = ArgumentCaptor.forClass(DailySalesRollup.class);
+    verify(dailySalesRollupRepository).save(dailyCaptor.capture());
+    assertThat(dailyCaptor.getValue().getOrderCount()).isEqualTo(3);
+    verify(productSalesRollupRepository).deleteBySalesDate(salesDate);
+    verify(productSalesRollupRepository).saveAll(argThat(rollups ->
+        rollups.iterator().next().getUnits() == 4L));
+  }
+
+  @Test
+  void whenRebuildStatusCounts_recountsRowsInPlace() {
+    salesAnalyticsService.rebuildStatusCounts();
+
+    InOrder inOrder = inOrder(orderStatusRollupRepository);
+    inOrder.verify(orderStatusRollupRepository).recountExisting();
+    inOrder.verify(orderStatusRollupRepository).insertMissing();
+    verify(orderStatusRollupRepository, never()).deleteAllInBatch();
+  }
+
+  @Test
+  void whenGetTopSellers_readsOnlyFromRollups() {
+    salesAnalyticsService.getTopSellers(salesDate.minusDays(7), salesDate, 10);
+
+    verify(productSalesRollupRepository).findTopSellers(
+        eq(salesDate.minusDays(7)), eq(salesDate), any());
+    verifyNoInteractions(orderRepository);
+  }
+}
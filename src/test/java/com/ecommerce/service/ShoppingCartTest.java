@@ -150,4 +150,19 @@ class ShoppingCartTest {
     BigDecimal expectedTotal = new BigDecimal("1651.00");
     assertThat(shoppingCart.getTotalAmount()).isEqualByComparingTo(expectedTotal);
   }
+
+  @Test
+  void whenCartChanges_thenItReportsModifiedUntilCleared() {
+    assertThat(shoppingCart.isModified()).isFalse();
+    shoppingCart.removeItem(1L);
+    shoppingCart.clear();
+    assertThat(shoppingCart.isModified()).isFalse();
+
+    shoppingCart.addItem(createProduct(1L, "Laptop", "1500.00", 10), 1);
+    assertThat(shoppingCart.isModified()).isTrue();
+
+    shoppingCart.clearModified();
+    shoppingCart.updateItemQuantity(1L, 2);
+    assertThat(shoppingCart.isModified()).isTrue();
+  }
 }
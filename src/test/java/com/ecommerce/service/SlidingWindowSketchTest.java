@@ -0,0 +1,114 @@
+package com.ecommerce.service;
+
+import com.ecommerce.security.SlidingWindowSketch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SlidingWindowSketchTest {
+
+  @Test
+  void whenIncrementedWithinWindow_estimateCountsEveryHit() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, 60_000);
+
+    for (int i = 0; i < 5; i++) {
+      sketch.incrementAndEstimate("ip:10.0.0.1", 1_000);
+    }
+
+    assertThat(sketch.incrementAndEstimate("ip:10.0.0.1", 1_000)).isEqualTo(6.0);
+    assertThat(sketch.incrementAndEstimate("ip:10.0.0.2", 1_000)).isEqualTo(1.0);
+  }
+
+  @Test
+  void whenKeysShareStringHashCode_theirCountsStaySeparate() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, 60_000);
+    assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+    for (int i = 0; i < 5; i++) {
+      sketch.incrementAndEstimate("Aa", 1_000);
+    }
+
+    assertThat(sketch.incrementAndEstimate("BB", 1_000)).isEqualTo(1.0);
+  }
+
+  @Test
+  void whenWindowSlides_previousWindowIsWeightedByOverlap() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, 60_000);
+    for (int i = 0; i < 10; i++) {
+      sketch.incrementAndEstimate("user", 59_000);
+    }
+
+    double estimate = sketch.incrementAndEstimate("user", 90_000);
+
+    assertThat(estimate).isCloseTo(1 + 10 * 0.5, within(0.001));
+  }
+
+  @Test
+  void whenWindowsExpire_countsAreCleared() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, 60_000);
+    for (int i = 0; i < 10; i++) {
+      sketch.incrementAndEstimate("user", 1_000);
+    }
+
+    assertThat(sketch.incrementAndEstimate("user", 240_000)).isEqualTo(1.0);
+  }
+
+  @Test
+  void whenWindowRotatesUnderConcurrentHits_noHitIsLost() throws Exception {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, 60_000);
+    for (int i = 0; i < 1_000; i++) {
+      sketch.incrementAndEstimate("user", 1_000);
+    }
+    int threads = 8;
+    int hitsPerThread = 1_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < hitsPerThread; i++) {
+            sketch.incrementAndEstimate("user", 60_000);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(sketch.incrementAndEstimate("user", 119_999))
+        .isCloseTo(threads * hitsPerThread + 1, within(0.1));
+  }
+
+  @Test
+  void whenManyKeys_memoryStaysFixed() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, 60_000);
+    int footprint = sketch.memoryFootprintBytes();
+
+    for (int i = 0; i < 100_000; i++) {
+      sketch.incrementAndEstimate("ip:" + i, 1_000);
+    }
+
+    assertThat(sketch.memoryFootprintBytes()).isEqualTo(footprint).isEqualTo(2 * 4 * 1024 * 4);
+  }
+
+  @Test
+  void whenWidthIsNotPowerOfTwo_throwsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new SlidingWindowSketch(4, 1000, 60_000));
+  }
+}
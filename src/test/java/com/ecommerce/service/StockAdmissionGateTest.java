@@ -0,0 +1,101 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.StockAdmissionGate;
+import com.ecommerce.exception.CheckoutBusyException;
+import com.ecommerce.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockAdmissionGateTest {
+
+  private final StockAdmissionGate gate = new StockAdmissionGate(4, 20, 10);
+
+  @Test
+  void whenAdmit_beyondLoadedStock_rejectsAndMarksSoldOut() {
+    gate.admit(Map.of(1L, 2), _ -> 3).complete();
+
+    assertThat(gate.isSoldOut(1L)).isFalse();
+    assertThrows(InsufficientStockException.class, () -> gate.admit(Map.of(1L, 2), _ -> 3));
+
+    gate.admit(Map.of(1L, 1), _ -> 3).complete();
+    assertThat(gate.isSoldOut(1L)).isTrue();
+  }
+
+  @Test
+  void whenAdmissionCancelled_returnsUnitsToCounter() {
+    StockAdmissionGate.Admission admission = gate.admit(Map.of(1L, 2), _ -> 2);
+    assertThat(gate.isSoldOut(1L)).isTrue();
+
+    admission.cancel();
+    admission.cancel();
+
+    assertThat(gate.isSoldOut(1L)).isFalse();
+    gate.admit(Map.of(1L, 2), _ -> 2).complete();
+  }
+
+  @Test
+  void whenAdmit_withKnownCounter_doesNotReloadStock() {
+    AtomicInteger loads = new AtomicInteger();
+    Function<Long, Integer> loader = _ -> {
+      loads.incrementAndGet();
+      return 10;
+    };
+
+    gate.admit(Map.of(1L, 1), loader).complete();
+    gate.admit(Map.of(1L, 1), loader).complete();
+
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void whenInvalidated_reloadsStockMinusInFlightUnits() {
+    StockAdmissionGate.Admission inFlight = gate.admit(Map.of(1L, 2), _ -> 2);
+    gate.invalidate(1L);
+
+    assertThrows(InsufficientStockException.class, () -> gate.admit(Map.of(1L, 1), _ -> 2));
+    gate.invalidate(1L);
+    gate.admit(Map.of(1L, 3), _ -> 5).complete();
+    inFlight.complete();
+  }
+
+  @Test
+  void whenAdmit_withUnknownProduct_admitsWithoutTracking() {
+    gate.admit(Map.of(1L, 5), _ -> null).complete();
+
+    assertThat(gate.isSoldOut(1L)).isFalse();
+    assertThat(gate.size()).isZero();
+  }
+
+  @Test
+  void whenAdmit_withAllCheckoutSlotsTaken_throwsCheckoutBusyException() {
+    StockAdmissionGate singleSlotGate = new StockAdmissionGate(1, 10, 10);
+    StockAdmissionGate.Admission first = singleSlotGate.admit(Map.of(1L, 1), _ -> 10);
+
+    assertThrows(CheckoutBusyException.class,
+        () -> singleSlotGate.admit(Map.of(1L, 1), _ -> 10));
+
+    first.complete();
+    singleSlotGate.admit(Map.of(1L, 1), _ -> 10).complete();
+  }
+
+  @Test
+  void whenAdmit_failsOnSecondProduct_releasesFirstReservation() {
+    assertThrows(InsufficientStockException.class,
+        () -> gate.admit(Map.of(1L, 1, 2L, 1), id -> id == 1L ? 1 : 0));
+
+    assertThat(gate.isSoldOut(1L)).isFalse();
+    assertThat(gate.isSoldOut(2L)).isTrue();
+  }
+
+  @Test
+  void whenConfiguredAboveHalfThePool_capsConcurrentCheckouts() {
+    assertThat(new StockAdmissionGate(16, 20, 10).getMaxConcurrentCheckouts()).isEqualTo(5);
+    assertThat(new StockAdmissionGate(16, 20, 1).getMaxConcurrentCheckouts()).isEqualTo(1);
+  }
+}
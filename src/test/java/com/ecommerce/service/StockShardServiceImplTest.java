@@ -0,0 +1,207 @@
+package com.ecommerce.service;
+
+import com.ecommerce.entity.Product;
+import com.ecommerce.entity.ProductStockShard;
+import com.ecommerce.repository.ProductStockShardRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class StockShardServiceImplTest {
+
+  @Mock
+  private ProductStockShardRepository productStockShardRepository;
+
+  @Mock
+  private EntityManagerFactory entityManagerFactory;
+
+  @Mock
+  private Cache cache;
+
+  @InjectMocks
+  private StockShardServiceImpl stockShardService;
+
+  private static List<Integer> quantities(List<ProductStockShard> shards) {
+    return shards.stream().map(ProductStockShard::getQuantity).toList();
+  }
+
+  @Test
+  void whenConfigure_withNewShardCount_recreatesShardsAndSpreadsStock() {
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(List.of());
+    ArgumentCaptor<List<ProductStockShard>> captor = ArgumentCaptor.forClass(List.class);
+
+    stockShardService.configure(1L, 4, 10);
+
+    verify(productStockShardRepository).deleteByProductId(1L);
+    verify(productStockShardRepository).saveAll(captor.capture());
+    assertThat(captor.getValue()).extracting(ProductStockShard::getShardIndex)
+        .containsExactly(0, 1, 2, 3);
+    assertThat(quantities(captor.getValue())).containsExactly(3, 3, 2, 2);
+  }
+
+  @Test
+  void whenConfigure_withSameShardCount_redistributesExistingShards() {
+    List<ProductStockShard> shards = List.of(
+        new ProductStockShard(1L, 0, 9), new ProductStockShard(1L, 1, 0));
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(shards);
+
+    stockShardService.configure(1L, 2, 4);
+
+    verify(productStockShardRepository, never()).deleteByProductId(anyLong());
+    assertThat(quantities(shards)).containsExactly(2, 2);
+  }
+
+  @Test
+  void whenConfigure_withZeroShards_removesShards() {
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(List.of(
+        new ProductStockShard(1L, 0, 5)));
+
+    stockShardService.configure(1L, 0, 5);
+
+    verify(productStockShardRepository).deleteByProductId(1L);
+  }
+
+  @Test
+  void whenAdjust_appliesDeltaToLiveShardTotal() {
+    List<ProductStockShard> shards = List.of(
+        new ProductStockShard(1L, 0, 3), new ProductStockShard(1L, 1, 0));
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(shards);
+
+    assertThat(stockShardService.adjust(1L, 2, 5)).isEqualTo(8);
+
+    verify(productStockShardRepository, never()).deleteByProductId(anyLong());
+    assertThat(quantities(shards)).containsExactly(4, 4);
+  }
+
+  @Test
+  void whenAdjust_belowZero_clampsTotalAndReshapesShards() {
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(List.of(
+        new ProductStockShard(1L, 0, 2), new ProductStockShard(1L, 1, 1)));
+    ArgumentCaptor<List<ProductStockShard>> captor = ArgumentCaptor.forClass(List.class);
+
+    assertThat(stockShardService.adjust(1L, 4, -10)).isZero();
+
+    verify(productStockShardRepository).deleteByProductId(1L);
+    verify(productStockShardRepository).saveAll(captor.capture());
+    assertThat(quantities(captor.getValue())).containsExactly(0, 0, 0, 0);
+  }
+
+  @Test
+  void whenConfigure_withTooManyShards_throwsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> stockShardService.configure(1L, StockShardServiceImpl.MAX_SHARDS + 1, 5));
+    verifyNoInteractions(productStockShardRepository);
+  }
+
+  @Test
+  void whenTryDecrement_withShardCoveringQuantity_decrementsSingleShard() {
+    when(productStockShardRepository.findShardIndexesWithQuantity(1L, 2)).thenReturn(List.of(3));
+    when(productStockShardRepository.tryDecrement(1L, 3, 2)).thenReturn(1);
+
+    assertThat(stockShardService.tryDecrement(1L, 2)).isTrue();
+    verify(productStockShardRepository, never()).findByProductIdWithLock(anyLong());
+  }
+
+  @Test
+  void whenTryDecrement_withLostRace_fallsBackToOtherShards() {
+    when(productStockShardRepository.findShardIndexesWithQuantity(1L, 1))
+        .thenReturn(List.of(0, 1));
+    when(productStockShardRepository.tryDecrement(eq(1L), anyInt(), eq(1)))
+        .thenReturn(0, 1);
+
+    assertThat(stockShardService.tryDecrement(1L, 1)).isTrue();
+    verify(productStockShardRepository, times(2)).tryDecrement(eq(1L), anyInt(), eq(1));
+  }
+
+  @Test
+  void whenTryDecrement_withStockSpreadOverShards_takesFromSeveralShards() {
+    List<ProductStockShard> shards = List.of(new ProductStockShard(1L, 0, 2),
+        new ProductStockShard(1L, 1, 2), new ProductStockShard(1L, 2, 2));
+    when(productStockShardRepository.findShardIndexesWithQuantity(1L, 5)).thenReturn(List.of());
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(shards);
+
+    assertThat(stockShardService.tryDecrement(1L, 5)).isTrue();
+    assertThat(quantities(shards)).containsExactly(0, 0, 1);
+  }
+
+  @Test
+  void whenTryDecrement_withInsufficientTotal_returnsFalseWithoutChanges() {
+    List<ProductStockShard> shards = List.of(new ProductStockShard(1L, 0, 1),
+        new ProductStockShard(1L, 1, 1));
+    when(productStockShardRepository.findShardIndexesWithQuantity(1L, 3)).thenReturn(List.of());
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(shards);
+
+    assertThat(stockShardService.tryDecrement(1L, 3)).isFalse();
+    assertThat(quantities(shards)).containsExactly(1, 1);
+  }
+
+  @Test
+  void whenRebalance_withSkewedShards_evensOutQuantities() {
+    List<ProductStockShard> shards = List.of(new ProductStockShard(1L, 0, 0),
+        new ProductStockShard(1L, 1, 7), new ProductStockShard(1L, 2, 0));
+    when(productStockShardRepository.findByProductIdWithLock(1L)).thenReturn(shards);
+
+    stockShardService.rebalance(1L);
+
+    assertThat(quantities(shards)).containsExactly(3, 2, 2);
+  }
+
+  @Test
+  void whenRebalanceDepletedShards_rebalancesEveryReportedProduct() {
+    when(productStockShardRepository.findProductIdsWithDepletedShards()).thenReturn(List.of(1L, 2L));
+    when(productStockShardRepository.findByProductIdWithLock(anyLong())).thenReturn(List.of());
+
+    assertThat(stockShardService.rebalanceDepletedShards()).isEqualTo(2);
+    verify(productStockShardRepository).findByProductIdWithLock(1L);
+    verify(productStockShardRepository).findByProductIdWithLock(2L);
+  }
+
+  @Test
+  void whenSyncProductStockSnapshots_withStaleProducts_updatesAndEvictsOnlyThem() {
+    when(productStockShardRepository.findProductIdsWithStaleStockSnapshot())
+        .thenReturn(List.of(3L, 4L));
+    when(productStockShardRepository.syncProductStockSnapshots(List.of(3L, 4L))).thenReturn(2);
+    when(entityManagerFactory.getCache()).thenReturn(cache);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      assertThat(stockShardService.syncProductStockSnapshots()).isEqualTo(2);
+
+      verifyNoInteractions(cache);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+      verify(cache).evict(Product.class, 3L);
+      verify(cache).evict(Product.class, 4L);
+      verifyNoMoreInteractions(cache);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void whenSyncProductStockSnapshots_withNothingStale_skipsUpdate() {
+    when(productStockShardRepository.findProductIdsWithStaleStockSnapshot()).thenReturn(List.of());
+
+    assertThat(stockShardService.syncProductStockSnapshots()).isZero();
+    verify(productStockShardRepository, never()).syncProductStockSnapshots(any());
+  }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDetailsCacheTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final UserDetailsCache cache = new UserDetailsCache(300, meterRegistry);
+
+  @Test
+  void whenPutUserInCache_thenGetReturnsCopyThatSurvivesCredentialErasure() {
+    cache.putUserInCache(User.withUsername("tom").password("hash").roles("USER").build());
+
+    User first = (User) cache.getUserFromCache("tom");
+    first.eraseCredentials();
+    UserDetails second = cache.getUserFromCache("tom");
+
+    assertThat(second.getPassword()).isEqualTo("hash");
+    assertThat(second.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+  }
+
+  @Test
+  void whenRemoveUserFromCache_thenGetReturnsNull() {
+    cache.putUserInCache(User.withUsername("tom").password("hash").build());
+
+    cache.removeUserFromCache("tom");
+
+    assertThat(cache.getUserFromCache("tom")).isNull();
+  }
+
+  @Test
+  void whenExpired_thenGetReturnsNull() {
+    UserDetailsCache expiringCache = new UserDetailsCache(0, new SimpleMeterRegistry());
+    expiringCache.putUserInCache(User.withUsername("tom").password("hash").build());
+
+    assertThat(expiringCache.getUserFromCache("tom")).isNull();
+    assertThat(expiringCache.size()).isZero();
+  }
+
+  @Test
+  void whenLookedUp_thenHitRatioIsPublished() {
+    cache.registerMeters();
+    cache.putUserInCache(User.withUsername("tom").password("hash").build());
+
+    cache.getUserFromCache("tom");
+    cache.getUserFromCache("jerry");
+
+    assertThat(cache.hitRatio()).isEqualTo(0.5);
+    assertThat(meterRegistry.get("ecommerce.user.cache.requests").tag("result", "hit")
+        .functionCounter().count()).isEqualTo(1.0);
+    assertThat(meterRegistry.get("ecommerce.user.cache.hit.ratio").gauge().value())
+        .isEqualTo(0.5);
+  }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.UserInfoCache;
+import com.ecommerce.dto.UserInfoDto;
+import com.ecommerce.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserInfoCacheTest {
+
+  private final UserService userService = mock(UserService.class);
+  private final UserInfoCache cache = new UserInfoCache(userService, 30);
+
+  @BeforeEach
+  void setUp() {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken("tom", null, List.of()));
+    User user = new User();
+    user.setUsername("tom");
+    user.setFirstName("Tom");
+    user.setEmail("tom@example.com");
+    when(userService.getCurrentUser()).thenReturn(user);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void whenReadTwice_thenUserIsLoadedOnce() {
+    assertThat(cache.getCurrentUserInfo().getFirstName()).isEqualTo("Tom");
+    assertThat(cache.getCurrentUserInfo().getEmail()).isEqualTo("tom@example.com");
+
+    verify(userService, times(1)).getCurrentUser();
+  }
+
+  @Test
+  void whenReturnedCopyIsChanged_thenCachedEntryIsNot() {
+    UserInfoDto userInfo = cache.getCurrentUserInfo();
+
+    userInfo.setFirstName("Bound from a form");
+
+    assertThat(cache.getCurrentUserInfo().getFirstName()).isEqualTo("Tom");
+  }
+
+  @Test
+  void whenInvalidated_thenNextReadLoadsAgain() {
+    cache.getCurrentUserInfo();
+    cache.invalidate("tom");
+    cache.getCurrentUserInfo();
+
+    verify(userService, times(2)).getCurrentUser();
+  }
+}
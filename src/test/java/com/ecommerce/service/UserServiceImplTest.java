@@ -1,13 +1,19 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CurrentUserCache;
 import com.ecommerce.dto.ChangePasswordDto;
+import com.ecommerce.dto.CurrentUser;
 import com.ecommerce.dto.RegistrationDto;
 import com.ecommerce.dto.UserInfoDto;
+import com.ecommerce.dto.UserRoleView;
+import com.ecommerce.entity.PasswordResetToken;
 import com.ecommerce.entity.Role;
 import com.ecommerce.entity.User;
+import com.ecommerce.event.PasswordChangedEvent;
 import com.ecommerce.exception.ConfigurationException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.UserNotAuthenticatedException;
+import com.ecommerce.repository.PasswordResetTokenRepository;
 import com.ecommerce.repository.RoleRepository;
 import com.ecommerce.repository.UserRepository;
 import org.junit.jupiter.api.Test;
@@ -16,22 +22,32 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class )
 public class UserServiceImplTest {
+  private static final String TOKEN_123_SHA256 =
+      "b13ae34b9231f95675ff502761b64aedd0c278f5b6e8730ce99b72f35b2ddfb0";
+
   @Mock
   private UserRepository userRepository;
 
@@ -44,6 +60,18 @@ public class UserServiceImplTest {
   @Mock
   private EmailService emailService;
 
+  @Mock
+  private CurrentUserCache currentUserCache;
+
+  @Mock
+  private UserCache userCache;
+
+  @Mock
+  private PasswordResetTokenRepository passwordResetTokenRepository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   UserServiceImpl userService;
 
@@ -123,6 +151,7 @@ public class UserServiceImplTest {
     assertThat(savedUser.getFirstName()).isEqualTo("Tom");
     assertThat(savedUser.getLastName()).isEqualTo("Holand");
     assertThat(savedUser.getPhoneNumber()).isEqualTo("+48123456789");
+    verify(currentUserCache).invalidate("current_user");
   }
 
   @Test
@@ -211,74 +240,105 @@ public class UserServiceImplTest {
   }
 
   @Test
-  public void whenCreatePasswordResetToken_savesTokenAndTriggersEmail() {
+  public void whenCreatePasswordResetToken_storesHashAndEmailsRawToken() {
     User user = new User();
     user.setEmail("test@example.com");
 
     userService.createPasswordResetTokenForUser(user);
 
-    ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-    verify(userRepository).save(userCaptor.capture());
-    User savedUser = userCaptor.getValue();
-
-    assertThat(savedUser.getPasswordResetToken()).isNotNull();
-    assertThat(savedUser.getPasswordResetTokenExpiry()).isNotNull();
-
+    ArgumentCaptor<PasswordResetToken> tokenEntityCaptor =
+        ArgumentCaptor.forClass(PasswordResetToken.class);
+    verify(passwordResetTokenRepository).deleteByUserId(user.getId());
+    verify(passwordResetTokenRepository).save(tokenEntityCaptor.capture());
     ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
-    verify(emailService).sendPasswordResetEmail(userCaptor.capture(), tokenCaptor.capture());
+    verify(emailService).sendPasswordResetEmail(eq(user), tokenCaptor.capture());
 
-    assertThat(userCaptor.getValue()).isSameAs(user);
-    assertThat(tokenCaptor.getValue()).isEqualTo(savedUser.getPasswordResetToken());
+    PasswordResetToken saved = tokenEntityCaptor.getValue();
+    assertThat(saved.getUser()).isSameAs(user);
+    assertThat(saved.getExpiresAt()).isAfter(Instant.now());
+    assertThat(saved.getTokenHash()).hasSize(64).isNotEqualTo(tokenCaptor.getValue());
   }
 
   @Test
-  public void whenValidatePasswordResetToken_validateSuccessfully() {
-    User user = new User();
-    String token = "token123";
-    user.setPasswordResetTokenExpiry(Instant.MAX);
-    user.setPasswordResetToken(token);
+  public void whenValidatePasswordResetToken_looksUpByHash() {
+    when(passwordResetTokenRepository.existsByTokenHashAndExpiresAtAfter(
+        eq(TOKEN_123_SHA256), any(Instant.class))).thenReturn(true);
 
-    when(userRepository.findByPasswordResetToken(token)).thenReturn(Optional.of(user));
     assertThat(userService.validatePasswordResetToken("token123")).isTrue();
+    assertThat(userService.validatePasswordResetToken("token321")).isFalse();
   }
 
   @Test
-  public void whenValidatePasswordResetToken_withNonExistingToken_returnFalse() {
+  public void whenResetPasswordWithToken_withValidToken_consumesTokenAndChangesPassword() {
     User user = new User();
-    String token = "token123";
-    user.setPasswordResetTokenExpiry(Instant.MAX);
-    user.setPasswordResetToken("token321");
+    user.setUsername("tom");
+    user.setPassword("old password");
+    when(passwordResetTokenRepository.findValidByTokenHash(eq(TOKEN_123_SHA256),
+        any(Instant.class)))
+        .thenReturn(Optional.of(new PasswordResetToken(TOKEN_123_SHA256, user, Instant.MAX)));
+    when(passwordEncoder.encode("new password")).thenReturn("new encoded password");
 
-    when(userRepository.findByPasswordResetToken(token)).thenReturn(Optional.empty());
-    assertThat(userService.validatePasswordResetToken("token123")).isFalse();
+    Optional<User> result = userService.resetPasswordWithToken("token123", "new password");
+
+    assertThat(result).containsSame(user);
+    assertThat(user.getPassword()).isEqualTo("new encoded password");
+    verify(passwordResetTokenRepository).deleteByUserId(user.getId());
+    verify(userRepository).save(user);
   }
 
   @Test
-  public void whenValidatePasswordResetToken_withExpiredToken_returnFalse() {
-    User user = new User();
-    String token = "token123";
-    user.setPasswordResetTokenExpiry(Instant.MIN);
-    user.setPasswordResetToken(token);
+  public void whenResetPasswordWithToken_withUnknownOrExpiredToken_returnsEmpty() {
+    when(passwordResetTokenRepository.findValidByTokenHash(any(), any()))
+        .thenReturn(Optional.empty());
+
+    assertThat(userService.resetPasswordWithToken("token123", "new password")).isEmpty();
+
+    verify(passwordResetTokenRepository, never()).deleteByUserId(any());
+    verify(passwordEncoder, never()).encode(any());
+  }
+
+  @Test
+  public void whenPurgeExpiredPasswordResetTokens_deletesOneChunk() {
+    when(passwordResetTokenRepository.findExpiredIds(any(Instant.class), any()))
+        .thenReturn(List.of(1L, 2L));
+    when(passwordResetTokenRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
 
-    when(userRepository.findByPasswordResetToken(token)).thenReturn(Optional.of(user));
-    assertThat(userService.validatePasswordResetToken("token123")).isFalse();
+    assertThat(userService.purgeExpiredPasswordResetTokens(2)).isEqualTo(2);
   }
 
   @Test
   public void whenChangeUserPassword_changeSuccessfully() {
     User user = new User();
     user.setPassword("old password");
-    user.setPasswordResetToken("token123");
-    user.setPasswordResetTokenExpiry(Instant.MAX);
 
     when(passwordEncoder.encode("new password")).thenReturn("new encoded password");
 
     userService.changeUserPassword(user, "new password");
 
     assertThat(user.getPassword()).isEqualTo("new encoded password");
-    assertThat(user.getPasswordResetToken()).isNull();
-    assertThat(user.getPasswordResetTokenExpiry()).isNull();
     verify(userRepository).save(user);
+    verify(currentUserCache).invalidate(user.getUsername());
+    verify(userCache).removeUserFromCache(user.getUsername());
+    verify(eventPublisher).publishEvent(
+        new PasswordChangedEvent(user.getUsername(), user.getPasswordChangedAt()));
+  }
+
+  @Test
+  public void whenChangeUserPassword_inTransaction_evictsCachedCredentialsAfterCommit() {
+    User user = new User();
+    user.setUsername("tom");
+    when(passwordEncoder.encode("new password")).thenReturn("new encoded password");
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      userService.changeUserPassword(user, "new password");
+
+      verify(userCache, never()).removeUserFromCache(any());
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+      verify(userCache).removeUserFromCache("tom");
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
   }
 
   @Test
@@ -311,6 +371,10 @@ public class UserServiceImplTest {
     assertThat(userCaptor.getValue()).isSameAs(user);
     assertThat(savedUser.getPassword()).isEqualTo("encoded password");
     assertThat(result).isTrue();
+    verify(currentUserCache).invalidate("Current user");
+    verify(userCache).removeUserFromCache("Current user");
+    verify(eventPublisher).publishEvent(
+        new PasswordChangedEvent("Current user", savedUser.getPasswordChangedAt()));
   }
 
   @Test
@@ -336,6 +400,61 @@ public class UserServiceImplTest {
     boolean result = userService.changeCurrentUserPassword(changePasswordDto);
 
     verify(userRepository, never()).save(any(User.class));
+    verify(currentUserCache, never()).invalidate(any());
     assertThat(result).isFalse();
   }
+
+  @Test
+  public void whenGetCurrentUserSnapshot_withCachedUser_returnsCachedSnapshot() {
+    CurrentUser cached = new CurrentUser(1L, "tom", Set.of("ROLE_USER"));
+    authenticateAs("tom");
+    when(currentUserCache.find("tom")).thenReturn(Optional.of(cached));
+
+    CurrentUser result = userService.getCurrentUserSnapshot();
+
+    assertThat(result).isSameAs(cached);
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  public void whenGetCurrentUserSnapshot_withCacheMiss_loadsAndCachesSnapshot() {
+    authenticateAs("tom");
+    List<UserRoleView> views = List.of(roleView(1L, "ROLE_USER"), roleView(1L, "ROLE_ADMIN"));
+    when(currentUserCache.find("tom")).thenReturn(Optional.empty());
+    when(userRepository.findRoleViewsByUsername("tom")).thenReturn(views);
+
+    CurrentUser result = userService.getCurrentUserSnapshot();
+
+    assertThat(result.id()).isEqualTo(1L);
+    assertThat(result.username()).isEqualTo("tom");
+    assertThat(result.roles()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_ADMIN");
+    verify(currentUserCache).put(result);
+    verify(userRepository, never()).findByUsername(any());
+  }
+
+  @Test
+  public void whenGetCurrentUserSnapshot_withUserNotFound_throwResourceNotFoundException() {
+    authenticateAs("ghost");
+    when(currentUserCache.find("ghost")).thenReturn(Optional.empty());
+    when(userRepository.findRoleViewsByUsername("ghost")).thenReturn(List.of());
+
+    assertThrows(ResourceNotFoundException.class, () -> userService.getCurrentUserSnapshot());
+    verify(currentUserCache, never()).put(any());
+  }
+
+  private void authenticateAs(String username) {
+    Authentication authentication = mock(Authentication.class);
+    SecurityContext securityContext = mock(SecurityContext.class);
+    when(securityContext.getAuthentication()).thenReturn(authentication);
+    when(authentication.isAuthenticated()).thenReturn(true);
+    when(authentication.getPrincipal()).thenReturn(username);
+    SecurityContextHolder.setContext(securityContext);
+  }
+
+  private UserRoleView roleView(Long id, String role) {
+    UserRoleView view = mock(UserRoleView.class);
+    lenient().when(view.getId()).thenReturn(id);
+    when(view.getRole()).thenReturn(role);
+    return view;
+  }
 }
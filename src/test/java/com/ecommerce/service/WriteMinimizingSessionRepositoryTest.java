@@ -0,0 +1,148 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cart.ShoppingCart;
+import com.ecommerce.config.WriteMinimizingSessionRepository;
+import com.ecommerce.config.WriteMinimizingSessionRepository.TrackedSession;
+import com.ecommerce.dto.ProductViewDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WriteMinimizingSessionRepositoryTest {
+
+  private static final String CART = "scopedTarget.shoppingCart";
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private FindByIndexNameSessionRepository<Session> delegate;
+  private WriteMinimizingSessionRepository repository;
+  private MapSession stored;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    delegate = mock(FindByIndexNameSessionRepository.class);
+    repository = new WriteMinimizingSessionRepository(delegate, Duration.ofMinutes(1),
+        meterRegistry);
+    stored = Mockito.spy(new MapSession("session-1"));
+    stored.setLastAccessedTime(Instant.parse("2026-01-01T10:00:00Z"));
+    stored.setAttribute(CART, new ShoppingCart());
+    Mockito.clearInvocations(stored);
+    when(delegate.findById("session-1")).thenReturn(stored);
+  }
+
+  @Test
+  void whenUntouchedCartIsPutBack_thenAttributeIsNotWritten() {
+    TrackedSession session = repository.findById("session-1");
+
+    ShoppingCart cart = session.getAttribute(CART);
+    session.setAttribute(CART, cart);
+    repository.save(session);
+
+    verify(stored, never()).setAttribute(anyString(), any());
+    assertThat(meterRegistry.counter("ecommerce.session.writes.skipped", "reason", "unchanged")
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  void whenCartIsModified_thenAttributeIsWritten() {
+    TrackedSession session = repository.findById("session-1");
+
+    ShoppingCart cart = session.getAttribute(CART);
+    cart.addItem(new ProductViewDto(1L, "Laptop", "Laptop", 5, new BigDecimal("999.99"),
+        BigDecimal.ZERO, 0, 0), 1);
+    session.setAttribute(CART, cart);
+    repository.save(session);
+
+    verify(stored).setAttribute(CART, cart);
+    assertThat(meterRegistry.counter("ecommerce.session.writes", "kind", "attribute").count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.summary("ecommerce.session.writes.per.request").totalAmount())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void whenUntrackedAttributeIsRead_thenItIsNotSerialized() {
+    SerializationCounter context = new SerializationCounter();
+    stored.setAttribute("SPRING_SECURITY_CONTEXT", context);
+    Mockito.clearInvocations(stored);
+    TrackedSession session = repository.findById("session-1");
+
+    session.getAttribute("SPRING_SECURITY_CONTEXT");
+    session.getAttribute("SPRING_SECURITY_CONTEXT");
+    repository.save(session);
+
+    assertThat(context.serializations).isZero();
+    verify(stored, never()).setAttribute(anyString(), any());
+  }
+
+  @Test
+  void whenModifiedCartIsWritten_thenLaterPutInSameRequestIsSkipped() {
+    TrackedSession session = repository.findById("session-1");
+
+    ShoppingCart cart = session.getAttribute(CART);
+    cart.clear();
+    cart.addItem(new ProductViewDto(1L, "Laptop", "Laptop", 5, new BigDecimal("999.99"),
+        BigDecimal.ZERO, 0, 0), 1);
+    session.setAttribute(CART, cart);
+    session.setAttribute(CART, cart);
+
+    verify(stored).setAttribute(CART, cart);
+    assertThat(cart.isModified()).isFalse();
+  }
+
+  @Test
+  void whenLastAccessIsWithinThrottle_thenSessionRowIsNotTouched() {
+    TrackedSession session = repository.findById("session-1");
+
+    session.setLastAccessedTime(Instant.parse("2026-01-01T10:00:30Z"));
+    repository.save(session);
+
+    verify(stored, never()).setLastAccessedTime(any());
+    assertThat(meterRegistry.summary("ecommerce.session.writes.per.request").totalAmount())
+        .isZero();
+  }
+
+  @Test
+  void whenLastAccessIsPastThrottle_thenSessionRowIsTouched() {
+    TrackedSession session = repository.findById("session-1");
+
+    Instant now = Instant.parse("2026-01-01T10:01:00Z");
+    session.setLastAccessedTime(now);
+    repository.save(session);
+
+    verify(stored).setLastAccessedTime(now);
+    verify(delegate).save(stored);
+    assertThat(meterRegistry.counter("ecommerce.session.writes", "kind", "touched").count())
+        .isEqualTo(1);
+  }
+
+  private static class SerializationCounter implements Serializable {
+    private transient int serializations;
+
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+      serializations++;
+      out.defaultWriteObject();
+    }
+  }
+}